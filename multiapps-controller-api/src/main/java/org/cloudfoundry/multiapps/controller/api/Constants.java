@@ -34,6 +34,8 @@ public class Constants {
 
         public static final String LAST = "last";
         public static final String STATE = "state";
+        public static final String OFFSET = "offset";
+        public static final String AFTER = "after";
     }
 
     public static class Resources {
@@ -65,6 +67,7 @@ public class Constants {
         public static final String OPERATION_LOGS = OPERATION + "/logs";
         public static final String OPERATION_LOG_CONTENT = OPERATION_LOGS + "/{" + PathVariables.LOG_ID + "}/content";
         public static final String OPERATION_ACTIONS = OPERATION + "/actions";
+        public static final String OPERATION_MESSAGES = OPERATION + "/messages";
 
     }
 
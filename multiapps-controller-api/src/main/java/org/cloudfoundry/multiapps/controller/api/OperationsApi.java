@@ -11,6 +11,7 @@ import org.cloudfoundry.multiapps.controller.api.Constants.QueryVariables;
 import org.cloudfoundry.multiapps.controller.api.Constants.RequestVariables;
 import org.cloudfoundry.multiapps.controller.api.Constants.Resources;
 import org.cloudfoundry.multiapps.controller.api.model.Log;
+import org.cloudfoundry.multiapps.controller.api.model.Message;
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -79,10 +82,25 @@ public class OperationsApi {
 
         }) }, tags = {})
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = String.class) })
-    public ResponseEntity<String> getOperationLogContent(@PathVariable(PathVariables.SPACE_GUID) String spaceGuid,
-                                                         @PathVariable(PathVariables.OPERATION_ID) String operationId,
-                                                         @PathVariable(PathVariables.LOG_ID) String logId) {
-        return delegate.getOperationLogContent(spaceGuid, operationId, logId);
+    public ResponseEntity<StreamingResponseBody>
+           getOperationLogContent(@PathVariable(PathVariables.SPACE_GUID) String spaceGuid,
+                                  @PathVariable(PathVariables.OPERATION_ID) String operationId,
+                                  @PathVariable(PathVariables.LOG_ID) String logId,
+                                  @ApiParam(value = "Returns only the content after the specified number of bytes. The content before it never changes, so the offset plus the number of returned bytes can be used to get only the content logged after that") @RequestParam(name = QueryVariables.OFFSET, required = false) Long offset) {
+        return delegate.getOperationLogContent(spaceGuid, operationId, logId, offset);
+    }
+
+    @GetMapping(path = Endpoints.OPERATION_MESSAGES, produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE })
+    @ApiOperation(value = "", nickname = "getMtaOperationMessages", notes = "Waits for and retrieves the new messages of Multi-Target Application operation ", response = Message.class, responseContainer = "List", authorizations = {
+        @Authorization(value = "oauth2", scopes = {
+
+        }) }, tags = {})
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = Message.class, responseContainer = "List") })
+    public DeferredResult<ResponseEntity<List<Message>>>
+           getOperationMessages(@PathVariable(PathVariables.SPACE_GUID) String spaceGuid,
+                                @PathVariable(PathVariables.OPERATION_ID) String operationId,
+                                @ApiParam(value = "Returns only the messages with IDs greater than the specified one ") @RequestParam(name = QueryVariables.AFTER, required = false) Long after) {
+        return delegate.getOperationMessages(spaceGuid, operationId, after);
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE })
@@ -5,8 +5,11 @@ import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 
 import org.cloudfoundry.multiapps.controller.api.model.Log;
+import org.cloudfoundry.multiapps.controller.api.model.Message;
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface OperationsApiService {
 
@@ -20,7 +23,9 @@ public interface OperationsApiService {
 
     ResponseEntity<List<Log>> getOperationLogs(String spaceGuid, String operationId);
 
-    ResponseEntity<String> getOperationLogContent(String spaceGuid, String operationId, String logId);
+    ResponseEntity<StreamingResponseBody> getOperationLogContent(String spaceGuid, String operationId, String logId, Long offset);
+
+    DeferredResult<ResponseEntity<List<Message>>> getOperationMessages(String spaceGuid, String operationId, Long after);
 
     ResponseEntity<Operation> startOperation(HttpServletRequest request, String spaceGuid, Operation operation);
 
@@ -99,7 +99,9 @@ public final class Messages {
     public static final String ORG_NAME_NOT_SPECIFIED = "Org name is not specified in the environment.";
     public static final String DEPLOY_SERVICE_URL_NOT_SPECIFIED = "Deploy service URL is not specified in the environment.";
     public static final String INVALID_SUPPORT_COMPONENTS = "Invalid SUPPORT_COMPONENTS \"{0}\"";
+    public static final String ERROR_NOTIFYING_LISTENER_ABOUT_PROGRESS_MESSAGES_OF_PROCESS_0 = "Error while notifying a listener about the progress messages of process \"{0}\"";
     public static final String INCOMPATIBLE_PARAMETERS = "Module \"{0}\" has parameters {1} that will be replaced by \"{2}\" due to inconsistency";
+    public static final String AUDIT_LOG_EVENTS_DROPPED = "{0} events of audit log \"{1}\" were dropped, because its queue was full";
 
     // Info messages
     public static final String PLATFORMS_NOT_SPECIFIED = "No platforms are specified in the environment.";
@@ -147,7 +149,7 @@ public final class Messages {
     public static final String AUDIT_LOG_ABOUT_TO_PERFORM_ACTION_WITH_PARAMS = "About to perform action \"{0}\" with parameters \"{1}\"";
     public static final String AUDIT_LOG_ACTION_SUCCESS = "Successfully performed action \"{0}\"";
     public static final String AUDIT_LOG_ACTION_FAILURE = "Failed to perform action \"{0}\"";
-    public static final String AUDIT_LOGGING_FAILED = "Failed to write message to the audit log";
+    public static final String AUDIT_LOGGING_FAILED = "Failed to write messages to the audit log";
     public static final String AUDIT_LOG_CONFIG = "Deploy service configuration \"{0}\": {1}";
     public static final String AUDIT_LOG_UPDATE_CONFIG = "Updating configuration \"{0}\"";
     public static final String AUDIT_LOG_CREATE_CONFIG = "Creating configuration \"{0}\" \"{1}\"";
@@ -172,6 +174,21 @@ public final class Messages {
     public static final String MICROMETER_BATCH_SIZE = "Micrometer batch size: {0}";
     public static final String DB_TRANSACTION_TIMEOUT = "Database transaction timeout: {0} seconds";
     public static final String SNAKEYAML_MAX_ALIASES_FOR_COLLECTIONS = "SnakeYaml max aliases for collections: {0}";
+    public static final String USE_FILE_TABLE_AS_OBJECT_STORE_INDEX = "Use file table as object store index: {0}";
+    public static final String OBJECT_STORE_TRANSFER_THREADS = "Object store transfer threads: {0}";
+    public static final String OBJECT_STORE_TRANSFER_POOL_SIZE = "Object store transfer pool size: {0}";
+    public static final String COMPOSITE_FILE_READING_THREADS = "Composite file reading threads: {0}";
+    public static final String USE_CONTENT_ADDRESSED_FILE_STORAGE = "Use content-addressed file storage: {0}";
+    public static final String COMPRESS_JSON_BINARY_VARIABLES = "Compress JSON binary variables: {0}";
+    public static final String MAX_PARALLEL_MODULE_DEPLOYMENTS = "Max parallel module deployments: {0}";
+    public static final String CLOUD_CONTROLLER_CALLS_THREADS = "Cloud Controller calls threads: {0}";
+    public static final String AUDIT_LOG_QUEUE_CAPACITY = "Audit log queue capacity: {0}";
+    public static final String AUDIT_LOG_BATCH_SIZE = "Audit log batch size: {0}";
+    public static final String AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS = "Audit log flush interval in milliseconds: {0}";
+    public static final String DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL = "Drop audit log events when queue is full: {0}";
+    public static final String AUTHENTICATION_CACHE_TIME_IN_SECONDS = "Authentication cache time in seconds: {0}";
+    public static final String ASYNC_REQUESTS_THREADS = "Async requests threads: {0}";
+    public static final String ASYNC_REQUESTS_TIMEOUT_IN_SECONDS = "Async requests timeout in seconds: {0}";
 
     // Debug messages
     public static final String DEPLOYMENT_DESCRIPTOR = "Deployment descriptor: {0}";
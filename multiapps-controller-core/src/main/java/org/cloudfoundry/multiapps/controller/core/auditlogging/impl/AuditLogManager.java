@@ -1,20 +1,24 @@
 package org.cloudfoundry.multiapps.controller.core.auditlogging.impl;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.sql.DataSource;
 
 import org.apache.log4j.Logger;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.UserInfoProvider;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.impl.DBAppender.LogEventAdapter;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 
 class AuditLogManager {
 
-    private static final String AUDIT_LOG_INSERT_STATEMENT = "INSERT INTO AUDIT_LOG (USER, MODIFIED, CATEGORY, SEVERITY, MESSAGE) VALUES (?, ?, ?, ?, ?)";
+    static final String AUDIT_LOG_INSERT_STATEMENT = "INSERT INTO AUDIT_LOG (USER, MODIFIED, CATEGORY, SEVERITY, MESSAGE) VALUES (?, ?, ?, ?, ?)";
 
-    private static final LogEventAdapter EVENT_ADAPTER = (category, event, userInfo, stmt) -> {
+    static final LogEventAdapter EVENT_ADAPTER = (category, event, userInfo, stmt) -> {
         stmt.setString(1, userInfo == null ? null : userInfo.getName());
-        stmt.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+        // The events are written asynchronously, so the time of writing is not the time of the event:
+        stmt.setTimestamp(2, new Timestamp(event.getTimeStamp()));
         stmt.setString(3, category);
         stmt.setString(4, event.getLevel()
                                .toString());
@@ -24,6 +28,8 @@ class AuditLogManager {
 
     private final AuditLoggingExceptionHandler exceptionHandler = new AuditLoggingExceptionHandler();
 
+    private final List<DBAppender> auditLogAppenders = new ArrayList<>();
+
     private Logger securityLogger = null;
 
     private final Logger configLogger;
@@ -42,26 +48,36 @@ class AuditLogManager {
         return actionLogger;
     }
 
-    Exception getException() {
-        return exceptionHandler.getException();
-    }
-
-    AuditLogManager(DataSource dataSource, UserInfoProvider userInfoProvider) {
-        securityLogger = setUpLogger(dataSource, userInfoProvider, "SECURITY");
-        configLogger = setUpLogger(dataSource, userInfoProvider, "CONFIG");
-        actionLogger = setUpLogger(dataSource, userInfoProvider, "ACTION");
+    AuditLogManager(DataSource dataSource, UserInfoProvider userInfoProvider, ApplicationConfiguration configuration) {
+        securityLogger = setUpLogger(dataSource, userInfoProvider, configuration, "SECURITY");
+        configLogger = setUpLogger(dataSource, userInfoProvider, configuration, "CONFIG");
+        actionLogger = setUpLogger(dataSource, userInfoProvider, configuration, "ACTION");
     }
 
-    private Logger setUpLogger(DataSource dataSource, UserInfoProvider userInfoProvider, String name) {
+    private Logger setUpLogger(DataSource dataSource, UserInfoProvider userInfoProvider, ApplicationConfiguration configuration,
+                               String name) {
         Logger logger = Logger.getLogger(name);
-        DBAppender auditLogAppender = new DBAppender(dataSource,
+        DBAppender auditLogAppender = new DBAppender(name,
+                                                     dataSource,
                                                      AUDIT_LOG_INSERT_STATEMENT,
                                                      EVENT_ADAPTER,
                                                      exceptionHandler,
-                                                     userInfoProvider);
-        auditLogAppender.setName(name);
+                                                     userInfoProvider,
+                                                     configuration);
         logger.addAppender(auditLogAppender);
+        auditLogAppenders.add(auditLogAppender);
         return logger;
     }
 
+    /**
+     * Writes the queued audit log events to the database and stops the appenders.
+     */
+    void close() {
+        for (DBAppender auditLogAppender : auditLogAppenders) {
+            Logger.getLogger(auditLogAppender.getName())
+                  .removeAppender(auditLogAppender);
+            auditLogAppender.close();
+        }
+    }
+
 }
@@ -1,20 +1,19 @@
 package org.cloudfoundry.multiapps.controller.core.auditlogging.impl;
 
+import org.apache.log4j.Logger;
+import org.cloudfoundry.multiapps.controller.core.Messages;
+
+/**
+ * Reports the batches of audit log events, which could not be written to the database. It is called by the writer threads of the
+ * appenders, since the threads logging the events do not wait for them to be written.
+ */
 class AuditLoggingExceptionHandler implements DBAppender.ExceptionHandler {
 
-    private Exception exception;
+    private static final Logger LOGGER = Logger.getLogger(AuditLoggingExceptionHandler.class);
 
     @Override
     public void handleException(Exception e) {
-        this.setException(e);
-    }
-
-    Exception getException() {
-        return exception;
-    }
-
-    void setException(Exception exception) {
-        this.exception = exception;
+        LOGGER.error(Messages.AUDIT_LOGGING_FAILED, e);
     }
 
 }
@@ -10,15 +10,17 @@ import org.apache.log4j.Logger;
 import org.cloudfoundry.multiapps.controller.core.Messages;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.AuditLoggingFacade;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.UserInfoProvider;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.mta.model.AuditableConfiguration;
 
 public class AuditLoggingFacadeSLImpl implements AuditLoggingFacade {
 
-    private static final Logger LOGGER = Logger.getLogger(AuditLoggingFacadeSLImpl.class);
+    public static final String METRICS_PREFIX = "multiapps.audit.log.";
+
     private final AuditLogManager auditLogManager;
 
-    public AuditLoggingFacadeSLImpl(DataSource dataSource, UserInfoProvider userInfoProvider) {
-        this.auditLogManager = new AuditLogManager(dataSource, userInfoProvider);
+    public AuditLoggingFacadeSLImpl(DataSource dataSource, UserInfoProvider userInfoProvider, ApplicationConfiguration configuration) {
+        this.auditLogManager = new AuditLogManager(dataSource, userInfoProvider, configuration);
     }
 
     @Override
@@ -76,15 +78,13 @@ public class AuditLoggingFacadeSLImpl implements AuditLoggingFacade {
         writeMessage(auditLogManager.getConfigLogger(), message, Level.INFO);
     }
 
+    public void close() {
+        auditLogManager.close();
+    }
+
     private void writeMessage(Logger logger, String message, Level level) {
-        Exception loggingException = null;
-        synchronized (auditLogManager) {
-            logger.log(level, message);
-            loggingException = auditLogManager.getException();
-        }
-        if (loggingException != null) {
-            LOGGER.error(Messages.AUDIT_LOGGING_FAILED, loggingException);
-        }
+        // The message is written asynchronously, so failures to write it are reported by the writer thread:
+        logger.log(level, message);
     }
 
 }
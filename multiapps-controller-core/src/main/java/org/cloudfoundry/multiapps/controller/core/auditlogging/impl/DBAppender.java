@@ -1,18 +1,49 @@
 package org.cloudfoundry.multiapps.controller.core.auditlogging.impl;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
+import org.apache.log4j.Logger;
 import org.apache.log4j.spi.LoggingEvent;
+import org.cloudfoundry.multiapps.controller.core.Messages;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.UserInfoProvider;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.core.util.UserInfo;
+import org.cloudfoundry.multiapps.controller.persistence.util.SqlQueryExecutor;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Writes audit log events to the database asynchronously, so that the threads, which log them, do not wait for the database. The events
+ * are put in a bounded queue and are inserted in batches by a dedicated thread, either when a batch is full or when the flush interval
+ * has passed. When the queue is full, the events are either dropped or the logging threads wait for free space in the queue, depending on
+ * the configuration. The queued events are written when the appender is closed.
+ */
 class DBAppender extends org.apache.log4j.AppenderSkeleton implements org.apache.log4j.Appender {
 
+    static final String METRICS_PREFIX = AuditLoggingFacadeSLImpl.METRICS_PREFIX;
+
+    private static final Logger LOGGER = Logger.getLogger(DBAppender.class);
+
+    private static final String THREAD_NAME_PREFIX = "audit-log-writer-";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long CLOSE_TIMEOUT_IN_SECONDS = 30;
+    // Wakes up the writer thread, when the appender is closed, so that it does not wait for the end of the flush interval:
+    private static final AuditLogEvent CLOSE_EVENT = new AuditLogEvent(null, null);
+
     interface LogEventAdapter {
         void eventToStatement(String category, LoggingEvent event, UserInfo userInfo, PreparedStatement statement) throws SQLException;
     }
@@ -21,28 +52,141 @@ class DBAppender extends org.apache.log4j.AppenderSkeleton implements org.apache
         void handleException(Exception e);
     }
 
-    private final DataSource dataSource;
+    private final SqlQueryExecutor sqlQueryExecutor;
     private final LogEventAdapter eventAdapter;
     private final String sql;
     private final ExceptionHandler exceptionHandler;
     private final UserInfoProvider userInfoProvider;
+    private final BlockingQueue<AuditLogEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalInMillis;
+    private final boolean dropEventsWhenQueueIsFull;
+    private final Counter droppedEventsCounter;
+    private final Timer batchTimer;
+    private final Thread writerThread;
+    private volatile boolean running = true;
 
-    DBAppender(DataSource dataSource, String sql, LogEventAdapter eventAdapter, ExceptionHandler exceptionHandler,
-               UserInfoProvider userInfoProvider) {
-        this.dataSource = Objects.requireNonNull(dataSource);
+    DBAppender(String name, DataSource dataSource, String sql, LogEventAdapter eventAdapter, ExceptionHandler exceptionHandler,
+               UserInfoProvider userInfoProvider, ApplicationConfiguration configuration) {
+        this(name, dataSource, sql, eventAdapter, exceptionHandler, userInfoProvider, configuration, Metrics.globalRegistry);
+    }
+
+    DBAppender(String name, DataSource dataSource, String sql, LogEventAdapter eventAdapter, ExceptionHandler exceptionHandler,
+               UserInfoProvider userInfoProvider, ApplicationConfiguration configuration, MeterRegistry meterRegistry) {
+        setName(name);
+        this.sqlQueryExecutor = new SqlQueryExecutor(Objects.requireNonNull(dataSource));
         this.sql = Objects.requireNonNull(sql);
         this.eventAdapter = Objects.requireNonNull(eventAdapter);
         this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
         this.userInfoProvider = userInfoProvider;
+        this.queue = new ArrayBlockingQueue<>(configuration.getAuditLogQueueCapacity());
+        this.batchSize = configuration.getAuditLogBatchSize();
+        this.flushIntervalInMillis = configuration.getAuditLogFlushIntervalInMillis();
+        this.dropEventsWhenQueueIsFull = configuration.shouldDropAuditLogEventsWhenQueueIsFull();
+        Tags tags = Tags.of("category", name);
+        this.droppedEventsCounter = meterRegistry.counter(METRICS_PREFIX + "dropped.events", tags);
+        this.batchTimer = meterRegistry.timer(METRICS_PREFIX + "batch.duration", tags);
+        meterRegistry.gauge(METRICS_PREFIX + "queue.size", tags, queue, BlockingQueue::size);
+        this.writerThread = new Thread(this::writeEvents, THREAD_NAME_PREFIX + name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
     }
 
     @Override
     protected void append(LoggingEvent event) {
-        try (Connection connection = dataSource.getConnection(); PreparedStatement stmt = connection.prepareStatement(sql)) {
-            eventAdapter.eventToStatement(getName(), event, userInfoProvider.getUserInfo(), stmt);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            exceptionHandler.handleException(e);
+        // The user is known only in the thread, which logs the event:
+        AuditLogEvent auditLogEvent = new AuditLogEvent(event, userInfoProvider.getUserInfo());
+        if (dropEventsWhenQueueIsFull) {
+            if (!queue.offer(auditLogEvent)) {
+                droppedEventsCounter.increment();
+            }
+            return;
+        }
+        try {
+            queue.put(auditLogEvent);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            droppedEventsCounter.increment();
+        }
+    }
+
+    private void writeEvents() {
+        List<AuditLogEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            collectBatch(batch);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<AuditLogEvent> batch) {
+        long flushTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalInMillis);
+        while (batch.size() < batchSize) {
+            long timeUntilFlush = flushTime - System.nanoTime();
+            if (timeUntilFlush <= 0 || (!running && queue.isEmpty())) {
+                return;
+            }
+            AuditLogEvent event = pollQueue(timeUntilFlush);
+            if (event == null || event == CLOSE_EVENT) {
+                return;
+            }
+            batch.add(event);
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.remove(CLOSE_EVENT)) {
+                return;
+            }
+        }
+    }
+
+    private AuditLogEvent pollQueue(long timeoutInNanos) {
+        try {
+            return queue.poll(timeoutInNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // The remaining events are written before the thread exits:
+            running = false;
+            return queue.poll();
+        }
+    }
+
+    private void writeBatch(List<AuditLogEvent> batch) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                long startTime = System.nanoTime();
+                insertBatch(batch);
+                batchTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                return;
+            } catch (SQLException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS || !sleepBeforeRetry()) {
+                    exceptionHandler.handleException(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void insertBatch(List<AuditLogEvent> batch) throws SQLException {
+        // The batch is inserted in a single transaction, so that a retry does not duplicate events:
+        sqlQueryExecutor.execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (AuditLogEvent auditLogEvent : batch) {
+                    eventAdapter.eventToStatement(getName(), auditLogEvent.event, auditLogEvent.userInfo, statement);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    private boolean sleepBeforeRetry() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(flushIntervalInMillis);
+            return true;
+        } catch (InterruptedException e) {
+            running = false;
+            return false;
         }
     }
 
@@ -53,7 +197,36 @@ class DBAppender extends org.apache.log4j.AppenderSkeleton implements org.apache
 
     @Override
     public void close() {
-        // Nothing to free here, connections are released to pool after being used
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        running = false;
+        queue.offer(CLOSE_EVENT);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_IN_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        long droppedEvents = (long) droppedEventsCounter.count();
+        if (droppedEvents > 0) {
+            LOGGER.warn(MessageFormat.format(Messages.AUDIT_LOG_EVENTS_DROPPED, droppedEvents, getName()));
+        }
+    }
+
+    private static class AuditLogEvent {
+
+        private final LoggingEvent event;
+        private final UserInfo userInfo;
+
+        AuditLogEvent(LoggingEvent event, UserInfo userInfo) {
+            this.event = event;
+            this.userInfo = userInfo;
+        }
+
     }
 
 }
@@ -0,0 +1,17 @@
+package org.cloudfoundry.multiapps.controller.core.changes;
+
+import org.cloudfoundry.multiapps.controller.persistence.changes.AbstractIndexSQLChange;
+
+public class IndexSpaceIdAndStartedAtOfOperationChange extends AbstractIndexSQLChange {
+
+    @Override
+    protected String getQuery() {
+        return "CREATE INDEX CONCURRENTLY IDX_OPERATION_SPACE_ID_STARTED_AT ON OPERATION(SPACE_ID, STARTED_AT, PROCESS_ID)";
+    }
+
+    @Override
+    protected String getIndexName() {
+        return "IDX_OPERATION_SPACE_ID_STARTED_AT";
+    }
+
+}
@@ -29,16 +29,28 @@ public interface OperationQuery extends Query<Operation, OperationQuery> {
 
     OperationQuery endedAfter(Date endedAfter);
 
+    /**
+     * Selects the operations, which come before the one with the given start time and process ID, when ordered by start time and then
+     * by process ID. Used to fetch the next page of operations ordered by {@link #orderByStartTime(OrderDirection)} in descending order.
+     */
+    OperationQuery startedBefore(Date startedAt, String processId);
+
     OperationQuery inNonFinalState();
 
     OperationQuery inFinalState();
 
     OperationQuery withStateAnyOf(List<Operation.State> states);
 
+    OperationQuery inNonFinalStateOrWithStateAnyOf(List<Operation.State> states);
+
     OperationQuery orderByProcessId(OrderDirection orderDirection);
 
     OperationQuery orderByEndTime(OrderDirection orderDirection);
 
+    /**
+     * Orders the operations by start time and then by process ID, so that the order is stable even for operations started at the same
+     * time.
+     */
     OperationQuery orderByStartTime(OrderDirection orderDirection);
 
 }
\ No newline at end of file
@@ -10,16 +10,23 @@ import javax.persistence.criteria.Root;
 
 public class QueryCriteria {
 
-    private final Map<String, QueryAttributeRestriction<?>> attributeRestrictions = new HashMap<>();
+    private final Map<String, QueryRestriction> restrictions = new HashMap<>();
 
     public void addRestriction(QueryAttributeRestriction<?> attributeRestriction) {
-        attributeRestrictions.put(attributeRestriction.getAttribute(), attributeRestriction);
+        addRestriction(attributeRestriction.getAttribute(), attributeRestriction::satisfiedBy);
+    }
+
+    /**
+     * Adds a restriction, which may involve several attributes. A restriction replaces any previously added one with the same name.
+     */
+    public void addRestriction(String name, QueryRestriction restriction) {
+        restrictions.put(name, restriction);
     }
 
     public <E> List<Predicate> toQueryPredicates(Root<E> root) {
-        return attributeRestrictions.values()
-                                    .stream()
-                                    .map(attributeRestriction -> attributeRestriction.satisfiedBy(root))
-                                    .collect(Collectors.toList());
+        return restrictions.values()
+                           .stream()
+                           .map(restriction -> restriction.satisfiedBy(root))
+                           .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,10 @@
+package org.cloudfoundry.multiapps.controller.core.persistence.query.criteria;
+
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+public interface QueryRestriction {
+
+    Predicate satisfiedBy(Root<?> root);
+
+}
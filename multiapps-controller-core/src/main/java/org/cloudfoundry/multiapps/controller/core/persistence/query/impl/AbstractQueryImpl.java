@@ -1,12 +1,16 @@
 package org.cloudfoundry.multiapps.controller.core.persistence.query.impl;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -22,7 +26,7 @@ public abstract class AbstractQueryImpl<R, T extends Query<R, T>> implements Que
     private Integer limit;
     private Integer offset;
     private OrderDirection orderDirection;
-    private String orderAttribute;
+    private List<String> orderAttributes = Collections.emptyList();
 
     public AbstractQueryImpl(EntityManager entityManager) {
         this.entityManager = entityManager;
@@ -42,7 +46,14 @@ public abstract class AbstractQueryImpl<R, T extends Query<R, T>> implements Que
     }
 
     protected T setOrder(String orderAttribute, OrderDirection orderDirection) {
-        this.orderAttribute = orderAttribute;
+        return setOrder(Collections.singletonList(orderAttribute), orderDirection);
+    }
+
+    /**
+     * Orders the results by the first of the given attributes and then by each of the next ones, when the previous ones are equal.
+     */
+    protected T setOrder(List<String> orderAttributes, OrderDirection orderDirection) {
+        this.orderAttributes = orderAttributes;
         this.orderDirection = orderDirection;
         return getSelf();
     }
@@ -57,13 +68,20 @@ public abstract class AbstractQueryImpl<R, T extends Query<R, T>> implements Que
     }
 
     private <E> CriteriaQuery<E> applyOrder(CriteriaQuery<E> criteriaQuery, Root<E> root) {
-        if (orderAttribute == null) {
+        if (orderAttributes.isEmpty()) {
             return criteriaQuery;
         }
+        List<Order> orders = orderAttributes.stream()
+                                            .map(orderAttribute -> toOrder(root, orderAttribute))
+                                            .collect(Collectors.toList());
+        return criteriaQuery.orderBy(orders);
+    }
+
+    private Order toOrder(Root<?> root, String orderAttribute) {
         if (orderDirection == OrderDirection.ASCENDING) {
-            return criteriaQuery.orderBy(criteriaBuilder.asc(root.get(orderAttribute)));
+            return criteriaBuilder.asc(root.get(orderAttribute));
         }
-        return criteriaQuery.orderBy(criteriaBuilder.desc(root.get(orderAttribute)));
+        return criteriaBuilder.desc(root.get(orderAttribute));
     }
 
     protected <E> TypedQuery<E> createQuery(EntityManager entityManager, QueryCriteria criteria, Class<E> dtoClass) {
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.Expression;
 
 import org.cloudfoundry.multiapps.controller.core.model.HistoricOperationEvent;
 import org.cloudfoundry.multiapps.controller.core.model.HistoricOperationEvent.EventType;
@@ -46,6 +47,16 @@ public class HistoricOperationEventQueryImpl extends AbstractQueryImpl<HistoricO
         return this;
     }
 
+    @Override
+    public HistoricOperationEventQuery processIdAnyOf(List<String> processIds) {
+        queryCriteria.addRestriction(ImmutableQueryAttributeRestriction.<List<String>> builder()
+                                                                       .attribute(AttributeNames.PROCESS_ID)
+                                                                       .condition(Expression::in)
+                                                                       .value(processIds)
+                                                                       .build());
+        return this;
+    }
+
     @Override
     public HistoricOperationEventQuery type(EventType type) {
         queryCriteria.addRestriction(ImmutableQueryAttributeRestriction.builder()
@@ -1,11 +1,14 @@
 package org.cloudfoundry.multiapps.controller.core.persistence.query.impl;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
 
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
 import org.cloudfoundry.multiapps.controller.api.model.ProcessType;
@@ -19,6 +22,8 @@ import org.cloudfoundry.multiapps.controller.core.persistence.service.OperationS
 
 public class OperationQueryImpl extends AbstractQueryImpl<Operation, OperationQuery> implements OperationQuery {
 
+    private static final String STARTED_BEFORE_OPERATION = "startedBeforeOperation";
+
     private final QueryCriteria queryCriteria = new QueryCriteria();
     private final OperationMapper operationFactory;
 
@@ -127,6 +132,19 @@ public class OperationQueryImpl extends AbstractQueryImpl<Operation, OperationQu
         return this;
     }
 
+    @Override
+    public OperationQuery startedBefore(Date startedAt, String processId) {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder();
+        queryCriteria.addRestriction(STARTED_BEFORE_OPERATION, root -> {
+            Path<Date> startedAtAttribute = root.get(AttributeNames.STARTED_AT);
+            Path<String> processIdAttribute = root.get(AttributeNames.PROCESS_ID);
+            return criteriaBuilder.or(criteriaBuilder.lessThan(startedAtAttribute, startedAt),
+                                      criteriaBuilder.and(criteriaBuilder.equal(startedAtAttribute, startedAt),
+                                                          criteriaBuilder.lessThan(processIdAttribute, processId)));
+        });
+        return this;
+    }
+
     @Override
     public OperationQuery inNonFinalState() {
         queryCriteria.addRestriction(ImmutableQueryAttributeRestriction.builder()
@@ -157,6 +175,17 @@ public class OperationQueryImpl extends AbstractQueryImpl<Operation, OperationQu
         return this;
     }
 
+    @Override
+    public OperationQuery inNonFinalStateOrWithStateAnyOf(List<Operation.State> states) {
+        queryCriteria.addRestriction(ImmutableQueryAttributeRestriction.<List<Operation.State>> builder()
+                                                                       .attribute(AttributeNames.FINAL_STATE)
+                                                                       .condition((attribute, value) -> getCriteriaBuilder().or(attribute.isNull(),
+                                                                                                                                attribute.in(value)))
+                                                                       .value(states)
+                                                                       .build());
+        return this;
+    }
+
     @Override
     public OperationQuery orderByProcessId(OrderDirection orderDirection) {
         setOrder(OperationDto.AttributeNames.PROCESS_ID, orderDirection);
@@ -171,7 +200,7 @@ public class OperationQueryImpl extends AbstractQueryImpl<Operation, OperationQu
 
     @Override
     public OperationQuery orderByStartTime(OrderDirection orderDirection) {
-        setOrder(OperationDto.AttributeNames.STARTED_AT, orderDirection);
+        setOrder(Arrays.asList(OperationDto.AttributeNames.STARTED_AT, OperationDto.AttributeNames.PROCESS_ID), orderDirection);
         return this;
     }
 
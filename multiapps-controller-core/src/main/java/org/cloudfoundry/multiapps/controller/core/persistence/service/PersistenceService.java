@@ -1,7 +1,9 @@
 package org.cloudfoundry.multiapps.controller.core.persistence.service;
 
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -38,6 +40,29 @@ public abstract class PersistenceService<T, D extends DtoWithPrimaryKey<P>, P> {
         return null;
     }
 
+    /**
+     * Adds all objects in a single transaction. The objects are persisted in their order.
+     * 
+     * @return the added objects, as they were persisted (e.g. with their generated IDs)
+     */
+    public List<T> addAll(List<T> objects) {
+        List<D> dtos = objects.stream()
+                              .map(getPersistenceObjectMapper()::toDto)
+                              .collect(Collectors.toList());
+        try {
+            executeInTransaction(manager -> {
+                dtos.forEach(manager::persist);
+                return dtos;
+            });
+        } catch (RollbackException e) {
+            LOGGER.error(MessageFormat.format(Messages.ERROR_WHILE_EXECUTING_TRANSACTION, e.getMessage()));
+            throw e;
+        }
+        return dtos.stream()
+                   .map(getPersistenceObjectMapper()::fromDto)
+                   .collect(Collectors.toList());
+    }
+
     public T update(T oldObject, T newObject) {
         D oldDto = getPersistenceObjectMapper().toDto(oldObject);
         D newDto = getPersistenceObjectMapper().toDto(newObject);
@@ -1,6 +1,15 @@
 package org.cloudfoundry.multiapps.controller.core.persistence.service;
 
+import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -16,14 +25,20 @@ import org.cloudfoundry.multiapps.controller.core.persistence.query.impl.Progres
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableProgressMessage;
 import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage;
 import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage.ProgressMessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Primary;
 
 @Named
 public class ProgressMessageService extends PersistenceService<ProgressMessage, ProgressMessageDto, Long> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressMessageService.class);
+
     @Inject
     protected ProgressMessageMapper progressMessageMapper;
 
+    private final ConcurrentMap<String, Set<Consumer<List<ProgressMessage>>>> listeners = new ConcurrentHashMap<>();
+
     @Inject
     public ProgressMessageService(EntityManagerFactory entityManagerFactory) {
         super(entityManagerFactory);
@@ -33,6 +48,55 @@ public class ProgressMessageService extends PersistenceService<ProgressMessage,
         return new ProgressMessageQueryImpl(createEntityManager(), progressMessageMapper);
     }
 
+    @Override
+    public ProgressMessage add(ProgressMessage progressMessage) {
+        ProgressMessage addedProgressMessage = super.add(progressMessage);
+        notifyListeners(Collections.singletonList(addedProgressMessage));
+        return addedProgressMessage;
+    }
+
+    @Override
+    public List<ProgressMessage> addAll(List<ProgressMessage> progressMessages) {
+        List<ProgressMessage> addedProgressMessages = super.addAll(progressMessages);
+        notifyListeners(addedProgressMessages);
+        return addedProgressMessages;
+    }
+
+    /**
+     * Registers a listener, which is notified with the progress messages of the given process, after they are added and committed by this
+     * instance of the application. Listeners are called by the thread adding the messages, so they must return quickly.
+     */
+    public void addListener(String processId, Consumer<List<ProgressMessage>> listener) {
+        listeners.computeIfAbsent(processId, key -> ConcurrentHashMap.newKeySet())
+                 .add(listener);
+    }
+
+    public void removeListener(String processId, Consumer<List<ProgressMessage>> listener) {
+        listeners.computeIfPresent(processId, (key, processListeners) -> {
+            processListeners.remove(listener);
+            return processListeners.isEmpty() ? null : processListeners;
+        });
+    }
+
+    private void notifyListeners(List<ProgressMessage> addedProgressMessages) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Map<String, List<ProgressMessage>> progressMessagesByProcess = addedProgressMessages.stream()
+                                                                                            .collect(Collectors.groupingBy(ProgressMessage::getProcessId));
+        progressMessagesByProcess.forEach(this::notifyListeners);
+    }
+
+    private void notifyListeners(String processId, List<ProgressMessage> addedProgressMessages) {
+        for (Consumer<List<ProgressMessage>> listener : listeners.getOrDefault(processId, Collections.emptySet())) {
+            try {
+                listener.accept(addedProgressMessages);
+            } catch (RuntimeException e) {
+                LOGGER.warn(MessageFormat.format(Messages.ERROR_NOTIFYING_LISTENER_ABOUT_PROGRESS_MESSAGES_OF_PROCESS_0, processId), e);
+            }
+        }
+    }
+
     @Override
     protected ProgressMessageDto merge(ProgressMessageDto existingProgressMessage, ProgressMessageDto newProgressMessage) {
         super.merge(existingProgressMessage, newProgressMessage);
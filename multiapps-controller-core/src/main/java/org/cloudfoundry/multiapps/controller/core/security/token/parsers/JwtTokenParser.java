@@ -1,6 +1,8 @@
 package org.cloudfoundry.multiapps.controller.core.security.token.parsers;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -19,20 +21,41 @@ import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 
+/**
+ * Verifies the signatures of JWT tokens with the token key of the UAA. The signature verifiers are built once per key and are reused for
+ * all tokens signed with it. Only the verifiers of the current and the previous key are kept, so that tokens signed shortly before a
+ * rotation are still accepted, but tokens signed with retired keys are not. When the verification of a token fails, the key is read again, because the UAA may have rotated it, but at
+ * most once per refresh interval and by one thread at a time, so that a burst of invalid tokens does not become a burst of calls to the
+ * UAA.
+ */
 @Named
 @Order(0)
 public class JwtTokenParser implements TokenParser {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtTokenParser.class);
 
+    static final long DEFAULT_TOKEN_KEY_REFRESH_INTERVAL_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String KEY_ID_HEADER = "kid";
+
     protected final TokenFactory tokenFactory;
-    private TokenKey tokenKey;
     private final UAAClient uaaClient;
+    private final long tokenKeyRefreshIntervalInNanos;
+    private final Map<String, SignatureVerifier> signatureVerifiersByKeyId = new ConcurrentHashMap<>();
+    private final Object tokenKeyRefreshLock = new Object();
+    private volatile SignatureVerifier currentSignatureVerifier;
+    private String currentKeyId;
+    private long lastTokenKeyRefreshTime;
 
     @Inject
     public JwtTokenParser(TokenFactory tokenFactory, UAAClient uaaClient) {
+        this(tokenFactory, uaaClient, DEFAULT_TOKEN_KEY_REFRESH_INTERVAL_IN_MILLIS);
+    }
+
+    protected JwtTokenParser(TokenFactory tokenFactory, UAAClient uaaClient, long tokenKeyRefreshIntervalInMillis) {
         this.tokenFactory = tokenFactory;
         this.uaaClient = uaaClient;
+        this.tokenKeyRefreshIntervalInNanos = TimeUnit.MILLISECONDS.toNanos(tokenKeyRefreshIntervalInMillis);
     }
 
     @Override
@@ -48,46 +71,97 @@ public class JwtTokenParser implements TokenParser {
     }
 
     protected void verifyToken(String tokenString) {
+        SignatureVerifier signatureVerifier = getSignatureVerifier(tokenString);
         try {
-            decodeAndVerify(tokenString);
+            decodeAndVerify(tokenString, signatureVerifier);
         } catch (InvalidTokenException e) {
-            refreshTokenKey();
-            decodeAndVerify(tokenString);
+            SignatureVerifier refreshedSignatureVerifier = refreshSignatureVerifier(signatureVerifier);
+            if (refreshedSignatureVerifier == signatureVerifier) {
+                throw e;
+            }
+            decodeAndVerify(tokenString, refreshedSignatureVerifier);
         }
-
     }
 
-    private void decodeAndVerify(String tokenString) {
+    private void decodeAndVerify(String tokenString, SignatureVerifier signatureVerifier) {
         try {
-            JwtHelper.decodeAndVerify(tokenString, getSignatureVerifier(getCachedTokenKey()));
+            JwtHelper.decodeAndVerify(tokenString, signatureVerifier);
         } catch (InvalidSignatureException e) {
             throw new InvalidTokenException(e.getMessage(), e);
         }
     }
 
-    private TokenKey getCachedTokenKey() {
-        if (tokenKey == null) {
-            synchronized (this) {
-                if (tokenKey == null) {
+    private SignatureVerifier getSignatureVerifier(String tokenString) {
+        SignatureVerifier signatureVerifier = getCurrentSignatureVerifier();
+        String keyId = getKeyId(tokenString);
+        if (keyId == null) {
+            return signatureVerifier;
+        }
+        return signatureVerifiersByKeyId.getOrDefault(keyId, signatureVerifier);
+    }
+
+    private SignatureVerifier getCurrentSignatureVerifier() {
+        if (currentSignatureVerifier == null) {
+            synchronized (tokenKeyRefreshLock) {
+                if (currentSignatureVerifier == null) {
                     refreshTokenKey();
                 }
             }
         }
-        return tokenKey;
+        return currentSignatureVerifier;
+    }
+
+    private static String getKeyId(String tokenString) {
+        try {
+            return JwtHelper.headers(tokenString)
+                            .get(KEY_ID_HEADER);
+        } catch (IllegalArgumentException e) {
+            // The token is malformed, so its verification will fail anyway:
+            return null;
+        }
+    }
+
+    private SignatureVerifier refreshSignatureVerifier(SignatureVerifier failedSignatureVerifier) {
+        synchronized (tokenKeyRefreshLock) {
+            // Another thread may have refreshed the key, while this one was waiting for the lock:
+            if (currentSignatureVerifier != failedSignatureVerifier || !isTokenKeyRefreshAllowed()) {
+                return currentSignatureVerifier;
+            }
+            refreshTokenKey();
+            return currentSignatureVerifier;
+        }
+    }
+
+    private boolean isTokenKeyRefreshAllowed() {
+        return System.nanoTime() - lastTokenKeyRefreshTime >= tokenKeyRefreshIntervalInNanos;
     }
 
     private void refreshTokenKey() {
-        tokenKey = readTokenKey();
+        TokenKey tokenKey = readTokenKey();
+        lastTokenKeyRefreshTime = System.nanoTime();
+        String keyId = tokenKey.getKeyId() != null ? tokenKey.getKeyId() : tokenKey.getValue();
+        if (keyId.equals(currentKeyId)) {
+            return;
+        }
+        SignatureVerifier signatureVerifier = signatureVerifiersByKeyId.get(keyId);
+        if (signatureVerifier == null) {
+            signatureVerifier = createSignatureVerifier(tokenKey.getAlgorithm(), tokenKey.getValue());
+        }
+        String previousKeyId = currentKeyId;
+        signatureVerifiersByKeyId.keySet()
+                                 .removeIf(id -> !id.equals(previousKeyId));
+        signatureVerifiersByKeyId.put(keyId, signatureVerifier);
+        currentKeyId = keyId;
+        currentSignatureVerifier = signatureVerifier;
     }
 
-    private static SignatureVerifier getSignatureVerifier(TokenKey tokenKey) {
-        String alg = tokenKey.getAlgorithm();
+    protected SignatureVerifier createSignatureVerifier(String alg, String value) {
         SignatureVerifier verifier;
         // TODO: Find or implement a factory, which would support other algorithms like SHA384withRSA, SHA512withRSA and HmacSHA512.
         if (alg.equals("SHA256withRSA") || alg.equals("RS256"))
-            verifier = new RsaVerifier(tokenKey.getValue());
+            verifier = new RsaVerifier(value);
         else if (alg.equals("HMACSHA256") || alg.equals("HS256"))
-            verifier = new MacSigner(tokenKey.getValue());
+            verifier = new MacSigner(value);
         else
             throw new InternalAuthenticationServiceException("Unsupported verifier algorithm " + alg);
         return verifier;
@@ -100,17 +174,20 @@ public class JwtTokenParser implements TokenParser {
         if (value == null || alg == null) {
             throw new InternalAuthenticationServiceException("Response from /token_key does not contain a key value or an algorithm");
         }
-        return new TokenKey(value.toString(), alg.toString());
+        Object kid = tokenKeyResponse.get(KEY_ID_HEADER);
+        return new TokenKey(value.toString(), alg.toString(), kid != null ? kid.toString() : null);
 
     }
 
     private static class TokenKey {
         private final String value;
         private final String algorithm;
+        private final String keyId;
 
-        TokenKey(String value, String algorithm) {
+        TokenKey(String value, String algorithm, String keyId) {
             this.value = value;
             this.algorithm = algorithm;
+            this.keyId = keyId;
         }
 
         String getValue() {
@@ -120,5 +197,9 @@ public class JwtTokenParser implements TokenParser {
         String getAlgorithm() {
             return algorithm;
         }
+
+        String getKeyId() {
+            return keyId;
+        }
     }
 }
@@ -91,6 +91,21 @@ public class ApplicationConfiguration {
     static final String CFG_MICROMETER_BATCH_SIZE = "MICROMETER_BATCH_SIZE";
     static final String CFG_DB_TRANSACTION_TIMEOUT_IN_SECONDS = "DB_TRANSACTION_TIMEOUT_IN_SECONDS";
     static final String CFG_SNAKEYAML_MAX_ALIASES_FOR_COLLECTIONS = "SNAKEYAML_MAX_ALIASES_FOR_COLLECTIONS";
+    static final String CFG_USE_FILE_TABLE_AS_OBJECT_STORE_INDEX = "USE_FILE_TABLE_AS_OBJECT_STORE_INDEX";
+    static final String CFG_OBJECT_STORE_TRANSFER_THREADS = "OBJECT_STORE_TRANSFER_THREADS";
+    static final String CFG_OBJECT_STORE_TRANSFER_POOL_SIZE = "OBJECT_STORE_TRANSFER_POOL_SIZE";
+    static final String CFG_COMPOSITE_FILE_READING_THREADS = "COMPOSITE_FILE_READING_THREADS";
+    static final String CFG_USE_CONTENT_ADDRESSED_FILE_STORAGE = "USE_CONTENT_ADDRESSED_FILE_STORAGE";
+    static final String CFG_COMPRESS_JSON_BINARY_VARIABLES = "COMPRESS_JSON_BINARY_VARIABLES";
+    static final String CFG_MAX_PARALLEL_MODULE_DEPLOYMENTS = "MAX_PARALLEL_MODULE_DEPLOYMENTS";
+    static final String CFG_CLOUD_CONTROLLER_CALLS_THREADS = "CLOUD_CONTROLLER_CALLS_THREADS";
+    static final String CFG_AUDIT_LOG_QUEUE_CAPACITY = "AUDIT_LOG_QUEUE_CAPACITY";
+    static final String CFG_AUDIT_LOG_BATCH_SIZE = "AUDIT_LOG_BATCH_SIZE";
+    static final String CFG_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS = "AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS";
+    static final String CFG_DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL = "DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL";
+    static final String CFG_AUTHENTICATION_CACHE_TIME_IN_SECONDS = "AUTHENTICATION_CACHE_TIME_IN_SECONDS";
+    static final String CFG_ASYNC_REQUESTS_THREADS = "ASYNC_REQUESTS_THREADS";
+    static final String CFG_ASYNC_REQUESTS_TIMEOUT_IN_SECONDS = "ASYNC_REQUESTS_TIMEOUT_IN_SECONDS";
 
     private static final List<String> VCAP_APPLICATION_URIS_KEYS = Arrays.asList("full_application_uris", "application_uris", "uris");
 
@@ -134,6 +149,21 @@ public class ApplicationConfiguration {
     // Transaction timeout must be greater than Flowable process step timeout because lower value limit execution of the whole process step.
     public static final int DEFAULT_DB_TRANSACTION_TIMEOUT_IN_SECONDS = (int) TimeUnit.MINUTES.toSeconds(60);
     public static final int DEFAULT_SNAKEYAML_MAX_ALIASES_FOR_COLLECTIONS = 50;
+    public static final Boolean DEFAULT_USE_FILE_TABLE_AS_OBJECT_STORE_INDEX = false;
+    public static final int DEFAULT_OBJECT_STORE_TRANSFER_THREADS = 4;
+    public static final int DEFAULT_OBJECT_STORE_TRANSFER_POOL_SIZE = 32;
+    public static final int DEFAULT_COMPOSITE_FILE_READING_THREADS = 16;
+    public static final Boolean DEFAULT_USE_CONTENT_ADDRESSED_FILE_STORAGE = false;
+    public static final Boolean DEFAULT_COMPRESS_JSON_BINARY_VARIABLES = false;
+    public static final int DEFAULT_MAX_PARALLEL_MODULE_DEPLOYMENTS = Integer.MAX_VALUE;
+    public static final int DEFAULT_CLOUD_CONTROLLER_CALLS_THREADS = 16;
+    public static final int DEFAULT_AUDIT_LOG_QUEUE_CAPACITY = 10000;
+    public static final int DEFAULT_AUDIT_LOG_BATCH_SIZE = 100;
+    public static final int DEFAULT_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS = 500;
+    public static final Boolean DEFAULT_DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL = false;
+    public static final int DEFAULT_AUTHENTICATION_CACHE_TIME_IN_SECONDS = 60;
+    public static final int DEFAULT_ASYNC_REQUESTS_THREADS = 8;
+    public static final int DEFAULT_ASYNC_REQUESTS_TIMEOUT_IN_SECONDS = 300;
     protected final Environment environment;
 
     // Cached configuration settings:
@@ -183,6 +213,21 @@ public class ApplicationConfiguration {
     private Integer micrometerBatchSize;
     private Integer dbTransactionTimeoutInSeconds;
     private Integer snakeyamlMaxAliasesForCollections;
+    private Boolean useFileTableAsObjectStoreIndex;
+    private Integer objectStoreTransferThreads;
+    private Integer objectStoreTransferPoolSize;
+    private Integer compositeFileReadingThreads;
+    private Boolean useContentAddressedFileStorage;
+    private Boolean compressJsonBinaryVariables;
+    private Integer maxParallelModuleDeployments;
+    private Integer cloudControllerCallsThreads;
+    private Integer auditLogQueueCapacity;
+    private Integer auditLogBatchSize;
+    private Integer auditLogFlushIntervalInMillis;
+    private Boolean dropAuditLogEventsWhenQueueIsFull;
+    private Integer authenticationCacheTimeInSeconds;
+    private Integer asyncRequestsThreads;
+    private Integer asyncRequestsTimeoutInSeconds;
 
     public ApplicationConfiguration() {
         this(new Environment());
@@ -223,6 +268,21 @@ public class ApplicationConfiguration {
         getAuditLogClientKeepAlive();
         getFssCacheUpdateTimeoutMinutes();
         getSnakeyamlMaxAliasesForCollections();
+        shouldUseFileTableAsObjectStoreIndex();
+        getObjectStoreTransferThreads();
+        getObjectStoreTransferPoolSize();
+        getCompositeFileReadingThreads();
+        shouldUseContentAddressedFileStorage();
+        shouldCompressJsonBinaryVariables();
+        getMaxParallelModuleDeployments();
+        getCloudControllerCallsThreads();
+        getAuditLogQueueCapacity();
+        getAuditLogBatchSize();
+        getAuditLogFlushIntervalInMillis();
+        shouldDropAuditLogEventsWhenQueueIsFull();
+        getAuthenticationCacheTimeInSeconds();
+        getAsyncRequestsThreads();
+        getAsyncRequestsTimeoutInSeconds();
     }
 
     protected AuditLoggingFacade getAuditLoggingFacade() {
@@ -249,7 +309,14 @@ public class ApplicationConfiguration {
                                            CFG_FLOWABLE_JOB_EXECUTOR_MAX_THREADS, CFG_FLOWABLE_JOB_EXECUTOR_QUEUE_CAPACITY,
                                            CFG_AUDIT_LOG_CLIENT_KEEP_ALIVE, CFG_CONTROLLER_CLIENT_CONNECTION_POOL_SIZE,
                                            CFG_CONTROLLER_CLIENT_THREAD_POOL_SIZE, CFG_DB_TRANSACTION_TIMEOUT_IN_SECONDS,
-                                           CFG_SNAKEYAML_MAX_ALIASES_FOR_COLLECTIONS));
+                                           CFG_SNAKEYAML_MAX_ALIASES_FOR_COLLECTIONS, CFG_USE_FILE_TABLE_AS_OBJECT_STORE_INDEX,
+                                           CFG_OBJECT_STORE_TRANSFER_THREADS, CFG_OBJECT_STORE_TRANSFER_POOL_SIZE,
+                                           CFG_COMPOSITE_FILE_READING_THREADS, CFG_USE_CONTENT_ADDRESSED_FILE_STORAGE,
+                                           CFG_COMPRESS_JSON_BINARY_VARIABLES,
+                                           CFG_MAX_PARALLEL_MODULE_DEPLOYMENTS, CFG_CLOUD_CONTROLLER_CALLS_THREADS,
+                                           CFG_AUDIT_LOG_QUEUE_CAPACITY, CFG_AUDIT_LOG_BATCH_SIZE, CFG_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS,
+                                           CFG_DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL, CFG_AUTHENTICATION_CACHE_TIME_IN_SECONDS,
+                                           CFG_ASYNC_REQUESTS_THREADS, CFG_ASYNC_REQUESTS_TIMEOUT_IN_SECONDS));
     }
 
     public Configuration getFileConfiguration() {
@@ -571,6 +638,111 @@ public class ApplicationConfiguration {
         return snakeyamlMaxAliasesForCollections;
     }
 
+    public Boolean shouldUseFileTableAsObjectStoreIndex() {
+        if (useFileTableAsObjectStoreIndex == null) {
+            useFileTableAsObjectStoreIndex = shouldUseFileTableAsObjectStoreIndexFromEnvironment();
+        }
+        return useFileTableAsObjectStoreIndex;
+    }
+
+    public int getObjectStoreTransferThreads() {
+        if (objectStoreTransferThreads == null) {
+            objectStoreTransferThreads = getObjectStoreTransferThreadsFromEnvironment();
+        }
+        return objectStoreTransferThreads;
+    }
+
+    public int getObjectStoreTransferPoolSize() {
+        if (objectStoreTransferPoolSize == null) {
+            objectStoreTransferPoolSize = getObjectStoreTransferPoolSizeFromEnvironment();
+        }
+        return objectStoreTransferPoolSize;
+    }
+
+    public int getCompositeFileReadingThreads() {
+        if (compositeFileReadingThreads == null) {
+            compositeFileReadingThreads = getCompositeFileReadingThreadsFromEnvironment();
+        }
+        return compositeFileReadingThreads;
+    }
+
+    public Boolean shouldUseContentAddressedFileStorage() {
+        if (useContentAddressedFileStorage == null) {
+            useContentAddressedFileStorage = shouldUseContentAddressedFileStorageFromEnvironment();
+        }
+        return useContentAddressedFileStorage;
+    }
+
+    public Boolean shouldCompressJsonBinaryVariables() {
+        if (compressJsonBinaryVariables == null) {
+            compressJsonBinaryVariables = shouldCompressJsonBinaryVariablesFromEnvironment();
+        }
+        return compressJsonBinaryVariables;
+    }
+
+    public int getMaxParallelModuleDeployments() {
+        if (maxParallelModuleDeployments == null) {
+            maxParallelModuleDeployments = getMaxParallelModuleDeploymentsFromEnvironment();
+        }
+        return maxParallelModuleDeployments;
+    }
+
+    public int getCloudControllerCallsThreads() {
+        if (cloudControllerCallsThreads == null) {
+            cloudControllerCallsThreads = getCloudControllerCallsThreadsFromEnvironment();
+        }
+        return cloudControllerCallsThreads;
+    }
+
+    public int getAuditLogQueueCapacity() {
+        if (auditLogQueueCapacity == null) {
+            auditLogQueueCapacity = getAuditLogQueueCapacityFromEnvironment();
+        }
+        return auditLogQueueCapacity;
+    }
+
+    public int getAuditLogBatchSize() {
+        if (auditLogBatchSize == null) {
+            auditLogBatchSize = getAuditLogBatchSizeFromEnvironment();
+        }
+        return auditLogBatchSize;
+    }
+
+    public int getAuditLogFlushIntervalInMillis() {
+        if (auditLogFlushIntervalInMillis == null) {
+            auditLogFlushIntervalInMillis = getAuditLogFlushIntervalInMillisFromEnvironment();
+        }
+        return auditLogFlushIntervalInMillis;
+    }
+
+    public Boolean shouldDropAuditLogEventsWhenQueueIsFull() {
+        if (dropAuditLogEventsWhenQueueIsFull == null) {
+            dropAuditLogEventsWhenQueueIsFull = shouldDropAuditLogEventsWhenQueueIsFullFromEnvironment();
+        }
+        return dropAuditLogEventsWhenQueueIsFull;
+    }
+
+    public int getAuthenticationCacheTimeInSeconds() {
+        if (authenticationCacheTimeInSeconds == null) {
+            authenticationCacheTimeInSeconds = getAuthenticationCacheTimeInSecondsFromEnvironment();
+        }
+        return authenticationCacheTimeInSeconds;
+    }
+
+    public int getAsyncRequestsThreads() {
+        if (asyncRequestsThreads == null) {
+            asyncRequestsThreads = getAsyncRequestsThreadsFromEnvironment();
+        }
+        return asyncRequestsThreads;
+    }
+
+    public int getAsyncRequestsTimeoutInSeconds() {
+        if (asyncRequestsTimeoutInSeconds == null) {
+            asyncRequestsTimeoutInSeconds = getAsyncRequestsTimeoutInSecondsFromEnvironment();
+        }
+        return asyncRequestsTimeoutInSeconds;
+    }
+
     private URL getControllerUrlFromEnvironment() {
         String controllerUrlString = environment.getString("CF_API");
         if(controllerUrlString == null || controllerUrlString.isEmpty()){
@@ -934,6 +1106,97 @@ public class ApplicationConfiguration {
         return snakeyamlMaxAliasesForCollections;
     }
 
+    private Boolean shouldUseFileTableAsObjectStoreIndexFromEnvironment() {
+        Boolean value = environment.getBoolean(CFG_USE_FILE_TABLE_AS_OBJECT_STORE_INDEX, DEFAULT_USE_FILE_TABLE_AS_OBJECT_STORE_INDEX);
+        LOGGER.info(format(Messages.USE_FILE_TABLE_AS_OBJECT_STORE_INDEX, value));
+        return value;
+    }
+
+    private Integer getObjectStoreTransferThreadsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_OBJECT_STORE_TRANSFER_THREADS, DEFAULT_OBJECT_STORE_TRANSFER_THREADS);
+        LOGGER.info(format(Messages.OBJECT_STORE_TRANSFER_THREADS, value));
+        return value;
+    }
+
+    private Integer getObjectStoreTransferPoolSizeFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_OBJECT_STORE_TRANSFER_POOL_SIZE, DEFAULT_OBJECT_STORE_TRANSFER_POOL_SIZE);
+        LOGGER.info(format(Messages.OBJECT_STORE_TRANSFER_POOL_SIZE, value));
+        return value;
+    }
+
+    private Integer getCompositeFileReadingThreadsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_COMPOSITE_FILE_READING_THREADS, DEFAULT_COMPOSITE_FILE_READING_THREADS);
+        LOGGER.info(format(Messages.COMPOSITE_FILE_READING_THREADS, value));
+        return value;
+    }
+
+    private Boolean shouldUseContentAddressedFileStorageFromEnvironment() {
+        Boolean value = environment.getBoolean(CFG_USE_CONTENT_ADDRESSED_FILE_STORAGE, DEFAULT_USE_CONTENT_ADDRESSED_FILE_STORAGE);
+        LOGGER.info(format(Messages.USE_CONTENT_ADDRESSED_FILE_STORAGE, value));
+        return value;
+    }
+
+    private Boolean shouldCompressJsonBinaryVariablesFromEnvironment() {
+        Boolean value = environment.getBoolean(CFG_COMPRESS_JSON_BINARY_VARIABLES, DEFAULT_COMPRESS_JSON_BINARY_VARIABLES);
+        LOGGER.info(format(Messages.COMPRESS_JSON_BINARY_VARIABLES, value));
+        return value;
+    }
+
+    private Integer getMaxParallelModuleDeploymentsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_MAX_PARALLEL_MODULE_DEPLOYMENTS, DEFAULT_MAX_PARALLEL_MODULE_DEPLOYMENTS);
+        LOGGER.info(format(Messages.MAX_PARALLEL_MODULE_DEPLOYMENTS, value));
+        return value;
+    }
+
+    private Integer getCloudControllerCallsThreadsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_CLOUD_CONTROLLER_CALLS_THREADS, DEFAULT_CLOUD_CONTROLLER_CALLS_THREADS);
+        LOGGER.info(format(Messages.CLOUD_CONTROLLER_CALLS_THREADS, value));
+        return value;
+    }
+
+    private Integer getAuditLogQueueCapacityFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_AUDIT_LOG_QUEUE_CAPACITY, DEFAULT_AUDIT_LOG_QUEUE_CAPACITY);
+        LOGGER.info(format(Messages.AUDIT_LOG_QUEUE_CAPACITY, value));
+        return value;
+    }
+
+    private Integer getAuditLogBatchSizeFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_AUDIT_LOG_BATCH_SIZE, DEFAULT_AUDIT_LOG_BATCH_SIZE);
+        LOGGER.info(format(Messages.AUDIT_LOG_BATCH_SIZE, value));
+        return value;
+    }
+
+    private Integer getAuditLogFlushIntervalInMillisFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS, DEFAULT_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS);
+        LOGGER.info(format(Messages.AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS, value));
+        return value;
+    }
+
+    private Boolean shouldDropAuditLogEventsWhenQueueIsFullFromEnvironment() {
+        Boolean value = environment.getBoolean(CFG_DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL, DEFAULT_DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL);
+        LOGGER.info(format(Messages.DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL, value));
+        return value;
+    }
+
+    private Integer getAuthenticationCacheTimeInSecondsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_AUTHENTICATION_CACHE_TIME_IN_SECONDS,
+                                                       DEFAULT_AUTHENTICATION_CACHE_TIME_IN_SECONDS);
+        LOGGER.info(format(Messages.AUTHENTICATION_CACHE_TIME_IN_SECONDS, value));
+        return value;
+    }
+
+    private Integer getAsyncRequestsThreadsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_ASYNC_REQUESTS_THREADS, DEFAULT_ASYNC_REQUESTS_THREADS);
+        LOGGER.info(format(Messages.ASYNC_REQUESTS_THREADS, value));
+        return value;
+    }
+
+    private Integer getAsyncRequestsTimeoutInSecondsFromEnvironment() {
+        Integer value = environment.getPositiveInteger(CFG_ASYNC_REQUESTS_TIMEOUT_IN_SECONDS, DEFAULT_ASYNC_REQUESTS_TIMEOUT_IN_SECONDS);
+        LOGGER.info(format(Messages.ASYNC_REQUESTS_TIMEOUT_IN_SECONDS, value));
+        return value;
+    }
+
     public Boolean isInternalEnvironment() {
         return environment.getBoolean(SAP_INTERNAL_DELIVERY, DEFAULT_SAP_INTERNAL_DELIVERY);
     }
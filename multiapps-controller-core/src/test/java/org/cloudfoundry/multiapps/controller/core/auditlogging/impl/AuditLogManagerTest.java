@@ -1,7 +1,11 @@
 package org.cloudfoundry.multiapps.controller.core.auditlogging.impl;
 
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.List;
 
@@ -10,9 +14,11 @@ import javax.sql.DataSource;
 import org.apache.log4j.Logger;
 import org.cloudfoundry.multiapps.common.util.TestDataSourceProvider;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.UserInfoProvider;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 public class AuditLogManagerTest {
 
@@ -25,22 +31,25 @@ public class AuditLogManagerTest {
     @BeforeEach
     public void setUp() throws Exception {
         testDataSource = TestDataSourceProvider.getDataSource(AUDIT_LOG_CHANGELOG_LOCATION);
-        auditLogManager = new AuditLogManager(testDataSource, createTestUserInfoProvider());
+        deleteAuditLogEntries();
+        auditLogManager = new AuditLogManager(testDataSource, createTestUserInfoProvider(), createTestConfiguration());
     }
 
     @AfterEach
     public void tearDown() throws Exception {
+        auditLogManager.close();
         testDataSource.getConnection()
                       .close();
     }
 
     @Test
-    public void testAuditLogManager() {
+    public void testAuditLogManager() throws SQLException {
         List<Logger> loggers = loadAuditLoggers();
 
         logMessage(loggers);
+        auditLogManager.close();
 
-        assertNull(auditLogManager.getException());
+        assertEquals(loggers.size(), countAuditLogEntries());
     }
 
     private List<Logger> loadAuditLoggers() {
@@ -51,6 +60,33 @@ public class AuditLogManagerTest {
         loggers.forEach(logger -> logger.info("Test Message"));
     }
 
+    private void deleteAuditLogEntries() throws SQLException {
+        try (Connection connection = testDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM AUDIT_LOG");
+        }
+    }
+
+    private int countAuditLogEntries() throws SQLException {
+        try (Connection connection = testDataSource.getConnection(); Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM AUDIT_LOG")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static ApplicationConfiguration createTestConfiguration() {
+        ApplicationConfiguration configuration = Mockito.mock(ApplicationConfiguration.class);
+        Mockito.when(configuration.getAuditLogQueueCapacity())
+               .thenReturn(ApplicationConfiguration.DEFAULT_AUDIT_LOG_QUEUE_CAPACITY);
+        Mockito.when(configuration.getAuditLogBatchSize())
+               .thenReturn(ApplicationConfiguration.DEFAULT_AUDIT_LOG_BATCH_SIZE);
+        Mockito.when(configuration.getAuditLogFlushIntervalInMillis())
+               .thenReturn(ApplicationConfiguration.DEFAULT_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS);
+        Mockito.when(configuration.shouldDropAuditLogEventsWhenQueueIsFull())
+               .thenReturn(ApplicationConfiguration.DEFAULT_DROP_AUDIT_LOG_EVENTS_WHEN_QUEUE_IS_FULL);
+        return configuration;
+    }
+
     private static UserInfoProvider createTestUserInfoProvider() {
         return () -> null;
     }
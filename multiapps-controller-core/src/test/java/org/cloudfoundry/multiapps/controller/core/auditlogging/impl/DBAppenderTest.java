@@ -0,0 +1,230 @@
+package org.cloudfoundry.multiapps.controller.core.auditlogging.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.cloudfoundry.multiapps.common.util.TestDataSourceProvider;
+import org.cloudfoundry.multiapps.controller.core.auditlogging.impl.DBAppender.ExceptionHandler;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DBAppenderTest {
+
+    private static final String AUDIT_LOG_CHANGELOG_LOCATION = "org/cloudfoundry/multiapps/controller/core/db/changelog/db-changelog.xml";
+    private static final String CATEGORY = "ACTION";
+    private static final int EVENTS_COUNT = 20;
+    private static final int BATCH_SIZE = 10;
+    private static final long DATABASE_LATENCY_IN_MILLIS = 300;
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private ApplicationConfiguration configuration;
+    @Mock
+    private ExceptionHandler exceptionHandler;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DataSource testDataSource;
+    private DBAppender appender;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        testDataSource = TestDataSourceProvider.getDataSource(AUDIT_LOG_CHANGELOG_LOCATION);
+        deleteAuditLogEntries();
+        Mockito.when(dataSource.getConnection())
+               .thenAnswer(invocation -> testDataSource.getConnection());
+        Mockito.when(configuration.getAuditLogQueueCapacity())
+               .thenReturn(ApplicationConfiguration.DEFAULT_AUDIT_LOG_QUEUE_CAPACITY);
+        Mockito.when(configuration.getAuditLogBatchSize())
+               .thenReturn(BATCH_SIZE);
+        Mockito.when(configuration.getAuditLogFlushIntervalInMillis())
+               .thenReturn(ApplicationConfiguration.DEFAULT_AUDIT_LOG_FLUSH_INTERVAL_IN_MILLIS);
+        Mockito.when(configuration.shouldDropAuditLogEventsWhenQueueIsFull())
+               .thenReturn(false);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (appender != null) {
+            appender.close();
+        }
+    }
+
+    @Test
+    public void testLoggingDoesNotWaitForDatabase() throws Exception {
+        addDatabaseLatency(DATABASE_LATENCY_IN_MILLIS);
+        appender = createAppender();
+
+        long startTime = System.nanoTime();
+        logEvents(EVENTS_COUNT);
+        long elapsedTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        appender.close();
+
+        assertTrue(elapsedTimeInMillis < DATABASE_LATENCY_IN_MILLIS,
+                   "Logging took " + elapsedTimeInMillis + " ms, while a database call takes " + DATABASE_LATENCY_IN_MILLIS + " ms");
+        assertEquals(EVENTS_COUNT, countAuditLogEntries());
+        // The events, which are logged while a batch is written, are written together in the next batches:
+        long batchesCount = meterRegistry.get(DBAppender.METRICS_PREFIX + "batch.duration")
+                                         .timer()
+                                         .count();
+        assertTrue(batchesCount <= 3, "The events were written in " + batchesCount + " batches");
+    }
+
+    @Test
+    public void testQueuedEventsAreWrittenOnClose() throws Exception {
+        Mockito.when(configuration.getAuditLogFlushIntervalInMillis())
+               .thenReturn((int) TimeUnit.MINUTES.toMillis(1));
+        appender = createAppender();
+
+        logEvents(EVENTS_COUNT / 4);
+        long startTime = System.nanoTime();
+        appender.close();
+        long elapsedTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertEquals(EVENTS_COUNT / 4, countAuditLogEntries());
+        assertTrue(elapsedTimeInMillis < TimeUnit.SECONDS.toMillis(10), "Closing took " + elapsedTimeInMillis + " ms");
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenQueueIsFull() throws Exception {
+        Mockito.when(configuration.getAuditLogQueueCapacity())
+               .thenReturn(2);
+        // Otherwise the writer thread keeps taking events from the queue, until the batch is full or the flush interval has passed:
+        Mockito.when(configuration.getAuditLogBatchSize())
+               .thenReturn(1);
+        Mockito.when(configuration.shouldDropAuditLogEventsWhenQueueIsFull())
+               .thenReturn(true);
+        CountDownLatch databaseAvailable = new CountDownLatch(1);
+        Mockito.when(dataSource.getConnection())
+               .thenAnswer(invocation -> {
+                   databaseAvailable.await();
+                   return testDataSource.getConnection();
+               });
+        appender = createAppender();
+
+        logEvents(EVENTS_COUNT);
+        double droppedEvents = meterRegistry.get(DBAppender.METRICS_PREFIX + "dropped.events")
+                                            .counter()
+                                            .count();
+        databaseAvailable.countDown();
+        appender.close();
+
+        // At most one event is taken by the writer thread, while the other ones wait in the queue:
+        assertTrue(droppedEvents >= EVENTS_COUNT - 3, "Only " + droppedEvents + " events were dropped");
+        assertEquals(EVENTS_COUNT, countAuditLogEntries() + (int) droppedEvents);
+    }
+
+    @Test
+    public void testLoggingWaitsWhenQueueIsFull() throws Exception {
+        Mockito.when(configuration.getAuditLogQueueCapacity())
+               .thenReturn(2);
+        addDatabaseLatency(DATABASE_LATENCY_IN_MILLIS / 10);
+        appender = createAppender();
+
+        logEvents(EVENTS_COUNT);
+        appender.close();
+
+        assertEquals(EVENTS_COUNT, countAuditLogEntries());
+        assertEquals(0, meterRegistry.get(DBAppender.METRICS_PREFIX + "dropped.events")
+                                     .counter()
+                                     .count());
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        Mockito.when(configuration.getAuditLogFlushIntervalInMillis())
+               .thenReturn(50);
+        Mockito.when(dataSource.getConnection())
+               .thenThrow(new SQLException("Database is not available"))
+               .thenAnswer(invocation -> testDataSource.getConnection());
+        appender = createAppender();
+
+        logEvents(EVENTS_COUNT / 4);
+        appender.close();
+
+        assertEquals(EVENTS_COUNT / 4, countAuditLogEntries());
+        Mockito.verify(exceptionHandler, Mockito.never())
+               .handleException(Mockito.any());
+    }
+
+    @Test
+    public void testFailedBatchIsReportedByWriterThread() throws Exception {
+        Mockito.when(configuration.getAuditLogFlushIntervalInMillis())
+               .thenReturn(50);
+        Mockito.when(dataSource.getConnection())
+               .thenThrow(new SQLException("Database is not available"));
+        AtomicReference<String> reportingThreadName = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            reportingThreadName.set(Thread.currentThread()
+                                          .getName());
+            return null;
+        })
+               .when(exceptionHandler)
+               .handleException(Mockito.any());
+        appender = createAppender();
+
+        logEvents(EVENTS_COUNT / 4);
+        appender.close();
+
+        Mockito.verify(exceptionHandler, Mockito.atLeastOnce())
+               .handleException(Mockito.any(SQLException.class));
+        assertEquals("audit-log-writer-" + CATEGORY, reportingThreadName.get());
+    }
+
+    private DBAppender createAppender() {
+        return new DBAppender(CATEGORY, dataSource, AuditLogManager.AUDIT_LOG_INSERT_STATEMENT, AuditLogManager.EVENT_ADAPTER,
+                              exceptionHandler, () -> null, configuration, meterRegistry);
+    }
+
+    private void addDatabaseLatency(long latencyInMillis) throws SQLException {
+        Mockito.when(dataSource.getConnection())
+               .thenAnswer(invocation -> {
+                   TimeUnit.MILLISECONDS.sleep(latencyInMillis);
+                   return testDataSource.getConnection();
+               });
+    }
+
+    private void logEvents(int eventsCount) {
+        Logger logger = Logger.getLogger(CATEGORY);
+        for (int i = 0; i < eventsCount; i++) {
+            appender.doAppend(new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "Test Message " + i, null));
+        }
+    }
+
+    private void deleteAuditLogEntries() throws SQLException {
+        try (Connection connection = testDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM AUDIT_LOG");
+        }
+    }
+
+    private int countAuditLogEntries() throws SQLException {
+        try (Connection connection = testDataSource.getConnection(); Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM AUDIT_LOG")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+}
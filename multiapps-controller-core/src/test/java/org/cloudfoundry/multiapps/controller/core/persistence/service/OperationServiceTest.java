@@ -18,6 +18,7 @@ import org.cloudfoundry.multiapps.controller.api.model.ImmutableOperation;
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
 import org.cloudfoundry.multiapps.controller.api.model.ProcessType;
 import org.cloudfoundry.multiapps.controller.core.Messages;
+import org.cloudfoundry.multiapps.controller.core.persistence.OrderDirection;
 import org.cloudfoundry.multiapps.controller.core.persistence.query.OperationQuery;
 import org.cloudfoundry.multiapps.controller.core.persistence.service.OperationService.OperationMapper;
 import org.junit.jupiter.api.AfterEach;
@@ -129,6 +130,48 @@ public class OperationServiceTest {
                             operation2);
     }
 
+    @Test
+    public void testQueryInNonFinalStateOrWithStateAnyOf() {
+        Operation operation1 = ImmutableOperation.copyOf(OPERATION_1)
+                                                 .withState(Operation.State.FINISHED);
+        Operation operation2 = ImmutableOperation.copyOf(OPERATION_2)
+                                                 .withState(Operation.State.ABORTED);
+        Operation operation3 = createOperation("3", ProcessType.DEPLOY, "spaceId", "mtaId", "user", false,
+                                               ZonedDateTime.parse("2010-10-11T10:00:00.000Z[UTC]"), null);
+        addOperations(Arrays.asList(operation1, operation2, operation3));
+
+        List<Operation> operations = operationService.createQuery()
+                                                     .inNonFinalStateOrWithStateAnyOf(Collections.singletonList(Operation.State.FINISHED))
+                                                     .orderByStartTime(OrderDirection.ASCENDING)
+                                                     .list();
+
+        assertEquals(Arrays.asList(operation1, operation3), operations);
+    }
+
+    @Test
+    public void testQueryStartedBeforeOperation() {
+        ZonedDateTime startedAt = ZonedDateTime.parse("2010-10-11T10:00:00.000Z[UTC]");
+        Operation operation3 = createOperation("3", ProcessType.DEPLOY, "spaceId", "mtaId", "user", false, startedAt, null);
+        Operation operation4 = createOperation("4", ProcessType.DEPLOY, "spaceId", "mtaId", "user", false, startedAt, null);
+        addOperations(Arrays.asList(OPERATION_1, OPERATION_2, operation3, operation4));
+
+        List<Operation> firstPage = operationService.createQuery()
+                                                    .orderByStartTime(OrderDirection.DESCENDING)
+                                                    .limitOnSelect(3)
+                                                    .list();
+        Operation lastOperationOfFirstPage = firstPage.get(firstPage.size() - 1);
+        List<Operation> secondPage = operationService.createQuery()
+                                                     .startedBefore(toDate(lastOperationOfFirstPage.getStartedAt()),
+                                                                    lastOperationOfFirstPage.getProcessId())
+                                                     .orderByStartTime(OrderDirection.DESCENDING)
+                                                     .limitOnSelect(3)
+                                                     .list();
+
+        // Operations started at the same time are ordered by their process IDs:
+        assertEquals(Arrays.asList(operation4, operation3, OPERATION_2), firstPage);
+        assertEquals(Collections.singletonList(OPERATION_1), secondPage);
+    }
+
     @Test
     public void testQueryInNonFinalState() {
         Operation operation2 = ImmutableOperation.copyOf(OPERATION_2)
@@ -4,9 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -100,6 +103,37 @@ public class ProgressMessageServiceTest {
         testQueryByCriteria((query, message) -> query.text(message.getText()));
     }
 
+    @Test
+    public void testQueryByIdGreaterThan() {
+        List<ProgressMessage> progressMessages = progressMessageService.addAll(Arrays.asList(PROGRESS_MESSAGE_1, PROGRESS_MESSAGE_2));
+
+        List<ProgressMessage> newProgressMessages = progressMessageService.createQuery()
+                                                                          .idGreaterThan(progressMessages.get(0)
+                                                                                                         .getId())
+                                                                          .list();
+
+        assertEquals(1, newProgressMessages.size());
+        assertEquals(progressMessages.get(1)
+                                     .getId(),
+                     newProgressMessages.get(0)
+                                        .getId());
+    }
+
+    @Test
+    public void testListenersAreNotifiedAboutTheMessagesOfTheirProcess() {
+        List<ProgressMessage> notifiedProgressMessages = new ArrayList<>();
+        Consumer<List<ProgressMessage>> listener = notifiedProgressMessages::addAll;
+        progressMessageService.addListener(PROGRESS_MESSAGE_1.getProcessId(), listener);
+
+        ProgressMessage addedProgressMessage = progressMessageService.add(PROGRESS_MESSAGE_1);
+        progressMessageService.addAll(Collections.singletonList(PROGRESS_MESSAGE_2));
+        progressMessageService.removeListener(PROGRESS_MESSAGE_1.getProcessId(), listener);
+        progressMessageService.add(createProgressMessage(3L, PROGRESS_MESSAGE_1.getProcessId(), "taskId", ProgressMessageType.INFO,
+                                                         "text 3", new Date()));
+
+        assertEquals(Collections.singletonList(addedProgressMessage), notifiedProgressMessages);
+    }
+
     private void testQueryByCriteria(ProgressMessageQueryBuilder progressMessageQueryBuilder) {
         addProgressMessages(Arrays.asList(PROGRESS_MESSAGE_1, PROGRESS_MESSAGE_2));
         assertEquals(1, progressMessageQueryBuilder.build(progressMessageService.createQuery(), PROGRESS_MESSAGE_1)
@@ -1,6 +1,20 @@
 package org.cloudfoundry.multiapps.controller.core.security.token;
 
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cloudfoundry.multiapps.common.util.MapUtil;
 import org.cloudfoundry.multiapps.controller.client.uaa.UAAClient;
@@ -12,10 +26,19 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.Mockito;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 
 public class JwtTokenParserTest {
 
+    private static final String ALGORITHM = "RS256";
+    private static final int THREADS = 8;
+    private static final int INVALID_TOKENS_COUNT = 400;
+    private static final long TOKEN_KEY_REFRESH_INTERVAL_IN_MILLIS = 1000;
+
     @Rule
     public final ExpectedException expectedException = ExpectedException.none();
 
@@ -73,6 +96,188 @@ public class JwtTokenParserTest {
         parser.parse("not-important-token-string");
     }
 
+    @Test
+    public void testSignatureVerifierIsReused() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        UAAClient uaaClient = mockUaaClient(keyPair);
+        SignatureVerifiersCountingJwtTokenParser parser = new SignatureVerifiersCountingJwtTokenParser(uaaClient, 0);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tokens.add(createToken(keyPair, "user-" + i));
+        }
+
+        runInParallel(() -> tokens.forEach(token -> Assert.assertNotNull(parser.parse(token))));
+
+        Assert.assertEquals(1, parser.createdSignatureVerifiers.get());
+        Mockito.verify(uaaClient, Mockito.times(1))
+               .readTokenKey();
+    }
+
+    @Test
+    public void testSignatureVerifierIsNotRecreatedWhenTokenKeyIsReadAgain() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        KeyPair otherKeyPair = generateKeyPair();
+        UAAClient uaaClient = mockUaaClient(keyPair);
+        SignatureVerifiersCountingJwtTokenParser parser = new SignatureVerifiersCountingJwtTokenParser(uaaClient, 0);
+
+        Assert.assertNotNull(parser.parse(createToken(keyPair, "user")));
+        expectedException.expect(InvalidTokenException.class);
+        try {
+            parser.parse(createToken(otherKeyPair, "attacker"));
+        } finally {
+            Assert.assertEquals(1, parser.createdSignatureVerifiers.get());
+            Mockito.verify(uaaClient, Mockito.times(2))
+                   .readTokenKey();
+        }
+    }
+
+    @Test
+    public void testBurstOfInvalidTokensDoesNotRefreshTokenKeyWithinRefreshInterval() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        KeyPair otherKeyPair = generateKeyPair();
+        UAAClient uaaClient = mockUaaClient(keyPair);
+        JwtTokenParser parser = new JwtTokenParser(new TokenFactory(), uaaClient);
+        String invalidToken = createToken(otherKeyPair, "attacker");
+        AtomicInteger rejectedTokens = new AtomicInteger();
+
+        runInParallel(() -> {
+            for (int i = 0; i < INVALID_TOKENS_COUNT / THREADS; i++) {
+                try {
+                    parser.parse(invalidToken);
+                } catch (InvalidTokenException e) {
+                    rejectedTokens.incrementAndGet();
+                }
+            }
+        });
+
+        Assert.assertEquals(INVALID_TOKENS_COUNT, rejectedTokens.get());
+        // The key was read less than a refresh interval ago, so it is not read again:
+        Mockito.verify(uaaClient, Mockito.times(1))
+               .readTokenKey();
+    }
+
+    @Test
+    public void testBurstOfInvalidTokensRefreshesTokenKeyOnce() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        KeyPair otherKeyPair = generateKeyPair();
+        UAAClient uaaClient = mockUaaClient(keyPair);
+        JwtTokenParser parser = new JwtTokenParserMock(new TokenFactory(), uaaClient, true, TOKEN_KEY_REFRESH_INTERVAL_IN_MILLIS);
+        String invalidToken = createToken(otherKeyPair, "attacker");
+        Assert.assertNotNull(parser.parse(createToken(keyPair, "user")));
+        TimeUnit.MILLISECONDS.sleep(TOKEN_KEY_REFRESH_INTERVAL_IN_MILLIS);
+        AtomicInteger rejectedTokens = new AtomicInteger();
+
+        runInParallel(() -> {
+            for (int i = 0; i < INVALID_TOKENS_COUNT / THREADS; i++) {
+                try {
+                    parser.parse(invalidToken);
+                } catch (InvalidTokenException e) {
+                    rejectedTokens.incrementAndGet();
+                }
+            }
+        });
+
+        Assert.assertEquals(INVALID_TOKENS_COUNT, rejectedTokens.get());
+        // The initial read of the key and a single refresh, which the other threads wait for instead of reading the key themselves:
+        Mockito.verify(uaaClient, Mockito.times(2))
+               .readTokenKey();
+    }
+
+    @Test
+    public void testRotatedTokenKeyIsRead() throws Exception {
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        UAAClient uaaClient = Mockito.mock(UAAClient.class);
+        Mockito.when(uaaClient.readTokenKey())
+               .thenReturn(createTokenKeyResponse(oldKeyPair, "key-1"))
+               .thenReturn(createTokenKeyResponse(newKeyPair, "key-2"));
+        JwtTokenParser parser = new JwtTokenParserMock(new TokenFactory(), uaaClient, true, 0);
+
+        Assert.assertNotNull(parser.parse(createToken(oldKeyPair, "user")));
+        Assert.assertNotNull(parser.parse(createToken(newKeyPair, "user")));
+        // Tokens signed with the previous key are still verified with its verifier, until they expire:
+        Assert.assertNotNull(parser.parse(createToken(oldKeyPair, "user", "key-1")));
+
+        Mockito.verify(uaaClient, Mockito.times(2))
+               .readTokenKey();
+    }
+
+    @Test
+    public void testRetiredTokenKeyIsNotUsed() throws Exception {
+        KeyPair retiredKeyPair = generateKeyPair();
+        KeyPair previousKeyPair = generateKeyPair();
+        KeyPair currentKeyPair = generateKeyPair();
+        UAAClient uaaClient = Mockito.mock(UAAClient.class);
+        Mockito.when(uaaClient.readTokenKey())
+               .thenReturn(createTokenKeyResponse(retiredKeyPair, "key-1"))
+               .thenReturn(createTokenKeyResponse(previousKeyPair, "key-2"))
+               .thenReturn(createTokenKeyResponse(currentKeyPair, "key-3"));
+        JwtTokenParser parser = new JwtTokenParserMock(new TokenFactory(), uaaClient, true, 0);
+        Assert.assertNotNull(parser.parse(createToken(retiredKeyPair, "user")));
+        Assert.assertNotNull(parser.parse(createToken(previousKeyPair, "user")));
+        Assert.assertNotNull(parser.parse(createToken(currentKeyPair, "user")));
+
+        Assert.assertNotNull(parser.parse(createToken(previousKeyPair, "user", "key-2")));
+        expectedException.expect(InvalidTokenException.class);
+        parser.parse(createToken(retiredKeyPair, "user", "key-1"));
+    }
+
+    private void runInParallel(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private KeyPair generateKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private UAAClient mockUaaClient(KeyPair keyPair) {
+        UAAClient client = Mockito.mock(UAAClient.class);
+        Mockito.when(client.readTokenKey())
+               .thenReturn(createTokenKeyResponse(keyPair, "key-1"));
+        return client;
+    }
+
+    private Map<String, Object> createTokenKeyResponse(KeyPair keyPair, String keyId) {
+        Map<String, Object> tokenKeyResponse = new HashMap<>();
+        tokenKeyResponse.put("alg", ALGORITHM);
+        tokenKeyResponse.put("value", toPem(keyPair));
+        tokenKeyResponse.put("kid", keyId);
+        return tokenKeyResponse;
+    }
+
+    private String toPem(KeyPair keyPair) {
+        return "-----BEGIN PUBLIC KEY-----\n" + Base64.getMimeEncoder()
+                                                        .encodeToString(keyPair.getPublic()
+                                                                               .getEncoded())
+            + "\n-----END PUBLIC KEY-----";
+    }
+
+    private String createToken(KeyPair keyPair, String userName) {
+        return createToken(keyPair, userName, null);
+    }
+
+    private String createToken(KeyPair keyPair, String userName, String keyId) {
+        long expirationTime = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.HOURS.toSeconds(1);
+        String claims = "{\"user_name\":\"" + userName + "\",\"user_id\":\"" + userName + "-id\",\"client_id\":\"cf\",\"exp\":"
+            + expirationTime + ",\"scope\":[\"cloud_controller.read\"]}";
+        Map<String, String> headers = keyId == null ? Collections.emptyMap() : Collections.singletonMap("kid", keyId);
+        return JwtHelper.encode(claims, new RsaSigner((RSAPrivateKey) keyPair.getPrivate()), headers)
+                        .getEncoded();
+    }
+
     private UAAClient mockUaaCLient() {
         return mockUaaCLient(true, null, null);
     }
@@ -107,6 +312,22 @@ public class JwtTokenParserTest {
         return client;
     }
 
+    private static class SignatureVerifiersCountingJwtTokenParser extends JwtTokenParser {
+
+        private final AtomicInteger createdSignatureVerifiers = new AtomicInteger();
+
+        public SignatureVerifiersCountingJwtTokenParser(UAAClient uaaClient, long tokenKeyRefreshIntervalInMillis) {
+            super(new TokenFactory(), uaaClient, tokenKeyRefreshIntervalInMillis);
+        }
+
+        @Override
+        protected SignatureVerifier createSignatureVerifier(String alg, String value) {
+            createdSignatureVerifiers.incrementAndGet();
+            return super.createSignatureVerifier(alg, value);
+        }
+
+    }
+
     private static class JwtTokenParserMock extends JwtTokenParser {
 
         private final boolean shouldVerify;
@@ -120,6 +341,12 @@ public class JwtTokenParserTest {
             this.shouldVerify = shouldVerify;
         }
 
+        public JwtTokenParserMock(TokenFactory tokenFactory, UAAClient uaaClient, boolean shouldVerify,
+                                  long tokenKeyRefreshIntervalInMillis) {
+            super(tokenFactory, uaaClient, tokenKeyRefreshIntervalInMillis);
+            this.shouldVerify = shouldVerify;
+        }
+
         @Override
         protected void verifyToken(String tokenString) {
             if (shouldVerify) {
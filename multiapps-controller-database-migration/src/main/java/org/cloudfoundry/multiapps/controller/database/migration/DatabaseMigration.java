@@ -4,6 +4,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -13,11 +17,13 @@ import org.cloudfoundry.multiapps.controller.database.migration.executor.Databas
 import org.cloudfoundry.multiapps.controller.database.migration.executor.DatabaseTableMigrationExecutor;
 import org.cloudfoundry.multiapps.controller.database.migration.executor.ImmutableDatabaseSequenceMigrationExecutor;
 import org.cloudfoundry.multiapps.controller.database.migration.executor.ImmutableDatabaseTableMigrationExecutor;
+import org.cloudfoundry.multiapps.controller.database.migration.executor.ParallelDatabaseTableMigrationExecutor;
 import org.cloudfoundry.multiapps.controller.database.migration.extractor.DataSourceEnvironmentExtractor;
 
 public class DatabaseMigration {
 
     private final static Logger LOGGER = Logger.getLogger(DatabaseMigration.class);
+    private static final int MAX_PARALLEL_TABLE_MIGRATIONS = 4;
 
     public static void main(String[] args) throws SQLException {
         configureLogger();
@@ -39,9 +45,12 @@ public class DatabaseMigration {
               .stream()
               .forEach(sequenceMigrationExecutor::executeMigration);
 
-        Arrays.asList("configuration_registry", "configuration_subscription")
-              .stream()
-              .forEach(tableMigrationExecutor::executeMigration);
+        // The tables have no foreign keys to each other, so all of them are migrated in parallel:
+        Map<String, List<String>> tablesWithDependencies = new LinkedHashMap<>();
+        tablesWithDependencies.put("configuration_registry", Collections.emptyList());
+        tablesWithDependencies.put("configuration_subscription", Collections.emptyList());
+        new ParallelDatabaseTableMigrationExecutor(tableMigrationExecutor,
+                                                   MAX_PARALLEL_TABLE_MIGRATIONS).executeMigration(tablesWithDependencies);
 
         LOGGER.info("Database migration completed.");
     }
@@ -9,9 +9,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.cloudfoundry.multiapps.controller.database.migration.executor.type.DatabaseTypeSetter;
 import org.cloudfoundry.multiapps.controller.database.migration.executor.type.DatabaseTypeSetterFactory;
+import org.cloudfoundry.multiapps.controller.database.migration.generator.DatabaseTableInsertQueryGenerator;
 import org.cloudfoundry.multiapps.controller.database.migration.metadata.DatabaseTableColumnMetadata;
 import org.cloudfoundry.multiapps.controller.database.migration.metadata.DatabaseTableData;
 import org.cloudfoundry.multiapps.controller.database.migration.metadata.DatabaseTableRowData;
@@ -23,10 +25,18 @@ import org.cloudfoundry.multiapps.controller.persistence.util.SqlQueryExecutor;
 
 public class DatabaseQueryClient {
 
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
     private final SqlQueryExecutor sqlQueryExecutor;
+    private final int batchSize;
 
     public DatabaseQueryClient(SqlQueryExecutor sqlQueryExecutor) {
+        this(sqlQueryExecutor, DEFAULT_BATCH_SIZE);
+    }
+
+    public DatabaseQueryClient(SqlQueryExecutor sqlQueryExecutor, int batchSize) {
         this.sqlQueryExecutor = sqlQueryExecutor;
+        this.batchSize = batchSize;
     }
 
     public long getLastSequenceValue(String sequenceName) throws SQLException {
@@ -61,14 +71,23 @@ public class DatabaseQueryClient {
         });
     }
 
-    public DatabaseTableData extractTableData(String databaseTable) throws SQLException {
-        return sqlQueryExecutor.executeWithAutoCommit(connection -> {
+    /**
+     * Reads the rows of the table through a forward-only cursor and passes them to the consumer in batches, so that the table is never
+     * loaded in memory as a whole.
+     *
+     * @return the number of rows read
+     */
+    public long extractTableData(String databaseTable, DatabaseTableDataConsumer consumer) throws SQLException {
+        // PostgreSQL fetches the rows in portions of the fetch size only outside of auto-commit mode:
+        return sqlQueryExecutor.execute(connection -> {
             PreparedStatement preparedStatement = null;
             ResultSet resultSet = null;
             try {
-                preparedStatement = connection.prepareStatement(String.format("SELECT * FROM %s", databaseTable));
+                preparedStatement = connection.prepareStatement(String.format("SELECT * FROM %s", databaseTable),
+                                                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                preparedStatement.setFetchSize(batchSize);
                 resultSet = preparedStatement.executeQuery();
-                return buildDatabaseTableData(databaseTable, resultSet);
+                return extractTableData(databaseTable, resultSet, consumer);
             } finally {
                 JdbcUtil.closeQuietly(resultSet);
                 JdbcUtil.closeQuietly(preparedStatement);
@@ -76,9 +95,28 @@ public class DatabaseQueryClient {
         });
     }
 
-    private DatabaseTableData buildDatabaseTableData(String databaseTable, ResultSet resultSet) throws SQLException {
+    private long extractTableData(String databaseTable, ResultSet resultSet, DatabaseTableDataConsumer consumer) throws SQLException {
         List<DatabaseTableColumnMetadata> databaseTableColumnsMetadata = parseDatabaseColumnsMetadata(resultSet.getMetaData());
-        List<DatabaseTableRowData> databaseTableRowsData = parseDatabaseRowsData(resultSet, databaseTableColumnsMetadata);
+        List<DatabaseTableRowData> databaseTableRowsData = new ArrayList<>(batchSize);
+        long rowsCount = 0;
+        while (resultSet.next()) {
+            databaseTableRowsData.add(ImmutableDatabaseTableRowData.builder()
+                                                                   .putAllValues(collectRowValues(resultSet, databaseTableColumnsMetadata))
+                                                                   .build());
+            rowsCount++;
+            if (databaseTableRowsData.size() == batchSize) {
+                consumer.accept(buildDatabaseTableData(databaseTable, databaseTableColumnsMetadata, databaseTableRowsData));
+                databaseTableRowsData.clear();
+            }
+        }
+        if (!databaseTableRowsData.isEmpty()) {
+            consumer.accept(buildDatabaseTableData(databaseTable, databaseTableColumnsMetadata, databaseTableRowsData));
+        }
+        return rowsCount;
+    }
+
+    private DatabaseTableData buildDatabaseTableData(String databaseTable, List<DatabaseTableColumnMetadata> databaseTableColumnsMetadata,
+                                                     List<DatabaseTableRowData> databaseTableRowsData) {
         return ImmutableDatabaseTableData.builder()
                                          .tableName(databaseTable)
                                          .addAllTableColumnsMetadata(databaseTableColumnsMetadata)
@@ -97,17 +135,6 @@ public class DatabaseQueryClient {
         return databaseColumnsMetadata;
     }
 
-    private List<DatabaseTableRowData> parseDatabaseRowsData(ResultSet resultSet, List<DatabaseTableColumnMetadata> databaseColumnsMetadata)
-        throws SQLException {
-        List<DatabaseTableRowData> databaseTableRowsData = new ArrayList<>();
-        while (resultSet.next()) {
-            databaseTableRowsData.add(ImmutableDatabaseTableRowData.builder()
-                                                                   .putAllValues(collectRowValues(resultSet, databaseColumnsMetadata))
-                                                                   .build());
-        }
-        return databaseTableRowsData;
-    }
-
     private Map<String, Object> collectRowValues(ResultSet resultSet, List<DatabaseTableColumnMetadata> databaseColumnsMetadata)
         throws SQLException {
         Map<String, Object> databaseTableRowValues = new HashMap<>();
@@ -118,49 +145,72 @@ public class DatabaseQueryClient {
         return databaseTableRowValues;
     }
 
-    public void writeDataToDataSource(String insertQuery, DatabaseTableData sourceTableData) throws SQLException {
-        sqlQueryExecutor.execute(connection -> {
-            for (int index = 0; index < sourceTableData.getTableRowsData()
-                                                       .size(); index++) {
-                DatabaseTableRowData databaseTableRowData = sourceTableData.getTableRowsData()
-                                                                           .get(index);
-                transferDataToDataSource(connection, insertQuery, sourceTableData.getTableColumnsMetadata(), databaseTableRowData);
+    /**
+     * Writes the batches of rows produced by the extractor through a single prepared statement. Each batch is inserted with one round
+     * trip and committed, so that the transaction does not grow with the size of the table.
+     *
+     * @return the number of rows written
+     */
+    public long writeDataToDataSource(DatabaseTableInsertQueryGenerator insertQueryGenerator, DatabaseTableDataExtractor extractor)
+        throws SQLException {
+        return sqlQueryExecutor.execute(connection -> {
+            DatabaseTableDataWriter writer = new DatabaseTableDataWriter(connection, insertQueryGenerator);
+            try {
+                return extractor.extract(writer::write);
+            } finally {
+                writer.close();
             }
-            return null;
         });
     }
 
-    private void transferDataToDataSource(Connection connection, String insertQuery,
-                                          List<DatabaseTableColumnMetadata> databaseTableColumnsMetadata,
-                                          DatabaseTableRowData databaseTableRowData)
-        throws SQLException {
-        PreparedStatement insertStatement = null;
-        try {
-            insertStatement = connection.prepareStatement(insertQuery);
-            populateInsertStatementParameters(insertStatement, databaseTableColumnsMetadata, databaseTableRowData);
-            insertStatement.executeUpdate();
-        } finally {
-            JdbcUtil.closeQuietly(insertStatement);
+    private static class DatabaseTableDataWriter {
+
+        private final Connection connection;
+        private final DatabaseTableInsertQueryGenerator insertQueryGenerator;
+        private PreparedStatement insertStatement;
+        private List<DatabaseTypeSetter> databaseTypeSetters;
+
+        DatabaseTableDataWriter(Connection connection, DatabaseTableInsertQueryGenerator insertQueryGenerator) {
+            this.connection = connection;
+            this.insertQueryGenerator = insertQueryGenerator;
         }
 
-    }
+        void write(DatabaseTableData tableDataBatch) throws SQLException {
+            if (insertStatement == null) {
+                insertStatement = connection.prepareStatement(insertQueryGenerator.generate(tableDataBatch));
+                databaseTypeSetters = getDatabaseTypeSetters(tableDataBatch.getTableColumnsMetadata());
+            }
+            for (DatabaseTableRowData databaseTableRowData : tableDataBatch.getTableRowsData()) {
+                populateInsertStatementParameters(tableDataBatch.getTableColumnsMetadata(), databaseTableRowData);
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+            connection.commit();
+        }
 
-    private void populateInsertStatementParameters(PreparedStatement insertStatement,
-                                                   List<DatabaseTableColumnMetadata> databaseTableColumnsMetadata,
-                                                   DatabaseTableRowData databaseTableRowData)
-        throws SQLException {
-        for (int columnIndex = 0; columnIndex < databaseTableColumnsMetadata.size(); columnIndex++) {
-            DatabaseTableColumnMetadata databaseTableColumnMetadata = databaseTableColumnsMetadata.get(columnIndex);
-            setInsertStatementBasedOnType(databaseTableColumnMetadata.getColumnType(), insertStatement, databaseTableRowData.getValues()
-                                                                                                                            .get(databaseTableColumnMetadata.getColumnName()),
-                                          columnIndex + 1);
+        private List<DatabaseTypeSetter> getDatabaseTypeSetters(List<DatabaseTableColumnMetadata> databaseTableColumnsMetadata) {
+            DatabaseTypeSetterFactory databaseTypeSetterFactory = new DatabaseTypeSetterFactory();
+            return databaseTableColumnsMetadata.stream()
+                                               .map(columnMetadata -> databaseTypeSetterFactory.get(columnMetadata.getColumnType()))
+                                               .collect(Collectors.toList());
+        }
+
+        private void populateInsertStatementParameters(List<DatabaseTableColumnMetadata> databaseTableColumnsMetadata,
+                                                       DatabaseTableRowData databaseTableRowData)
+            throws SQLException {
+            for (int columnIndex = 0; columnIndex < databaseTableColumnsMetadata.size(); columnIndex++) {
+                Object value = databaseTableRowData.getValues()
+                                                   .get(databaseTableColumnsMetadata.get(columnIndex)
+                                                                                    .getColumnName());
+                databaseTypeSetters.get(columnIndex)
+                                   .setType(columnIndex + 1, insertStatement, value);
+            }
+        }
+
+        void close() {
+            JdbcUtil.closeQuietly(insertStatement);
         }
-    }
 
-    private void setInsertStatementBasedOnType(String databaseColumnType, PreparedStatement insertStatement, Object value, int columnIndex)
-        throws SQLException {
-        DatabaseTypeSetter databaseTypeSetter = new DatabaseTypeSetterFactory().get(databaseColumnType);
-        databaseTypeSetter.setType(columnIndex, insertStatement, value);
     }
 
 }
@@ -0,0 +1,12 @@
+package org.cloudfoundry.multiapps.controller.database.migration.client;
+
+import java.sql.SQLException;
+
+import org.cloudfoundry.multiapps.controller.database.migration.metadata.DatabaseTableData;
+
+@FunctionalInterface
+public interface DatabaseTableDataConsumer {
+
+    void accept(DatabaseTableData tableDataBatch) throws SQLException;
+
+}
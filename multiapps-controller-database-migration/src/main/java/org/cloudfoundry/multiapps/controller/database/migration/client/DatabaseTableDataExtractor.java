@@ -0,0 +1,10 @@
+package org.cloudfoundry.multiapps.controller.database.migration.client;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface DatabaseTableDataExtractor {
+
+    long extract(DatabaseTableDataConsumer consumer) throws SQLException;
+
+}
@@ -1,9 +1,9 @@
 package org.cloudfoundry.multiapps.controller.database.migration.executor;
 
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 import org.cloudfoundry.multiapps.controller.database.migration.generator.DatabaseTableInsertQueryGenerator;
-import org.cloudfoundry.multiapps.controller.database.migration.metadata.DatabaseTableData;
 import org.immutables.value.Value;
 
 @Value.Immutable
@@ -12,14 +12,18 @@ public abstract class DatabaseTableMigrationExecutor extends DatabaseMigrationEx
     @Override
     public void executeMigrationInternal(String databaseTable) throws SQLException {
         logger.info("Migrating table \"{}\"...", databaseTable);
-        DatabaseTableData sourceTableData = getSourceDatabaseQueryClient().extractTableData(databaseTable);
-        transferData(databaseTable, sourceTableData);
+        long startTime = System.nanoTime();
+        long rowsCount = transferData(databaseTable);
+        long elapsedTimeInMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        logger.info("Transferred {} rows for table \"{}\" in {} ms ({} rows/s)", rowsCount, databaseTable, elapsedTimeInMillis,
+                    rowsCount * 1000 / elapsedTimeInMillis);
     }
 
-    private void transferData(String databaseTable, DatabaseTableData sourceTableData) throws SQLException {
+    private long transferData(String databaseTable) throws SQLException {
         logger.info("Transfering data for table \"{}\"...", databaseTable);
-        String insertQuery = getDatabaseTableInsertQueryGenerator().generate(sourceTableData);
-        getTargetDatabaseQueryClient().writeDataToDataSource(insertQuery, sourceTableData);
+        return getTargetDatabaseQueryClient().writeDataToDataSource(getDatabaseTableInsertQueryGenerator(),
+                                                                    consumer -> getSourceDatabaseQueryClient().extractTableData(databaseTable,
+                                                                                                                                consumer));
     }
 
     @Value.Default
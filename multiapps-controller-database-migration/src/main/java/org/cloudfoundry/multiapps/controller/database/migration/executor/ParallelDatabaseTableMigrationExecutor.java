@@ -0,0 +1,115 @@
+package org.cloudfoundry.multiapps.controller.database.migration.executor;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Migrates database tables in parallel on a bounded number of threads. Every table is migrated with its own source and target
+ * connections, so the migration of independent tables takes as long as the migration of the largest one of them. A table, which depends
+ * on other tables (for example through a foreign key), is migrated only after all of them are migrated successfully.
+ */
+public class ParallelDatabaseTableMigrationExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDatabaseTableMigrationExecutor.class);
+
+    private static final String THREAD_NAME_PREFIX = "table-migration-";
+
+    private final DatabaseMigrationExecutor tableMigrationExecutor;
+    private final int maxParallelMigrations;
+
+    public ParallelDatabaseTableMigrationExecutor(DatabaseMigrationExecutor tableMigrationExecutor, int maxParallelMigrations) {
+        this.tableMigrationExecutor = tableMigrationExecutor;
+        this.maxParallelMigrations = maxParallelMigrations;
+    }
+
+    /**
+     * @param tablesWithDependencies the tables to migrate, each of them mapped to the tables, which have to be migrated before it. The
+     *        dependencies of a table must be listed before the table itself.
+     */
+    public void executeMigration(Map<String, List<String>> tablesWithDependencies) {
+        if (tablesWithDependencies.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxParallelMigrations, tablesWithDependencies.size()),
+                                                                createThreadFactory());
+        try {
+            Map<String, CompletableFuture<Void>> migrations = scheduleMigrations(tablesWithDependencies, executor);
+            waitForMigrations(migrations);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ThreadFactory createThreadFactory() {
+        AtomicInteger threadsCount = new AtomicInteger();
+        return runnable -> new Thread(runnable, THREAD_NAME_PREFIX + threadsCount.incrementAndGet());
+    }
+
+    private Map<String, CompletableFuture<Void>> scheduleMigrations(Map<String, List<String>> tablesWithDependencies,
+                                                                    ExecutorService executor) {
+        Map<String, CompletableFuture<Void>> migrations = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> tableWithDependencies : tablesWithDependencies.entrySet()) {
+            String databaseTable = tableWithDependencies.getKey();
+            CompletableFuture<?>[] dependencies = getMigrationsOfDependencies(databaseTable, tableWithDependencies.getValue(),
+                                                                              migrations);
+            // The migration is submitted to the executor only after its dependencies are migrated, so it never blocks a thread:
+            migrations.put(databaseTable, CompletableFuture.allOf(dependencies)
+                                                           .thenRunAsync(() -> tableMigrationExecutor.executeMigration(databaseTable),
+                                                                         executor));
+        }
+        return migrations;
+    }
+
+    private CompletableFuture<?>[] getMigrationsOfDependencies(String databaseTable, List<String> dependencies,
+                                                               Map<String, CompletableFuture<Void>> migrations) {
+        List<CompletableFuture<Void>> migrationsOfDependencies = new ArrayList<>();
+        for (String dependency : dependencies) {
+            CompletableFuture<Void> migrationOfDependency = migrations.get(dependency);
+            if (migrationOfDependency == null) {
+                throw new IllegalArgumentException(MessageFormat.format("Table \"{0}\" depends on table \"{1}\", which is not listed before it",
+                                                                        databaseTable, dependency));
+            }
+            migrationsOfDependencies.add(migrationOfDependency);
+        }
+        return migrationsOfDependencies.toArray(new CompletableFuture<?>[0]);
+    }
+
+    private void waitForMigrations(Map<String, CompletableFuture<Void>> migrations) {
+        RuntimeException firstException = null;
+        for (Map.Entry<String, CompletableFuture<Void>> migration : migrations.entrySet()) {
+            try {
+                migration.getValue()
+                         .join();
+            } catch (CompletionException e) {
+                LOGGER.error("Table \"{}\" was not migrated", migration.getKey());
+                if (firstException == null) {
+                    firstException = unwrap(e);
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    private RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return e;
+    }
+
+}
@@ -9,7 +9,7 @@ public class BooleanDatabaseTypeSetter implements DatabaseTypeSetter {
 
     @Override
     public List<String> getSupportedTypes() {
-        return Arrays.asList("bool");
+        return Arrays.asList("bool", "boolean");
     }
 
     @Override
@@ -9,7 +9,7 @@ public class LongDatabaseTypeSetter implements DatabaseTypeSetter {
 
     @Override
     public List<String> getSupportedTypes() {
-        return Arrays.asList("int8");
+        return Arrays.asList("int8", "bigint");
     }
 
     @Override
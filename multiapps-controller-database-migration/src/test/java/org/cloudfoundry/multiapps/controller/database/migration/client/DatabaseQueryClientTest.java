@@ -0,0 +1,141 @@
+package org.cloudfoundry.multiapps.controller.database.migration.client;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.multiapps.controller.database.migration.generator.DatabaseTableInsertQueryGenerator;
+import org.cloudfoundry.multiapps.controller.database.migration.metadata.DatabaseTableData;
+import org.cloudfoundry.multiapps.controller.persistence.util.SqlQueryExecutor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DatabaseQueryClientTest {
+
+    private static final String TEST_DATABASE_TABLE = "configuration_registry";
+    private static final String CREATE_TABLE_QUERY = "CREATE TABLE configuration_registry "
+        + "(id BIGINT PRIMARY KEY, provider_id VARCHAR(255), content VARCHAR(4000), visible BOOLEAN)";
+    private static final String INSERT_QUERY = "INSERT INTO configuration_registry (id, provider_id, content, visible) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_QUERY = "SELECT id, provider_id, content, visible FROM configuration_registry ORDER BY id";
+    private static final int ROWS_COUNT = 20000;
+    private static final int BATCH_SIZE = 500;
+    private static final long MIN_ROWS_PER_SECOND = 1000;
+
+    private JdbcDataSource sourceDataSource;
+    private JdbcDataSource targetDataSource;
+    private Connection sourceConnection;
+    private Connection targetConnection;
+
+    @BeforeEach
+    void createDatabases() throws SQLException {
+        sourceDataSource = createDataSource("source");
+        targetDataSource = createDataSource("target");
+        // Keeps the in-memory databases alive until the end of the test:
+        sourceConnection = sourceDataSource.getConnection();
+        targetConnection = targetDataSource.getConnection();
+        createTable(sourceConnection);
+        createTable(targetConnection);
+        insertRows(sourceConnection);
+    }
+
+    private JdbcDataSource createDataSource(String databaseName) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + databaseName);
+        return dataSource;
+    }
+
+    private void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE_QUERY);
+        }
+    }
+
+    private void insertRows(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_QUERY)) {
+            for (int i = 0; i < ROWS_COUNT; i++) {
+                statement.setLong(1, i);
+                statement.setString(2, "provider-" + i);
+                statement.setString(3, "{\"key\":\"value-" + i + "\"}");
+                statement.setBoolean(4, i % 2 == 0);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void closeDatabases() throws SQLException {
+        sourceConnection.close();
+        targetConnection.close();
+    }
+
+    @Test
+    void testExtractTableDataInBatches() throws SQLException {
+        DatabaseQueryClient sourceDatabaseQueryClient = new DatabaseQueryClient(new SqlQueryExecutor(sourceDataSource), BATCH_SIZE);
+        List<Integer> batchSizes = new ArrayList<>();
+
+        long rowsCount = sourceDatabaseQueryClient.extractTableData(TEST_DATABASE_TABLE,
+                                                                    tableDataBatch -> batchSizes.add(tableDataBatch.getTableRowsData()
+                                                                                                                   .size()));
+
+        Assertions.assertEquals(ROWS_COUNT, rowsCount);
+        Assertions.assertEquals(ROWS_COUNT / BATCH_SIZE, batchSizes.size());
+        Assertions.assertTrue(batchSizes.stream()
+                                        .allMatch(batchSize -> batchSize == BATCH_SIZE));
+    }
+
+    @Test
+    void testWriteDataToDataSourceCopiesAllRows() throws SQLException {
+        DatabaseQueryClient sourceDatabaseQueryClient = new DatabaseQueryClient(new SqlQueryExecutor(sourceDataSource), BATCH_SIZE);
+        DatabaseQueryClient targetDatabaseQueryClient = new DatabaseQueryClient(new SqlQueryExecutor(targetDataSource), BATCH_SIZE);
+
+        long startTime = System.nanoTime();
+        long rowsCount = targetDatabaseQueryClient.writeDataToDataSource(new DatabaseTableInsertQueryGenerator(),
+                                                                         consumer -> sourceDatabaseQueryClient.extractTableData(TEST_DATABASE_TABLE,
+                                                                                                                                consumer));
+        long elapsedTimeInMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        Assertions.assertEquals(ROWS_COUNT, rowsCount);
+        Assertions.assertEquals(selectRows(sourceConnection), selectRows(targetConnection));
+        long rowsPerSecond = rowsCount * 1000 / elapsedTimeInMillis;
+        Assertions.assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND,
+                              "Copied " + rowsCount + " rows in " + elapsedTimeInMillis + " ms (" + rowsPerSecond + " rows/s)");
+    }
+
+    @Test
+    void testWriteDataToDataSourceCommitsWrittenBatches() throws SQLException {
+        DatabaseQueryClient targetDatabaseQueryClient = new DatabaseQueryClient(new SqlQueryExecutor(targetDataSource), BATCH_SIZE);
+        DatabaseQueryClient sourceDatabaseQueryClient = new DatabaseQueryClient(new SqlQueryExecutor(sourceDataSource), BATCH_SIZE);
+        List<DatabaseTableData> tableDataBatches = new ArrayList<>();
+        sourceDatabaseQueryClient.extractTableData(TEST_DATABASE_TABLE, tableDataBatches::add);
+
+        Assertions.assertThrows(SQLException.class,
+                                () -> targetDatabaseQueryClient.writeDataToDataSource(new DatabaseTableInsertQueryGenerator(), consumer -> {
+                                    consumer.accept(tableDataBatches.get(0));
+                                    consumer.accept(tableDataBatches.get(1));
+                                    throw new SQLException("Connection to the source database was lost");
+                                }));
+
+        Assertions.assertEquals(2 * BATCH_SIZE, selectRows(targetConnection).size());
+    }
+
+    private List<String> selectRows(Connection connection) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(SELECT_QUERY)) {
+            while (resultSet.next()) {
+                rows.add(resultSet.getLong(1) + "|" + resultSet.getString(2) + "|" + resultSet.getString(3) + "|"
+                    + resultSet.getBoolean(4));
+            }
+        }
+        return rows;
+    }
+
+}
@@ -5,6 +5,7 @@ import java.sql.SQLException;
 import javax.sql.DataSource;
 
 import org.cloudfoundry.multiapps.controller.database.migration.client.DatabaseQueryClient;
+import org.cloudfoundry.multiapps.controller.database.migration.client.DatabaseTableDataExtractor;
 import org.cloudfoundry.multiapps.controller.database.migration.generator.DatabaseTableInsertQueryGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,9 +40,9 @@ class DatabaseTableMigrationExecutorTest {
                                                                                 .targetDatabaseQueryClient(mockTargetDatabaseQueryClient)
                                                                                 .databaseTableInsertQueryGenerator(mockDatabaseTableInsertQueryGenerator)
                                                                                 .build();
-        Mockito.doReturn("")
-               .when(mockDatabaseTableInsertQueryGenerator)
-               .generate(null);
+        Mockito.when(mockTargetDatabaseQueryClient.writeDataToDataSource(Mockito.eq(mockDatabaseTableInsertQueryGenerator), Mockito.any()))
+               .thenAnswer(invocation -> ((DatabaseTableDataExtractor) invocation.getArgument(1)).extract(tableDataBatch -> {
+               }));
     }
 
     @Test
@@ -49,9 +50,9 @@ class DatabaseTableMigrationExecutorTest {
         databaseTableMigrationExecutor.executeMigration(TEST_DATABASE_TABLE);
 
         Mockito.verify(mockSourceDatabaseQueryClient)
-               .extractTableData(TEST_DATABASE_TABLE);
+               .extractTableData(Mockito.eq(TEST_DATABASE_TABLE), Mockito.any());
         Mockito.verify(mockTargetDatabaseQueryClient)
-               .writeDataToDataSource("", null);
+               .writeDataToDataSource(Mockito.eq(mockDatabaseTableInsertQueryGenerator), Mockito.any());
     }
 
 }
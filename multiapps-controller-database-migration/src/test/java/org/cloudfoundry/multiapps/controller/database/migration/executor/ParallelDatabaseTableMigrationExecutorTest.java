@@ -0,0 +1,132 @@
+package org.cloudfoundry.multiapps.controller.database.migration.executor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+class ParallelDatabaseTableMigrationExecutorTest {
+
+    private static final long LARGEST_TABLE_MIGRATION_TIME_IN_MILLIS = 400;
+    private static final long TABLE_MIGRATION_TIME_IN_MILLIS = 200;
+    private static final int MAX_PARALLEL_MIGRATIONS = 4;
+
+    @Mock
+    private DatabaseMigrationExecutor mockTableMigrationExecutor;
+
+    private final Map<String, Long> migrationStartTimes = new ConcurrentHashMap<>();
+    private final Map<String, Long> migrationEndTimes = new ConcurrentHashMap<>();
+    private final AtomicInteger migrationsInProgress = new AtomicInteger();
+    private final AtomicInteger maxMigrationsInProgress = new AtomicInteger();
+
+    @BeforeEach
+    void initialiseMocks() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.doAnswer(invocation -> {
+            String databaseTable = invocation.getArgument(0);
+            migrationStartTimes.put(databaseTable, System.nanoTime());
+            maxMigrationsInProgress.accumulateAndGet(migrationsInProgress.incrementAndGet(), Math::max);
+            TimeUnit.MILLISECONDS.sleep(databaseTable.equals("largest_table") ? LARGEST_TABLE_MIGRATION_TIME_IN_MILLIS
+                : TABLE_MIGRATION_TIME_IN_MILLIS);
+            migrationsInProgress.decrementAndGet();
+            migrationEndTimes.put(databaseTable, System.nanoTime());
+            return null;
+        })
+               .when(mockTableMigrationExecutor)
+               .executeMigration(Mockito.anyString());
+    }
+
+    @Test
+    void testMigrationTimeIsBoundedByLargestTable() {
+        Map<String, List<String>> tablesWithDependencies = createIndependentTables("largest_table", "table_1", "table_2", "table_3");
+
+        long startTime = System.nanoTime();
+        new ParallelDatabaseTableMigrationExecutor(mockTableMigrationExecutor,
+                                                   MAX_PARALLEL_MIGRATIONS).executeMigration(tablesWithDependencies);
+        long elapsedTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        long sequentialTimeInMillis = LARGEST_TABLE_MIGRATION_TIME_IN_MILLIS + 3 * TABLE_MIGRATION_TIME_IN_MILLIS;
+        Assertions.assertTrue(elapsedTimeInMillis < sequentialTimeInMillis,
+                              "Migration took " + elapsedTimeInMillis + " ms, while the tables take " + sequentialTimeInMillis
+                                  + " ms in total");
+        Assertions.assertEquals(tablesWithDependencies.keySet(), migrationEndTimes.keySet());
+    }
+
+    @Test
+    void testNoMoreTablesThanAllowedAreMigratedInParallel() {
+        Map<String, List<String>> tablesWithDependencies = createIndependentTables("table_1", "table_2", "table_3", "table_4",
+                                                                                   "table_5");
+
+        new ParallelDatabaseTableMigrationExecutor(mockTableMigrationExecutor, 2).executeMigration(tablesWithDependencies);
+
+        Assertions.assertEquals(2, maxMigrationsInProgress.get());
+        Assertions.assertEquals(tablesWithDependencies.keySet(), migrationEndTimes.keySet());
+    }
+
+    @Test
+    void testTableIsMigratedAfterItsDependencies() {
+        Map<String, List<String>> tablesWithDependencies = new LinkedHashMap<>();
+        tablesWithDependencies.put("largest_table", Collections.emptyList());
+        tablesWithDependencies.put("table_1", Collections.emptyList());
+        tablesWithDependencies.put("dependent_table", Arrays.asList("largest_table", "table_1"));
+
+        new ParallelDatabaseTableMigrationExecutor(mockTableMigrationExecutor,
+                                                   MAX_PARALLEL_MIGRATIONS).executeMigration(tablesWithDependencies);
+
+        Assertions.assertTrue(migrationStartTimes.get("dependent_table") >= migrationEndTimes.get("largest_table"));
+        Assertions.assertTrue(migrationStartTimes.get("dependent_table") >= migrationEndTimes.get("table_1"));
+    }
+
+    @Test
+    void testTableIsNotMigratedWhenMigrationOfDependencyFails() {
+        RuntimeException exception = new RuntimeException("Table \"table_1\" could not be migrated");
+        Mockito.doThrow(exception)
+               .when(mockTableMigrationExecutor)
+               .executeMigration("table_1");
+        Map<String, List<String>> tablesWithDependencies = new LinkedHashMap<>();
+        tablesWithDependencies.put("table_1", Collections.emptyList());
+        tablesWithDependencies.put("table_2", Collections.emptyList());
+        tablesWithDependencies.put("dependent_table", Collections.singletonList("table_1"));
+        ParallelDatabaseTableMigrationExecutor executor = new ParallelDatabaseTableMigrationExecutor(mockTableMigrationExecutor,
+                                                                                                     MAX_PARALLEL_MIGRATIONS);
+
+        RuntimeException thrownException = Assertions.assertThrows(RuntimeException.class,
+                                                                   () -> executor.executeMigration(tablesWithDependencies));
+
+        Assertions.assertEquals(exception, thrownException);
+        Assertions.assertEquals(Collections.singleton("table_2"), migrationEndTimes.keySet());
+        Mockito.verify(mockTableMigrationExecutor, Mockito.never())
+               .executeMigration("dependent_table");
+    }
+
+    @Test
+    void testDependencyListedAfterTableIsRejected() {
+        Map<String, List<String>> tablesWithDependencies = new LinkedHashMap<>();
+        tablesWithDependencies.put("dependent_table", Collections.singletonList("table_1"));
+        tablesWithDependencies.put("table_1", Collections.emptyList());
+        ParallelDatabaseTableMigrationExecutor executor = new ParallelDatabaseTableMigrationExecutor(mockTableMigrationExecutor,
+                                                                                                     MAX_PARALLEL_MIGRATIONS);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> executor.executeMigration(tablesWithDependencies));
+    }
+
+    private Map<String, List<String>> createIndependentTables(String... databaseTables) {
+        Map<String, List<String>> tablesWithDependencies = new LinkedHashMap<>();
+        for (String databaseTable : databaseTables) {
+            tablesWithDependencies.put(databaseTable, Collections.emptyList());
+        }
+        return tablesWithDependencies;
+    }
+
+}
@@ -20,6 +20,11 @@ public class Constants {
     public static final String FILE_ENTRY_NAME = "FILE_NAME";
     public static final String FILE_ENTRY_DIGEST = "DIGEST";
     public static final String FILE_ENTRY_ID = "FILE_ID";
+    public static final String FILE_ENTRY_PART_IDS = "PART_IDS";
+    public static final String FILE_ENTRY_CONTENT_ID = "CONTENT_ID";
+
+    // Content-addressed files are stored in a space of their own, as their content may be shared by files in different spaces:
+    public static final String CONTENT_ADDRESSED_FILES_SPACE = "content-addressed-files";
 
     protected Constants() {
     }
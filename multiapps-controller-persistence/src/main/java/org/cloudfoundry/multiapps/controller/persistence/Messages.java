@@ -20,6 +20,7 @@ public final class Messages {
     public static final String ERROR_DELETING_DIRECTORY = "Error deleting directory \"{0}\"";
     public static final String ERROR_STORING_LOG_FILE = "Error storing log file \"{0}\"";
     public static final String ERROR_LOG_FILE_NOT_FOUND = "Log file with name \"{0}\" for operation \"{1}\" in space \"{2}\" was not found";
+    public static final String CONTENT_WITH_ID_0_WAS_DELETED_WHILE_BEING_STORED = "Content with ID \"{0}\" was deleted while it was being stored";
     public static final String ERROR_CORRELATION_ID_OR_ACTIVITY_ID_NULL = "Unable to retrieve correlation id or activity id for process \"{0}\" at activity \"{1}\" and space \"{2}\"";
 
     // ERROR log messages:
@@ -32,7 +33,11 @@ public final class Messages {
     public static final String COULD_NOT_ROLLBACK_TRANSACTION = "Could not rollback transaction!";
     public static final String COULD_NOT_PERSIST_LOGS_FILE = "Could not persist logs file: {0}";
     public static final String ATTEMPT_TO_UPLOAD_BLOB_FAILED = "Attempt [{0}/{1}] to upload blob to ObjectStore failed with \"{2}\"";
+    public static final String COULD_NOT_DELETE_CONTENT_OF_FILE_0 = "Could not delete content of file \"{0}\"";
+    public static final String COULD_NOT_DELETE_UNREFERENCED_CONTENT_WITH_ID_0 = "Could not delete unreferenced content with ID \"{0}\"";
     public static final String ATTEMPT_TO_DOWNLOAD_MISSING_BLOB = "Attempt [{0}/{1}] to download missing blob {2} from ObjectStore";
+    public static final String ATTEMPT_TO_UPLOAD_BLOB_PART_FAILED = "Attempt [{0}/{1}] to upload part {2} of blob {3} to ObjectStore failed with \"{4}\"";
+    public static final String COULD_NOT_ABORT_MULTIPART_UPLOAD_OF_BLOB_0 = "Could not abort multipart upload of blob {0} to ObjectStore";
 
     // INFO log messages:
     public static final String FAILED_TO_DELETE_FILE = "Failed to delete file {0}";
@@ -44,6 +49,9 @@ public final class Messages {
     public static final String DELETED_FILE_0_SUCCESSFULLY_1 = "Deleted file with path \"{0}\": {1}";
     public static final String STORING_FILE_TO_PATH_0 = "Storing file to path \"{0}\"...";
     public static final String STORED_FILE_0 = "Stored file: \"{0}\"";
+    public static final String STORED_COMPOSITE_FILE_0_WITH_PARTS_1 = "Stored composite file: \"{0}\" with parts: {1}";
+    public static final String CONTENT_OF_FILE_0_IS_ALREADY_STORED_WITH_ID_1 = "Content of file \"{0}\" is already stored with ID \"{1}\". It will not be stored again.";
+    public static final String DELETED_UNREFERENCED_CONTENT_WITH_ID_0 = "Deleted unreferenced content with ID \"{0}\".";
     public static final String STORED_FILE_0_WITH_SIZE_1_SUCCESSFULLY_2 = "Stored file \"{0}\" with size {1}";
     public static final String DELETED_0_FILES_WITH_SPACE_1 = "Deleted {0} files with space \"{1}\".";
     public static final String DELETED_0_FILES_WITH_SPACE_1_AND_NAMESPACE_2 = "Deleted {0} files with space \"{1}\" and namespace \"{2}\".";
@@ -51,6 +59,8 @@ public final class Messages {
     public static final String DELETED_0_FILES_WITH_ID_1_AND_SPACE_2 = "Deleted {0} files with ID \"{1}\" and space \"{2}\".";
     public static final String DELETED_0_FILES_WITHOUT_CONTENT = "Deleted {0} files without content.";
     public static final String PROCESSING_FILE_0 = "Processing file \"{0}\"...";
+    public static final String LISTED_0_BLOBS_FROM_CONTAINER_1 = "Listed {0} blobs from container \"{1}\"";
+    public static final String REMOVED_0_BLOBS_FROM_CONTAINER_1 = "Removed {0} blobs from container \"{1}\"";
 
     protected Messages() {
     }
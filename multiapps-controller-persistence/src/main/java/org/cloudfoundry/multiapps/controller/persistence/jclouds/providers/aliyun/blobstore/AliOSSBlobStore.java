@@ -1,6 +1,7 @@
 package org.cloudfoundry.multiapps.controller.persistence.jclouds.providers.aliyun.blobstore;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Calendar;
@@ -27,6 +28,7 @@ import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.blobstore.domain.Tier;
+import org.jclouds.blobstore.domain.internal.BlobMetadataImpl;
 import org.jclouds.blobstore.domain.internal.PageSetImpl;
 import org.jclouds.blobstore.domain.internal.StorageMetadataImpl;
 import org.jclouds.blobstore.internal.BaseBlobStore;
@@ -37,24 +39,39 @@ import org.jclouds.blobstore.options.PutOptions;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.domain.Location;
 import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
+import org.jclouds.io.payloads.BaseMutableContentMetadata;
 import org.jclouds.location.suppliers.LocationsSupplier;
 
 import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSErrorCode;
+import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
 import com.aliyun.oss.model.GetObjectRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadResult;
 import com.aliyun.oss.model.ListObjectsRequest;
 import com.aliyun.oss.model.OSSObject;
 import com.aliyun.oss.model.OSSObjectSummary;
 import com.aliyun.oss.model.ObjectListing;
 import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
 import com.aliyun.oss.model.PutObjectRequest;
 import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.aliyun.oss.model.UploadPartResult;
 import com.google.common.base.Supplier;
 
 @Singleton
 public class AliOSSBlobStore extends BaseBlobStore {
 
+    private static final long MINIMUM_MULTIPART_PART_SIZE = 100 * 1024L; // 100KB
+    private static final long MAXIMUM_MULTIPART_PART_SIZE = 5 * 1024 * 1024 * 1024L; // 5GB
+    private static final int MAXIMUM_NUMBER_OF_PARTS = 10000;
+
     private final AliOSSApi aliOSSApi;
 
     @Inject
@@ -123,6 +140,86 @@ public class AliOSSBlobStore extends BaseBlobStore {
         });
     }
 
+    @Override
+    public BlobMetadata blobMetadata(String container, String name) {
+        return doOssOperation(oss -> {
+            try {
+                ObjectMetadata objectMetadata = oss.getObjectMetadata(container, name);
+                return toBlobMetadata(container, name, objectMetadata);
+            } catch (OSSException e) {
+                if (OSSErrorCode.NO_SUCH_KEY.equals(e.getErrorCode())) {
+                    return null;
+                }
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public MultipartUpload initiateMultipartUpload(String container, BlobMetadata blob, PutOptions options) {
+        return doOssOperation(oss -> {
+            InitiateMultipartUploadRequest request = new InitiateMultipartUploadRequest(container,
+                                                                                        blob.getName(),
+                                                                                        createObjectMetadata(blob));
+            InitiateMultipartUploadResult result = oss.initiateMultipartUpload(request);
+            return MultipartUpload.create(container, blob.getName(), result.getUploadId(), blob, options);
+        });
+    }
+
+    @Override
+    public void abortMultipartUpload(MultipartUpload mpu) {
+        doOssOperation(oss -> {
+            oss.abortMultipartUpload(new AbortMultipartUploadRequest(mpu.containerName(), mpu.blobName(), mpu.id()));
+            return null;
+        });
+    }
+
+    @Override
+    public String completeMultipartUpload(MultipartUpload mpu, List<MultipartPart> parts) {
+        return doOssOperation(oss -> {
+            List<PartETag> partETags = parts.stream()
+                                            .map(part -> new PartETag(part.partNumber(), part.partETag()))
+                                            .collect(Collectors.toList());
+            CompleteMultipartUploadRequest request = new CompleteMultipartUploadRequest(mpu.containerName(),
+                                                                                        mpu.blobName(),
+                                                                                        mpu.id(),
+                                                                                        partETags);
+            return oss.completeMultipartUpload(request)
+                      .getETag();
+        });
+    }
+
+    @Override
+    public MultipartPart uploadMultipartPart(MultipartUpload mpu, int partNumber, Payload payload) {
+        return doOssOperation(oss -> {
+            Long partSize = payload.getContentMetadata()
+                                   .getContentLength();
+            try (InputStream partContent = payload.openStream()) {
+                UploadPartRequest request = new UploadPartRequest(mpu.containerName(), mpu.blobName(), mpu.id(), partNumber, partContent,
+                                                                  partSize);
+                UploadPartResult result = oss.uploadPart(request);
+                return MultipartPart.create(partNumber, partSize, result.getETag(), new Date());
+            } catch (IOException e) {
+                throw new SLException(e);
+            }
+        });
+    }
+
+    @Override
+    public long getMinimumMultipartPartSize() {
+        return MINIMUM_MULTIPART_PART_SIZE;
+    }
+
+    @Override
+    public long getMaximumMultipartPartSize() {
+        return MAXIMUM_MULTIPART_PART_SIZE;
+    }
+
+    @Override
+    public int getMaximumNumberOfParts() {
+        return MAXIMUM_NUMBER_OF_PARTS;
+    }
+
     private <R> R doOssOperation(Function<OSS, R> function) {
         return doOssOperation(function, true);
     }
@@ -146,8 +243,8 @@ public class AliOSSBlobStore extends BaseBlobStore {
             String[] ranges = options.getRanges()
                                      .get(0)
                                      .split("-");
-            long start = Integer.parseInt(ranges[0]);
-            long end = Integer.parseInt(ranges[1]);
+            long start = Long.parseLong(ranges[0]);
+            long end = Long.parseLong(ranges[1]);
             request.setRange(start, end);
         }
         return request;
@@ -191,10 +288,29 @@ public class AliOSSBlobStore extends BaseBlobStore {
         return request;
     }
 
+    private BlobMetadata toBlobMetadata(String container, String name, ObjectMetadata objectMetadata) {
+        MutableContentMetadata contentMetadata = new BaseMutableContentMetadata();
+        contentMetadata.setContentLength(objectMetadata.getContentLength());
+        contentMetadata.setContentType(objectMetadata.getContentType());
+        contentMetadata.setContentDisposition(objectMetadata.getContentDisposition());
+        return new BlobMetadataImpl(name, name, defaultLocation.get(), null, objectMetadata.getETag(), objectMetadata.getLastModified(),
+                                    objectMetadata.getLastModified(), objectMetadata.getUserMetadata(), null, container, contentMetadata,
+                                    objectMetadata.getContentLength(), Tier.STANDARD);
+    }
+
     private ObjectMetadata createObjectMetadataFromBlob(Blob blob) {
+        ObjectMetadata objectMetadata = createObjectMetadata(blob.getMetadata());
+        if (blob.getAllHeaders() != null) {
+            blob.getAllHeaders()
+                .asMap()
+                .forEach(objectMetadata::setHeader);
+        }
+        return objectMetadata;
+    }
+
+    private ObjectMetadata createObjectMetadata(BlobMetadata blobMetadata) {
         ObjectMetadata objectMetadata = new ObjectMetadata();
-        ContentMetadata blobContentMetadata = blob.getMetadata()
-                                                  .getContentMetadata();
+        ContentMetadata blobContentMetadata = blobMetadata.getContentMetadata();
         if (blobContentMetadata.getCacheControl() != null) {
             objectMetadata.setCacheControl(blobContentMetadata.getCacheControl());
         }
@@ -213,18 +329,11 @@ public class AliOSSBlobStore extends BaseBlobStore {
         if (blobContentMetadata.getExpires() != null) {
             objectMetadata.setExpirationTime(blobContentMetadata.getExpires());
         }
-        Date lastModified = blob.getMetadata()
-                                .getLastModified();
+        Date lastModified = blobMetadata.getLastModified();
         if (lastModified != null) {
             objectMetadata.setLastModified(lastModified);
         }
-        if (blob.getAllHeaders() != null) {
-            blob.getAllHeaders()
-                .asMap()
-                .forEach(objectMetadata::setHeader);
-        }
-        Map<String, String> userMetadata = blob.getMetadata()
-                                               .getUserMetadata();
+        Map<String, String> userMetadata = blobMetadata.getUserMetadata();
         if (userMetadata != null) {
             objectMetadata.setUserMetadata(userMetadata);
         }
@@ -275,10 +384,6 @@ public class AliOSSBlobStore extends BaseBlobStore {
         throw new UnsupportedOperationException();
     }
 
-    @Override
-    public BlobMetadata blobMetadata(String container, String name) {
-        throw new UnsupportedOperationException();
-    }
 
     @Override
     public BlobAccess getBlobAccess(String container, String name) {
@@ -290,26 +395,6 @@ public class AliOSSBlobStore extends BaseBlobStore {
         throw new UnsupportedOperationException();
     }
 
-    @Override
-    public MultipartUpload initiateMultipartUpload(String container, BlobMetadata blob, PutOptions options) {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public void abortMultipartUpload(MultipartUpload mpu) {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public String completeMultipartUpload(MultipartUpload mpu, List<MultipartPart> parts) {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public MultipartPart uploadMultipartPart(MultipartUpload mpu, int partNumber, Payload payload) {
-        throw new UnsupportedOperationException();
-    }
-
     @Override
     public List<MultipartPart> listMultipartUpload(MultipartUpload mpu) {
         throw new UnsupportedOperationException();
@@ -320,18 +405,4 @@ public class AliOSSBlobStore extends BaseBlobStore {
         throw new UnsupportedOperationException();
     }
 
-    @Override
-    public long getMinimumMultipartPartSize() {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public long getMaximumMultipartPartSize() {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public int getMaximumNumberOfParts() {
-        throw new UnsupportedOperationException();
-    }
 }
@@ -0,0 +1,23 @@
+package org.cloudfoundry.multiapps.controller.persistence.model;
+
+import org.immutables.value.Value;
+
+/**
+ * A byte range of a stored file. The start offset is inclusive and the end offset is exclusive.
+ */
+@Value.Immutable
+public interface FileContentToProcess {
+
+    String getId();
+
+    String getSpace();
+
+    long getStartOffset();
+
+    long getEndOffset();
+
+    default long getLength() {
+        return getEndOffset() - getStartOffset();
+    }
+
+}
@@ -10,6 +10,8 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -26,20 +28,35 @@ import org.slf4j.Logger;
 public abstract class SqlFileQueryProvider {
 
     private static final String INSERT_FILE_ATTRIBUTES_AND_CONTENT = "INSERT INTO %s (FILE_ID, SPACE, FILE_NAME, NAMESPACE, FILE_SIZE, DIGEST, DIGEST_ALGORITHM, MODIFIED, %s) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LOG_CHUNK = "INSERT INTO %s (FILE_ID, SPACE, FILE_NAME, NAMESPACE, FILE_SIZE, DIGEST, DIGEST_ALGORITHM, MODIFIED, %s, CHUNK_SEQUENCE) SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(MAX(CHUNK_SEQUENCE), 0) + 1 FROM %s WHERE NAMESPACE=? AND SPACE=? AND FILE_NAME=?";
     private static final String INSERT_FILE_ATTRIBUTES = "INSERT INTO %s (FILE_ID, SPACE, FILE_NAME, NAMESPACE, FILE_SIZE, DIGEST, DIGEST_ALGORITHM, MODIFIED) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMPOSITE_FILE_ATTRIBUTES = "INSERT INTO %s (FILE_ID, SPACE, FILE_NAME, NAMESPACE, FILE_SIZE, DIGEST, DIGEST_ALGORITHM, MODIFIED, PART_IDS) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CONTENT_ADDRESSED_FILE_ATTRIBUTES = "INSERT INTO %s (FILE_ID, SPACE, FILE_NAME, NAMESPACE, FILE_SIZE, DIGEST, DIGEST_ALGORITHM, MODIFIED, CONTENT_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
     private static final String SELECT_ALL_FILES = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s";
+    private static final String SELECT_ALL_FILES_WITH_STORED_CONTENT = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE PART_IDS IS NULL AND CONTENT_ID IS NULL";
     private static final String SELECT_FILES_BY_NAMESPACE_AND_SPACE = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE NAMESPACE=? AND SPACE=?";
-    private static final String SELECT_FILES_BY_NAMESPACE_SPACE_AND_NAME = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE NAMESPACE=? AND SPACE=? AND FILE_NAME=? ORDER BY MODIFIED ASC";
+    private static final String SELECT_LOG_CHUNKS_BY_NAMESPACE_SPACE_AND_NAME = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE NAMESPACE=? AND SPACE=? AND FILE_NAME=? ORDER BY CASE WHEN CHUNK_SEQUENCE IS NULL THEN 0 ELSE 1 END, CHUNK_SEQUENCE ASC, MODIFIED ASC";
     private static final String SELECT_FILES_BY_SPACE_WITH_NO_NAMESPACE = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE SPACE=? AND NAMESPACE IS NULL";
     private static final String SELECT_FILES_BY_SPACE = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE SPACE=?";
     private static final String SELECT_FILE_BY_ID_AND_SPACE = "SELECT FILE_ID, SPACE, DIGEST, DIGEST_ALGORITHM, MODIFIED, FILE_NAME, NAMESPACE, FILE_SIZE FROM %s WHERE FILE_ID=? AND SPACE=?";
+    private static final String SELECT_PART_IDS_BY_ID_AND_SPACE = "SELECT PART_IDS FROM %s WHERE FILE_ID=? AND SPACE=?";
+    private static final String SELECT_CONTENT_ID_BY_ID_AND_SPACE = "SELECT CONTENT_ID FROM %s WHERE FILE_ID=? AND SPACE=?";
+    private static final String SELECT_CONTENT_IDS_BY_NAMESPACE_AND_SPACE = "SELECT DISTINCT CONTENT_ID FROM %s WHERE NAMESPACE=? AND SPACE=? AND CONTENT_ID IS NOT NULL";
+    private static final String SELECT_CONTENT_IDS_BY_SPACE = "SELECT DISTINCT CONTENT_ID FROM %s WHERE SPACE=? AND CONTENT_ID IS NOT NULL";
+    private static final String SELECT_CONTENT_IDS_MODIFIED_BEFORE = "SELECT DISTINCT CONTENT_ID FROM %s WHERE MODIFIED<? AND CONTENT_ID IS NOT NULL";
+    private static final String COUNT_FILES_BY_CONTENT_ID = "SELECT COUNT(*) FROM %s WHERE CONTENT_ID=?";
+    private static final String CONTENT_LOCK_TABLE_NAME = "LM_SL_PERSISTENCE_CONTENT_LOCK";
+    private static final String INSERT_CONTENT_LOCK = "INSERT INTO %s (CONTENT_ID) VALUES (?)";
+    private static final String SELECT_CONTENT_LOCK_FOR_UPDATE = "SELECT CONTENT_ID FROM %s WHERE CONTENT_ID=? FOR UPDATE";
+    private static final String DELETE_CONTENT_LOCK = "DELETE FROM %s WHERE CONTENT_ID=?";
     private static final String SELECT_FILE_WITH_CONTENT_BY_ID_AND_SPACE = "SELECT FILE_ID, SPACE, %s FROM %s WHERE FILE_ID=? AND SPACE=?";
     private static final String DELETE_FILES_BY_NAMESPACE_AND_SPACE = "DELETE FROM %s WHERE NAMESPACE=? AND SPACE=?";
     private static final String DELETE_FILES_BY_NAMESPACE = "DELETE FROM %s WHERE NAMESPACE=?";
     private static final String DELETE_FILES_BY_SPACE = "DELETE FROM %s WHERE SPACE=?";
     private static final String DELETE_FILES_MODIFIED_BEFORE = "DELETE FROM %s WHERE MODIFIED<?";
     private static final String DELETE_FILE_BY_ID_AND_SPACE = "DELETE FROM %s WHERE FILE_ID=? AND SPACE=?";
-    private static final String DELETE_FILES_WITHOUT_CONTENT = "DELETE FROM %s WHERE CONTENT IS NULL";
+    private static final String DELETE_FILES_WITHOUT_CONTENT = "DELETE FROM %s WHERE CONTENT IS NULL AND PART_IDS IS NULL";
+    private static final String PART_IDS_SEPARATOR = ",";
 
     private final String tableName;
     private final DataSourceDialect dataSourceDialect;
@@ -72,6 +89,28 @@ public abstract class SqlFileQueryProvider {
         };
     }
 
+    /**
+     * Stores the next chunk of a log. Its sequence number is one more than the one of the last stored chunk of the log and is unique per
+     * log. When two chunks of the same log are inserted concurrently, the later insert fails, instead of the chunk getting a sequence
+     * number, which may become visible before a smaller one. Therefore the chunks of a log are only ever appended to their order.
+     */
+    public SqlQuery<Boolean> getStoreLogChunkQuery(FileEntry fileEntry, InputStream content) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(String.format(INSERT_LOG_CHUNK, tableName, getContentColumnName(), tableName));
+                setFileAttributes(statement, fileEntry);
+                setContentBinaryStream(statement, 9, content);
+                setOrNull(statement, 10, fileEntry.getNamespace());
+                statement.setString(11, fileEntry.getSpace());
+                statement.setString(12, fileEntry.getName());
+                return statement.executeUpdate() > 0;
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
     protected abstract void setContentBinaryStream(PreparedStatement statement, int index, InputStream content) throws SQLException;
 
     public SqlQuery<Boolean> getStoreFileAttributesQuery(FileEntry fileEntry) {
@@ -79,15 +118,7 @@ public abstract class SqlFileQueryProvider {
             PreparedStatement statement = null;
             try {
                 statement = connection.prepareStatement(getQuery(INSERT_FILE_ATTRIBUTES));
-                statement.setString(1, fileEntry.getId());
-                statement.setString(2, fileEntry.getSpace());
-                statement.setString(3, fileEntry.getName());
-                setOrNull(statement, 4, fileEntry.getNamespace());
-                getDataSourceDialect().setBigInteger(statement, 5, fileEntry.getSize());
-                statement.setString(6, fileEntry.getDigest());
-                statement.setString(7, fileEntry.getDigestAlgorithm());
-                statement.setTimestamp(8, new Timestamp(fileEntry.getModified()
-                                                                 .getTime()));
+                setFileAttributes(statement, fileEntry);
                 return statement.executeUpdate() > 0;
             } finally {
                 JdbcUtil.closeQuietly(statement);
@@ -95,6 +126,46 @@ public abstract class SqlFileQueryProvider {
         };
     }
 
+    public SqlQuery<Boolean> getStoreCompositeFileAttributesQuery(FileEntry fileEntry, List<String> partIds) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getQuery(INSERT_COMPOSITE_FILE_ATTRIBUTES));
+                setFileAttributes(statement, fileEntry);
+                statement.setString(9, String.join(PART_IDS_SEPARATOR, partIds));
+                return statement.executeUpdate() > 0;
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    public SqlQuery<Boolean> getStoreContentAddressedFileAttributesQuery(FileEntry fileEntry, String contentId) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getQuery(INSERT_CONTENT_ADDRESSED_FILE_ATTRIBUTES));
+                setFileAttributes(statement, fileEntry);
+                statement.setString(9, contentId);
+                return statement.executeUpdate() > 0;
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    private void setFileAttributes(PreparedStatement statement, FileEntry fileEntry) throws SQLException {
+        statement.setString(1, fileEntry.getId());
+        statement.setString(2, fileEntry.getSpace());
+        statement.setString(3, fileEntry.getName());
+        setOrNull(statement, 4, fileEntry.getNamespace());
+        getDataSourceDialect().setBigInteger(statement, 5, fileEntry.getSize());
+        statement.setString(6, fileEntry.getDigest());
+        statement.setString(7, fileEntry.getDigestAlgorithm());
+        statement.setTimestamp(8, new Timestamp(fileEntry.getModified()
+                                                         .getTime()));
+    }
+
     public SqlQuery<List<FileEntry>> getListFilesQuery(String space, String namespace) {
         return (Connection connection) -> {
             PreparedStatement statement = null;
@@ -114,13 +185,13 @@ public abstract class SqlFileQueryProvider {
         };
     }
 
-    public SqlQuery<List<FileEntry>> getListFilesQuery(String space, String namespace, String fileName) {
+    public SqlQuery<List<FileEntry>> getListLogChunksQuery(String space, String namespace, String fileName) {
         return (Connection connection) -> {
             PreparedStatement statement = null;
             ResultSet resultSet = null;
             try {
                 List<FileEntry> files = new ArrayList<>();
-                statement = connection.prepareStatement(getQuery(SELECT_FILES_BY_NAMESPACE_SPACE_AND_NAME));
+                statement = connection.prepareStatement(getQuery(SELECT_LOG_CHUNKS_BY_NAMESPACE_SPACE_AND_NAME));
                 statement.setString(1, namespace);
                 statement.setString(2, space);
                 statement.setString(3, fileName);
@@ -155,6 +226,198 @@ public abstract class SqlFileQueryProvider {
         };
     }
 
+    public SqlQuery<List<FileEntry>> getListAllFilesWithStoredContentQuery() {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                List<FileEntry> files = new ArrayList<>();
+                statement = connection.prepareStatement(getQuery(SELECT_ALL_FILES_WITH_STORED_CONTENT));
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    files.add(getFileEntry(resultSet));
+                }
+                return files;
+            } finally {
+                JdbcUtil.closeQuietly(resultSet);
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    /**
+     * Returns the IDs of the parts of a composite file in their order, or an empty list if the file is not composite.
+     */
+    public SqlQuery<List<String>> getRetrievePartIdsQuery(String space, String id) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(getQuery(SELECT_PART_IDS_BY_ID_AND_SPACE));
+                statement.setString(1, id);
+                statement.setString(2, space);
+                resultSet = statement.executeQuery();
+                if (resultSet.next()) {
+                    return toPartIds(resultSet.getString(Constants.FILE_ENTRY_PART_IDS));
+                }
+                return Collections.emptyList();
+            } finally {
+                JdbcUtil.closeQuietly(resultSet);
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    private List<String> toPartIds(String partIds) {
+        if (partIds == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(partIds.split(PART_IDS_SEPARATOR));
+    }
+
+    /**
+     * Returns the ID of the content of a content-addressed file, or null if the content of the file is stored under its own ID.
+     */
+    public SqlQuery<String> getRetrieveContentIdQuery(String space, String id) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(getQuery(SELECT_CONTENT_ID_BY_ID_AND_SPACE));
+                statement.setString(1, id);
+                statement.setString(2, space);
+                resultSet = statement.executeQuery();
+                if (resultSet.next()) {
+                    return resultSet.getString(Constants.FILE_ENTRY_CONTENT_ID);
+                }
+                return null;
+            } finally {
+                JdbcUtil.closeQuietly(resultSet);
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    public SqlQuery<List<String>> getListContentIdsQuery(String space, String namespace) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getQuery(SELECT_CONTENT_IDS_BY_NAMESPACE_AND_SPACE));
+                statement.setString(1, namespace);
+                statement.setString(2, space);
+                return getContentIds(statement);
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    public SqlQuery<List<String>> getListContentIdsQuery(String space) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getQuery(SELECT_CONTENT_IDS_BY_SPACE));
+                statement.setString(1, space);
+                return getContentIds(statement);
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    public SqlQuery<List<String>> getListContentIdsModifiedBeforeQuery(Date modificationTime) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getQuery(SELECT_CONTENT_IDS_MODIFIED_BEFORE));
+                statement.setTimestamp(1, new Timestamp(modificationTime.getTime()));
+                return getContentIds(statement);
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    private List<String> getContentIds(PreparedStatement statement) throws SQLException {
+        ResultSet resultSet = null;
+        try {
+            List<String> contentIds = new ArrayList<>();
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                contentIds.add(resultSet.getString(Constants.FILE_ENTRY_CONTENT_ID));
+            }
+            return contentIds;
+        } finally {
+            JdbcUtil.closeQuietly(resultSet);
+        }
+    }
+
+    /**
+     * Returns the number of files, which reference the content with the given ID.
+     */
+    public SqlQuery<Integer> getCountFilesWithContentIdQuery(String contentId) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(getQuery(COUNT_FILES_BY_CONTENT_ID));
+                statement.setString(1, contentId);
+                resultSet = statement.executeQuery();
+                resultSet.next();
+                return resultSet.getInt(1);
+            } finally {
+                JdbcUtil.closeQuietly(resultSet);
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    public SqlQuery<Boolean> getInsertContentLockQuery(String contentId) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getContentLockQuery(INSERT_CONTENT_LOCK));
+                statement.setString(1, contentId);
+                return statement.executeUpdate() > 0;
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    /**
+     * Locks the row of the content with the given ID until the end of the transaction, so that the content is not stored and deleted
+     * concurrently. Returns false if the row does not exist.
+     */
+    public SqlQuery<Boolean> getLockContentQuery(String contentId) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(getContentLockQuery(SELECT_CONTENT_LOCK_FOR_UPDATE));
+                statement.setString(1, contentId);
+                resultSet = statement.executeQuery();
+                return resultSet.next();
+            } finally {
+                JdbcUtil.closeQuietly(resultSet);
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
+    public SqlQuery<Boolean> getDeleteContentLockQuery(String contentId) {
+        return (Connection connection) -> {
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(getContentLockQuery(DELETE_CONTENT_LOCK));
+                statement.setString(1, contentId);
+                return statement.executeUpdate() > 0;
+            } finally {
+                JdbcUtil.closeQuietly(statement);
+            }
+        };
+    }
+
     public SqlQuery<FileEntry> getRetrieveFileQuery(String space, String id) {
         return (Connection connection) -> {
             PreparedStatement statement = null;
@@ -311,6 +574,10 @@ public abstract class SqlFileQueryProvider {
         return String.format(statementTemplate, tableName);
     }
 
+    private String getContentLockQuery(String statementTemplate) {
+        return String.format(statementTemplate, CONTENT_LOCK_TABLE_NAME);
+    }
+
     private String getInsertWithContentQuery() {
         return String.format(INSERT_FILE_ATTRIBUTES_AND_CONTENT, tableName, getContentColumnName());
     }
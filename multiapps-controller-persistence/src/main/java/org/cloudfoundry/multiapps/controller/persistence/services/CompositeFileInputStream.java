@@ -0,0 +1,152 @@
+package org.cloudfoundry.multiapps.controller.persistence.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
+
+/**
+ * An input stream over the content of a composite file, i.e. the concatenated content of its parts. The parts are read sequentially by a
+ * background task, which stays at most {@code maxPendingChunks} chunks ahead of the reader of the stream. That way the next part is
+ * already being read while the current one is still being processed, without ever storing the whole content.
+ */
+class CompositeFileInputStream extends InputStream {
+
+    @FunctionalInterface
+    interface PartContentReader {
+
+        void read(FileContentToProcess part, FileContentConsumer partContentConsumer) throws FileStorageException;
+
+    }
+
+    private static final byte[] END_OF_CONTENT = new byte[0];
+
+    private final BlockingQueue<byte[]> pendingChunks;
+    private final Future<?> partsReadingTask;
+    private volatile Exception partsReadingException;
+    private byte[] currentChunk = new byte[0];
+    private int positionInCurrentChunk;
+    private boolean endOfContentReached;
+
+    CompositeFileInputStream(ExecutorService executorService, List<FileContentToProcess> parts, PartContentReader partContentReader,
+                             int chunkSize, int maxPendingChunks) {
+        this.pendingChunks = new ArrayBlockingQueue<>(maxPendingChunks);
+        this.partsReadingTask = executorService.submit(() -> readParts(parts, partContentReader, chunkSize));
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureCurrentChunkHasContent()) {
+            return -1;
+        }
+        return currentChunk[positionInCurrentChunk++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureCurrentChunkHasContent()) {
+            return -1;
+        }
+        int bytesToCopy = Math.min(length, currentChunk.length - positionInCurrentChunk);
+        System.arraycopy(currentChunk, positionInCurrentChunk, buffer, offset, bytesToCopy);
+        positionInCurrentChunk += bytesToCopy;
+        return bytesToCopy;
+    }
+
+    @Override
+    public int available() {
+        return currentChunk.length - positionInCurrentChunk;
+    }
+
+    @Override
+    public void close() {
+        partsReadingTask.cancel(true);
+        pendingChunks.clear();
+        endOfContentReached = true;
+    }
+
+    private void readParts(List<FileContentToProcess> parts, PartContentReader partContentReader, int chunkSize) {
+        try {
+            for (FileContentToProcess part : parts) {
+                partContentReader.read(part, partContent -> readChunks(partContent, chunkSize));
+            }
+        } catch (Exception e) {
+            partsReadingException = e;
+        } finally {
+            signalEndOfContent();
+        }
+    }
+
+    private void readChunks(InputStream partContent, int chunkSize) throws IOException {
+        byte[] chunk = new byte[chunkSize];
+        for (int bytesRead; (bytesRead = partContent.read(chunk)) != -1;) {
+            if (bytesRead > 0) {
+                putChunk(chunk, bytesRead);
+            }
+        }
+    }
+
+    private void putChunk(byte[] chunk, int length) throws InterruptedIOException {
+        byte[] chunkCopy = new byte[length];
+        System.arraycopy(chunk, 0, chunkCopy, 0, length);
+        try {
+            pendingChunks.put(chunkCopy);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    private void signalEndOfContent() {
+        try {
+            pendingChunks.put(END_OF_CONTENT);
+        } catch (InterruptedException e) {
+            // The stream was closed, so there is no one to signal:
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private boolean ensureCurrentChunkHasContent() throws IOException {
+        while (positionInCurrentChunk >= currentChunk.length) {
+            if (endOfContentReached) {
+                return false;
+            }
+            currentChunk = takeNextChunk();
+            positionInCurrentChunk = 0;
+            if (currentChunk == END_OF_CONTENT) {
+                endOfContentReached = true;
+                throwIfPartsReadingFailed();
+            }
+        }
+        return true;
+    }
+
+    private byte[] takeNextChunk() throws IOException {
+        try {
+            return pendingChunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            close();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    private void throwIfPartsReadingFailed() throws IOException {
+        if (partsReadingException != null) {
+            throw new IOException(partsReadingException.getMessage(), partsReadingException);
+        }
+    }
+
+}
@@ -4,8 +4,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileInfo;
 import org.cloudfoundry.multiapps.controller.persistence.query.providers.BlobSqlFileQueryProvider;
@@ -17,6 +21,11 @@ public class DatabaseFileService extends FileService {
         this(DEFAULT_TABLE_NAME, dataSourceWithDialect);
     }
 
+    public DatabaseFileService(DataSourceWithDialect dataSourceWithDialect, ExecutorService compositeFileReadingExecutor) {
+        super(dataSourceWithDialect, new BlobSqlFileQueryProvider(DEFAULT_TABLE_NAME, dataSourceWithDialect.getDataSourceDialect()), null,
+              false, false, compositeFileReadingExecutor);
+    }
+
     public DatabaseFileService(String tableName, DataSourceWithDialect dataSourceWithDialect) {
         this(dataSourceWithDialect, new BlobSqlFileQueryProvider(tableName, dataSourceWithDialect.getDataSourceDialect()));
     }
@@ -26,7 +35,41 @@ public class DatabaseFileService extends FileService {
     }
 
     @Override
-    public <T> T processFileContent(String space, String id, FileContentProcessor<T> fileContentProcessor) throws FileStorageException {
+    public FileEntry addFile(String space, String namespace, String name, InputStream inputStream) throws FileStorageException {
+        // The size and the digest of the file are stored together with its content, so they have to be calculated first:
+        return addFileThroughTempFile(space, namespace, name, inputStream);
+    }
+
+    @Override
+    protected <T> T processStoredFileContent(String space, String id, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileEntry fileEntry = getFile(space, id);
+        if (isCompositeFile(fileEntry)) {
+            return processCompositeFileContent(fileEntry, 0, Long.MAX_VALUE, fileContentProcessor);
+        }
+        return processFileWithContent(space, id, fileContentProcessor);
+    }
+
+    @Override
+    protected <T> T processStoredFileContentRange(FileContentToProcess fileContentToProcess, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileEntry fileEntry = getFile(fileContentToProcess.getSpace(), fileContentToProcess.getId());
+        if (isCompositeFile(fileEntry)) {
+            return processCompositeFileContent(fileEntry, fileContentToProcess.getStartOffset(), fileContentToProcess.getEndOffset(),
+                                               fileContentProcessor);
+        }
+        // Blobs in the database cannot be read by offset, so the content before the range is skipped instead:
+        return processFileWithContent(fileContentToProcess.getSpace(), fileContentToProcess.getId(), fileContentStream -> {
+            IOUtils.skipFully(fileContentStream, fileContentToProcess.getStartOffset());
+            return fileContentProcessor.process(new BoundedInputStream(fileContentStream, fileContentToProcess.getLength()));
+        });
+    }
+
+    /**
+     * Reads the content stored together with the file entry, without checking whether the file is composite first.
+     */
+    protected <T> T processFileWithContent(String space, String id, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
         try {
             return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getProcessFileWithContentQuery(space, id, fileContentProcessor));
         } catch (SQLException e) {
@@ -51,6 +94,11 @@ public class DatabaseFileService extends FileService {
 
     @Override
     public boolean deleteFile(String space, String id) throws FileStorageException {
+        if (isCompositeFile(getFile(space, id))) {
+            for (String partId : getPartIds(space, id)) {
+                deleteFileAttribute(space, partId);
+            }
+        }
         return deleteFileAttribute(space, id);
     }
 
@@ -5,22 +5,39 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.input.CountingInputStream;
 import org.cloudfoundry.multiapps.common.SLException;
 import org.cloudfoundry.multiapps.common.util.DigestHelper;
+import org.cloudfoundry.multiapps.controller.persistence.Constants;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
 import org.cloudfoundry.multiapps.controller.persistence.Messages;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileInfo;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileInfo;
+import org.cloudfoundry.multiapps.controller.persistence.query.SqlQuery;
 import org.cloudfoundry.multiapps.controller.persistence.query.providers.ExternalSqlFileQueryProvider;
 import org.cloudfoundry.multiapps.controller.persistence.query.providers.SqlFileQueryProvider;
 import org.cloudfoundry.multiapps.controller.persistence.util.SqlQueryExecutor;
@@ -30,25 +47,90 @@ import org.slf4j.LoggerFactory;
 public class FileService {
 
     protected static final String DEFAULT_TABLE_NAME = "LM_SL_PERSISTENCE_FILE";
+    protected static final String COMPOSITE_DIGEST_METHOD = FileUploader.DIGEST_METHOD + "-OF-PARTS";
+    private static final int COMPOSITE_FILE_CHUNK_SIZE = 1024 * 1024; // 1MB
+    private static final int COMPOSITE_FILE_MAX_PENDING_CHUNKS = 8;
+    private static final int DEFAULT_COMPOSITE_FILE_READING_THREADS = 16;
+    private static final String COMPOSITE_FILE_READING_THREAD_NAME_PREFIX = "composite-file-reading-";
+    private static final long COMPOSITE_FILE_READING_THREADS_KEEP_ALIVE_IN_SECONDS = 60;
+    private static final String CONTENT_ID_DIGEST_METHOD = "SHA-256";
+    private static final int MAX_CONTENT_LOCK_ATTEMPTS = 3;
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final FileStorage fileStorage;
     private final SqlQueryExecutor sqlQueryExecutor;
     private final SqlFileQueryProvider sqlFileQueryProvider;
+    private final boolean useFileTableAsStorageIndex;
+    private final boolean useContentAddressedStorage;
+    private final ExecutorService compositeFileReadingExecutor;
 
     public FileService(DataSourceWithDialect dataSourceWithDialect, FileStorage fileStorage) {
         this(DEFAULT_TABLE_NAME, dataSourceWithDialect, fileStorage);
     }
 
+    /**
+     * @param useFileTableAsStorageIndex whether the files of a space or a namespace should be deleted by the entries in the file table,
+     *        instead of by enumerating the whole file storage.
+     * @param useContentAddressedStorage whether the content of the files should be stored under its SHA-256 digest, so that files with
+     *        the same content share it in the file storage. The content is then deleted only when no file references it anymore.
+     */
+    public FileService(DataSourceWithDialect dataSourceWithDialect, FileStorage fileStorage, boolean useFileTableAsStorageIndex,
+                       boolean useContentAddressedStorage) {
+        this(dataSourceWithDialect, fileStorage, useFileTableAsStorageIndex, useContentAddressedStorage,
+             createCompositeFileReadingExecutor(DEFAULT_COMPOSITE_FILE_READING_THREADS));
+    }
+
+    /**
+     * @param compositeFileReadingExecutor executor reading ahead the parts of composite files. Its number of threads bounds how many parts
+     *        are read concurrently by all reads of composite files, and reads beyond that wait until one of the earlier ones is done.
+     */
+    public FileService(DataSourceWithDialect dataSourceWithDialect, FileStorage fileStorage, boolean useFileTableAsStorageIndex,
+                       boolean useContentAddressedStorage, ExecutorService compositeFileReadingExecutor) {
+        this(dataSourceWithDialect, new ExternalSqlFileQueryProvider(DEFAULT_TABLE_NAME, dataSourceWithDialect.getDataSourceDialect()),
+             fileStorage, useFileTableAsStorageIndex, useContentAddressedStorage, compositeFileReadingExecutor);
+    }
+
     public FileService(String tableName, DataSourceWithDialect dataSourceWithDialect, FileStorage fileStorage) {
         this(dataSourceWithDialect, new ExternalSqlFileQueryProvider(tableName, dataSourceWithDialect.getDataSourceDialect()), fileStorage);
     }
 
     protected FileService(DataSourceWithDialect dataSourceWithDialect, SqlFileQueryProvider sqlFileQueryProvider, FileStorage fileStorage) {
+        this(dataSourceWithDialect, sqlFileQueryProvider, fileStorage, false, false);
+    }
+
+    protected FileService(DataSourceWithDialect dataSourceWithDialect, SqlFileQueryProvider sqlFileQueryProvider, FileStorage fileStorage,
+                          boolean useFileTableAsStorageIndex, boolean useContentAddressedStorage) {
+        this(dataSourceWithDialect, sqlFileQueryProvider, fileStorage, useFileTableAsStorageIndex, useContentAddressedStorage,
+             createCompositeFileReadingExecutor(DEFAULT_COMPOSITE_FILE_READING_THREADS));
+    }
+
+    protected FileService(DataSourceWithDialect dataSourceWithDialect, SqlFileQueryProvider sqlFileQueryProvider, FileStorage fileStorage,
+                          boolean useFileTableAsStorageIndex, boolean useContentAddressedStorage,
+                          ExecutorService compositeFileReadingExecutor) {
         this.sqlQueryExecutor = new SqlQueryExecutor(dataSourceWithDialect.getDataSource());
         this.sqlFileQueryProvider = sqlFileQueryProvider.withLogger(logger);
         this.fileStorage = fileStorage;
+        this.useFileTableAsStorageIndex = useFileTableAsStorageIndex;
+        this.useContentAddressedStorage = useContentAddressedStorage;
+        this.compositeFileReadingExecutor = compositeFileReadingExecutor;
+    }
+
+    /**
+     * Creates an executor for reading ahead the parts of composite files, whose idle threads are stopped after a while.
+     */
+    public static ExecutorService createCompositeFileReadingExecutor(int threads) {
+        AtomicInteger threadsCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, COMPOSITE_FILE_READING_THREADS_KEEP_ALIVE_IN_SECONDS,
+                                                             TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                                                                 Thread thread = new Thread(runnable,
+                                                                                            COMPOSITE_FILE_READING_THREAD_NAME_PREFIX
+                                                                                                + threadsCount.incrementAndGet());
+                                                                 thread.setDaemon(true);
+                                                                 return thread;
+                                                             });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -63,11 +145,37 @@ public class FileService {
      * @throws FileStorageException
      */
     public FileEntry addFile(String space, String namespace, String name, InputStream inputStream) throws FileStorageException {
-        // Stream the file to a temp location and get the size and MD5 digest
-        // as an alternative we can pass the original stream to the database,
-        // and decorate the blob stream to calculate digest and size, but this will still require
-        // two roundtrips to the database (insert of the content and then update with the digest and
-        // size), which is probably inefficient
+        if (useContentAddressedStorage) {
+            // The digest of the content has to be known before it is stored, so that already stored content is not stored again:
+            return addFileThroughTempFile(space, namespace, name, inputStream);
+        }
+        // The content is streamed directly to the file storage, while its size and digest are calculated. The file attributes are stored
+        // only after that, so that they are complete:
+        FileEntry fileEntry = createFileEntry(space, namespace, name);
+        MessageDigest digest = createDigest();
+        try (CountingInputStream contentStream = new CountingInputStream(new DigestInputStream(inputStream, digest))) {
+            fileStorage.addFile(fileEntry, contentStream);
+            FileEntry storedFileEntry = ImmutableFileEntry.builder()
+                                                          .from(fileEntry)
+                                                          .size(BigInteger.valueOf(contentStream.getByteCount()))
+                                                          .digest(FileUploader.getDigestString(digest.digest()))
+                                                          .digestAlgorithm(FileUploader.DIGEST_METHOD)
+                                                          .build();
+            storeFileAttributesOrDeleteContent(storedFileEntry);
+            logger.debug(MessageFormat.format(Messages.STORED_FILE_0, storedFileEntry));
+            return storedFileEntry;
+        } catch (IOException e) {
+            logger.debug(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Uploads a new file by staging its content in a temporary file first. Used when the size and the digest of the file are needed
+     * before its content is stored.
+     */
+    protected FileEntry addFileThroughTempFile(String space, String namespace, String name, InputStream inputStream)
+        throws FileStorageException {
         FileInfo fileInfo = null;
         FileEntry fileEntry = null;
         try (InputStream autoClosedInputStream = inputStream) {
@@ -83,6 +191,37 @@ public class FileService {
         return fileEntry;
     }
 
+    /**
+     * Adds a composite file, whose content is the content of the given parts, concatenated in their order. The content of the parts is
+     * not copied - it is read from them whenever the content of the composite file is processed. Deleting the composite file deletes its
+     * parts as well.
+     *
+     * @param space
+     * @param namespace namespace of the composite file
+     * @param name name of the composite file
+     * @param parts the parts of the composite file in their order
+     * @return an object representing the composite file
+     * @throws FileStorageException
+     */
+    public FileEntry addCompositeFile(String space, String namespace, String name, List<FileEntry> parts) throws FileStorageException {
+        FileEntry fileEntry = ImmutableFileEntry.builder()
+                                                .from(createFileEntry(space, namespace, name))
+                                                .size(getCompositeSize(parts))
+                                                .digest(getCompositeDigest(parts))
+                                                .digestAlgorithm(COMPOSITE_DIGEST_METHOD)
+                                                .build();
+        List<String> partIds = parts.stream()
+                                    .map(FileEntry::getId)
+                                    .collect(Collectors.toList());
+        try {
+            getSqlQueryExecutor().execute(getSqlFileQueryProvider().getStoreCompositeFileAttributesQuery(fileEntry, partIds));
+        } catch (SQLException e) {
+            throw new FileStorageException(e.getMessage(), e);
+        }
+        logger.debug(MessageFormat.format(Messages.STORED_COMPOSITE_FILE_0_WITH_PARTS_1, fileEntry, partIds));
+        return fileEntry;
+    }
+
     public FileEntry addFile(String space, String namespace, String name, File existingFile) throws FileStorageException {
         try {
             FileInfo fileInfo = createFileInfo(existingFile);
@@ -122,32 +261,83 @@ public class FileService {
     }
 
     public <T> T processFileContent(String space, String id, FileContentProcessor<T> fileContentProcessor) throws FileStorageException {
-        return fileStorage.processFileContent(space, id, fileContentProcessor);
+        return processStoredFileContent(space, id, fileContentProcessor);
+    }
+
+    /**
+     * Processes only a byte range of a file. Should be preferred over {@link #processFileContent} when the location of the needed
+     * content is known upfront (for example from the central directory of an archive), as it avoids reading the whole file.
+     *
+     * @param fileContentToProcess the file and the byte range to process
+     * @param fileContentProcessor processor of the content in the range
+     * @return the result of the processor
+     * @throws FileStorageException
+     */
+    public <T> T processFileContentRange(FileContentToProcess fileContentToProcess, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        return processStoredFileContentRange(fileContentToProcess, fileContentProcessor);
     }
 
     public int deleteBySpaceAndNamespace(String space, String namespace) throws FileStorageException {
-        fileStorage.deleteFilesBySpaceAndNamespace(space, namespace);
-        return deleteFileAttributesBySpaceAndNamespace(space, namespace);
+        List<String> contentIds = getContentIds(getSqlFileQueryProvider().getListContentIdsQuery(space, namespace));
+        if (useFileTableAsStorageIndex) {
+            fileStorage.deleteFiles(listFiles(space, namespace));
+        } else {
+            fileStorage.deleteFilesBySpaceAndNamespace(space, namespace);
+        }
+        int deletedFiles = deleteFileAttributesBySpaceAndNamespace(space, namespace);
+        deleteUnreferencedContent(contentIds);
+        return deletedFiles;
     }
 
+    /**
+     * Deletes all files in a space. When the file table is used as a storage index, only the files known to it are deleted from the file
+     * storage, so that the storage does not have to be enumerated. Files missing from the table are then left for
+     * {@link #deleteModifiedBefore(Date)}.
+     */
     public int deleteBySpace(String space) throws FileStorageException {
-        fileStorage.deleteFilesBySpace(space);
-        return deleteFileAttributesBySpace(space);
+        List<String> contentIds = getContentIds(getSqlFileQueryProvider().getListContentIdsQuery(space));
+        if (useFileTableAsStorageIndex) {
+            fileStorage.deleteFiles(listFiles(space, null));
+        } else {
+            fileStorage.deleteFilesBySpace(space);
+        }
+        int deletedFiles = deleteFileAttributesBySpace(space);
+        deleteUnreferencedContent(contentIds);
+        return deletedFiles;
     }
 
+    /**
+     * Deletes all files modified before the given time. Content shared by content-addressed files is not deleted by its age, but only
+     * when the last file referencing it is deleted.
+     */
     public int deleteModifiedBefore(Date modificationTime) throws FileStorageException {
+        List<String> contentIds = getContentIds(getSqlFileQueryProvider().getListContentIdsModifiedBeforeQuery(modificationTime));
         int deletedItems = fileStorage.deleteFilesModifiedBefore(modificationTime);
-        return deleteFileAttributesModifiedBefore(modificationTime) + deletedItems;
+        deletedItems += deleteFileAttributesModifiedBefore(modificationTime);
+        return deleteUnreferencedContent(contentIds) + deletedItems;
     }
 
     public boolean deleteFile(String space, String id) throws FileStorageException {
-        fileStorage.deleteFile(id, space);
-        return deleteFileAttribute(space, id);
+        List<String> partIds = isCompositeFile(getFile(space, id)) ? getPartIds(space, id) : Collections.emptyList();
+        String contentId = getContentId(space, id);
+        if (partIds.isEmpty() && contentId == null) {
+            fileStorage.deleteFile(id, space);
+        }
+        for (String partId : partIds) {
+            deleteFile(space, partId);
+        }
+        boolean deleted = deleteFileAttribute(space, id);
+        if (contentId != null) {
+            deleteUnreferencedContent(Collections.singletonList(contentId));
+        }
+        return deleted;
     }
 
     public int deleteFilesEntriesWithoutContent() throws FileStorageException {
         try {
-            List<FileEntry> entries = getSqlQueryExecutor().execute(getSqlFileQueryProvider().getListAllFilesQuery());
+            // Composite files have no content of their own in the file storage:
+            List<FileEntry> entries = getSqlQueryExecutor().execute(getSqlFileQueryProvider().getListAllFilesWithStoredContentQuery());
             List<FileEntry> missing = fileStorage.getFileEntriesWithoutContent(entries);
             return deleteFileEntries(missing);
         } catch (SQLException e) {
@@ -155,7 +345,68 @@ public class FileService {
         }
     }
 
+    protected <T> T processStoredFileContent(String space, String id, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileEntry fileEntry = getFile(space, id);
+        if (fileEntry == null) {
+            return fileStorage.processFileContent(space, id, fileContentProcessor);
+        }
+        if (isCompositeFile(fileEntry)) {
+            return processCompositeFileContent(fileEntry, 0, Long.MAX_VALUE, fileContentProcessor);
+        }
+        String contentId = getContentId(space, id);
+        if (contentId == null) {
+            return fileStorage.processFileContent(fileEntry, fileContentProcessor);
+        }
+        return fileStorage.processFileContent(createContentEntry(fileEntry, contentId), fileContentProcessor);
+    }
+
+    protected <T> T processStoredFileContentRange(FileContentToProcess fileContentToProcess, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileEntry fileEntry = getFile(fileContentToProcess.getSpace(), fileContentToProcess.getId());
+        if (isCompositeFile(fileEntry)) {
+            return processCompositeFileContent(fileEntry, fileContentToProcess.getStartOffset(), fileContentToProcess.getEndOffset(),
+                                               fileContentProcessor);
+        }
+        String contentId = getContentId(fileContentToProcess.getSpace(), fileContentToProcess.getId());
+        if (contentId == null) {
+            return fileStorage.processFileContentRange(fileContentToProcess, fileContentProcessor);
+        }
+        FileContentToProcess contentToProcess = ImmutableFileContentToProcess.builder()
+                                                                             .from(fileContentToProcess)
+                                                                             .id(contentId)
+                                                                             .space(Constants.CONTENT_ADDRESSED_FILES_SPACE)
+                                                                             .build();
+        return fileStorage.processFileContentRange(contentToProcess, fileContentProcessor);
+    }
+
+    /**
+     * Only composite files have parts, so their parts are looked up only when the file entry says so.
+     */
+    protected boolean isCompositeFile(FileEntry fileEntry) {
+        return fileEntry != null && COMPOSITE_DIGEST_METHOD.equals(fileEntry.getDigestAlgorithm());
+    }
+
+    protected <T> T processCompositeFileContent(FileEntry fileEntry, long startOffset, long endOffset,
+                                                FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        List<FileEntry> parts = getFileParts(fileEntry.getSpace(), fileEntry.getId());
+        return processCompositeFileContent(getPartRanges(parts, startOffset, endOffset), fileContentProcessor);
+    }
+
+    protected List<String> getPartIds(String space, String id) throws FileStorageException {
+        try {
+            return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getRetrievePartIdsQuery(space, id));
+        } catch (SQLException e) {
+            throw new FileStorageException(e.getMessage(), e);
+        }
+    }
+
     protected void storeFile(FileEntry fileEntry, FileInfo fileInfo) throws FileStorageException {
+        if (useContentAddressedStorage) {
+            storeContentAddressedFile(fileEntry, fileInfo);
+            return;
+        }
         fileStorage.addFile(fileEntry, fileInfo.getFile());
         storeFileAttributes(fileEntry);
     }
@@ -192,6 +443,16 @@ public class FileService {
         }
     }
 
+    protected FileEntry createFileEntry(String space, String namespace, String name) {
+        return ImmutableFileEntry.builder()
+                                 .id(generateRandomId())
+                                 .space(space)
+                                 .name(name)
+                                 .namespace(namespace)
+                                 .modified(new Timestamp(System.currentTimeMillis()))
+                                 .build();
+    }
+
     protected FileEntry createFileEntry(String space, String namespace, String name, FileInfo localFile) {
         return ImmutableFileEntry.builder()
                                  .id(generateRandomId())
@@ -235,6 +496,264 @@ public class FileService {
                    .toString();
     }
 
+    private BigInteger getCompositeSize(List<FileEntry> parts) {
+        return parts.stream()
+                    .map(FileEntry::getSize)
+                    .reduce(BigInteger.ZERO, BigInteger::add);
+    }
+
+    private String getCompositeDigest(List<FileEntry> parts) throws FileStorageException {
+        // Similarly to the ETags of multipart uploads, the digest of a composite file is calculated from the digests of its parts, so that
+        // its content does not have to be read:
+        MessageDigest digest = createDigest();
+        for (FileEntry part : parts) {
+            digest.update(part.getDigest()
+                              .getBytes(StandardCharsets.UTF_8));
+        }
+        return FileUploader.getDigestString(digest.digest());
+    }
+
+    private List<FileEntry> getFileParts(String space, String id) throws FileStorageException {
+        List<FileEntry> parts = new ArrayList<>();
+        for (String partId : getPartIds(space, id)) {
+            FileEntry part = getFile(space, partId);
+            if (part == null) {
+                throw new FileStorageException(MessageFormat.format(Messages.FILE_WITH_ID_AND_SPACE_DOES_NOT_EXIST, partId, space));
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private List<FileContentToProcess> getPartRanges(List<FileEntry> parts, long startOffset, long endOffset) {
+        List<FileContentToProcess> partRanges = new ArrayList<>();
+        long partStartOffset = 0;
+        for (FileEntry part : parts) {
+            long partEndOffset = partStartOffset + part.getSize()
+                                                       .longValue();
+            if (partEndOffset > startOffset && partStartOffset < endOffset) {
+                partRanges.add(ImmutableFileContentToProcess.builder()
+                                                            .id(part.getId())
+                                                            .space(part.getSpace())
+                                                            .startOffset(Math.max(startOffset, partStartOffset) - partStartOffset)
+                                                            .endOffset(Math.min(endOffset, partEndOffset) - partStartOffset)
+                                                            .build());
+            }
+            partStartOffset = partEndOffset;
+        }
+        return partRanges;
+    }
+
+    private <T> T processCompositeFileContent(List<FileContentToProcess> partRanges, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        try (InputStream compositeFileContent = new CompositeFileInputStream(compositeFileReadingExecutor,
+                                                                             partRanges,
+                                                                             this::consumePartContent,
+                                                                             COMPOSITE_FILE_CHUNK_SIZE,
+                                                                             COMPOSITE_FILE_MAX_PENDING_CHUNKS)) {
+            return fileContentProcessor.process(compositeFileContent);
+        } catch (IOException e) {
+            throw new FileStorageException(e);
+        }
+    }
+
+    private void consumePartContent(FileContentToProcess partRange, FileContentConsumer partContentConsumer) throws FileStorageException {
+        processStoredFileContentRange(partRange, partContent -> {
+            partContentConsumer.consume(partContent);
+            return null;
+        });
+    }
+
+    private MessageDigest createDigest() throws FileStorageException {
+        try {
+            return MessageDigest.getInstance(FileUploader.DIGEST_METHOD);
+        } catch (NoSuchAlgorithmException e) {
+            throw new FileStorageException(e);
+        }
+    }
+
+    private void storeFileAttributesOrDeleteContent(FileEntry fileEntry) throws FileStorageException {
+        try {
+            storeFileAttributes(fileEntry);
+        } catch (FileStorageException | RuntimeException e) {
+            // Otherwise the content would remain in the file storage without an entry pointing to it:
+            deleteOrphanedContent(fileEntry);
+            throw e;
+        }
+    }
+
+    private void deleteOrphanedContent(FileEntry fileEntry) {
+        try {
+            fileStorage.deleteFile(fileEntry.getId(), fileEntry.getSpace());
+        } catch (FileStorageException | RuntimeException e) {
+            logger.warn(MessageFormat.format(Messages.COULD_NOT_DELETE_CONTENT_OF_FILE_0, fileEntry.getId()), e);
+        }
+    }
+
+    private void storeContentAddressedFile(FileEntry fileEntry, FileInfo fileInfo) throws FileStorageException {
+        String contentId = computeContentId(fileInfo);
+        // The number of files referencing the content is its reference count. Content, which is already referenced, is not stored again:
+        if (countFilesWithContentId(contentId) > 0 && storeFileReferencingContent(fileEntry, contentId)) {
+            logger.debug(MessageFormat.format(Messages.CONTENT_OF_FILE_0_IS_ALREADY_STORED_WITH_ID_1, fileEntry.getId(), contentId));
+            return;
+        }
+        // Otherwise the content is stored before the file referencing it, so that a file never references incomplete content. It is stored
+        // before the lock of the content is taken, so that the lock is held only while the reference count is checked and the file is
+        // stored:
+        for (int attempt = 1; attempt <= MAX_CONTENT_LOCK_ATTEMPTS; attempt++) {
+            fileStorage.addFile(createContentEntry(fileEntry, contentId), fileInfo.getFile());
+            if (storeFileReferencingContent(fileEntry, contentId)) {
+                return;
+            }
+        }
+        throw new FileStorageException(MessageFormat.format(Messages.CONTENT_WITH_ID_0_WAS_DELETED_WHILE_BEING_STORED, contentId));
+    }
+
+    /**
+     * Stores a file referencing the content, unless the content was deleted in the meantime. Content is deleted only under its lock and
+     * only when no file references it, so once the file is stored, its content cannot be deleted anymore.
+     */
+    private boolean storeFileReferencingContent(FileEntry fileEntry, String contentId) throws FileStorageException {
+        FileEntry contentEntry = createContentEntry(fileEntry, contentId);
+        try {
+            return executeWithContentLock(contentId, connection -> {
+                if (countFilesWithContentId(connection, contentId) == 0 && !fileStorage.hasContent(contentEntry)) {
+                    return false;
+                }
+                getSqlFileQueryProvider().getStoreContentAddressedFileAttributesQuery(fileEntry, contentId)
+                                         .execute(connection);
+                return true;
+            });
+        } catch (FileStorageException e) {
+            // The content may have been stored only for this file:
+            deleteContentIfOrphaned(contentId);
+            throw e;
+        }
+    }
+
+    private void deleteContentIfOrphaned(String contentId) {
+        try {
+            deleteContentIfUnreferenced(contentId);
+        } catch (FileStorageException | RuntimeException e) {
+            logger.warn(MessageFormat.format(Messages.COULD_NOT_DELETE_UNREFERENCED_CONTENT_WITH_ID_0, contentId), e);
+        }
+    }
+
+    private String computeContentId(FileInfo fileInfo) throws FileStorageException {
+        try {
+            return DigestHelper.computeFileChecksum(fileInfo.getFile()
+                                                            .toPath(),
+                                                    CONTENT_ID_DIGEST_METHOD);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new FileStorageException(e);
+        }
+    }
+
+    private FileEntry createContentEntry(FileEntry fileEntry, String contentId) {
+        return ImmutableFileEntry.builder()
+                                 .from(fileEntry)
+                                 .id(contentId)
+                                 .space(Constants.CONTENT_ADDRESSED_FILES_SPACE)
+                                 .namespace(null)
+                                 .build();
+    }
+
+    private String getContentId(String space, String id) throws FileStorageException {
+        try {
+            return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getRetrieveContentIdQuery(space, id));
+        } catch (SQLException e) {
+            throw new FileStorageException(e.getMessage(), e);
+        }
+    }
+
+    private List<String> getContentIds(SqlQuery<List<String>> contentIdsQuery) throws FileStorageException {
+        try {
+            return getSqlQueryExecutor().execute(contentIdsQuery);
+        } catch (SQLException e) {
+            throw new FileStorageException(e.getMessage(), e);
+        }
+    }
+
+    private int countFilesWithContentId(String contentId) throws FileStorageException {
+        try {
+            return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getCountFilesWithContentIdQuery(contentId));
+        } catch (SQLException e) {
+            throw new FileStorageException(e.getMessage(), e);
+        }
+    }
+
+    private int countFilesWithContentId(Connection connection, String contentId) throws SQLException {
+        return getSqlFileQueryProvider().getCountFilesWithContentIdQuery(contentId)
+                                        .execute(connection);
+    }
+
+    private int deleteUnreferencedContent(List<String> contentIds) throws FileStorageException {
+        int deletedContents = 0;
+        for (String contentId : contentIds) {
+            if (deleteContentIfUnreferenced(contentId)) {
+                deletedContents++;
+            }
+        }
+        return deletedContents;
+    }
+
+    private boolean deleteContentIfUnreferenced(String contentId) throws FileStorageException {
+        return executeWithContentLock(contentId, connection -> {
+            if (countFilesWithContentId(connection, contentId) > 0) {
+                return false;
+            }
+            fileStorage.deleteFile(contentId, Constants.CONTENT_ADDRESSED_FILES_SPACE);
+            getSqlFileQueryProvider().getDeleteContentLockQuery(contentId)
+                                     .execute(connection);
+            logger.debug(MessageFormat.format(Messages.DELETED_UNREFERENCED_CONTENT_WITH_ID_0, contentId));
+            return true;
+        });
+    }
+
+    /**
+     * Executes the operation in a transaction, which holds the lock of the content until it ends. Both storing a file, which references
+     * the content, and deleting the content, when it is no longer referenced, check its reference count under the lock, so that the
+     * content cannot be deleted after a file is found to reference it, but before this file is stored.
+     */
+    private <T> T executeWithContentLock(String contentId, ContentOperation<T> operation) throws FileStorageException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return getSqlQueryExecutor().execute(connection -> {
+                    lockContent(connection, contentId);
+                    try {
+                        return operation.execute(connection);
+                    } catch (FileStorageException e) {
+                        throw new SQLException(e.getMessage(), e);
+                    }
+                });
+            } catch (ContentLockConflictException e) {
+                if (attempt == MAX_CONTENT_LOCK_ATTEMPTS) {
+                    throw new FileStorageException(e.getMessage(), e);
+                }
+            } catch (SQLException e) {
+                if (e.getCause() instanceof FileStorageException) {
+                    throw (FileStorageException) e.getCause();
+                }
+                throw new FileStorageException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void lockContent(Connection connection, String contentId) throws SQLException {
+        if (getSqlFileQueryProvider().getLockContentQuery(contentId)
+                                     .execute(connection)) {
+            return;
+        }
+        // The lock of the content is created with it and is deleted with it. When two transactions create it at the same time, one of
+        // them fails and is retried:
+        try {
+            getSqlFileQueryProvider().getInsertContentLockQuery(contentId)
+                                     .execute(connection);
+        } catch (SQLException e) {
+            throw new ContentLockConflictException(e);
+        }
+    }
+
     private boolean storeFileAttributes(FileEntry fileEntry) throws FileStorageException {
         try {
             return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getStoreFileAttributesQuery(fileEntry));
@@ -251,4 +770,21 @@ public class FileService {
         }
     }
 
+    @FunctionalInterface
+    private interface ContentOperation<T> {
+
+        T execute(Connection connection) throws SQLException, FileStorageException;
+
+    }
+
+    private static class ContentLockConflictException extends SQLException {
+
+        private static final long serialVersionUID = 1L;
+
+        ContentLockConflictException(SQLException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+    }
+
 }
@@ -1,19 +1,35 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 
 public interface FileStorage {
 
     void addFile(FileEntry fileEntry, File file) throws FileStorageException;
 
+    /**
+     * Stores the content of a file directly from a stream, without staging it locally first. The size and the digest of the file are not
+     * known upfront, so the entry is expected to contain only its identity and metadata.
+     */
+    void addFile(FileEntry fileEntry, InputStream content) throws FileStorageException;
+
     List<FileEntry> getFileEntriesWithoutContent(List<FileEntry> fileEntries) throws FileStorageException;
 
+    /**
+     * Checks whether the content of a single file is stored. Unlike {@link #getFileEntriesWithoutContent(List)}, does not enumerate the
+     * storage.
+     */
+    boolean hasContent(FileEntry fileEntry) throws FileStorageException;
+
     void deleteFile(String id, String space) throws FileStorageException;
 
+    void deleteFiles(List<FileEntry> fileEntries) throws FileStorageException;
+
     void deleteFilesBySpace(String space) throws FileStorageException;
 
     void deleteFilesBySpaceAndNamespace(String space, String namespace);
@@ -22,4 +38,15 @@ public interface FileStorage {
 
     <T> T processFileContent(String space, String id, FileContentProcessor<T> fileContentProcessor) throws FileStorageException;
 
+    /**
+     * Processes the content of a stored file. Unlike {@link #processFileContent(String, String, FileContentProcessor)}, lets the storage
+     * use the size of the file from its entry, instead of looking it up.
+     */
+    default <T> T processFileContent(FileEntry fileEntry, FileContentProcessor<T> fileContentProcessor) throws FileStorageException {
+        return processFileContent(fileEntry.getSpace(), fileEntry.getId(), fileContentProcessor);
+    }
+
+    <T> T processFileContentRange(FileContentToProcess fileContentToProcess, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException;
+
 }
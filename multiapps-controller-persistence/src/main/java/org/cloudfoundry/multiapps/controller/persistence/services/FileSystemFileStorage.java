@@ -3,12 +3,17 @@ package org.cloudfoundry.multiapps.controller.persistence.services;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.text.MessageFormat;
@@ -18,7 +23,10 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.cloudfoundry.multiapps.controller.persistence.Constants;
 import org.cloudfoundry.multiapps.controller.persistence.Messages;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
 import org.slf4j.Logger;
@@ -27,6 +35,7 @@ import org.slf4j.LoggerFactory;
 public class FileSystemFileStorage implements FileStorage {
 
     private static final String DEFAULT_FILES_STORAGE_PATH = "files";
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024L; // 8MB
 
     private final String storagePath;
 
@@ -58,6 +67,33 @@ public class FileSystemFileStorage implements FileStorage {
         }
     }
 
+    @Override
+    public void addFile(FileEntry fileEntry, InputStream content) throws FileStorageException {
+        try {
+            Path filesDirectory = getFilesDirectory(fileEntry.getSpace());
+            Path newFilePath = Paths.get(filesDirectory.toString(), fileEntry.getId());
+            logger.trace(MessageFormat.format(Messages.STORING_FILE_TO_PATH_0, newFilePath));
+            long fileSize = transferToFile(content, newFilePath);
+            logger.debug(MessageFormat.format(Messages.STORED_FILE_0_WITH_SIZE_1_SUCCESSFULLY_2, newFilePath, fileSize));
+        } catch (IOException e) {
+            throw new FileStorageException(e.getMessage(), e);
+        }
+    }
+
+    private long transferToFile(InputStream content, Path filePath) throws IOException {
+        long position = 0;
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            ReadableByteChannel contentChannel = Channels.newChannel(content);
+            long transferredBytes;
+            // A blocking channel transfers nothing only when the end of the content is reached:
+            while ((transferredBytes = fileChannel.transferFrom(contentChannel, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferredBytes;
+            }
+        }
+        return position;
+    }
+
     @Override
     public List<FileEntry> getFileEntriesWithoutContent(List<FileEntry> fileEntries) throws FileStorageException {
         List<FileEntry> entriesWithoutContent = new ArrayList<>();
@@ -81,6 +117,13 @@ public class FileSystemFileStorage implements FileStorage {
         }
     }
 
+    @Override
+    public void deleteFiles(List<FileEntry> fileEntries) throws FileStorageException {
+        for (FileEntry fileEntry : fileEntries) {
+            deleteFile(fileEntry.getId(), fileEntry.getSpace());
+        }
+    }
+
     @Override
     public void deleteFilesBySpace(String space) throws FileStorageException {
         File spaceDirectory = getSpaceDirectory(space).toFile();
@@ -106,6 +149,15 @@ public class FileSystemFileStorage implements FileStorage {
 
             Files.walkFileTree(Paths.get(storagePath), new SimpleFileVisitor<Path>() {
 
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    // Content-addressed files are deleted when they are no longer referenced, regardless of their age:
+                    if (dir.equals(getSpaceDirectory(Constants.CONTENT_ADDRESSED_FILES_SPACE))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return super.preVisitDirectory(dir, attrs);
+                }
+
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
                     if (attrs.lastModifiedTime()
@@ -141,6 +193,21 @@ public class FileSystemFileStorage implements FileStorage {
         }
     }
 
+    @Override
+    public <T> T processFileContentRange(FileContentToProcess fileContentToProcess, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileEntry fileEntry = createFileEntry(fileContentToProcess.getSpace(), fileContentToProcess.getId());
+        if (!hasContent(fileEntry)) {
+            throw new FileStorageException(MessageFormat.format(Messages.FILE_WITH_ID_AND_SPACE_DOES_NOT_EXIST, fileEntry.getId(),
+                                                                fileEntry.getSpace()));
+        }
+        try (InputStream fileContentStream = getFileContentStream(fileEntry, fileContentToProcess)) {
+            return fileContentProcessor.process(fileContentStream);
+        } catch (Exception e) {
+            throw new FileStorageException(e);
+        }
+    }
+
     private FileEntry createFileEntry(String space, String id) {
         return ImmutableFileEntry.builder()
                                  .space(space)
@@ -154,6 +221,14 @@ public class FileSystemFileStorage implements FileStorage {
         return Files.newInputStream(fileLocation);
     }
 
+    private InputStream getFileContentStream(FileEntry fileEntry, FileContentToProcess fileContentToProcess) throws IOException {
+        Path fileLocation = getFilePath(fileEntry);
+        logger.trace(MessageFormat.format(Messages.PROCESSING_FILE_0, fileLocation));
+        SeekableByteChannel fileChannel = Files.newByteChannel(fileLocation);
+        fileChannel.position(fileContentToProcess.getStartOffset());
+        return new BoundedInputStream(Channels.newInputStream(fileChannel), fileContentToProcess.getLength());
+    }
+
     public String getStoragePath() {
         return storagePath;
     }
@@ -164,7 +239,8 @@ public class FileSystemFileStorage implements FileStorage {
         return filesPerSpaceDirectory;
     }
 
-    private boolean hasContent(FileEntry entry) throws FileStorageException {
+    @Override
+    public boolean hasContent(FileEntry entry) throws FileStorageException {
         try {
             Path filePath = getFilePath(entry);
             return filePath.toFile()
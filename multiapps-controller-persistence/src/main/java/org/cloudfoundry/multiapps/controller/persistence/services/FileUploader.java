@@ -40,7 +40,7 @@ public class FileUploader {
      * @throws FileStorageException
      */
     public static FileInfo uploadFile(InputStream is) throws FileStorageException {
-        BigInteger size = BigInteger.valueOf(0);
+        long size = 0;
         MessageDigest digest;
         try {
             digest = MessageDigest.getInstance(DIGEST_METHOD);
@@ -62,7 +62,7 @@ public class FileUploader {
             while ((read = is.read(buffer, 0, Constants.BUFFER_SIZE)) > -1) {
                 outputFileStream.write(buffer, 0, read);
                 digest.update(buffer, 0, read);
-                size = size.add(BigInteger.valueOf(read));
+                size += read;
             }
         } catch (Exception e) {
             FileUploader.deleteFile(tempFile);
@@ -71,13 +71,13 @@ public class FileUploader {
 
         return ImmutableFileInfo.builder()
                                 .file(tempFile)
-                                .size(size)
+                                .size(BigInteger.valueOf(size))
                                 .digest(getDigestString(digest.digest()))
                                 .digestAlgorithm(DIGEST_METHOD)
                                 .build();
     }
 
-    private static String getDigestString(byte[] digest) {
+    static String getDigestString(byte[] digest) {
         return DatatypeConverter.printHexBinary(digest);
     }
 
@@ -50,17 +50,12 @@ public class NullProcessLogger extends ProcessLogger {
     }
 
     @Override
-    public synchronized void removeAllAppenders() {
+    public void persistLog() {
         logNullCorrelationId();
     }
 
     @Override
-    public synchronized void persistLogFile(ProcessLogsPersistenceService processLogsPersistenceService) {
-        logNullCorrelationId();
-    }
-
-    @Override
-    public synchronized void deleteLogFile() {
+    public void close() {
         logNullCorrelationId();
     }
 
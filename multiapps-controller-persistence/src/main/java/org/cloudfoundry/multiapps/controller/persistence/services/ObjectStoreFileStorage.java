@@ -1,48 +1,115 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.IOUtils;
 import org.cloudfoundry.multiapps.common.util.MiscUtil;
 import org.cloudfoundry.multiapps.controller.persistence.Constants;
 import org.cloudfoundry.multiapps.controller.persistence.Messages;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.MultipartPart;
+import org.jclouds.blobstore.domain.MultipartUpload;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
+import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.GetOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
 import org.jclouds.http.HttpResponseException;
 import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.CollectionUtils;
 
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public class ObjectStoreFileStorage implements FileStorage {
 
+    public static final String METRICS_PREFIX = "multiapps.object.store.";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ObjectStoreFileStorage.class);
 
     private static final long RETRY_BASE_WAIT_TIME_IN_MILLIS = 5000L;
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int REMOVE_BATCH_SIZE = 1000;
+    private static final long PART_SIZE_IN_BYTES = 32 * 1024 * 1024L; // 32MB
+    private static final long RANGE_SIZE_IN_BYTES = 8 * 1024 * 1024L; // 8MB
 
     private final BlobStore blobStore;
     private final String container;
+    private final ExecutorService transferExecutor;
+    private final int transferThreads;
+    private final int maxBufferedParts;
+    private final Semaphore bufferedParts;
+    private final Counter listedBlobsCounter;
+    private final Counter removedBlobsCounter;
+    private final Timer listPageTimer;
 
-    public ObjectStoreFileStorage(BlobStore blobStore, String container) {
+    /**
+     * @param transferExecutor executor used to upload parts of large files and to download ranges of large blobs concurrently
+     * @param transferThreads the number of parts or ranges of a single file, which are transferred concurrently. The memory used while
+     *        downloading a file is bounded by this number multiplied by the range size.
+     * @param maxBufferedParts the number of parts, which all uploads of streamed content keep in memory at the same time. Uploads, which
+     *        would exceed it, wait for the parts of the other ones to be uploaded.
+     */
+    public ObjectStoreFileStorage(BlobStore blobStore, String container, ExecutorService transferExecutor, int transferThreads,
+                                  int maxBufferedParts) {
+        this(blobStore, container, transferExecutor, transferThreads, maxBufferedParts, Metrics.globalRegistry);
+    }
+
+    ObjectStoreFileStorage(BlobStore blobStore, String container, ExecutorService transferExecutor, int transferThreads,
+                           int maxBufferedParts, MeterRegistry meterRegistry) {
         this.blobStore = blobStore;
         this.container = container;
+        this.transferExecutor = transferExecutor;
+        this.transferThreads = transferThreads;
+        this.maxBufferedParts = maxBufferedParts;
+        this.bufferedParts = new Semaphore(maxBufferedParts);
+        this.listedBlobsCounter = meterRegistry.counter(METRICS_PREFIX + "listed.blobs");
+        this.removedBlobsCounter = meterRegistry.counter(METRICS_PREFIX + "removed.blobs");
+        this.listPageTimer = meterRegistry.timer(METRICS_PREFIX + "list.page.duration");
+        meterRegistry.gauge(METRICS_PREFIX + "buffered.parts", bufferedParts,
+                            semaphore -> this.maxBufferedParts - semaphore.availablePermits());
     }
 
     @Override
@@ -57,7 +124,11 @@ public class ObjectStoreFileStorage implements FileStorage {
                              .userMetadata(createFileEntryMetadata(fileEntry))
                              .build();
         try {
-            putBlobWithRetries(blob, 3);
+            if (shouldTransferInParallel(fileSize, getPartSize())) {
+                putBlobInParts(blob, file, fileSize);
+            } else {
+                putBlobWithRetries(blob, 3);
+            }
             LOGGER.debug(MessageFormat.format(Messages.STORED_FILE_0_WITH_SIZE_1_SUCCESSFULLY_2, fileEntry.getId(), fileSize));
         } catch (ContainerNotFoundException e) {
             throw new FileStorageException(MessageFormat.format(Messages.FILE_UPLOAD_FAILED, fileEntry.getName(),
@@ -65,18 +136,104 @@ public class ObjectStoreFileStorage implements FileStorage {
         }
     }
 
+    @Override
+    public void addFile(FileEntry fileEntry, InputStream content) throws FileStorageException {
+        // Blobs are uploaded from parts buffered in memory, as the size of the content is not known upfront and the upload of a part
+        // must be repeatable:
+        try {
+            byte[] firstPartContent = readPartContent(content);
+            // Content, which ends inside the first part, is uploaded with a single request:
+            if (firstPartContent.length < getPartSize()) {
+                try {
+                    putBlobWithRetries(createBlob(fileEntry, firstPartContent), 3);
+                } finally {
+                    bufferedParts.release();
+                }
+            } else {
+                StreamPartsReader partsReader = new StreamPartsReader(content, firstPartContent);
+                try {
+                    MutableBlobMetadata blobMetadata = createBlob(fileEntry, new byte[0]).getMetadata();
+                    blobMetadata.getContentMetadata()
+                                .setContentLength(null);
+                    putBlobInParts(blobMetadata, getTransferExecutor(), partsReader);
+                } finally {
+                    partsReader.releaseUnreadFirstPart();
+                }
+            }
+            LOGGER.debug(MessageFormat.format(Messages.STORED_FILE_0, fileEntry.getId()));
+        } catch (IOException e) {
+            throw new FileStorageException(e);
+        } catch (ContainerNotFoundException e) {
+            throw new FileStorageException(MessageFormat.format(Messages.FILE_UPLOAD_FAILED, fileEntry.getName(),
+                                                                fileEntry.getNamespace()));
+        }
+    }
+
+    private ByteSource readPart(InputStream content) throws IOException {
+        byte[] partContent = readPartContent(content);
+        if (partContent.length == 0) {
+            bufferedParts.release();
+            return null;
+        }
+        return ByteSource.wrap(partContent);
+    }
+
+    /**
+     * Reads the next part, once the buffered parts of all uploads allow it. The caller releases the part after uploading it.
+     */
+    private byte[] readPartContent(InputStream content) throws IOException {
+        acquireBufferedPart();
+        try {
+            // The buffer grows with the content read, so that small files do not allocate a whole part:
+            return ByteStreams.toByteArray(ByteStreams.limit(content, getPartSize()));
+        } catch (IOException | RuntimeException e) {
+            bufferedParts.release();
+            throw e;
+        }
+    }
+
+    private void acquireBufferedPart() throws InterruptedIOException {
+        try {
+            bufferedParts.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private Blob createBlob(FileEntry fileEntry, byte[] content) {
+        return blobStore.blobBuilder(fileEntry.getId())
+                        .payload(content)
+                        .contentDisposition(fileEntry.getName())
+                        .contentType(MediaType.OCTET_STREAM.toString())
+                        .userMetadata(createFileEntryMetadata(fileEntry))
+                        .build();
+    }
+
+    private ExecutorService getTransferExecutor() {
+        // Without a transfer executor the parts are uploaded one by one by the current thread:
+        return transferExecutor != null ? transferExecutor : MoreExecutors.newDirectExecutorService();
+    }
+
+    @Override
+    public boolean hasContent(FileEntry fileEntry) {
+        return blobStore.blobExists(container, fileEntry.getId());
+    }
+
     @Override
     public List<FileEntry> getFileEntriesWithoutContent(List<FileEntry> fileEntries) {
-        Set<String> existingFiles = blobStore.list(container)
-                                             .stream()
-                                             .map(StorageMetadata::getName)
-                                             .collect(Collectors.toSet());
+        if (fileEntries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Only the IDs of the given entries are kept in memory, no matter how many blobs there are in the container:
+        Set<String> idsWithoutContent = fileEntries.stream()
+                                                   .map(FileEntry::getId)
+                                                   .collect(Collectors.toSet());
+        forEachBlob(new ListContainerOptions(), blobMetadata -> idsWithoutContent.remove(blobMetadata.getName()));
 
         return fileEntries.stream()
-                          .filter(fileEntry -> {
-                              String id = fileEntry.getId();
-                              return !existingFiles.contains(id);
-                          })
+                          .filter(fileEntry -> idsWithoutContent.contains(fileEntry.getId()))
                           .collect(Collectors.toList());
     }
 
@@ -85,6 +242,13 @@ public class ObjectStoreFileStorage implements FileStorage {
         blobStore.removeBlob(container, id);
     }
 
+    @Override
+    public void deleteFiles(List<FileEntry> fileEntries) {
+        BlobRemover blobRemover = new BlobRemover();
+        fileEntries.forEach(fileEntry -> blobRemover.remove(fileEntry.getId()));
+        blobRemover.flush();
+    }
+
     @Override
     public void deleteFilesBySpace(String space) {
         removeBlobsByFilter(blob -> filterBySpace(blob, space));
@@ -97,14 +261,40 @@ public class ObjectStoreFileStorage implements FileStorage {
 
     @Override
     public int deleteFilesModifiedBefore(Date modificationTime) {
-        return removeBlobsByFilter(blob -> filterByModificationTime(blob, modificationTime));
+        // Content-addressed files are deleted when they are no longer referenced, regardless of their age:
+        return removeBlobsByFilter(blob -> filterByModificationTime(blob, modificationTime)
+            && !filterBySpace(blob, Constants.CONTENT_ADDRESSED_FILES_SPACE));
     }
 
     @Override
     public <T> T processFileContent(String space, String id, FileContentProcessor<T> fileContentProcessor) throws FileStorageException {
-        FileEntry fileEntry = createFileEntry(space, id);
+        return processBlobContent(createFileEntry(space, id), GetOptions.NONE, fileContentProcessor);
+    }
+
+    @Override
+    public <T> T processFileContent(FileEntry fileEntry, FileContentProcessor<T> fileContentProcessor) throws FileStorageException {
+        // The size is taken from the entry, so that downloading a file does not start with a request for the metadata of its blob:
+        long size = fileEntry.getSize() == null ? 0 : fileEntry.getSize()
+                                                               .longValue();
+        if (shouldTransferInParallel(size, getRangeSize())) {
+            return processBlobContentInRanges(fileEntry, size, fileContentProcessor);
+        }
+        return processBlobContent(fileEntry, GetOptions.NONE, fileContentProcessor);
+    }
+
+    @Override
+    public <T> T processFileContentRange(FileContentToProcess fileContentToProcess, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileEntry fileEntry = createFileEntry(fileContentToProcess.getSpace(), fileContentToProcess.getId());
+        // The end of a range in GetOptions is inclusive:
+        GetOptions getOptions = new GetOptions().range(fileContentToProcess.getStartOffset(), fileContentToProcess.getEndOffset() - 1);
+        return processBlobContent(fileEntry, getOptions, fileContentProcessor);
+    }
+
+    private <T> T processBlobContent(FileEntry fileEntry, GetOptions getOptions, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
         try {
-            Blob blob = getBlobWithRetries(fileEntry, 3);
+            Blob blob = getBlobWithRetries(fileEntry, getOptions, 3);
             if (blob == null) {
                 throw new FileStorageException(MessageFormat.format(Messages.FILE_WITH_ID_AND_SPACE_DOES_NOT_EXIST, fileEntry.getId(),
                                                                     fileEntry.getSpace()));
@@ -116,6 +306,37 @@ public class ObjectStoreFileStorage implements FileStorage {
         }
     }
 
+    private <T> T processBlobContentInRanges(FileEntry fileEntry, long size, FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        try (InputStream fileContentStream = new ParallelRangesInputStream(transferExecutor,
+                                                                           (startOffset, endOffset) -> readRange(fileEntry, startOffset,
+                                                                                                                 endOffset),
+                                                                           size,
+                                                                           getRangeSize(),
+                                                                           transferThreads)) {
+            return fileContentProcessor.process(fileContentStream);
+        } catch (Exception e) {
+            throw new FileStorageException(e);
+        }
+    }
+
+    private byte[] readRange(FileEntry fileEntry, long startOffset, long endOffset) throws IOException {
+        // The end of a range in GetOptions is inclusive:
+        Blob blob = getBlobWithRetries(fileEntry, new GetOptions().range(startOffset, endOffset - 1), 3);
+        if (blob == null) {
+            throw new IOException(MessageFormat.format(Messages.FILE_WITH_ID_AND_SPACE_DOES_NOT_EXIST, fileEntry.getId(),
+                                                       fileEntry.getSpace()));
+        }
+        try (InputStream rangeStream = blob.getPayload()
+                                           .openStream()) {
+            return IOUtils.toByteArray(rangeStream, endOffset - startOffset);
+        }
+    }
+
+    private boolean shouldTransferInParallel(long size, long partSize) {
+        return transferExecutor != null && size > partSize;
+    }
+
     private FileEntry createFileEntry(String space, String id) {
         return ImmutableFileEntry.builder()
                                  .space(space)
@@ -146,9 +367,99 @@ public class ObjectStoreFileStorage implements FileStorage {
         }
     }
 
-    private Blob getBlobWithRetries(FileEntry fileEntry, int retries) {
+    private void putBlobInParts(Blob blob, File file, long fileSize) throws FileStorageException {
+        long partSize = getPartSize(fileSize);
+        ByteSource fileContent = Files.asByteSource(file);
+        // The parts are slices of the file, so they are read only while being uploaded:
+        AtomicLong nextPartOffset = new AtomicLong();
+        putBlobInParts(blob.getMetadata(), transferExecutor, () -> {
+            long offset = nextPartOffset.getAndAdd(partSize);
+            return offset < fileSize ? fileContent.slice(offset, Math.min(partSize, fileSize - offset)) : null;
+        });
+    }
+
+    private void putBlobInParts(BlobMetadata blobMetadata, ExecutorService executor, PartsReader partsReader)
+        throws FileStorageException {
+        MultipartUpload multipartUpload = blobStore.initiateMultipartUpload(container, blobMetadata, new PutOptions());
+        Deque<PartUpload> partsInProgress = new ArrayDeque<>();
+        try {
+            List<MultipartPart> uploadedParts = new ArrayList<>();
+            int partNumber = 1;
+            while (true) {
+                // The next part is read only when there is a free slot for it, so that no more parts are kept in memory:
+                if (partsInProgress.size() >= transferThreads) {
+                    uploadedParts.add(partsInProgress.poll()
+                                                     .get());
+                }
+                ByteSource partContent = partsReader.readNextPart();
+                if (partContent == null) {
+                    break;
+                }
+                int currentPartNumber = partNumber++;
+                partsInProgress.add(new PartUpload(executor, partsReader,
+                                                   () -> uploadPartWithRetries(multipartUpload, currentPartNumber, partContent, 3)));
+            }
+            while (!partsInProgress.isEmpty()) {
+                uploadedParts.add(partsInProgress.poll()
+                                                 .get());
+            }
+            blobStore.completeMultipartUpload(multipartUpload, uploadedParts);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            abortMultipartUpload(multipartUpload, partsInProgress);
+            throw new FileStorageException(e);
+        } catch (ExecutionException e) {
+            abortMultipartUpload(multipartUpload, partsInProgress);
+            throw new FileStorageException(e.getCause());
+        } catch (IOException e) {
+            abortMultipartUpload(multipartUpload, partsInProgress);
+            throw new FileStorageException(e);
+        } catch (RuntimeException e) {
+            abortMultipartUpload(multipartUpload, partsInProgress);
+            throw e;
+        }
+    }
+
+    private MultipartPart uploadPartWithRetries(MultipartUpload multipartUpload, int partNumber, ByteSource partContent, int retries)
+        throws IOException {
+        for (int i = 1;; i++) {
+            Payload payload = Payloads.newByteSourcePayload(partContent);
+            payload.getContentMetadata()
+                   .setContentLength(partContent.size());
+            try {
+                return blobStore.uploadMultipartPart(multipartUpload, partNumber, payload);
+            } catch (HttpResponseException e) {
+                LOGGER.warn(MessageFormat.format(Messages.ATTEMPT_TO_UPLOAD_BLOB_PART_FAILED, i, retries, partNumber,
+                                                 multipartUpload.blobName(), e.getMessage()),
+                            e);
+                if (i == retries) {
+                    throw e;
+                }
+            }
+            MiscUtil.sleep(i * getRetryWaitTime());
+        }
+    }
+
+    private void abortMultipartUpload(MultipartUpload multipartUpload, Collection<PartUpload> partsInProgress) {
+        partsInProgress.forEach(PartUpload::cancel);
+        try {
+            blobStore.abortMultipartUpload(multipartUpload);
+        } catch (RuntimeException e) {
+            LOGGER.warn(MessageFormat.format(Messages.COULD_NOT_ABORT_MULTIPART_UPLOAD_OF_BLOB_0, multipartUpload.blobName()), e);
+        }
+    }
+
+    private long getPartSize(long fileSize) {
+        // Parts must be large enough, so that their count does not exceed the maximum supported by the blob store:
+        long minimumPartSizeForFile = (fileSize + blobStore.getMaximumNumberOfParts() - 1) / blobStore.getMaximumNumberOfParts();
+        long partSize = Math.max(getPartSize(), Math.max(minimumPartSizeForFile, blobStore.getMinimumMultipartPartSize()));
+        return Math.min(partSize, blobStore.getMaximumMultipartPartSize());
+    }
+
+    private Blob getBlobWithRetries(FileEntry fileEntry, GetOptions getOptions, int retries) {
         for (int i = 1; i <= retries; i++) {
-            Blob blob = blobStore.getBlob(container, fileEntry.getId());
+            Blob blob = blobStore.getBlob(container, fileEntry.getId(), getOptions);
             if (blob != null) {
                 return blob;
             }
@@ -165,6 +476,18 @@ public class ObjectStoreFileStorage implements FileStorage {
         return RETRY_BASE_WAIT_TIME_IN_MILLIS;
     }
 
+    protected int getListPageSize() {
+        return LIST_PAGE_SIZE;
+    }
+
+    protected long getPartSize() {
+        return PART_SIZE_IN_BYTES;
+    }
+
+    protected long getRangeSize() {
+        return RANGE_SIZE_IN_BYTES;
+    }
+
     private Map<String, String> createFileEntryMetadata(FileEntry fileEntry) {
         Map<String, String> metadata = new HashMap<>();
         metadata.put(Constants.FILE_ENTRY_SPACE.toLowerCase(), fileEntry.getSpace());
@@ -177,20 +500,37 @@ public class ObjectStoreFileStorage implements FileStorage {
     }
 
     private int removeBlobsByFilter(Predicate<? super StorageMetadata> filter) {
-        Set<String> entries = getEntryNames(filter);
-        if (!entries.isEmpty()) {
-            blobStore.removeBlobs(container, entries);
-        }
-        return entries.size();
+        BlobRemover blobRemover = new BlobRemover();
+        forEachBlob(new ListContainerOptions().withDetails(), blobMetadata -> {
+            if (filter.test(blobMetadata)) {
+                blobRemover.remove(blobMetadata.getName());
+            }
+        });
+        blobRemover.flush();
+        return blobRemover.getRemovedBlobsCount();
     }
 
-    private Set<String> getEntryNames(Predicate<? super StorageMetadata> filter) {
-        return blobStore.list(container, new ListContainerOptions().withDetails())
-                        .stream()
-                        .filter(Objects::nonNull)
-                        .filter(filter)
-                        .map(StorageMetadata::getName)
-                        .collect(Collectors.toSet());
+    private void forEachBlob(ListContainerOptions listContainerOptions, Consumer<StorageMetadata> blobMetadataConsumer) {
+        ListContainerOptions pageOptions = listContainerOptions.maxResults(getListPageSize());
+        int listedBlobsCount = 0;
+        String nextMarker;
+        do {
+            PageSet<? extends StorageMetadata> page = listPageTimer.record(() -> blobStore.list(container, pageOptions));
+            int pageBlobsCount = 0;
+            for (StorageMetadata blobMetadata : page) {
+                if (blobMetadata != null) {
+                    blobMetadataConsumer.accept(blobMetadata);
+                    pageBlobsCount++;
+                }
+            }
+            listedBlobsCount += pageBlobsCount;
+            listedBlobsCounter.increment(pageBlobsCount);
+            LOGGER.debug(MessageFormat.format(Messages.LISTED_0_BLOBS_FROM_CONTAINER_1, listedBlobsCount, container));
+            nextMarker = page.getNextMarker();
+            if (nextMarker != null) {
+                pageOptions.afterMarker(nextMarker);
+            }
+        } while (nextMarker != null);
     }
 
     private boolean filterByModificationTime(StorageMetadata blobMetadata, Date modificationTime) {
@@ -229,4 +569,125 @@ public class ObjectStoreFileStorage implements FileStorage {
         return space.equals(spaceParameter) && namespace.equals(namespaceParameter);
     }
 
+    @FunctionalInterface
+    private interface PartsReader {
+
+        /**
+         * @return the content of the next part, or null if there are no more parts
+         */
+        ByteSource readNextPart() throws IOException;
+
+        /**
+         * Called once for each part returned by {@link #readNextPart()}, when its upload is completed or cancelled.
+         */
+        default void releasePart() {
+        }
+
+    }
+
+    private static class PartUpload {
+
+        private final PartsReader partsReader;
+        private final AtomicBoolean isPartReleased = new AtomicBoolean();
+        private final Future<MultipartPart> future;
+
+        PartUpload(ExecutorService executor, PartsReader partsReader, Callable<MultipartPart> upload) {
+            this.partsReader = partsReader;
+            try {
+                // The part is released as soon as it is uploaded, so that the reading of the next parts does not wait for this one:
+                this.future = executor.submit(() -> {
+                    try {
+                        return upload.call();
+                    } finally {
+                        releasePart();
+                    }
+                });
+            } catch (RuntimeException e) {
+                releasePart();
+                throw e;
+            }
+        }
+
+        MultipartPart get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        void cancel() {
+            future.cancel(true);
+            // The upload of the part may not have started, so it would never release it:
+            releasePart();
+        }
+
+        private void releasePart() {
+            if (isPartReleased.compareAndSet(false, true)) {
+                partsReader.releasePart();
+            }
+        }
+
+    }
+
+    private class StreamPartsReader implements PartsReader {
+
+        private final InputStream content;
+        private byte[] unreadFirstPartContent;
+
+        StreamPartsReader(InputStream content, byte[] firstPartContent) {
+            this.content = content;
+            this.unreadFirstPartContent = firstPartContent;
+        }
+
+        @Override
+        public ByteSource readNextPart() throws IOException {
+            if (unreadFirstPartContent != null) {
+                ByteSource firstPartContent = ByteSource.wrap(unreadFirstPartContent);
+                unreadFirstPartContent = null;
+                return firstPartContent;
+            }
+            return readPart(content);
+        }
+
+        @Override
+        public void releasePart() {
+            bufferedParts.release();
+        }
+
+        void releaseUnreadFirstPart() {
+            // The first part is read before the upload is initiated, so it is not released by the upload if it fails to start:
+            if (unreadFirstPartContent != null) {
+                unreadFirstPartContent = null;
+                releasePart();
+            }
+        }
+
+    }
+
+    private class BlobRemover {
+
+        private final List<String> blobsToRemove = new ArrayList<>(REMOVE_BATCH_SIZE);
+        private int removedBlobsCount;
+
+        void remove(String blobName) {
+            blobsToRemove.add(blobName);
+            if (blobsToRemove.size() >= REMOVE_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (blobsToRemove.isEmpty()) {
+                return;
+            }
+            blobStore.removeBlobs(container, blobsToRemove);
+            removedBlobsCount += blobsToRemove.size();
+            removedBlobsCounter.increment(blobsToRemove.size());
+            blobsToRemove.clear();
+            LOGGER.debug(MessageFormat.format(Messages.REMOVED_0_BLOBS_FROM_CONTAINER_1, removedBlobsCount, container));
+        }
+
+        int getRemovedBlobsCount() {
+            return removedBlobsCount;
+        }
+
+    }
+
 }
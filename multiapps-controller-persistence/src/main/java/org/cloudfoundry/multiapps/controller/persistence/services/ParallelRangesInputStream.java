@@ -0,0 +1,118 @@
+package org.cloudfoundry.multiapps.controller.persistence.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * An input stream over content, which is read in consecutive byte ranges by concurrent tasks. The ranges are returned in order and at
+ * most {@code maxPendingRanges} of them are read ahead, so the memory used by the stream is bounded by
+ * {@code (maxPendingRanges + 1) * rangeSize}.
+ */
+class ParallelRangesInputStream extends InputStream {
+
+    @FunctionalInterface
+    interface RangeReader {
+
+        byte[] read(long startOffset, long endOffset) throws Exception;
+
+    }
+
+    private static final byte[] EMPTY_RANGE = new byte[0];
+
+    private final ExecutorService executorService;
+    private final RangeReader rangeReader;
+    private final long size;
+    private final long rangeSize;
+    private final Deque<Future<byte[]>> pendingRanges = new ArrayDeque<>();
+    private long nextRangeStartOffset;
+    private byte[] currentRange = EMPTY_RANGE;
+    private int positionInCurrentRange;
+
+    ParallelRangesInputStream(ExecutorService executorService, RangeReader rangeReader, long size, long rangeSize, int maxPendingRanges) {
+        this.executorService = executorService;
+        this.rangeReader = rangeReader;
+        this.size = size;
+        this.rangeSize = rangeSize;
+        for (int i = 0; i < maxPendingRanges; i++) {
+            submitNextRange();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureCurrentRangeHasContent()) {
+            return -1;
+        }
+        return currentRange[positionInCurrentRange++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureCurrentRangeHasContent()) {
+            return -1;
+        }
+        int bytesToCopy = Math.min(length, currentRange.length - positionInCurrentRange);
+        System.arraycopy(currentRange, positionInCurrentRange, buffer, offset, bytesToCopy);
+        positionInCurrentRange += bytesToCopy;
+        return bytesToCopy;
+    }
+
+    @Override
+    public int available() {
+        return currentRange.length - positionInCurrentRange;
+    }
+
+    @Override
+    public void close() {
+        pendingRanges.forEach(pendingRange -> pendingRange.cancel(true));
+        pendingRanges.clear();
+        currentRange = EMPTY_RANGE;
+    }
+
+    private boolean ensureCurrentRangeHasContent() throws IOException {
+        while (positionInCurrentRange >= currentRange.length) {
+            Future<byte[]> nextRange = pendingRanges.poll();
+            if (nextRange == null) {
+                return false;
+            }
+            currentRange = getRangeContent(nextRange);
+            positionInCurrentRange = 0;
+            submitNextRange();
+        }
+        return true;
+    }
+
+    private byte[] getRangeContent(Future<byte[]> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            close();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            close();
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void submitNextRange() {
+        if (nextRangeStartOffset >= size) {
+            return;
+        }
+        long startOffset = nextRangeStartOffset;
+        long endOffset = Math.min(startOffset + rangeSize, size);
+        pendingRanges.add(executorService.submit(() -> rangeReader.read(startOffset, endOffset)));
+        nextRangeStartOffset = endOffset;
+    }
+
+}
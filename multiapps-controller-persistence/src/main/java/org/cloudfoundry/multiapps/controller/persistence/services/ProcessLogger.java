@@ -1,26 +1,49 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
-import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
-
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * A logger for the messages of a single activity of an operation. Instead of writing them to a file, the formatted messages are kept in
+ * an in-memory buffer and are persisted as consecutive chunks of the operation's log, either periodically by the
+ * {@link ProcessLogsPersister}, when the activity ends or when the buffer grows too large. Messages logged after the logger is closed are
+ * persisted right away.
+ */
 public class ProcessLogger extends Logger {
 
     private static final String NULL_LOGGER_NAME = "Null logger";
+    private static final String FQCN = ProcessLogger.class.getName();
+    // Guards against bursts of messages between two scans of the persister, which would otherwise grow the buffer without a bound:
+    private static final int MAX_PENDING_CONTENT_SIZE = 1024 * 1024;
 
     private Logger logger;
-    private File log;
+    private Layout layout;
     private String logName;
+    private ProcessLogsPersistenceService processLogsPersistenceService;
     protected final String spaceId;
     protected final String processId;
     protected final String activityId;
 
-    public ProcessLogger(Logger logger, File log, String logName, String spaceId, String processId, String activityId) {
-        super(logger.getName());
+    private StringBuilder pendingContent = new StringBuilder();
+    private long pendingContentCreationTime;
+    private boolean isClosed;
+    private volatile long lastWriteTime = System.currentTimeMillis();
+    private final AtomicBoolean isPersistScheduled = new AtomicBoolean();
+    // Chunks of the same logger are persisted one at a time, so that their order is preserved:
+    private final Object persistLock = new Object();
+
+    public ProcessLogger(String name, Logger logger, Layout layout, String logName, ProcessLogsPersistenceService processLogsPersistenceService,
+                         String spaceId, String processId, String activityId) {
+        super(name);
         this.logger = logger;
-        this.log = log;
+        this.layout = layout;
         this.logName = logName;
+        this.processLogsPersistenceService = processLogsPersistenceService;
         this.spaceId = spaceId;
         this.processId = processId;
         this.activityId = activityId;
@@ -35,42 +58,70 @@ public class ProcessLogger extends Logger {
 
     @Override
     public void info(Object message) {
-        logger.info(message);
+        bufferEvent(Level.INFO, message, null);
     }
 
     @Override
     public void debug(Object message) {
-        logger.debug(message);
+        bufferEvent(Level.DEBUG, message, null);
     }
 
     @Override
     public void error(Object message) {
-        logger.error(message);
+        bufferEvent(Level.ERROR, message, null);
     }
 
     @Override
     public void error(Object message, Throwable t) {
-        logger.error(message, t);
+        bufferEvent(Level.ERROR, message, t);
     }
 
     @Override
     public void trace(Object message) {
-        logger.trace(message);
+        bufferEvent(Level.TRACE, message, null);
     }
 
     @Override
     public void warn(Object message) {
-        logger.warn(message);
+        bufferEvent(Level.WARN, message, null);
     }
 
     @Override
     public void warn(Object message, Throwable t) {
-        logger.warn(message, t);
+        bufferEvent(Level.WARN, message, t);
     }
 
-    @Override
-    public synchronized void removeAllAppenders() {
-        logger.removeAllAppenders();
+    private void bufferEvent(Level level, Object message, Throwable t) {
+        // The level is configured for the parent of all process loggers, as they are not part of the log4j hierarchy themselves:
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return;
+        }
+        LoggingEvent event = new LoggingEvent(FQCN, this, level, message, t);
+        boolean shouldPersist;
+        // The layout is not thread-safe, so the event is formatted under the same lock as the one used for buffering it:
+        synchronized (this) {
+            if (pendingContent.length() == 0) {
+                pendingContentCreationTime = System.currentTimeMillis();
+            }
+            pendingContent.append(layout.format(event));
+            appendThrowable(event);
+            shouldPersist = isClosed || pendingContent.length() >= MAX_PENDING_CONTENT_SIZE;
+        }
+        lastWriteTime = System.currentTimeMillis();
+        if (shouldPersist) {
+            persistLog();
+        }
+    }
+
+    private void appendThrowable(LoggingEvent event) {
+        String[] throwableLines = event.getThrowableStrRep();
+        if (!layout.ignoresThrowable() || throwableLines == null) {
+            return;
+        }
+        for (String throwableLine : throwableLines) {
+            pendingContent.append(throwableLine)
+                          .append(Layout.LINE_SEP);
+        }
     }
 
     public String getProcessId() {
@@ -81,14 +132,59 @@ public class ProcessLogger extends Logger {
         return activityId;
     }
 
-    public synchronized void persistLogFile(ProcessLogsPersistenceService processLogsPersistenceService) {
-        if (log.exists()) {
-            processLogsPersistenceService.persistLog(spaceId, processId, log, logName);
+    public long getLastWriteTime() {
+        return lastWriteTime;
+    }
+
+    public synchronized int getPendingContentSize() {
+        return pendingContent.length();
+    }
+
+    public synchronized long getPendingContentCreationTime() {
+        return pendingContentCreationTime;
+    }
+
+    boolean markPersistScheduled() {
+        return isPersistScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Persists the messages logged since the last call as the next chunk of the log.
+     */
+    public void persistLog() {
+        synchronized (persistLock) {
+            isPersistScheduled.set(false);
+            persistPendingContent();
+        }
+    }
+
+    /**
+     * Persists the messages logged so far. The messages logged after that are persisted as soon as they are logged, as no one persists
+     * the logger anymore.
+     */
+    public void close() {
+        synchronized (persistLock) {
+            synchronized (this) {
+                isClosed = true;
+            }
+            persistPendingContent();
+        }
+    }
+
+    private void persistPendingContent() {
+        String chunk = takePendingContent();
+        if (chunk.isEmpty()) {
+            return;
         }
+        // The chunks of a log are ordered by the database, which appends them in the order in which they are stored, no matter which
+        // logger of the operation stores them:
+        processLogsPersistenceService.persistLogChunk(spaceId, processId, logName, chunk.getBytes(StandardCharsets.UTF_8));
     }
 
-    public synchronized void deleteLogFile() {
-        FileUtils.deleteQuietly(log);
+    private synchronized String takePendingContent() {
+        String content = pendingContent.toString();
+        pendingContent = new StringBuilder();
+        return content;
     }
 
 }
@@ -1,16 +1,14 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
-import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.log4j.Appender;
-import org.apache.log4j.FileAppender;
-import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
 import org.cloudfoundry.multiapps.controller.persistence.Constants;
@@ -22,10 +20,15 @@ public class ProcessLoggerProvider {
     private static final String LOG_LAYOUT = "#2.0#%d{yyyy MM dd HH:mm:ss.SSS}#%d{XXX}#%p#%c#%n%X{MsgCode}#%X{CSNComponent}#%X{DCComponent}##%X{DSRCorrelationId}#%X{Application}#%C#%X{User}#%X{Session}#%X{Transaction}#%X{DSRRootContextId}#%X{DSRTransaction}#%X{DSRConnection}#%X{DSRCounter}#%t##%X{ResourceBundle}#%n%m#%n%n";
     private static final String PARENT_LOGGER = "com.sap.cloud.lm.sl.xs2";
     private static final String DEFAULT_LOG_NAME = "OPERATION";
-    private static final String DEFAULT_LOG_DIR = "logs";
     private static final String LOG_FILE_EXTENSION = ".log";
 
     private final Map<String, ProcessLogger> loggersCache = new ConcurrentHashMap<>();
+    private final ProcessLogsPersistenceService processLogsPersistenceService;
+
+    @Inject
+    public ProcessLoggerProvider(ProcessLogsPersistenceService processLogsPersistenceService) {
+        this.processLogsPersistenceService = processLogsPersistenceService;
+    }
 
     public ProcessLogger getLogger(DelegateExecution execution) {
         return getLogger(execution, DEFAULT_LOG_NAME);
@@ -63,35 +66,21 @@ public class ProcessLoggerProvider {
 
     private ProcessLogger createProcessLogger(String spaceId, String correlationId, String activityId, String loggerName, String logName,
                                               PatternLayout layout) {
-        Logger logger = Logger.getLogger(loggerName);
-        File logFile = getLocalFile(loggerName);
-        logger.removeAllAppenders();
-        logger.addAppender(createAppender(logger.getLevel(), logFile, layout));
-        return new ProcessLogger(logger, logFile, logName, spaceId, correlationId, activityId);
-    }
-
-    protected File getLocalFile(String loggerName) {
-        String fileName = loggerName + LOG_FILE_EXTENSION;
-        return new File(DEFAULT_LOG_DIR, fileName);
-    }
-
-    private Appender createAppender(Level level, File logFile, PatternLayout layout) {
-        FileAppender appender = new FileAppender();
         if (layout == null) {
             layout = new PatternLayout(LOG_LAYOUT);
         }
-        appender.setLayout(layout);
-        appender.setFile(logFile.getAbsolutePath());
-        appender.setThreshold(level);
-        appender.setAppend(true);
-        appender.activateOptions();
-        return appender;
+        return new ProcessLogger(loggerName, Logger.getLogger(PARENT_LOGGER), layout, logName, processLogsPersistenceService, spaceId,
+                                 correlationId, activityId);
     }
 
     private String getSpaceId(DelegateExecution execution) {
         return (String) execution.getVariable(Constants.VARIABLE_NAME_SPACE_ID);
     }
 
+    public List<ProcessLogger> getExistingLoggers() {
+        return new ArrayList<>(loggersCache.values());
+    }
+
     public List<ProcessLogger> getExistingLoggers(String processId, String activityId) {
         return loggersCache.values()
                            .stream()
@@ -104,8 +93,7 @@ public class ProcessLoggerProvider {
     }
 
     public void remove(ProcessLogger processLogger) {
-        processLogger.removeAllAppenders();
-        loggersCache.remove(processLogger.getName());
+        loggersCache.remove(processLogger.getName(), processLogger);
     }
 
 }
@@ -1,11 +1,12 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
 import java.text.MessageFormat;
@@ -17,18 +18,17 @@ import javax.inject.Named;
 import org.apache.commons.io.IOUtils;
 import org.cloudfoundry.multiapps.common.NotFoundException;
 import org.cloudfoundry.multiapps.common.SLException;
-import org.cloudfoundry.multiapps.common.util.DigestHelper;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
 import org.cloudfoundry.multiapps.controller.persistence.Messages;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
-import org.cloudfoundry.multiapps.controller.persistence.model.FileInfo;
-import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileInfo;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.query.providers.ByteArraySqlFileQueryProvider;
 
 @Named("processLogsPersistenceService")
 public class ProcessLogsPersistenceService extends DatabaseFileService {
 
     private static final String DIGEST_METHOD = "MD5";
+    private static final int MAX_STORE_LOG_CHUNK_ATTEMPTS = 5;
     public static final String TABLE_NAME = "process_log";
 
     public ProcessLogsPersistenceService(DataSourceWithDialect dataSourceWithDialect) {
@@ -44,22 +44,56 @@ public class ProcessLogsPersistenceService extends DatabaseFileService {
     }
 
     public String getLogContent(String space, String namespace, String logName) throws FileStorageException {
-        List<FileEntry> logFiles = listFiles(space, namespace, logName);
-        if (logFiles.isEmpty()) {
-            throw new NotFoundException(MessageFormat.format(Messages.ERROR_LOG_FILE_NOT_FOUND, logName, namespace, space));
-        }
-
         StringBuilder builder = new StringBuilder();
-        for (FileEntry file : logFiles) {
-            String content = processFileContent(space, file.getId(), inputStream -> IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        for (FileEntry file : getLogChunks(space, namespace, logName)) {
+            String content = processFileWithContent(space, file.getId(),
+                                                    inputStream -> IOUtils.toString(inputStream, StandardCharsets.UTF_8));
             builder.append(content);
         }
         return builder.toString();
     }
 
+    /**
+     * Returns the persisted chunks of a log in the order in which their content should be read. Their content is not read. Chunks are
+     * only ever appended to this order, so a byte offset in the content of the returned chunks stays valid for later calls.
+     */
+    public List<FileEntry> getLogChunks(String space, String namespace, String logName) throws FileStorageException {
+        List<FileEntry> logChunks = listFiles(space, namespace, logName);
+        if (logChunks.isEmpty()) {
+            throw new NotFoundException(MessageFormat.format(Messages.ERROR_LOG_FILE_NOT_FOUND, logName, namespace, space));
+        }
+        return logChunks;
+    }
+
+    public long getLogSize(List<FileEntry> logChunks) {
+        return logChunks.stream()
+                        .map(FileEntry::getSize)
+                        .mapToLong(BigInteger::longValue)
+                        .sum();
+    }
+
+    /**
+     * Writes the content of a log, starting from the specified byte offset, directly to the output stream. The chunks of the log, which
+     * end before the offset, are not read at all.
+     */
+    public void writeLogContent(List<FileEntry> logChunks, long offset, OutputStream outputStream) throws FileStorageException {
+        long chunkStartOffset = 0;
+        for (FileEntry logChunk : logChunks) {
+            long chunkEndOffset = chunkStartOffset + logChunk.getSize()
+                                                             .longValue();
+            if (chunkEndOffset > offset) {
+                long bytesToSkip = Math.max(offset - chunkStartOffset, 0);
+                // Log chunks are never composite files, so their content is read directly:
+                processFileWithContent(logChunk.getSpace(), logChunk.getId(),
+                                       inputStream -> IOUtils.copyLarge(inputStream, outputStream, bytesToSkip, -1));
+            }
+            chunkStartOffset = chunkEndOffset;
+        }
+    }
+
     private List<FileEntry> listFiles(final String space, final String namespace, final String fileName) throws FileStorageException {
         try {
-            return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getListFilesQuery(space, namespace, fileName));
+            return getSqlQueryExecutor().execute(getSqlFileQueryProvider().getListLogChunksQuery(space, namespace, fileName));
         } catch (SQLException e) {
             throw new FileStorageException(MessageFormat.format(Messages.ERROR_GETTING_FILES_WITH_SPACE_NAMESPACE_AND_NAME, space,
                                                                 namespace, fileName),
@@ -67,34 +101,40 @@ public class ProcessLogsPersistenceService extends DatabaseFileService {
         }
     }
 
-    public void persistLog(String space, String namespace, File localLog, String remoteLogName) {
+    public void persistLogChunk(String space, String namespace, String logName, byte[] chunk) {
         try {
-            storeLogFile(space, namespace, remoteLogName, localLog);
+            storeLogChunk(space, namespace, logName, chunk);
         } catch (FileStorageException e) {
-            logger.warn(MessageFormat.format(Messages.COULD_NOT_PERSIST_LOGS_FILE, localLog.getName()));
+            logger.warn(MessageFormat.format(Messages.COULD_NOT_PERSIST_LOGS_FILE, logName), e);
         }
     }
 
-    private void storeLogFile(final String space, final String namespace, final String remoteLogName, File localLog)
-        throws FileStorageException {
-        try (InputStream inputStream = new FileInputStream(localLog)) {
-            FileEntry localLogFileEntry = createFileEntry(space, namespace, remoteLogName, localLog);
-            getSqlQueryExecutor().execute(getSqlFileQueryProvider().getStoreFileQuery(localLogFileEntry, inputStream));
-        } catch (SQLException | IOException | NoSuchAlgorithmException e) {
-            throw new FileStorageException(MessageFormat.format(Messages.ERROR_STORING_LOG_FILE, localLog.getName()), e);
+    private void storeLogChunk(String space, String namespace, String logName, byte[] chunk) throws FileStorageException {
+        for (int attempt = 1;; attempt++) {
+            try (InputStream inputStream = new ByteArrayInputStream(chunk)) {
+                FileEntry logChunkEntry = createFileEntry(space, namespace, logName, chunk);
+                getSqlQueryExecutor().execute(getSqlFileQueryProvider().getStoreLogChunkQuery(logChunkEntry, inputStream));
+                return;
+            } catch (SQLException e) {
+                // Chunks of the same log, which are stored at the same time, for example by parallel activities of the operation, get the
+                // same sequence number. Only one of them is stored and the others are stored after it:
+                if (attempt == MAX_STORE_LOG_CHUNK_ATTEMPTS) {
+                    throw new FileStorageException(MessageFormat.format(Messages.ERROR_STORING_LOG_FILE, logName), e);
+                }
+            } catch (IOException | NoSuchAlgorithmException e) {
+                throw new FileStorageException(MessageFormat.format(Messages.ERROR_STORING_LOG_FILE, logName), e);
+            }
         }
     }
 
-    private FileEntry createFileEntry(final String space, final String namespace, final String remoteLogName, File localLog)
-        throws NoSuchAlgorithmException, IOException {
-
-        FileInfo localLogFileInfo = ImmutableFileInfo.builder()
-                                                     .file(localLog)
-                                                     .size(BigInteger.valueOf(localLog.length()))
-                                                     .digest(DigestHelper.computeFileChecksum(localLog.toPath(), DIGEST_METHOD))
-                                                     .digestAlgorithm(DIGEST_METHOD)
-                                                     .build();
-        return createFileEntry(space, namespace, remoteLogName, localLogFileInfo);
+    private FileEntry createFileEntry(String space, String namespace, String logName, byte[] chunk) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(DIGEST_METHOD);
+        return ImmutableFileEntry.builder()
+                                 .from(createFileEntry(space, namespace, logName))
+                                 .size(BigInteger.valueOf(chunk.length))
+                                 .digest(FileUploader.getDigestString(digest.digest(chunk)))
+                                 .digestAlgorithm(DIGEST_METHOD)
+                                 .build();
     }
 
     public int deleteByNamespace(final String namespace) {
@@ -1,25 +1,94 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
 
+/**
+ * Persists the content buffered by the {@link ProcessLogger}s. Besides persisting the logs of an activity when it ends, a small pool of
+ * writer threads periodically persists the content of each logger as an incremental chunk, once enough of it is pending or once it has
+ * been pending for too long. Loggers, which have not been written to for a while, are persisted and closed, so that a logger is never
+ * kept forever when its activity did not end normally.
+ */
 @Named("processLogsPersister")
 public class ProcessLogsPersister {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessLogsPersister.class);
+
+    private static final int WRITER_THREADS_COUNT = 2;
+    private static final long SCAN_INTERVAL_IN_MILLIS = 1000;
+    private static final int MAX_PENDING_CONTENT_SIZE = 64 * 1024;
+    private static final long MAX_PENDING_CONTENT_AGE_IN_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_IDLE_TIME_IN_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
     @Inject
     private ProcessLoggerProvider processLoggerProvider;
-    @Inject
-    private ProcessLogsPersistenceService processLogsPersistenceService;
+
+    private ScheduledExecutorService writerExecutor;
+
+    @PostConstruct
+    public void startWriters() {
+        writerExecutor = Executors.newScheduledThreadPool(WRITER_THREADS_COUNT);
+        writerExecutor.scheduleWithFixedDelay(this::persistPendingLogsQuietly, SCAN_INTERVAL_IN_MILLIS, SCAN_INTERVAL_IN_MILLIS,
+                                              TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopWriters() {
+        if (writerExecutor != null) {
+            writerExecutor.shutdown();
+        }
+        for (ProcessLogger processLogger : processLoggerProvider.getExistingLoggers()) {
+            close(processLogger);
+        }
+    }
 
     @Async("asyncExecutor")
     public void persistLogs(String correlationId, String taskId) {
         for (ProcessLogger processLogger : processLoggerProvider.getExistingLoggers(correlationId, taskId)) {
-            processLogger.persistLogFile(processLogsPersistenceService);
-            processLogger.deleteLogFile();
-            processLoggerProvider.remove(processLogger);
+            close(processLogger);
         }
     }
 
+    private void persistPendingLogs() {
+        long currentTime = System.currentTimeMillis();
+        for (ProcessLogger processLogger : processLoggerProvider.getExistingLoggers()) {
+            boolean isIdle = currentTime - processLogger.getLastWriteTime() >= MAX_IDLE_TIME_IN_MILLIS;
+            if (!isIdle && !hasContentToPersist(processLogger, currentTime)) {
+                continue;
+            }
+            if (processLogger.markPersistScheduled()) {
+                writerExecutor.execute(isIdle ? () -> close(processLogger) : processLogger::persistLog);
+            }
+        }
+    }
+
+    private void persistPendingLogsQuietly() {
+        try {
+            persistPendingLogs();
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    private boolean hasContentToPersist(ProcessLogger processLogger, long currentTime) {
+        int pendingContentSize = processLogger.getPendingContentSize();
+        return pendingContentSize >= MAX_PENDING_CONTENT_SIZE
+            || (pendingContentSize > 0 && currentTime - processLogger.getPendingContentCreationTime() >= MAX_PENDING_CONTENT_AGE_IN_MILLIS);
+    }
+
+    private void close(ProcessLogger processLogger) {
+        processLoggerProvider.remove(processLogger);
+        processLogger.close();
+    }
+
 }
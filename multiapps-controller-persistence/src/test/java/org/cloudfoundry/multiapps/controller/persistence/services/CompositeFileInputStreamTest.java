@@ -0,0 +1,102 @@
+package org.cloudfoundry.multiapps.controller.persistence.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
+import org.junit.After;
+import org.junit.Test;
+
+public class CompositeFileInputStreamTest {
+
+    private static final int CHUNK_SIZE = 7;
+    private static final int MAX_PENDING_CHUNKS = 2;
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final Map<String, byte[]> partsContent = new HashMap<>();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testPartsAreReadInOrder() throws Exception {
+        List<FileContentToProcess> parts = Arrays.asList(addPart("first", "The content of the first part, "),
+                                                         addPart("second", "then of the second one"),
+                                                         addPart("third", "!"));
+
+        try (InputStream inputStream = new CompositeFileInputStream(executorService, parts, this::readPart, CHUNK_SIZE,
+                                                                    MAX_PENDING_CHUNKS)) {
+            byte[] expectedContent = ArrayUtils.addAll(ArrayUtils.addAll(partsContent.get("first"), partsContent.get("second")),
+                                                       partsContent.get("third"));
+            assertArrayEquals(expectedContent, IOUtils.toByteArray(inputStream));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailedPartFailsTheStream() throws Exception {
+        List<FileContentToProcess> parts = Arrays.asList(addPart("first", "The content of the first part"), createPart("missing"));
+
+        try (InputStream inputStream = new CompositeFileInputStream(executorService, parts, this::readPart, CHUNK_SIZE,
+                                                                    MAX_PENDING_CHUNKS)) {
+            IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    @Test
+    public void testClosingTheStreamStopsReadingParts() throws Exception {
+        List<FileContentToProcess> parts = Arrays.asList(addPart("first", "The content of the first part"),
+                                                         addPart("second", "The content of the second part"));
+
+        try (InputStream inputStream = new CompositeFileInputStream(executorService, parts, this::readPart, CHUNK_SIZE,
+                                                                    MAX_PENDING_CHUNKS)) {
+            inputStream.read();
+        }
+        executorService.shutdown();
+        // The reading of the parts is blocked, as the stream is not read further, so it would never finish without being cancelled:
+        assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    private FileContentToProcess addPart(String id, String content) {
+        partsContent.put(id, content.getBytes());
+        return createPart(id);
+    }
+
+    private FileContentToProcess createPart(String id) {
+        byte[] content = partsContent.getOrDefault(id, new byte[0]);
+        return ImmutableFileContentToProcess.builder()
+                                            .id(id)
+                                            .space("space")
+                                            .startOffset(0)
+                                            .endOffset(content.length)
+                                            .build();
+    }
+
+    private void readPart(FileContentToProcess part, FileContentConsumer partContentConsumer) throws FileStorageException {
+        byte[] content = partsContent.get(part.getId());
+        if (content == null) {
+            throw new FileStorageException(part.getId());
+        }
+        try {
+            partContentConsumer.consume(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new FileStorageException(e);
+        }
+    }
+
+}
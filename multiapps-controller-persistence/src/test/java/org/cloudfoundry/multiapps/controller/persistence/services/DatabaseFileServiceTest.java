@@ -1,5 +1,6 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -17,15 +18,20 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
 import javax.xml.bind.DatatypeConverter;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.cloudfoundry.multiapps.common.util.DigestHelper;
 import org.cloudfoundry.multiapps.common.util.TestDataSourceProvider;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.util.JdbcUtil;
 import org.junit.After;
 import org.junit.Before;
@@ -38,7 +44,7 @@ public class DatabaseFileServiceTest {
 
     private static final String UPDATE_MODIFICATION_TIME = "UPDATE {0} SET MODIFIED=? WHERE FILE_ID=?";
 
-    private static final String LIQUIBASE_CHANGELOG_LOCATION = "org/cloudfoundry/multiapps/controller/persistence/db/changelog/db-changelog.xml";
+    protected static final String LIQUIBASE_CHANGELOG_LOCATION = "org/cloudfoundry/multiapps/controller/persistence/db/changelog/db-changelog.xml";
 
     private static final String DIGEST_METHOD = "MD5";
     private static final String PIC_MD5_DIGEST = "b39a167875c3771c384c9aa5601fc2d6";
@@ -178,6 +184,42 @@ public class DatabaseFileServiceTest {
         assertNull(fileService.getFile(SPACE_2, fileEntryToDelete2.getId()));
     }
 
+    @Test
+    public void processCompositeFileContentTest() throws Exception {
+        FileEntry firstPart = addTestFile(SPACE_1, NAMESPACE_1);
+        FileEntry secondPart = addTestFile(SPACE_1, NAMESPACE_1);
+        FileEntry compositeFile = fileService.addCompositeFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, Arrays.asList(firstPart, secondPart));
+        assertEquals(BigInteger.valueOf(2L * PIC_SIZE), compositeFile.getSize());
+        assertEquals(BigInteger.valueOf(2L * PIC_SIZE), fileService.getFile(SPACE_1, compositeFile.getId())
+                                                                   .getSize());
+
+        byte[] partContent = IOUtils.toByteArray(getResource(PIC_RESOURCE_NAME));
+        byte[] expectedContent = ArrayUtils.addAll(partContent, partContent);
+        assertArrayEquals(expectedContent, fileService.processFileContent(SPACE_1, compositeFile.getId(), IOUtils::toByteArray));
+
+        FileContentToProcess rangeAcrossParts = ImmutableFileContentToProcess.builder()
+                                                                             .id(compositeFile.getId())
+                                                                             .space(SPACE_1)
+                                                                             .startOffset(PIC_SIZE - 10)
+                                                                             .endOffset(PIC_SIZE + 10)
+                                                                             .build();
+        assertArrayEquals(Arrays.copyOfRange(expectedContent, PIC_SIZE - 10, PIC_SIZE + 10),
+                          fileService.processFileContentRange(rangeAcrossParts, IOUtils::toByteArray));
+    }
+
+    @Test
+    public void deleteCompositeFileTest() throws Exception {
+        FileEntry firstPart = addTestFile(SPACE_1, NAMESPACE_1);
+        FileEntry secondPart = addTestFile(SPACE_1, NAMESPACE_1);
+        FileEntry compositeFile = fileService.addCompositeFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, Arrays.asList(firstPart, secondPart));
+
+        assertTrue(fileService.deleteFile(SPACE_1, compositeFile.getId()));
+
+        assertNull(fileService.getFile(SPACE_1, compositeFile.getId()));
+        assertNull(fileService.getFile(SPACE_1, firstPart.getId()));
+        assertNull(fileService.getFile(SPACE_1, secondPart.getId()));
+    }
+
     protected FileService createFileService(DataSourceWithDialect dataSource) {
         return new DatabaseFileService(dataSource);
     }
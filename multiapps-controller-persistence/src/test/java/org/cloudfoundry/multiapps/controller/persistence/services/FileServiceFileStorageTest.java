@@ -1,5 +1,6 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
@@ -12,6 +13,7 @@ import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -19,8 +21,12 @@ import java.util.UUID;
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.cloudfoundry.multiapps.common.util.DigestHelper;
+import org.cloudfoundry.multiapps.controller.persistence.Constants;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
 import org.junit.After;
 import org.junit.Before;
@@ -116,9 +122,11 @@ public class FileServiceFileStorageTest {
         FileEntry fileEntryToRemain2 = addFile(SECOND_FILE_TEST_LOCATION);
         FileEntry fileEntryToDelete1 = addFile(TEST_FILE_LOCATION);
         FileEntry fileEntryToDelete2 = addFile(SECOND_FILE_TEST_LOCATION);
+        FileEntry contentAddressedFileEntryToRemain = addFile(TEST_FILE_LOCATION, Constants.CONTENT_ADDRESSED_FILES_SPACE, null);
 
         Files.setLastModifiedTime(getFileLocation(fileEntryToDelete1), FileTime.fromMillis(pastMoment));
         Files.setLastModifiedTime(getFileLocation(fileEntryToDelete2), FileTime.fromMillis(pastMoment));
+        Files.setLastModifiedTime(getFileLocation(contentAddressedFileEntryToRemain), FileTime.fromMillis(pastMoment));
 
         Path oldNonDeployerFile = Files.createFile(Paths.get(temporaryStorageLocation.toString(), "random"));
         Files.setLastModifiedTime(oldNonDeployerFile, FileTime.fromMillis(pastMoment));
@@ -131,6 +139,18 @@ public class FileServiceFileStorageTest {
         assertFileExists(true, fileEntryToRemain2);
         assertFileExists(false, fileEntryToDelete1);
         assertFileExists(false, fileEntryToDelete2);
+        assertFileExists(true, contentAddressedFileEntryToRemain);
+    }
+
+    @Test
+    public void addFileFromStream() throws Exception {
+        FileEntry fileEntry = createFileEntry();
+        try (InputStream content = Files.newInputStream(Paths.get(TEST_FILE_LOCATION))) {
+            fileStorage.addFile(fileEntry, content);
+        }
+        String testFileDigest = DigestHelper.computeFileChecksum(Paths.get(TEST_FILE_LOCATION), DIGEST_METHOD)
+                                            .toLowerCase();
+        validateFileContent(fileEntry, testFileDigest);
     }
 
     @Test
@@ -141,6 +161,24 @@ public class FileServiceFileStorageTest {
         validateFileContent(fileEntry, testFileDigest);
     }
 
+    @Test
+    public void processFileContentRange() throws Exception {
+        FileEntry fileEntry = addFile(TEST_FILE_LOCATION);
+        byte[] testFileContent = Files.readAllBytes(Paths.get(TEST_FILE_LOCATION));
+        int startOffset = 100;
+        int endOffset = testFileContent.length / 2;
+        FileContentToProcess fileContentToProcess = ImmutableFileContentToProcess.builder()
+                                                                                 .id(fileEntry.getId())
+                                                                                 .space(fileEntry.getSpace())
+                                                                                 .startOffset(startOffset)
+                                                                                 .endOffset(endOffset)
+                                                                                 .build();
+
+        byte[] content = fileStorage.processFileContentRange(fileContentToProcess, IOUtils::toByteArray);
+
+        assertArrayEquals(Arrays.copyOfRange(testFileContent, startOffset, endOffset), content);
+    }
+
     @Test(expected = FileStorageException.class)
     public void testFileContentNotExisting() throws Exception {
         String fileId = "not-existing-file-id";
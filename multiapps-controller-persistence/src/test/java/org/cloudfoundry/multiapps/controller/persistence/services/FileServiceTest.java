@@ -1,5 +1,6 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -7,34 +8,92 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import org.apache.commons.io.IOUtils;
+import org.cloudfoundry.multiapps.controller.persistence.Constants;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
+import org.cloudfoundry.multiapps.controller.persistence.util.SqlQueryExecutor;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.MockitoAnnotations;
+
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
 
 public class FileServiceTest extends DatabaseFileServiceTest {
 
+    private static final String CONCURRENT_TRANSACTIONS_DATABASE_URL = "jdbc:h2:mem:file-service-concurrent-transactions";
+    private static final long LOCK_WAIT_TIME_IN_MILLIS = 300;
+
     @Mock
     private FileStorage fileStorage;
 
+    private final Map<String, byte[]> storedContent = new HashMap<>();
+
     @Before
     public void setUp() throws Exception {
-        MockitoAnnotations.initMocks(this);
         super.setUp();
+        Mockito.doAnswer(invocation -> {
+            FileEntry fileEntry = invocation.getArgument(0);
+            InputStream content = invocation.getArgument(1);
+            storedContent.put(fileEntry.getId(), IOUtils.toByteArray(content));
+            return null;
+        })
+               .when(fileStorage)
+               .addFile(Mockito.any(), Mockito.any(InputStream.class));
+        Mockito.doAnswer(invocation -> {
+            FileEntry fileEntry = invocation.getArgument(0);
+            File content = invocation.getArgument(1);
+            storedContent.put(fileEntry.getId(), Files.readAllBytes(content.toPath()));
+            return null;
+        })
+               .when(fileStorage)
+               .addFile(Mockito.any(), Mockito.any(File.class));
+        Mockito.when(fileStorage.hasContent(Mockito.any()))
+               .thenAnswer(invocation -> storedContent.containsKey(invocation.<FileEntry> getArgument(0)
+                                                                                  .getId()));
+        Mockito.when(fileStorage.processFileContentRange(Mockito.any(), Mockito.any()))
+               .thenAnswer(invocation -> {
+                   FileContentToProcess fileContentToProcess = invocation.getArgument(0);
+                   FileContentProcessor<?> fileContentProcessor = invocation.getArgument(1);
+                   byte[] content = storedContent.get(fileContentToProcess.getId());
+                   return fileContentProcessor.process(new ByteArrayInputStream(content, (int) fileContentToProcess.getStartOffset(),
+                                                                                (int) fileContentToProcess.getLength()));
+               });
     }
 
     @Test
     public void addFileUploadFileErrorTest() throws Exception {
         Mockito.doThrow(new FileStorageException("expected exception"))
                .when(fileStorage)
-               .addFile(Mockito.any(), Mockito.any());
+               .addFile(Mockito.any(), Mockito.any(InputStream.class));
 
         InputStream resourceStream = getResource(PIC_RESOURCE_NAME);
         String space = SPACE_1;
@@ -44,12 +103,33 @@ public class FileServiceTest extends DatabaseFileServiceTest {
             fail("addFile should fail with exception");
         } catch (FileStorageException e) {
             Mockito.verify(fileStorage)
-                   .addFile(Mockito.any(), Mockito.any());
+                   .addFile(Mockito.any(), Mockito.any(InputStream.class));
             List<FileEntry> listFiles = fileService.listFiles(space, namespace);
             assertEquals(0, listFiles.size());
         }
     }
 
+    @Test
+    public void addFileStoreAttributesErrorTest() throws Exception {
+        SqlQueryExecutor failingSqlQueryExecutor = Mockito.mock(SqlQueryExecutor.class);
+        Mockito.when(failingSqlQueryExecutor.execute(Mockito.any()))
+               .thenThrow(new SQLException("expected exception"));
+        FileService failingFileService = new FileService(testDataSource, fileStorage) {
+            @Override
+            protected SqlQueryExecutor getSqlQueryExecutor() {
+                return failingSqlQueryExecutor;
+            }
+        };
+
+        try {
+            failingFileService.addFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+            fail("addFile should fail with an exception!");
+        } catch (FileStorageException e) {
+            Mockito.verify(fileStorage)
+                   .deleteFile(Mockito.anyString(), Mockito.eq(SPACE_1));
+        }
+    }
+
     @Test
     public void consumeFileContentTest() throws Exception {
         fileService.consumeFileContent(SPACE_1, "1111-2222-3333-4444", Mockito.mock(FileContentConsumer.class));
@@ -57,6 +137,17 @@ public class FileServiceTest extends DatabaseFileServiceTest {
                .processFileContent(Mockito.eq(SPACE_1), Mockito.eq("1111-2222-3333-4444"), Mockito.any());
     }
 
+    @Test
+    public void consumeStoredFileContentTest() throws Exception {
+        FileEntry fileEntry = addTestFile(SPACE_1, NAMESPACE_1);
+
+        fileService.consumeFileContent(SPACE_1, fileEntry.getId(), Mockito.mock(FileContentConsumer.class));
+
+        // The entry contains the size of the file, so that the file storage does not have to look it up:
+        Mockito.verify(fileStorage)
+               .processFileContent(Mockito.eq(fileService.getFile(SPACE_1, fileEntry.getId())), Mockito.any());
+    }
+
     @Test
     public void deleteBySpaceAndNamespaceTest() throws Exception {
         super.deleteBySpaceAndNamespaceTest();
@@ -78,6 +169,33 @@ public class FileServiceTest extends DatabaseFileServiceTest {
                .deleteFilesBySpace(Mockito.eq(SPACE_1));
     }
 
+    @Test
+    public void deleteBySpaceWithFileTableAsStorageIndexTest() throws Exception {
+        fileService = new FileService(testDataSource, fileStorage, true, false);
+        FileEntry fileEntry1 = addTestFile(SPACE_1, NAMESPACE_1);
+        FileEntry fileEntry2 = addTestFile(SPACE_1, NAMESPACE_2);
+        addTestFile(SPACE_2, NAMESPACE_1);
+
+        assertEquals(2, fileService.deleteBySpace(SPACE_1));
+        Mockito.verify(fileStorage)
+               .deleteFiles(Mockito.argThat(fileEntries -> hasIds(fileEntries, fileEntry1.getId(), fileEntry2.getId())));
+        Mockito.verify(fileStorage, Mockito.never())
+               .deleteFilesBySpace(Mockito.any());
+    }
+
+    @Test
+    public void deleteBySpaceAndNamespaceWithFileTableAsStorageIndexTest() throws Exception {
+        fileService = new FileService(testDataSource, fileStorage, true, false);
+        FileEntry fileEntry = addTestFile(SPACE_1, NAMESPACE_1);
+        addTestFile(SPACE_1, NAMESPACE_2);
+
+        assertEquals(1, fileService.deleteBySpaceAndNamespace(SPACE_1, NAMESPACE_1));
+        Mockito.verify(fileStorage)
+               .deleteFiles(Mockito.argThat(fileEntries -> hasIds(fileEntries, fileEntry.getId())));
+        Mockito.verify(fileStorage, Mockito.never())
+               .deleteFilesBySpaceAndNamespace(Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void deleteFileTest() throws Exception {
         FileEntry fileEntry = addTestFile(SPACE_1, NAMESPACE_1);
@@ -133,11 +251,134 @@ public class FileServiceTest extends DatabaseFileServiceTest {
         assertNull(fileService.getFile(SPACE_2, noContent2.getId()));
     }
 
+    @Test
+    public void addContentAddressedFilesWithSameContentTest() throws Exception {
+        fileService = new FileService(testDataSource, fileStorage, false, true);
+        FileEntry fileEntry1 = fileService.addFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+        FileEntry fileEntry2 = fileService.addFile(SPACE_2, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+
+        String contentId = verifyContentIsStoredOnce();
+        assertEquals(fileEntry1.getDigest(), fileEntry2.getDigest());
+        byte[] expectedContent = IOUtils.toByteArray(getResource(PIC_RESOURCE_NAME));
+        assertArrayEquals(expectedContent, storedContent.get(contentId));
+        assertArrayEquals(expectedContent, readFileContent(fileEntry2));
+    }
+
+    @Test
+    public void deleteContentAddressedFileTest() throws Exception {
+        fileService = new FileService(testDataSource, fileStorage, false, true);
+        FileEntry fileEntry1 = fileService.addFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+        FileEntry fileEntry2 = fileService.addFile(SPACE_1, NAMESPACE_2, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+        String contentId = verifyContentIsStoredOnce();
+
+        assertTrue(fileService.deleteFile(SPACE_1, fileEntry1.getId()));
+        Mockito.verify(fileStorage, Mockito.never())
+               .deleteFile(Mockito.any(), Mockito.any());
+
+        assertTrue(fileService.deleteFile(SPACE_1, fileEntry2.getId()));
+        Mockito.verify(fileStorage)
+               .deleteFile(contentId, Constants.CONTENT_ADDRESSED_FILES_SPACE);
+    }
+
+    @Test
+    public void deleteBySpaceWithContentAddressedFilesTest() throws Exception {
+        fileService = new FileService(testDataSource, fileStorage, false, true);
+        fileService.addFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+        fileService.addFile(SPACE_2, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+        String contentId = verifyContentIsStoredOnce();
+
+        assertEquals(1, fileService.deleteBySpace(SPACE_1));
+        Mockito.verify(fileStorage, Mockito.never())
+               .deleteFile(Mockito.any(), Mockito.any());
+
+        // Both the remaining file and its no longer referenced content are deleted:
+        assertEquals(2, fileService.deleteModifiedBefore(new Date(System.currentTimeMillis() + 1000)));
+        Mockito.verify(fileStorage)
+               .deleteFile(contentId, Constants.CONTENT_ADDRESSED_FILES_SPACE);
+    }
+
+    @Test
+    public void contentIsNotDeletedWhileFileReferencingItIsStoredTest() throws Exception {
+        // The test data source has a single connection, so concurrent transactions need a data source of their own:
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(CONCURRENT_TRANSACTIONS_DATABASE_URL);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Connection connection = dataSource.getConnection()) {
+            createTables(connection);
+            fileService = new FileService(new DataSourceWithDialect(dataSource), fileStorage, false, true);
+            FileEntry fileEntry1 = fileService.addFile(SPACE_1, NAMESPACE_1, PIC_STORAGE_NAME, getResource(PIC_RESOURCE_NAME));
+            CountDownLatch contentDeletionStarted = new CountDownLatch(1);
+            CountDownLatch contentDeletionAllowed = new CountDownLatch(1);
+            Mockito.doAnswer(invocation -> {
+                contentDeletionStarted.countDown();
+                contentDeletionAllowed.await();
+                storedContent.remove(invocation.getArgument(0));
+                return null;
+            })
+                   .when(fileStorage)
+                   .deleteFile(Mockito.any(), Mockito.any());
+
+            Future<Boolean> deletion = executor.submit(() -> fileService.deleteFile(SPACE_1, fileEntry1.getId()));
+            contentDeletionStarted.await();
+            Future<FileEntry> addition = executor.submit(() -> fileService.addFile(SPACE_2, NAMESPACE_1, PIC_STORAGE_NAME,
+                                                                                   getResource(PIC_RESOURCE_NAME)));
+
+            // The content of the new file is uploaded without waiting for the lock, but the file waits for the deletion of the content,
+            // which it would reference, and then stores the deleted content again:
+            TimeUnit.MILLISECONDS.sleep(LOCK_WAIT_TIME_IN_MILLIS);
+            assertFalse(addition.isDone());
+            Mockito.verify(fileStorage, Mockito.times(2))
+                   .addFile(Mockito.any(), Mockito.any(File.class));
+            contentDeletionAllowed.countDown();
+            assertTrue(deletion.get());
+            FileEntry fileEntry2 = addition.get();
+            Mockito.verify(fileStorage, Mockito.times(3))
+                   .addFile(Mockito.any(), Mockito.any(File.class));
+            assertArrayEquals(IOUtils.toByteArray(getResource(PIC_RESOURCE_NAME)), readFileContent(fileEntry2));
+            fileService.deleteFile(SPACE_2, fileEntry2.getId());
+        } finally {
+            executor.shutdownNow();
+            fileService = createFileService(testDataSource);
+        }
+    }
+
+    private void createTables(Connection connection) throws Exception {
+        Database database = DatabaseFactory.getInstance()
+                                           .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        new Liquibase(LIQUIBASE_CHANGELOG_LOCATION, new ClassLoaderResourceAccessor(), database).update("");
+    }
+
+    private String verifyContentIsStoredOnce() throws Exception {
+        ArgumentCaptor<FileEntry> contentEntryCaptor = ArgumentCaptor.forClass(FileEntry.class);
+        Mockito.verify(fileStorage)
+               .addFile(contentEntryCaptor.capture(), Mockito.any(File.class));
+        FileEntry contentEntry = contentEntryCaptor.getValue();
+        assertEquals(Constants.CONTENT_ADDRESSED_FILES_SPACE, contentEntry.getSpace());
+        return contentEntry.getId();
+    }
+
+    private byte[] readFileContent(FileEntry fileEntry) throws Exception {
+        FileContentToProcess fileContentToProcess = ImmutableFileContentToProcess.builder()
+                                                                                 .id(fileEntry.getId())
+                                                                                 .space(fileEntry.getSpace())
+                                                                                 .startOffset(0)
+                                                                                 .endOffset(fileEntry.getSize()
+                                                                                                     .longValue())
+                                                                                 .build();
+        return fileService.processFileContentRange(fileContentToProcess, IOUtils::toByteArray);
+    }
+
+    private boolean hasIds(List<FileEntry> fileEntries, String... ids) {
+        return fileEntries.stream()
+                          .map(FileEntry::getId)
+                          .collect(Collectors.toSet())
+                          .equals(new HashSet<>(Arrays.asList(ids)));
+    }
+
     @Override
     protected FileEntry addFile(String space, String namespace, String fileName, String resourceName) throws Exception {
         FileEntry fileEntry = super.addFile(space, namespace, fileName, resourceName);
-        Mockito.verify(fileStorage)
-               .addFile(Mockito.eq(fileEntry), Mockito.any());
+        verifyFileIsStored(fileEntry);
         return fileEntry;
     }
 
@@ -148,7 +389,10 @@ public class FileServiceTest extends DatabaseFileServiceTest {
 
     @Override
     protected void verifyFileIsStored(FileEntry fileEntry) throws Exception {
+        // The size and the digest of a streamed file are known only after its content is stored:
         Mockito.verify(fileStorage)
-               .addFile(Mockito.eq(fileEntry), Mockito.any());
+               .addFile(Mockito.argThat(storedFileEntry -> storedFileEntry.getId()
+                                                                          .equals(fileEntry.getId())),
+                        Mockito.any(InputStream.class));
     }
 }
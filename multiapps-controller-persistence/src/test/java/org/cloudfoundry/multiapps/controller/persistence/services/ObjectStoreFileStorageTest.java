@@ -1,43 +1,69 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.cloudfoundry.multiapps.common.util.DigestHelper;
+import org.cloudfoundry.multiapps.controller.persistence.Constants;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
 import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.google.common.net.MediaType;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class ObjectStoreFileStorageTest {
 
     private static final String TEST_FILE_LOCATION = "src/test/resources/pexels-photo-401794.jpeg";
     private static final String SECOND_FILE_TEST_LOCATION = "src/test/resources/pexels-photo-463467.jpeg";
     private static final String DIGEST_METHOD = "MD5";
     private static final String CONTAINER = "container4e";
+    private static final int TRANSFER_THREADS = 3;
+    private static final int MAX_BUFFERED_PARTS = 2;
+    private static final int CONCURRENT_UPLOADS = 4;
+    private static final long PART_SIZE_IN_BYTES = 256 * 1024L; // 256KB
 
     private String spaceId;
     private String namespace;
@@ -46,14 +72,25 @@ public class ObjectStoreFileStorageTest {
 
     private BlobStoreContext blobStoreContext;
 
+    private ExecutorService transferExecutor;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Before
     public void setUp() {
         createBlobStoreContext();
-        fileStorage = new ObjectStoreFileStorage(blobStoreContext.getBlobStore(), CONTAINER) {
+        fileStorage = new ObjectStoreFileStorage(blobStoreContext.getBlobStore(), CONTAINER, null, 1, MAX_BUFFERED_PARTS,
+                                                 meterRegistry) {
             @Override
             protected long getRetryWaitTime() {
                 return 1;
             }
+
+            @Override
+            protected int getListPageSize() {
+                // Makes every listing span several pages:
+                return 1;
+            }
         };
         spaceId = UUID.randomUUID()
                       .toString();
@@ -70,9 +107,35 @@ public class ObjectStoreFileStorageTest {
 
     @After
     public void tearDown() {
+        if (transferExecutor != null) {
+            transferExecutor.shutdownNow();
+        }
         blobStoreContext.close();
     }
 
+    private void useParallelTransfers() {
+        transferExecutor = Executors.newFixedThreadPool(TRANSFER_THREADS);
+        // The meters of the storage with parallel transfers are registered separately from the ones of the default storage:
+        meterRegistry = new SimpleMeterRegistry();
+        fileStorage = new ObjectStoreFileStorage(blobStoreContext.getBlobStore(), CONTAINER, transferExecutor, TRANSFER_THREADS,
+                                                 MAX_BUFFERED_PARTS, meterRegistry) {
+            @Override
+            protected long getRetryWaitTime() {
+                return 1;
+            }
+
+            @Override
+            protected long getPartSize() {
+                return PART_SIZE_IN_BYTES;
+            }
+
+            @Override
+            protected long getRangeSize() {
+                return PART_SIZE_IN_BYTES;
+            }
+        };
+    }
+
     @Test
     public void addFileTest() throws Exception {
         FileEntry fileEntry = addFile(TEST_FILE_LOCATION);
@@ -95,6 +158,17 @@ public class ObjectStoreFileStorageTest {
                                                             .getId());
     }
 
+    @Test
+    public void getFileEntriesWithoutContentOfNoFiles() throws Exception {
+        addFile(TEST_FILE_LOCATION);
+
+        assertTrue(fileStorage.getFileEntriesWithoutContent(Collections.emptyList())
+                              .isEmpty());
+        assertEquals(0, meterRegistry.get(ObjectStoreFileStorage.METRICS_PREFIX + "list.page.duration")
+                                     .timer()
+                                     .count());
+    }
+
     @Test
     public void deleteFile() throws Exception {
         FileEntry fileThatWillBeDeleted = addFile(TEST_FILE_LOCATION);
@@ -106,6 +180,18 @@ public class ObjectStoreFileStorageTest {
 
     }
 
+    @Test
+    public void deleteFiles() throws Exception {
+        FileEntry firstFile = addFile(TEST_FILE_LOCATION);
+        FileEntry secondFile = addFile(SECOND_FILE_TEST_LOCATION);
+        FileEntry fileThatStays = addFile(TEST_FILE_LOCATION);
+
+        fileStorage.deleteFiles(Arrays.asList(firstFile, secondFile));
+        assertFileExists(false, firstFile);
+        assertFileExists(false, secondFile);
+        assertFileExists(true, fileThatStays);
+    }
+
     @Test
     public void deleteFilesBySpace() throws Exception {
         FileEntry firstFile = addFile(TEST_FILE_LOCATION);
@@ -144,6 +230,8 @@ public class ObjectStoreFileStorageTest {
         FileEntry fileEntryToRemain2 = addFile(SECOND_FILE_TEST_LOCATION);
         FileEntry fileEntryToDelete1 = addFile(TEST_FILE_LOCATION, spaceId, namespace, new Date(pastMoment));
         FileEntry fileEntryToDelete2 = addFile(SECOND_FILE_TEST_LOCATION, spaceId, null, new Date(pastMoment));
+        FileEntry contentAddressedFileEntryToRemain = addFile(TEST_FILE_LOCATION, Constants.CONTENT_ADDRESSED_FILES_SPACE, null,
+                                                              new Date(pastMoment));
 
         String blobWithNoMetadataId = addBlobWithNoMetadata();
 
@@ -154,8 +242,15 @@ public class ObjectStoreFileStorageTest {
         assertFileExists(true, fileEntryToRemain2);
         assertFileExists(false, fileEntryToDelete1);
         assertFileExists(false, fileEntryToDelete2);
+        assertFileExists(true, contentAddressedFileEntryToRemain);
         assertNull(blobStoreContext.getBlobStore()
                                    .getBlob(CONTAINER, blobWithNoMetadataId));
+        assertEquals(6, meterRegistry.get(ObjectStoreFileStorage.METRICS_PREFIX + "listed.blobs")
+                                     .counter()
+                                     .count(), 0);
+        assertEquals(3, meterRegistry.get(ObjectStoreFileStorage.METRICS_PREFIX + "removed.blobs")
+                                     .counter()
+                                     .count(), 0);
     }
 
     private String addBlobWithNoMetadata() throws Exception {
@@ -183,6 +278,150 @@ public class ObjectStoreFileStorageTest {
         validateFileContent(fileEntry, testFileDigest);
     }
 
+    @Test
+    public void processFileContentRange() throws Exception {
+        FileEntry fileEntry = addFile(TEST_FILE_LOCATION);
+        byte[] testFileContent = Files.readAllBytes(Paths.get(TEST_FILE_LOCATION));
+        int startOffset = 100;
+        int endOffset = testFileContent.length / 2;
+        FileContentToProcess fileContentToProcess = ImmutableFileContentToProcess.builder()
+                                                                                 .id(fileEntry.getId())
+                                                                                 .space(fileEntry.getSpace())
+                                                                                 .startOffset(startOffset)
+                                                                                 .endOffset(endOffset)
+                                                                                 .build();
+
+        byte[] content = fileStorage.processFileContentRange(fileContentToProcess, IOUtils::toByteArray);
+
+        assertArrayEquals(Arrays.copyOfRange(testFileContent, startOffset, endOffset), content);
+    }
+
+    @Test
+    public void addFileInParts() throws Exception {
+        useParallelTransfers();
+        FileEntry fileEntry = addFile(TEST_FILE_LOCATION);
+
+        assertFileExists(true, fileEntry);
+        BlobMetadata blobMetadata = blobStoreContext.getBlobStore()
+                                                    .blobMetadata(CONTAINER, fileEntry.getId());
+        assertEquals(fileEntry.getSize()
+                              .longValue(),
+                     blobMetadata.getSize()
+                                 .longValue());
+        assertEquals(spaceId, blobMetadata.getUserMetadata()
+                                          .get(Constants.FILE_ENTRY_SPACE.toLowerCase()));
+        assertArrayEquals(Files.readAllBytes(Paths.get(TEST_FILE_LOCATION)),
+                          fileStorage.processFileContent(spaceId, fileEntry.getId(), IOUtils::toByteArray));
+    }
+
+    @Test
+    public void addFileFromStream() throws Exception {
+        FileEntry fileEntry = addFileFromStream(TEST_FILE_LOCATION);
+
+        assertStoredFileContent(fileEntry, TEST_FILE_LOCATION);
+    }
+
+    @Test
+    public void addSmallFileFromStreamDoesNotAllocateWholePart() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread()
+                              .getId();
+
+        long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        FileEntry fileEntry = addFileFromStream(TEST_FILE_LOCATION);
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+
+        assertStoredFileContent(fileEntry, TEST_FILE_LOCATION);
+        // The file is about 2MB, while a part is 32MB:
+        assertTrue("Uploading the file allocated " + allocatedBytes + " bytes", allocatedBytes < 32 * 1024 * 1024L);
+    }
+
+    @Test
+    public void addFileFromStreamInParts() throws Exception {
+        useParallelTransfers();
+        FileEntry fileEntry = addFileFromStream(TEST_FILE_LOCATION);
+
+        assertStoredFileContent(fileEntry, TEST_FILE_LOCATION);
+    }
+
+    @Test
+    public void addFilesFromStreamsConcurrentlyKeepsBoundedPartsInMemory() throws Exception {
+        useParallelTransfers();
+        Gauge bufferedPartsGauge = meterRegistry.get(ObjectStoreFileStorage.METRICS_PREFIX + "buffered.parts")
+                                                .gauge();
+        AtomicInteger maxBufferedParts = new AtomicInteger();
+        ExecutorService uploads = Executors.newFixedThreadPool(CONCURRENT_UPLOADS);
+        try {
+            List<Future<FileEntry>> fileEntries = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_UPLOADS; i++) {
+                fileEntries.add(uploads.submit(() -> addFileFromStream(TEST_FILE_LOCATION, content -> new FilterInputStream(content) {
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        maxBufferedParts.accumulateAndGet((int) bufferedPartsGauge.value(), Math::max);
+                        return super.read(buffer, offset, length);
+                    }
+                })));
+            }
+            for (Future<FileEntry> fileEntry : fileEntries) {
+                assertStoredFileContent(fileEntry.get(), TEST_FILE_LOCATION);
+            }
+        } finally {
+            uploads.shutdownNow();
+        }
+
+        assertTrue("There were " + maxBufferedParts.get() + " parts in memory", maxBufferedParts.get() <= MAX_BUFFERED_PARTS);
+        assertEquals(0, bufferedPartsGauge.value(), 0);
+    }
+
+    private FileEntry addFileFromStream(String pathString) throws Exception {
+        return addFileFromStream(pathString, UnaryOperator.identity());
+    }
+
+    private FileEntry addFileFromStream(String pathString, UnaryOperator<InputStream> contentWrapper) throws Exception {
+        Path testFilePath = Paths.get(pathString)
+                                 .toAbsolutePath();
+        FileEntry fileEntry = ImmutableFileEntry.builder()
+                                                .from(createFileEntry())
+                                                .name(testFilePath.getFileName()
+                                                                  .toString())
+                                                .modified(new Date())
+                                                .build();
+        try (InputStream content = contentWrapper.apply(Files.newInputStream(testFilePath))) {
+            fileStorage.addFile(fileEntry, content);
+        }
+        return fileEntry;
+    }
+
+    private void assertStoredFileContent(FileEntry fileEntry, String pathString) throws Exception {
+        BlobMetadata blobMetadata = blobStoreContext.getBlobStore()
+                                                    .blobMetadata(CONTAINER, fileEntry.getId());
+        assertEquals(spaceId, blobMetadata.getUserMetadata()
+                                          .get(Constants.FILE_ENTRY_SPACE.toLowerCase()));
+        assertArrayEquals(Files.readAllBytes(Paths.get(pathString)),
+                          fileStorage.processFileContent(spaceId, fileEntry.getId(), IOUtils::toByteArray));
+    }
+
+    @Test
+    public void processFileContentInRanges() throws Exception {
+        FileEntry fileEntry = addFile(SECOND_FILE_TEST_LOCATION);
+        String testFileDigest = DigestHelper.computeFileChecksum(Paths.get(SECOND_FILE_TEST_LOCATION), DIGEST_METHOD)
+                                            .toLowerCase();
+        useParallelTransfers();
+
+        validateFileContent(fileEntry, testFileDigest);
+    }
+
+    @Test(expected = FileStorageException.class)
+    public void testFileContentNotExistingWithParallelTransfers() throws Exception {
+        useParallelTransfers();
+        FileEntry dummyFileEntry = ImmutableFileEntry.builder()
+                                                     .id("not-existing-file-id")
+                                                     .space("not-existing-space-id")
+                                                     .build();
+        validateFileContent(dummyFileEntry, "");
+    }
+
     @Test(expected = FileStorageException.class)
     public void testFileContentNotExisting() throws Exception {
         String fileId = "not-existing-file-id";
@@ -197,7 +436,7 @@ public class ObjectStoreFileStorageTest {
     }
 
     private void validateFileContent(FileEntry storedFile, final String expectedFileChecksum) throws FileStorageException {
-        fileStorage.processFileContent(storedFile.getSpace(), storedFile.getId(), contentStream -> {
+        fileStorage.processFileContent(storedFile, contentStream -> {
             // make a digest out of the content and compare it to the original
             final byte[] digest = calculateFileDigest(contentStream);
             assertEquals(expectedFileChecksum, DatatypeConverter.printHexBinary(digest)
@@ -0,0 +1,94 @@
+package org.cloudfoundry.multiapps.controller.persistence.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelRangesInputStreamTest {
+
+    private static final int CONTENT_SIZE = 10_000;
+    private static final int RANGE_SIZE = 333;
+    private static final int MAX_PENDING_RANGES = 4;
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(MAX_PENDING_RANGES);
+    private final byte[] content = createContent();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testRangesAreReadInOrder() throws Exception {
+        try (InputStream inputStream = new ParallelRangesInputStream(executorService, this::readRangeWithRandomDelay, CONTENT_SIZE,
+                                                                     RANGE_SIZE, MAX_PENDING_RANGES)) {
+            assertArrayEquals(content, IOUtils.toByteArray(inputStream));
+        }
+    }
+
+    @Test
+    public void testPendingRangesAreBounded() throws Exception {
+        AtomicInteger readRanges = new AtomicInteger();
+        try (InputStream inputStream = new ParallelRangesInputStream(executorService, (startOffset, endOffset) -> {
+            readRanges.incrementAndGet();
+            return readRange(startOffset, endOffset);
+        }, CONTENT_SIZE, RANGE_SIZE, MAX_PENDING_RANGES)) {
+            assertEquals(content[0], (byte) inputStream.read());
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.SECONDS);
+            // The first range has been consumed and one more range has been submitted in its place:
+            assertEquals(MAX_PENDING_RANGES + 1, readRanges.get());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailedRangeFailsTheStream() throws Exception {
+        try (InputStream inputStream = new ParallelRangesInputStream(executorService, (startOffset, endOffset) -> {
+            if (startOffset > 0) {
+                throw new IllegalStateException("expected exception");
+            }
+            return readRange(startOffset, endOffset);
+        }, CONTENT_SIZE, RANGE_SIZE, MAX_PENDING_RANGES)) {
+            IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    @Test
+    public void testEmptyContent() throws Exception {
+        try (InputStream inputStream = new ParallelRangesInputStream(executorService, this::readRange, 0, RANGE_SIZE,
+                                                                     MAX_PENDING_RANGES)) {
+            assertEquals(-1, inputStream.read());
+            assertTrue(executorService.shutdownNow()
+                                      .isEmpty());
+        }
+    }
+
+    private byte[] readRangeWithRandomDelay(long startOffset, long endOffset) throws InterruptedException {
+        Thread.sleep(new Random().nextInt(5));
+        return readRange(startOffset, endOffset);
+    }
+
+    private byte[] readRange(long startOffset, long endOffset) {
+        return Arrays.copyOfRange(content, (int) startOffset, (int) endOffset);
+    }
+
+    private static byte[] createContent() {
+        byte[] content = new byte[CONTENT_SIZE];
+        new Random().nextBytes(content);
+        return content;
+    }
+
+}
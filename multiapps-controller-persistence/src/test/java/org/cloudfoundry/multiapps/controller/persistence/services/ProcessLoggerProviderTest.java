@@ -1,20 +1,26 @@
 package org.cloudfoundry.multiapps.controller.persistence.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.cloudfoundry.multiapps.controller.persistence.Constants;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -22,39 +28,27 @@ public class ProcessLoggerProviderTest {
 
     private static final String CORRELATION_ID = "1234";
     private static final String TASK_ID = "1";
+    private static final String LOG_NAME = "OPERATION.log";
     private static final String SPACE_ID = "441cba52-fd99-4452-8c93-211ce1ad28e7";
-    private static final String TEST_FILE_NAME = "testLoggerFile";
 
     @Mock
     private DelegateExecution execution;
+    @Mock
+    private ProcessLogsPersistenceService processLogsPersistenceService;
 
-    private Path temporaryLogFile;
     private ProcessLoggerProvider processLoggerProvider;
     private ProcessLogger processLogger;
 
     @BeforeEach
-    public void setUp() throws IOException {
+    public void setUp() {
         MockitoAnnotations.initMocks(this);
-        temporaryLogFile = Files.createTempFile(TEST_FILE_NAME, null);
-        processLoggerProvider = new ProcessLoggerProvider() {
-
-            @Override
-            protected File getLocalFile(String loggerName) {
-                return temporaryLogFile.toFile();
-            }
-
-        };
+        processLoggerProvider = new ProcessLoggerProvider(processLogsPersistenceService);
     }
 
     @AfterEach
-    public void tearDown() throws IOException {
+    public void tearDown() {
         if (processLogger != null) {
             processLoggerProvider.remove(processLogger);
-
-        }
-        if (temporaryLogFile.toFile()
-                            .exists()) {
-            Files.delete(temporaryLogFile);
         }
     }
 
@@ -88,6 +82,74 @@ public class ProcessLoggerProviderTest {
 
     }
 
+    @Test
+    public void testLoggedMessagesArePersistedAsConsecutiveChunks() {
+        prepareContext();
+        processLogger = processLoggerProvider.getLogger(execution);
+
+        processLogger.info("First message");
+        processLogger.persistLog();
+        processLogger.persistLog();
+        processLogger.error("Second message", new IllegalStateException("Expected exception"));
+        processLogger.persistLog();
+
+        ArgumentCaptor<byte[]> chunksCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(processLogsPersistenceService, times(2)).persistLogChunk(eq(SPACE_ID), eq(CORRELATION_ID), eq(LOG_NAME),
+                                                                        chunksCaptor.capture());
+        List<String> chunks = chunksCaptor.getAllValues()
+                                          .stream()
+                                          .map(chunk -> new String(chunk, StandardCharsets.UTF_8))
+                                          .collect(Collectors.toList());
+        assertTrue(chunks.get(0)
+                         .contains("First message"));
+        assertTrue(chunks.get(1)
+                         .contains("Second message"));
+        assertTrue(chunks.get(1)
+                         .contains("Expected exception"));
+    }
+
+    @Test
+    public void testMessagesLoggedAfterCloseArePersisted() {
+        prepareContext();
+        processLogger = processLoggerProvider.getLogger(execution);
+
+        processLogger.info("First message");
+        processLogger.close();
+        processLogger.info("Second message");
+
+        ArgumentCaptor<byte[]> chunksCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(processLogsPersistenceService, times(2)).persistLogChunk(eq(SPACE_ID), eq(CORRELATION_ID), eq(LOG_NAME),
+                                                                        chunksCaptor.capture());
+        assertTrue(new String(chunksCaptor.getAllValues()
+                                          .get(1), StandardCharsets.UTF_8).contains("Second message"));
+    }
+
+    @Test
+    public void testLargePendingContentIsPersisted() {
+        prepareContext();
+        processLogger = processLoggerProvider.getLogger(execution);
+        String message = StringUtils.repeat('x', 1024);
+
+        for (int i = 0; i < 1024; i++) {
+            processLogger.info(message);
+        }
+
+        verify(processLogsPersistenceService).persistLogChunk(eq(SPACE_ID), eq(CORRELATION_ID), eq(LOG_NAME), any());
+        assertTrue(processLogger.getPendingContentSize() < message.length() * 1024);
+    }
+
+    @Test
+    public void testRemovedLoggerIsReplaced() {
+        prepareContext();
+        processLogger = processLoggerProvider.getLogger(execution);
+
+        processLoggerProvider.remove(processLogger);
+
+        assertTrue(processLoggerProvider.getExistingLoggers()
+                                        .isEmpty());
+        assertNotSame(processLogger, processLoggerProvider.getLogger(execution));
+    }
+
     @Test
     public void testGetNullProcessLogger() {
         processLogger = processLoggerProvider.getLogger(execution);
@@ -0,0 +1,106 @@
+package org.cloudfoundry.multiapps.controller.persistence.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.util.SqlQueryExecutor;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ProcessLogsPersistenceServiceTest {
+
+    private static final String SPACE = "space";
+    private static final String OPERATION_ID = "operation";
+    private static final String LOG_NAME = "OPERATION.log";
+
+    private final Map<String, String> chunksContent = new HashMap<>();
+    private final List<FileEntry> logChunks = Arrays.asList(createLogChunk("first", "First chunk\n"),
+                                                            createLogChunk("second", "Second chunk\n"),
+                                                            createLogChunk("third", "Third chunk\n"));
+    private ProcessLogsPersistenceService processLogsPersistenceService;
+
+    @Before
+    public void setUp() throws Exception {
+        processLogsPersistenceService = Mockito.spy(new ProcessLogsPersistenceService(Mockito.mock(DataSourceWithDialect.class)));
+        doAnswer(invocation -> {
+            String content = chunksContent.get(invocation.<String> getArgument(1));
+            FileContentProcessor<?> fileContentProcessor = invocation.getArgument(2);
+            return fileContentProcessor.process(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        }).when(processLogsPersistenceService)
+          .processFileWithContent(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void testGetLogSize() {
+        assertEquals(37, processLogsPersistenceService.getLogSize(logChunks));
+    }
+
+    @Test
+    public void testWriteLogContentFromTheBeginning() throws Exception {
+        assertEquals("First chunk\nSecond chunk\nThird chunk\n", writeLogContent(0));
+    }
+
+    @Test
+    public void testWriteLogContentFromTheMiddleOfAChunk() throws Exception {
+        assertEquals("chunk\nThird chunk\n", writeLogContent(19));
+        // The content of the chunks before the offset is not read at all:
+        verify(processLogsPersistenceService, never()).processFileWithContent(anyString(), Mockito.eq("first"), any());
+    }
+
+    @Test
+    public void testWriteLogContentFromTheEnd() throws Exception {
+        assertEquals("", writeLogContent(37));
+        verify(processLogsPersistenceService, never()).processFileWithContent(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void testLogChunkIsStoredAgainWhenAnotherChunkOfTheLogIsStoredConcurrently() throws Exception {
+        SqlQueryExecutor sqlQueryExecutor = Mockito.mock(SqlQueryExecutor.class);
+        when(sqlQueryExecutor.execute(any())).thenThrow(new SQLException("Duplicate chunk sequence"))
+                                             .thenReturn(true);
+        doReturn(sqlQueryExecutor).when(processLogsPersistenceService)
+                                  .getSqlQueryExecutor();
+
+        processLogsPersistenceService.persistLogChunk(SPACE, OPERATION_ID, LOG_NAME, "First chunk\n".getBytes(StandardCharsets.UTF_8));
+        verify(sqlQueryExecutor, times(2)).execute(any());
+    }
+
+    private FileEntry createLogChunk(String id, String content) {
+        chunksContent.put(id, content);
+        return ImmutableFileEntry.builder()
+                                 .id(id)
+                                 .space(SPACE)
+                                 .namespace(OPERATION_ID)
+                                 .name(LOG_NAME)
+                                 .size(BigInteger.valueOf(content.length()))
+                                 .build();
+    }
+
+    private String writeLogContent(long offset) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        processLogsPersistenceService.writeLogContent(logChunks, offset, outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -28,6 +28,8 @@ public class Messages {
     public static final String ERROR_MERGING_ARCHIVE_PARTS = "Error merging archive parts: {0}";
     public static final String BUILDING_ARCHIVE_FROM_PARTS = "Building archive from parts...";
     public static final String ERROR_DELETING_ARCHIVE_PARTS_CONTENT = "Error deleting archive parts content";
+    public static final String ERROR_INDEXING_MTA_ARCHIVE_0 = "Error indexing entries of MTA archive \"{0}\"";
+    public static final String COULD_NOT_FIND_CENTRAL_DIRECTORY_OF_ARCHIVE_0 = "Could not find the central directory of archive \"{0}\"";
     public static final String UNSUPPORTED_PROCESS_TYPE = "Process type \"{0}\" is not supported";
     public static final String FAILED_SERVICE_UPDATE = "Updating service \"{0}\" failed: {1}";
     public static final String STEP_LOGGER_NOT_INITIALIZED = "Step logger is not initialized!";
@@ -59,12 +61,15 @@ public class Messages {
     public static final String APPLICATION_UNBOUND_IN_PARALLEL = "Application {0} was bound to service {1} which was unbound in parallel";
     public static final String ABORT_OPERATION_TIMED_OUT = "Abort operation timed out";
     public static final String FLOWABLE_JOB_RETRY_FAILED = "Flowable job retry failed";
+    public static final String UNKNOWN_JSON_BINARY_FORMAT_0 = "Unknown format of JSON binary variable: {0}";
+    public static final String INTERRUPTED_WHILE_WAITING_FOR_CLOUD_CONTROLLER_CALLS = "Interrupted while waiting for calls to the Cloud Controller";
 
     // Audit log messages
 
     // ERROR log messages
     public static final String COULD_NOT_COMPUTE_ORG_AND_SPACE = "Could not find org and space for space ID \"{0}\"";
     public static final String NO_BUILDS_FOUND_FOR_PACKAGE = "No builds found for package \"{0}\"";
+    public static final String COULD_NOT_PERSIST_0_PROGRESS_MESSAGES = "Could not persist {0} progress messages";
 
     // Process step errors
     public static final String ERROR_VALIDATING_PARAMS = "Error validating parameters";
@@ -141,6 +146,7 @@ public class Messages {
     public static final String ERROR_MISSING_DEFAULT_DOMAIN = "Missing default domain in current org";
 
     // WARN log messages
+    public static final String COULD_NOT_INDEX_MTA_ARCHIVE_0_MODULES_WILL_BE_READ_SEQUENTIALLY = "Could not index entries of MTA archive \"{0}\". Module content will be read sequentially from the archive";
     public static final String CANNOT_RETRIEVE_SERVICE_INSTANCE_PARAMETERS = "Cannot retrieve service instance parameters of service \"{0}\"";
     public static final String CANNOT_RETRIEVE_SERVICE_INSTANCE_OF_OPTIONAL_SERVICE = "Cannot retrieve service instance of optional service \"{0}\"";
     public static final String CANNOT_RETRIEVE_PARAMETERS_OF_BINDING_BETWEEN_APPLICATION_0_AND_SERVICE_INSTANCE_1 = "Cannot retrieve parameters of binding between application \"{0}\" and service instance \"{1}\"";
@@ -266,6 +272,7 @@ public class Messages {
     public static final String WAITING_PREVIOUS_OPERATIONS_TO_FINISH = "Waiting for previous service operations to finish...";
 
     // DEBUG log messages
+    public static final String INDEXED_0_ENTRIES_OF_MTA_ARCHIVE = "Indexed {0} entries of MTA archive";
     public static final String ENTERING_TESTING_PHASE = "Entering testing phase";
     public static final String LEAVING_TESTING_PHASE = "Leaving testing phase";
     public static final String PROCESS_ENVIRONMENT = "Process environment: {0}";
@@ -400,6 +407,7 @@ public class Messages {
     public static final String SAVING_ERROR_MESSAGE_FAILED = "Saving error message failed";
     public static final String STEP_FINISHED = "Step \"{0}\" finished";
     public static final String COMPUTING_STATE_OF_OPERATION = "Computing state of operation {0} with ID: {1}";
+    public static final String COMPUTING_STATES_OF_OPERATIONS = "Computing states of operations with IDs: {0}";
     public static final String ROUTES_FOR_APPLICATION = "Routes for application {0}: {1}";
     public static final String UPLOADING_FILE_0_FOR_APP_1 = "Uploading file \"{0}\" for application \"{1}\"";
     public static final String STARTED_ASYNC_UPLOAD_OF_APP_0 = "Started async upload of application \"{0}\"";
@@ -3,10 +3,14 @@ package org.cloudfoundry.multiapps.controller.process.flowable;
 import static java.text.MessageFormat.format;
 
 import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -18,12 +22,17 @@ import org.flowable.common.engine.api.FlowableOptimisticLockingException;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.history.HistoricActivityInstance;
 import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.HistoricActivityInstanceEntity;
 import org.flowable.engine.runtime.Execution;
+import org.flowable.engine.runtime.NativeExecutionQuery;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.job.api.Job;
 import org.flowable.job.service.impl.asyncexecutor.AsyncExecutor;
+import org.flowable.job.service.impl.persistence.entity.DeadLetterJobEntity;
 import org.flowable.variable.api.history.HistoricVariableInstance;
 import org.flowable.variable.api.persistence.entity.VariableInstance;
+import org.flowable.variable.service.impl.persistence.entity.HistoricVariableInstanceEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,6 +97,19 @@ public class FlowableFacade {
                             .singleResult();
     }
 
+    public Set<String> getRunningProcessInstanceIds(Collection<String> processIds) {
+        if (processIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return processEngine.getRuntimeService()
+                            .createProcessInstanceQuery()
+                            .processInstanceIds(new HashSet<>(processIds))
+                            .list()
+                            .stream()
+                            .map(ProcessInstance::getId)
+                            .collect(Collectors.toSet());
+    }
+
     public boolean hasDeadLetterJobs(String processId) {
         return !getDeadLetterJobs(processId).isEmpty();
     }
@@ -107,6 +129,12 @@ public class FlowableFacade {
                             .list();
     }
 
+    public Set<String> getProcessInstanceIdsWithDeadLetterJobs(Collection<String> processIds) {
+        String deadLetterJobTable = getTableName(DeadLetterJobEntity.class);
+        return getRootProcessInstanceIdsOfExecutions(processIds, "EXISTS (SELECT 1 FROM " + deadLetterJobTable
+            + " J WHERE J.PROCESS_INSTANCE_ID_ = E.PROC_INST_ID_)");
+    }
+
     public List<String> getHistoricSubProcessIds(String correlationId) {
         return retrieveVariablesByCorrelationId(correlationId).stream()
                                                               .map(HistoricVariableInstance::getProcessInstanceId)
@@ -130,6 +158,30 @@ public class FlowableFacade {
                             .list();
     }
 
+    /**
+     * Finds, with a single query, the historic instances of the given variable in all processes of the operation with the given
+     * correlation ID, including its subprocesses. The values of the variables are loaded before they are returned.
+     */
+    public List<HistoricVariableInstance> getHistoricVariableInstancesOfOperation(String correlationId, String variableName) {
+        String variableTable = getTableName(HistoricVariableInstanceEntity.class);
+        String sql = "SELECT V.* FROM " + variableTable + " V WHERE V.NAME_ = #{variableName} AND V.PROC_INST_ID_ IN (SELECT C.PROC_INST_ID_ FROM "
+            + variableTable + " C WHERE C.NAME_ = #{correlationIdName} AND C.TEXT_ = #{correlationId}) ORDER BY V.PROC_INST_ID_";
+        // The values of byte array variables can be loaded only in the context of a command:
+        return processEngine.getManagementService()
+                            .executeCommand(commandContext -> {
+                                List<HistoricVariableInstance> variables = processEngine.getHistoryService()
+                                                                                        .createNativeHistoricVariableInstanceQuery()
+                                                                                        .sql(sql)
+                                                                                        .parameter("variableName", variableName)
+                                                                                        .parameter("correlationIdName",
+                                                                                                   Constants.CORRELATION_ID)
+                                                                                        .parameter("correlationId", correlationId)
+                                                                                        .list();
+                                variables.forEach(HistoricVariableInstance::getValue);
+                                return variables;
+                            });
+    }
+
     public HistoricVariableInstance getHistoricVariableInstance(String processInstanceId, String variableName) {
         return processEngine.getHistoryService()
                             .createHistoricVariableInstanceQuery()
@@ -207,6 +259,42 @@ public class FlowableFacade {
         return !executionsAtReceiveTask.isEmpty();
     }
 
+    public Set<String> getProcessInstanceIdsAtReceiveTask(Collection<String> processIds) {
+        String activityInstanceTable = getTableName(HistoricActivityInstanceEntity.class);
+        return getRootProcessInstanceIdsOfExecutions(processIds, "E.ACT_ID_ IS NOT NULL AND EXISTS (SELECT 1 FROM " + activityInstanceTable
+            + " A WHERE A.EXECUTION_ID_ = E.ID_ AND A.ACT_ID_ = E.ACT_ID_ AND A.ACT_TYPE_ = 'receiveTask')");
+    }
+
+    /**
+     * Finds, with a single query, which of the given process instances have at least one execution (in them or in any of their
+     * subprocesses) satisfying the given SQL condition. The executions are referred to as {@code E} in the condition.
+     */
+    private Set<String> getRootProcessInstanceIdsOfExecutions(Collection<String> rootProcessInstanceIds, String executionCondition) {
+        if (rootProcessInstanceIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        NativeExecutionQuery query = processEngine.getRuntimeService()
+                                                  .createNativeExecutionQuery();
+        List<String> parameterNames = new LinkedList<>();
+        for (String rootProcessInstanceId : rootProcessInstanceIds) {
+            String parameterName = "rootProcessInstanceId" + parameterNames.size();
+            query.parameter(parameterName, rootProcessInstanceId);
+            parameterNames.add("#{" + parameterName + "}");
+        }
+        String executionTable = getTableName(ExecutionEntity.class);
+        return query.sql("SELECT E.* FROM " + executionTable + " E WHERE E.ROOT_PROC_INST_ID_ IN (" + String.join(", ", parameterNames)
+            + ") AND " + executionCondition)
+                    .list()
+                    .stream()
+                    .map(Execution::getRootProcessInstanceId)
+                    .collect(Collectors.toSet());
+    }
+
+    private String getTableName(Class<?> entityClass) {
+        return processEngine.getManagementService()
+                            .getTableName(entityClass);
+    }
+
     public List<Execution> findExecutionsAtReceiveTask(String processInstanceId) {
         List<Execution> allProcessExecutions = getActiveProcessExecutions(processInstanceId);
 
@@ -18,6 +18,7 @@ import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInsta
 import org.cloudfoundry.multiapps.controller.client.lib.domain.ImmutableCloudServiceInstanceExtended;
 import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceOperationGetter;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceProgressReporter;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
@@ -32,17 +33,22 @@ public class CheckForOperationsInProgressStep extends AsyncFlowableStep {
     private ServiceOperationGetter serviceOperationGetter;
     @Inject
     private ServiceProgressReporter serviceProgressReporter;
+    @Inject
+    private CloudControllerCallsExecutor cloudControllerCallsExecutor;
 
     @Override
     protected StepPhase executeAsyncStep(ProcessContext context) {
         List<CloudServiceInstanceExtended> servicesToProcess = getServicesToProcess(context);
 
-        List<CloudServiceInstanceExtended> existingServices = getExistingServices(context.getControllerClient(), servicesToProcess);
+        CloudControllerClient client = context.getControllerClient();
+        List<CloudServiceInstanceExtended> existingServices = getExistingServices(client, servicesToProcess);
         if (existingServices.isEmpty()) {
             return StepPhase.DONE;
         }
 
-        Map<CloudServiceInstanceExtended, ServiceOperation> servicesInProgressState = getServicesInProgressState(context, existingServices);
+        String spaceGuid = context.getVariable(Variables.SPACE_GUID);
+        Map<CloudServiceInstanceExtended, ServiceOperation> servicesInProgressState = getServicesInProgressState(client, spaceGuid,
+                                                                                                                 existingServices);
         if (servicesInProgressState.isEmpty()) {
             return StepPhase.DONE;
         }
@@ -65,10 +71,10 @@ public class CheckForOperationsInProgressStep extends AsyncFlowableStep {
 
     private List<CloudServiceInstanceExtended> getExistingServices(CloudControllerClient cloudControllerClient,
                                                                    List<CloudServiceInstanceExtended> servicesToProcess) {
-        return servicesToProcess.parallelStream()
-                                .map(service -> getExistingService(cloudControllerClient, service))
-                                .filter(Objects::nonNull)
-                                .collect(Collectors.toList());
+        return cloudControllerCallsExecutor.executeForEach(servicesToProcess, service -> getExistingService(cloudControllerClient, service))
+                                           .stream()
+                                           .filter(Objects::nonNull)
+                                           .collect(Collectors.toList());
     }
 
     private CloudServiceInstanceExtended getExistingService(CloudControllerClient cloudControllerClient,
@@ -84,17 +90,24 @@ public class CheckForOperationsInProgressStep extends AsyncFlowableStep {
     }
 
     private Map<CloudServiceInstanceExtended, ServiceOperation>
-            getServicesInProgressState(ProcessContext context, List<CloudServiceInstanceExtended> existingServices) {
+            getServicesInProgressState(CloudControllerClient client, String spaceGuid, List<CloudServiceInstanceExtended> existingServices) {
+        List<ServiceOperation> lastServiceOperations = getLastServiceOperations(client, spaceGuid, existingServices);
         Map<CloudServiceInstanceExtended, ServiceOperation> servicesOperation = new HashMap<>();
-        for (CloudServiceInstanceExtended existingService : existingServices) {
-            ServiceOperation lastServiceOperation = serviceOperationGetter.getLastServiceOperation(context, existingService);
+        for (int i = 0; i < existingServices.size(); i++) {
+            ServiceOperation lastServiceOperation = lastServiceOperations.get(i);
             if (isServiceOperationInProgress(lastServiceOperation)) {
-                servicesOperation.put(existingService, lastServiceOperation);
+                servicesOperation.put(existingServices.get(i), lastServiceOperation);
             }
         }
         return servicesOperation;
     }
 
+    private List<ServiceOperation> getLastServiceOperations(CloudControllerClient client, String spaceGuid,
+                                                            List<CloudServiceInstanceExtended> services) {
+        return cloudControllerCallsExecutor.executeForEach(services,
+                                                           service -> serviceOperationGetter.getLastServiceOperation(client, spaceGuid, service));
+    }
+
     private boolean isServiceOperationInProgress(ServiceOperation lastServiceOperation) {
         return lastServiceOperation != null && lastServiceOperation.getState() == ServiceOperation.State.IN_PROGRESS;
     }
@@ -116,7 +129,8 @@ public class CheckForOperationsInProgressStep extends AsyncFlowableStep {
 
     @Override
     protected List<AsyncExecution> getAsyncStepExecutions(ProcessContext context) {
-        return Collections.singletonList(new PollServiceInProgressOperationsExecution(serviceOperationGetter, serviceProgressReporter));
+        return Collections.singletonList(new PollServiceInProgressOperationsExecution(serviceOperationGetter, serviceProgressReporter,
+                                                                                      cloudControllerCallsExecutor));
     }
 
     @Override
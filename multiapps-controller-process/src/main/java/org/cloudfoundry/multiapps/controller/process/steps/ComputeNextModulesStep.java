@@ -1,6 +1,7 @@
 package org.cloudfoundry.multiapps.controller.process.steps;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.inject.Named;
@@ -8,9 +9,8 @@ import javax.inject.Named;
 import org.apache.commons.collections4.ListUtils;
 import org.cloudfoundry.multiapps.controller.core.security.serialization.SecureSerialization;
 import org.cloudfoundry.multiapps.controller.process.Messages;
-import org.cloudfoundry.multiapps.controller.process.util.ModuleDependencyChecker;
+import org.cloudfoundry.multiapps.controller.process.util.ModuleDeploymentScheduler;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
-import org.cloudfoundry.multiapps.mta.model.DeploymentDescriptor;
 import org.cloudfoundry.multiapps.mta.model.Module;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -24,19 +24,15 @@ public class ComputeNextModulesStep extends SyncFlowableStep {
         getStepLogger().debug(Messages.COMPUTING_NEXT_MODULES_FOR_PARALLEL_ITERATION);
         List<Module> allModulesToDeploy = context.getVariable(Variables.MODULES_TO_DEPLOY);
         List<Module> completedModules = context.getVariable(Variables.ITERATED_MODULES_IN_PARALLEL);
+        getStepLogger().debug("Completed modules detected: " + getModuleNames(completedModules));
+        getStepLogger().debug("All modules for deploy detected: " + getModuleNames(allModulesToDeploy));
 
-        DeploymentDescriptor descriptor = context.getVariable(Variables.DEPLOYMENT_DESCRIPTOR);
-        ModuleDependencyChecker dependencyChecker = new ModuleDependencyChecker(context.getControllerClient(),
-                                                                                descriptor.getModules(),
-                                                                                allModulesToDeploy,
-                                                                                completedModules);
-
-        getStepLogger().debug("Completed modules detected: " + dependencyChecker.getAlreadyDeployedModules());
-        getStepLogger().debug("All modules for deploy detected: " + dependencyChecker.getModulesForDeployment());
-        getStepLogger().debug("Modules not for deploy detected: " + dependencyChecker.getModulesNotForDeployment());
+        // All modules iterated so far have been deployed, since the parallel iteration completes as a whole:
+        ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(allModulesToDeploy,
+                                                                            configuration.getMaxParallelModuleDeployments());
 
         // Set next iteration data
-        List<Module> modulesForNextIteration = computeApplicationsForNextIteration(allModulesToDeploy, dependencyChecker);
+        List<Module> modulesForNextIteration = scheduler.getNextModulesToDeploy(getModuleNames(completedModules));
         context.setVariable(Variables.MODULES_TO_ITERATE_IN_PARALLEL, modulesForNextIteration);
 
         // Mark next iteration data as computed
@@ -51,12 +47,10 @@ public class ComputeNextModulesStep extends SyncFlowableStep {
         return Messages.ERROR_COMPUTING_NEXT_MODULES_FOR_PARALLEL_ITERATION;
     }
 
-    private List<Module> computeApplicationsForNextIteration(List<Module> allModulesToDeploy, ModuleDependencyChecker dependencyChecker) {
-        return allModulesToDeploy.stream()
-                                 .filter(module -> !dependencyChecker.getAlreadyDeployedModules()
-                                                                     .contains(module.getName()))
-                                 .filter(dependencyChecker::areAllDependenciesSatisfied)
-                                 .collect(Collectors.toList());
+    private Set<String> getModuleNames(List<Module> modules) {
+        return modules.stream()
+                      .map(Module::getName)
+                      .collect(Collectors.toSet());
     }
 
 }
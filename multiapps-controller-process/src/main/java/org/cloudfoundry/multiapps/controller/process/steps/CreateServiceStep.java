@@ -108,7 +108,8 @@ public class CreateServiceStep extends ServiceStep {
     @Override
     protected List<AsyncExecution> getAsyncStepExecutions(ProcessContext context) {
         return Collections.singletonList(new PollServiceCreateOrUpdateOperationsExecution(getServiceOperationGetter(),
-                                                                                          getServiceProgressReporter()));
+                                                                                          getServiceProgressReporter(),
+                                                                                          getCloudControllerCallsExecutor()));
     }
 
     @Override
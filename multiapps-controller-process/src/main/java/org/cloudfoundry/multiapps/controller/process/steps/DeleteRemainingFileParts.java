@@ -11,6 +11,12 @@ import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 
+/**
+ * No longer part of the deploy processes, as the parts of an archive back the composite file built from them and are deleted together
+ * with it. The step is kept for the operations, which were started with the previous versions of the processes and have not reached it
+ * yet. They still delete the parts, which were merged into a separate archive. It can be removed once such operations are finished.
+ */
+@Deprecated
 @Named("deleteRemainingFileParts")
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
 public class DeleteRemainingFileParts extends SyncFlowableStep {
@@ -15,6 +15,7 @@ import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInsta
 import org.cloudfoundry.multiapps.controller.client.lib.domain.ImmutableCloudServiceInstanceExtended;
 import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.ExceptionMessageTailMapper;
 import org.cloudfoundry.multiapps.controller.process.util.ExceptionMessageTailMapper.CloudComponents;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceAction;
@@ -32,13 +33,15 @@ public class DeleteServiceStep extends AsyncFlowableStep {
     private ServiceOperationGetter serviceOperationGetter;
     private ServiceProgressReporter serviceProgressReporter;
     private ServiceRemover serviceRemover;
+    private CloudControllerCallsExecutor cloudControllerCallsExecutor;
 
     @Inject
     public DeleteServiceStep(ServiceOperationGetter serviceOperationGetter, ServiceProgressReporter serviceProgressReporter,
-                             ServiceRemover serviceRemover) {
+                             ServiceRemover serviceRemover, CloudControllerCallsExecutor cloudControllerCallsExecutor) {
         this.serviceOperationGetter = serviceOperationGetter;
         this.serviceProgressReporter = serviceProgressReporter;
         this.serviceRemover = serviceRemover;
+        this.cloudControllerCallsExecutor = cloudControllerCallsExecutor;
     }
 
     @Override
@@ -104,7 +107,8 @@ public class DeleteServiceStep extends AsyncFlowableStep {
 
     @Override
     protected List<AsyncExecution> getAsyncStepExecutions(ProcessContext context) {
-        return Collections.singletonList(new PollServiceDeleteOperationsExecution(serviceOperationGetter, serviceProgressReporter));
+        return Collections.singletonList(new PollServiceDeleteOperationsExecution(serviceOperationGetter, serviceProgressReporter,
+                                                                                  cloudControllerCallsExecutor));
     }
 
 }
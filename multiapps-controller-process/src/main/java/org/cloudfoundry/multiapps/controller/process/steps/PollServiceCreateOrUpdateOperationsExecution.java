@@ -8,6 +8,7 @@ import org.cloudfoundry.multiapps.common.SLException;
 import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInstanceExtended;
 import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceOperationGetter;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceProgressReporter;
 import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
@@ -16,8 +17,9 @@ import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 public class PollServiceCreateOrUpdateOperationsExecution extends PollServiceOperationsExecution implements AsyncExecution {
 
     public PollServiceCreateOrUpdateOperationsExecution(ServiceOperationGetter serviceOperationGetter,
-                                                        ServiceProgressReporter serviceProgressReporter) {
-        super(serviceOperationGetter, serviceProgressReporter);
+                                                        ServiceProgressReporter serviceProgressReporter,
+                                                        CloudControllerCallsExecutor cloudControllerCallsExecutor) {
+        super(serviceOperationGetter, serviceProgressReporter, cloudControllerCallsExecutor);
     }
 
     @Override
@@ -7,6 +7,7 @@ import org.cloudfoundry.multiapps.common.SLException;
 import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInstanceExtended;
 import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceOperationGetter;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceProgressReporter;
 import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
@@ -15,8 +16,9 @@ import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 public class PollServiceInProgressOperationsExecution extends PollServiceOperationsExecution {
 
     public PollServiceInProgressOperationsExecution(ServiceOperationGetter serviceOperationGetter,
-                                                    ServiceProgressReporter serviceProgressReporter) {
-        super(serviceOperationGetter, serviceProgressReporter);
+                                                    ServiceProgressReporter serviceProgressReporter,
+                                                    CloudControllerCallsExecutor cloudControllerCallsExecutor) {
+        super(serviceOperationGetter, serviceProgressReporter, cloudControllerCallsExecutor);
     }
 
     @Override
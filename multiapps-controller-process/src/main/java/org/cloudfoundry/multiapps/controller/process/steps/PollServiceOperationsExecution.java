@@ -11,6 +11,7 @@ import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.cloudfoundry.client.lib.CloudControllerClient;
 import org.cloudfoundry.client.lib.CloudControllerException;
 import org.cloudfoundry.client.lib.CloudOperationException;
 import org.cloudfoundry.multiapps.common.util.JsonUtil;
@@ -18,6 +19,7 @@ import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInsta
 import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
 import org.cloudfoundry.multiapps.controller.core.security.serialization.SecureSerialization;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceOperationGetter;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceProgressReporter;
 import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
@@ -27,10 +29,13 @@ public abstract class PollServiceOperationsExecution implements AsyncExecution {
 
     private final ServiceOperationGetter serviceOperationGetter;
     private final ServiceProgressReporter serviceProgressReporter;
+    private final CloudControllerCallsExecutor cloudControllerCallsExecutor;
 
-    public PollServiceOperationsExecution(ServiceOperationGetter serviceOperationGetter, ServiceProgressReporter serviceProgressReporter) {
+    public PollServiceOperationsExecution(ServiceOperationGetter serviceOperationGetter, ServiceProgressReporter serviceProgressReporter,
+                                          CloudControllerCallsExecutor cloudControllerCallsExecutor) {
         this.serviceOperationGetter = serviceOperationGetter;
         this.serviceProgressReporter = serviceProgressReporter;
+        this.cloudControllerCallsExecutor = cloudControllerCallsExecutor;
     }
 
     @Override
@@ -44,9 +49,11 @@ public abstract class PollServiceOperationsExecution implements AsyncExecution {
             return AsyncExecutionState.FINISHED;
         }
 
+        List<ServiceOperation> lastServiceOperations = getLastServiceOperations(context, servicesToPoll);
         Map<CloudServiceInstanceExtended, ServiceOperation> servicesWithLastOperation = new HashMap<>();
-        for (CloudServiceInstanceExtended service : servicesToPoll) {
-            ServiceOperation lastServiceOperation = getLastServiceOperationAndHandleExceptions(context, service);
+        for (int i = 0; i < servicesToPoll.size(); i++) {
+            CloudServiceInstanceExtended service = servicesToPoll.get(i);
+            ServiceOperation lastServiceOperation = mapOperationState(context, lastServiceOperations.get(i), service);
             if (lastServiceOperation != null) {
                 servicesWithLastOperation.put(service, lastServiceOperation);
             }
@@ -88,22 +95,29 @@ public abstract class PollServiceOperationsExecution implements AsyncExecution {
         return getServicesWithTriggeredOperations(servicesData, triggeredServiceOperations);
     }
 
-    private ServiceOperation getLastServiceOperationAndHandleExceptions(ProcessContext context, CloudServiceInstanceExtended service) {
+    private List<ServiceOperation> getLastServiceOperations(ProcessContext context, List<CloudServiceInstanceExtended> services) {
+        // The process must not be accessed from the threads of the executor:
+        CloudControllerClient client = context.getControllerClient();
+        String spaceGuid = context.getVariable(Variables.SPACE_GUID);
+        return cloudControllerCallsExecutor.executeForEach(services, service -> getLastServiceOperation(client, spaceGuid, service));
+    }
+
+    private ServiceOperation getLastServiceOperation(CloudControllerClient client, String spaceGuid, CloudServiceInstanceExtended service) {
         try {
-            ServiceOperation lastServiceOperation = getLastServiceOperation(context, service);
-            if (lastServiceOperation != null) {
-                return mapOperationState(context.getStepLogger(), lastServiceOperation, service);
-            }
-            handleMissingOperationState(context.getStepLogger(), service);
-            return null;
+            return serviceOperationGetter.getLastServiceOperation(client, spaceGuid, service);
         } catch (CloudOperationException e) {
             String errorMessage = format(Messages.ERROR_POLLING_OF_SERVICE, service.getName(), e.getStatusText());
             throw new CloudControllerException(e.getStatusCode(), errorMessage, e.getDescription());
         }
     }
 
-    private ServiceOperation getLastServiceOperation(ProcessContext context, CloudServiceInstanceExtended service) {
-        return serviceOperationGetter.getLastServiceOperation(context, service);
+    private ServiceOperation mapOperationState(ProcessContext context, ServiceOperation lastServiceOperation,
+                                               CloudServiceInstanceExtended service) {
+        if (lastServiceOperation != null) {
+            return mapOperationState(context.getStepLogger(), lastServiceOperation, service);
+        }
+        handleMissingOperationState(context.getStepLogger(), service);
+        return null;
     }
 
     protected ServiceOperation mapOperationState(StepLogger stepLogger, ServiceOperation lastServiceOperation,
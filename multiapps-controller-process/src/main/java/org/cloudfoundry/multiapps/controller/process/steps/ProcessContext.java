@@ -6,6 +6,7 @@ import org.cloudfoundry.multiapps.controller.core.cf.CloudControllerClientProvid
 import org.cloudfoundry.multiapps.controller.process.Messages;
 import org.cloudfoundry.multiapps.controller.process.client.LoggingCloudControllerClient;
 import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
+import org.cloudfoundry.multiapps.controller.process.variables.JsonBinaryFormat;
 import org.cloudfoundry.multiapps.controller.process.variables.Variable;
 import org.cloudfoundry.multiapps.controller.process.variables.VariableHandling;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
@@ -16,11 +17,18 @@ public class ProcessContext {
     private final DelegateExecution execution;
     private final StepLogger stepLogger;
     private final CloudControllerClientProvider clientProvider;
+    private final JsonBinaryFormat jsonBinaryFormat;
 
     public ProcessContext(DelegateExecution execution, StepLogger stepLogger, CloudControllerClientProvider clientProvider) {
+        this(execution, stepLogger, clientProvider, JsonBinaryFormat.PLAIN);
+    }
+
+    public ProcessContext(DelegateExecution execution, StepLogger stepLogger, CloudControllerClientProvider clientProvider,
+                          JsonBinaryFormat jsonBinaryFormat) {
         this.execution = execution;
         this.stepLogger = stepLogger;
         this.clientProvider = clientProvider;
+        this.jsonBinaryFormat = jsonBinaryFormat;
     }
 
     public DelegateExecution getExecution() {
@@ -57,7 +65,7 @@ public class ProcessContext {
     }
 
     public <T> void setVariable(Variable<T> variable, T value) {
-        VariableHandling.set(execution, variable, value);
+        VariableHandling.set(execution, variable, value, jsonBinaryFormat);
     }
 
     public void removeVariable(Variable<?> variable) {
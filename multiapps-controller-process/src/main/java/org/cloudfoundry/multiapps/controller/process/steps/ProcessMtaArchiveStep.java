@@ -1,12 +1,16 @@
 package org.cloudfoundry.multiapps.controller.process.steps;
 
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.jar.Manifest;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
+import org.cloudfoundry.multiapps.common.SLException;
 import org.cloudfoundry.multiapps.controller.core.helpers.DescriptorParserFacadeFactory;
 import org.cloudfoundry.multiapps.controller.core.helpers.MtaArchiveElements;
 import org.cloudfoundry.multiapps.controller.core.helpers.MtaArchiveHelper;
@@ -14,6 +18,9 @@ import org.cloudfoundry.multiapps.controller.core.persistence.service.OperationS
 import org.cloudfoundry.multiapps.controller.persistence.services.FileContentConsumer;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileStorageException;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.ArchiveEntriesIndexer;
+import org.cloudfoundry.multiapps.controller.process.util.ArchiveEntryWithStreamPositions;
+import org.cloudfoundry.multiapps.controller.process.util.ImmutableArchiveEntryWithStreamPositions;
 import org.cloudfoundry.multiapps.controller.process.util.ProcessConflictPreventer;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.cloudfoundry.multiapps.mta.handlers.ArchiveHandler;
@@ -28,6 +35,9 @@ public class ProcessMtaArchiveStep extends SyncFlowableStep {
     @Inject
     protected DescriptorParserFacadeFactory descriptorParserFactory;
 
+    @Inject
+    protected ArchiveEntriesIndexer archiveEntriesIndexer;
+
     protected Function<OperationService, ProcessConflictPreventer> conflictPreventerSupplier = ProcessConflictPreventer::new;
 
     @Override
@@ -53,6 +63,67 @@ public class ProcessMtaArchiveStep extends SyncFlowableStep {
                                        createDeploymentDescriptorFileContentConsumer(context));
         fileService.consumeFileContent(context.getVariable(Variables.SPACE_GUID), appArchiveId,
                                        createManifestFileContentConsumer(context, appArchiveId));
+        indexArchiveEntries(context, appArchiveId);
+    }
+
+    private void indexArchiveEntries(ProcessContext context, String appArchiveId) {
+        try {
+            List<ArchiveEntryWithStreamPositions> archiveEntries = archiveEntriesIndexer.indexArchiveEntries(context.getVariable(Variables.SPACE_GUID),
+                                                                                                             appArchiveId);
+            getStepLogger().debug(Messages.INDEXED_0_ENTRIES_OF_MTA_ARCHIVE, archiveEntries.size());
+            // Only the positions of the modules are kept, because the variable is copied to the subprocess of every module:
+            context.setVariable(Variables.MODULES_CONTENT_POSITIONS, getModulesContentPositions(context, archiveEntries));
+        } catch (SLException e) {
+            // The archive is still usable without an index, so fall back to reading it sequentially:
+            getStepLogger().warnWithoutProgressMessage(e, Messages.COULD_NOT_INDEX_MTA_ARCHIVE_0_MODULES_WILL_BE_READ_SEQUENTIALLY, appArchiveId);
+        }
+    }
+
+    private List<ArchiveEntryWithStreamPositions> getModulesContentPositions(ProcessContext context,
+                                                                            List<ArchiveEntryWithStreamPositions> archiveEntries) {
+        MtaArchiveElements mtaArchiveElements = context.getVariable(Variables.MTA_ARCHIVE_ELEMENTS);
+        return context.getVariable(Variables.MTA_ARCHIVE_MODULES)
+                      .stream()
+                      .map(mtaArchiveElements::getModuleFileName)
+                      .distinct()
+                      .map(fileName -> getModuleContentPositions(fileName, archiveEntries))
+                      .filter(Objects::nonNull)
+                      .collect(Collectors.toList());
+    }
+
+    private ArchiveEntryWithStreamPositions getModuleContentPositions(String fileName,
+                                                                      List<ArchiveEntryWithStreamPositions> archiveEntries) {
+        List<ArchiveEntryWithStreamPositions> moduleEntries = archiveEntries.stream()
+                                                                            .filter(entry -> isModuleEntry(entry.getName(), fileName))
+                                                                            .collect(Collectors.toList());
+        if (moduleEntries.isEmpty()) {
+            return null;
+        }
+        return ImmutableArchiveEntryWithStreamPositions.builder()
+                                                       .name(fileName)
+                                                       .startPosition(getStartPosition(moduleEntries))
+                                                       .endPosition(getEndPosition(moduleEntries))
+                                                       .build();
+    }
+
+    private boolean isModuleEntry(String entryName, String fileName) {
+        // The content of a directory module is stored in separate entries, whose names start with the name of the directory:
+        String directoryName = fileName.endsWith("/") ? fileName : fileName + "/";
+        return entryName.equals(fileName) || entryName.startsWith(directoryName);
+    }
+
+    private long getStartPosition(List<ArchiveEntryWithStreamPositions> moduleEntries) {
+        return moduleEntries.stream()
+                            .mapToLong(ArchiveEntryWithStreamPositions::getStartPosition)
+                            .min()
+                            .getAsLong();
+    }
+
+    private long getEndPosition(List<ArchiveEntryWithStreamPositions> moduleEntries) {
+        return moduleEntries.stream()
+                            .mapToLong(ArchiveEntryWithStreamPositions::getEndPosition)
+                            .max()
+                            .getAsLong();
     }
 
     private FileContentConsumer createDeploymentDescriptorFileContentConsumer(ProcessContext context) {
@@ -41,6 +41,7 @@ public class ProcessStepHelper {
     }
 
     protected void postExecuteStep(ProcessContext context, StepPhase state) {
+        stepLogger.flushProgressMessages();
         logDebug(MessageFormat.format(Messages.STEP_FINISHED, context.getExecution()
                                                                      .getCurrentFlowElement()
                                                                      .getName()));
@@ -88,6 +89,7 @@ public class ProcessStepHelper {
 
     private void storeExceptionInProgressMessageService(ProcessContext context, Throwable throwable) {
         try {
+            stepLogger.flushProgressMessages();
             progressMessageService.add(ImmutableProgressMessage.builder()
                                                                .processId(context.getVariable(Variables.CORRELATION_ID))
                                                                .taskId(getCurrentActivityId(context.getExecution()))
@@ -16,6 +16,7 @@ import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
 import org.cloudfoundry.multiapps.controller.core.util.MethodExecution;
 import org.cloudfoundry.multiapps.controller.core.util.MethodExecution.ExecutionState;
 import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceOperationGetter;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceProgressReporter;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
@@ -30,6 +31,8 @@ public abstract class ServiceStep extends AsyncFlowableStep {
     private ServiceOperationGetter serviceOperationGetter;
     @Inject
     private ServiceProgressReporter serviceProgressReporter;
+    @Inject
+    private CloudControllerCallsExecutor cloudControllerCallsExecutor;
 
     @Override
     protected StepPhase executeAsyncStep(ProcessContext context) {
@@ -84,4 +87,8 @@ public abstract class ServiceStep extends AsyncFlowableStep {
         return serviceProgressReporter;
     }
 
+    protected CloudControllerCallsExecutor getCloudControllerCallsExecutor() {
+        return cloudControllerCallsExecutor;
+    }
+
 }
@@ -2,7 +2,6 @@ package org.cloudfoundry.multiapps.controller.process.steps;
 
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -30,6 +29,7 @@ import org.cloudfoundry.multiapps.controller.persistence.services.ProcessLoggerP
 import org.cloudfoundry.multiapps.controller.process.Constants;
 import org.cloudfoundry.multiapps.controller.process.Messages;
 import org.cloudfoundry.multiapps.controller.process.flowable.FlowableFacade;
+import org.cloudfoundry.multiapps.controller.process.variables.JsonBinaryFormat;
 import org.cloudfoundry.multiapps.controller.process.variables.VariableHandling;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.cloudfoundry.multiapps.mta.model.DeploymentDescriptor;
@@ -99,38 +99,34 @@ public class StepsUtil {
         if (deletedEntries == null) {
             return Collections.emptyList();
         }
-        byte[] deletedEntriesByteArray = (byte[]) deletedEntries.getValue();
-        return Arrays.asList(JsonUtil.fromJsonBinary(deletedEntriesByteArray, ConfigurationEntry[].class));
+        return getConfigurationEntries(deletedEntries);
     }
 
     static List<ConfigurationEntry> getDeletedEntriesFromAllProcesses(ProcessContext context, FlowableFacade flowableFacade) {
         String correlationId = context.getVariable(Variables.CORRELATION_ID);
-        List<ConfigurationEntry> configurationEntries = new ArrayList<>(StepsUtil.getDeletedEntriesFromProcess(flowableFacade,
-                                                                                                               correlationId));
-        List<String> subProcessIds = flowableFacade.getHistoricSubProcessIds(correlationId);
-        for (String subProcessId : subProcessIds) {
-            configurationEntries.addAll(getDeletedEntriesFromProcess(flowableFacade, subProcessId));
-        }
-        return configurationEntries;
+        List<HistoricVariableInstance> deletedEntries = flowableFacade.getHistoricVariableInstancesOfOperation(correlationId,
+                                                                                                               Variables.DELETED_ENTRIES.getName());
+        return deletedEntries.stream()
+                             .map(StepsUtil::getConfigurationEntries)
+                             .flatMap(List::stream)
+                             .collect(Collectors.toList());
     }
 
-    static List<ConfigurationEntry> getPublishedEntriesFromProcess(FlowableFacade flowableFacade, String processInstanceId) {
-        HistoricVariableInstance publishedEntries = flowableFacade.getHistoricVariableInstance(processInstanceId,
-                                                                                               Variables.PUBLISHED_ENTRIES.getName());
-        if (publishedEntries == null) {
-            return Collections.emptyList();
-        }
-        byte[] binaryJson = (byte[]) publishedEntries.getValue();
-        return Arrays.asList(JsonUtil.fromJsonBinary(binaryJson, ConfigurationEntry[].class));
+    static List<ConfigurationEntry> getPublishedEntriesFromSubProcesses(ProcessContext context, FlowableFacade flowableFacade) {
+        String correlationId = context.getVariable(Variables.CORRELATION_ID);
+        List<HistoricVariableInstance> publishedEntries = flowableFacade.getHistoricVariableInstancesOfOperation(correlationId,
+                                                                                                                 Variables.PUBLISHED_ENTRIES.getName());
+        return publishedEntries.stream()
+                               .filter(variable -> !variable.getProcessInstanceId()
+                                                            .equals(correlationId))
+                               .map(StepsUtil::getConfigurationEntries)
+                               .flatMap(List::stream)
+                               .collect(Collectors.toList());
     }
 
-    static List<ConfigurationEntry> getPublishedEntriesFromSubProcesses(ProcessContext context, FlowableFacade flowableFacade) {
-        List<ConfigurationEntry> result = new ArrayList<>();
-        List<String> subProcessIds = flowableFacade.getHistoricSubProcessIds(context.getVariable(Variables.CORRELATION_ID));
-        for (String subProcessId : subProcessIds) {
-            result.addAll(getPublishedEntriesFromProcess(flowableFacade, subProcessId));
-        }
-        return result;
+    private static List<ConfigurationEntry> getConfigurationEntries(HistoricVariableInstance variable) {
+        byte[] binaryJson = (byte[]) variable.getValue();
+        return Arrays.asList(JsonUtil.fromJsonBinary(JsonBinaryFormat.decode(binaryJson), ConfigurationEntry[].class));
     }
 
     static CloudTask getTask(ProcessContext context) {
@@ -254,8 +250,7 @@ public class StepsUtil {
         if (jsonBinary == null) {
             return defaultValue;
         }
-        String jsonString = new String(jsonBinary, StandardCharsets.UTF_8);
-        return JsonUtil.fromJson(jsonString, type);
+        return JsonUtil.fromJsonBinary(JsonBinaryFormat.decode(jsonBinary), type);
     }
 
     public static void setAsJsonBinary(VariableScope scope, String name, Object value) {
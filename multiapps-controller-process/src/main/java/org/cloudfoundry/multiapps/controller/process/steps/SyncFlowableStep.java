@@ -22,6 +22,7 @@ import org.cloudfoundry.multiapps.controller.process.Messages;
 import org.cloudfoundry.multiapps.controller.process.util.ExceptionMessageTailMapper;
 import org.cloudfoundry.multiapps.controller.process.util.ExceptionMessageTailMapper.CloudComponents;
 import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
+import org.cloudfoundry.multiapps.controller.process.variables.JsonBinaryFormat;
 import org.cloudfoundry.multiapps.controller.process.variables.VariableHandling;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.flowable.engine.ProcessEngineConfiguration;
@@ -84,7 +85,11 @@ public abstract class SyncFlowableStep implements JavaDelegate {
     }
 
     protected ProcessContext createProcessContext(DelegateExecution execution) {
-        return new ProcessContext(execution, stepLogger, clientProvider);
+        return new ProcessContext(execution, stepLogger, clientProvider, getJsonBinaryFormat());
+    }
+
+    private JsonBinaryFormat getJsonBinaryFormat() {
+        return configuration.shouldCompressJsonBinaryVariables() ? JsonBinaryFormat.DEFLATED : JsonBinaryFormat.PLAIN;
     }
 
     private void handleException(ProcessContext context, Exception e) {
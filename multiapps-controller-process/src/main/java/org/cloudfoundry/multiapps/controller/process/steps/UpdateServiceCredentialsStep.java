@@ -46,7 +46,8 @@ public class UpdateServiceCredentialsStep extends ServiceStep {
     @Override
     protected List<AsyncExecution> getAsyncStepExecutions(ProcessContext context) {
         return Collections.singletonList(new PollServiceCreateOrUpdateOperationsExecution(getServiceOperationGetter(),
-                                                                                          getServiceProgressReporter()));
+                                                                                          getServiceProgressReporter(),
+                                                                                          getCloudControllerCallsExecutor()));
     }
 
     @Override
@@ -41,7 +41,8 @@ public class UpdateServiceMetadataStep extends ServiceStep {
     @Override
     protected List<AsyncExecution> getAsyncStepExecutions(ProcessContext context) {
         return Collections.singletonList(new PollServiceCreateOrUpdateOperationsExecution(getServiceOperationGetter(),
-                                                                                          getServiceProgressReporter()));
+                                                                                          getServiceProgressReporter(),
+                                                                                          getCloudControllerCallsExecutor()));
     }
 
     @Override
@@ -35,7 +35,8 @@ public class UpdateServicePlanStep extends ServiceStep {
     @Override
     protected List<AsyncExecution> getAsyncStepExecutions(ProcessContext context) {
         return Collections.singletonList(new PollServiceCreateOrUpdateOperationsExecution(getServiceOperationGetter(),
-                                                                                          getServiceProgressReporter()));
+                                                                                          getServiceProgressReporter(),
+                                                                                          getCloudControllerCallsExecutor()));
     }
 
     @Override
@@ -1,7 +1,9 @@
 package org.cloudfoundry.multiapps.controller.process.steps;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +47,7 @@ import org.cloudfoundry.multiapps.controller.core.persistence.service.Configurat
 import org.cloudfoundry.multiapps.controller.core.security.serialization.SecureSerialization;
 import org.cloudfoundry.multiapps.controller.process.Messages;
 import org.cloudfoundry.multiapps.controller.process.flowable.FlowableFacade;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.cloudfoundry.multiapps.mta.helpers.VisitableObject;
 import org.cloudfoundry.multiapps.mta.model.DeploymentDescriptor;
@@ -91,6 +94,8 @@ public class UpdateSubscribersStep extends SyncFlowableStep {
     private FlowableFacade flowableFacade;
     @Inject
     private ModuleToDeployHelper moduleToDeployHelper;
+    @Inject
+    private CloudControllerCallsExecutor cloudControllerCallsExecutor;
 
     @Override
     protected StepPhase executeStep(ProcessContext context) {
@@ -99,23 +104,18 @@ public class UpdateSubscribersStep extends SyncFlowableStep {
         List<ConfigurationEntry> deletedEntries = StepsUtil.getDeletedEntriesFromAllProcesses(context, flowableFacade);
         List<ConfigurationEntry> updatedEntries = ListUtils.union(publishedEntries, deletedEntries);
 
-        CloudControllerClient clientForCurrentSpace = context.getControllerClient();
-
-        List<CloudApplication> updatedSubscribers = new ArrayList<>();
-        List<CloudApplication> updatedServiceBrokerSubscribers = new ArrayList<>();
         List<ConfigurationSubscription> subscriptions = configurationSubscriptionService.createQuery()
                                                                                         .onSelectMatching(updatedEntries)
                                                                                         .list();
-        for (ConfigurationSubscription subscription : subscriptions) {
-            ClientHelper clientHelper = new ClientHelper(clientForCurrentSpace);
-            CloudTarget target = targetCalculator.apply(clientHelper, subscription.getSpaceId());
-            if (target == null) {
-                getStepLogger().warn(Messages.COULD_NOT_COMPUTE_ORG_AND_SPACE, subscription.getSpaceId());
-                continue;
-            }
-            CloudApplication updatedApplication = updateSubscriber(context, target, subscription);
+        List<SubscriberUpdate> subscriberUpdates = prepareSubscriberUpdates(context, subscriptions);
+        executeSubscriberUpdates(subscriberUpdates);
+
+        List<CloudApplication> updatedSubscribers = new ArrayList<>();
+        List<CloudApplication> updatedServiceBrokerSubscribers = new ArrayList<>();
+        for (SubscriberUpdate subscriberUpdate : subscriberUpdates) {
+            CloudApplication updatedApplication = getUpdatedApplication(subscriberUpdate);
             if (updatedApplication != null) {
-                updatedApplication = addOrgAndSpaceIfNecessary(updatedApplication, target);
+                updatedApplication = addOrgAndSpaceIfNecessary(updatedApplication, subscriberUpdate.target);
                 addApplicationToProperList(updatedSubscribers, updatedServiceBrokerSubscribers, updatedApplication);
             }
         }
@@ -180,20 +180,77 @@ public class UpdateSubscribersStep extends SyncFlowableStep {
         return new ArrayList<>(applicationsMap.values());
     }
 
-    private CloudApplication updateSubscriber(ProcessContext context, CloudTarget cloudTarget, ConfigurationSubscription subscription) {
+    private List<SubscriberUpdate> prepareSubscriberUpdates(ProcessContext context, List<ConfigurationSubscription> subscriptions) {
+        ClientHelper clientHelper = new ClientHelper(context.getControllerClient());
+        Map<String, CloudTarget> targets = new HashMap<>();
+        Map<CloudTarget, CloudControllerClient> clients = new HashMap<>();
+        List<SubscriberUpdate> subscriberUpdates = new ArrayList<>();
+        for (ConfigurationSubscription subscription : subscriptions) {
+            CloudTarget target = targets.computeIfAbsent(subscription.getSpaceId(),
+                                                         spaceId -> targetCalculator.apply(clientHelper, spaceId));
+            if (target == null) {
+                getStepLogger().warn(Messages.COULD_NOT_COMPUTE_ORG_AND_SPACE, subscription.getSpaceId());
+                continue;
+            }
+            SubscriberUpdate subscriberUpdate = new SubscriberUpdate(subscription, target);
+            try {
+                subscriberUpdate.client = clients.computeIfAbsent(target, cloudTarget -> getClient(context, cloudTarget));
+                prepareSubscriberUpdate(context, subscriberUpdate);
+            } catch (CloudOperationException | SLException e) {
+                subscriberUpdate.exception = e;
+            }
+            subscriberUpdates.add(subscriberUpdate);
+        }
+        return subscriberUpdates;
+    }
+
+    /*
+     * The updates of different applications are independent, so they are executed in parallel. The updates of the same application
+     * overwrite its whole environment, so they are executed sequentially, in the order of the subscriptions.
+     */
+    private void executeSubscriberUpdates(List<SubscriberUpdate> subscriberUpdates) {
+        Map<List<Object>, List<SubscriberUpdate>> updatesByApplication = new LinkedHashMap<>();
+        for (SubscriberUpdate subscriberUpdate : subscriberUpdates) {
+            if (subscriberUpdate.exception == null) {
+                updatesByApplication.computeIfAbsent(getApplicationKey(subscriberUpdate), key -> new ArrayList<>())
+                                    .add(subscriberUpdate);
+            }
+        }
+        cloudControllerCallsExecutor.executeForEach(new ArrayList<>(updatesByApplication.values()), updates -> {
+            updates.forEach(this::executeSubscriberUpdate);
+            return null;
+        });
+    }
+
+    private List<Object> getApplicationKey(SubscriberUpdate subscriberUpdate) {
+        return Arrays.asList(subscriberUpdate.target, subscriberUpdate.subscription.getAppName());
+    }
+
+    private void executeSubscriberUpdate(SubscriberUpdate subscriberUpdate) {
         try {
-            return attemptToUpdateSubscriber(context, getClient(context, cloudTarget), subscription);
+            subscriberUpdate.updatedApplication = updateSubscriberEnvironment(subscriberUpdate);
         } catch (CloudOperationException | SLException e) {
-            String appName = subscription.getAppName();
-            String mtaId = subscription.getMtaId();
-            String subscriptionName = getRequiredDependency(subscription).getName();
-            getStepLogger().warn(e, Messages.COULD_NOT_UPDATE_SUBSCRIBER, appName, mtaId, subscriptionName);
+            subscriberUpdate.exception = e;
+        }
+    }
+
+    private CloudApplication getUpdatedApplication(SubscriberUpdate subscriberUpdate) {
+        ConfigurationSubscription subscription = subscriberUpdate.subscription;
+        String appName = subscription.getAppName();
+        String mtaId = subscription.getMtaId();
+        String subscriptionName = getRequiredDependency(subscription).getName();
+        if (subscriberUpdate.exception != null) {
+            getStepLogger().warn(subscriberUpdate.exception, Messages.COULD_NOT_UPDATE_SUBSCRIBER, appName, mtaId, subscriptionName);
             return null;
         }
+        if (subscriberUpdate.updatedApplication != null) {
+            getStepLogger().info(Messages.UPDATING_SUBSCRIBER, appName, mtaId, subscriptionName);
+        }
+        return subscriberUpdate.updatedApplication;
     }
 
-    private CloudApplication attemptToUpdateSubscriber(ProcessContext context, CloudControllerClient client,
-                                                       ConfigurationSubscription subscription) {
+    private void prepareSubscriberUpdate(ProcessContext context, SubscriberUpdate subscriberUpdate) {
+        ConfigurationSubscription subscription = subscriberUpdate.subscription;
         HandlerFactory handlerFactory = new HandlerFactory(MAJOR_SCHEMA_VERSION);
 
         DeploymentDescriptor dummyDescriptor = buildDummyDescriptor(subscription, handlerFactory);
@@ -221,20 +278,25 @@ public class UpdateSubscribersStep extends SyncFlowableStep {
                                        .get(0);
 
         CloudApplicationExtended application = applicationCloudModelBuilder.build(module, moduleToDeployHelper);
-        CloudApplication existingApplication = client.getApplication(subscription.getAppName());
+        subscriberUpdate.updatedEnvironment = application.getEnv();
+        subscriberUpdate.propertiesToTransfer = getPropertiesToTransfer(subscription, resolver);
+    }
 
-        Map<String, String> updatedEnvironment = application.getEnv();
+    /*
+     * Called from the threads of the Cloud Controller calls executor, so it must not access the process or log through the step logger.
+     */
+    private CloudApplication updateSubscriberEnvironment(SubscriberUpdate subscriberUpdate) {
+        CloudControllerClient client = subscriberUpdate.client;
+        CloudApplication existingApplication = client.getApplication(subscriberUpdate.subscription.getAppName());
         Map<String, String> currentEnvironment = new LinkedHashMap<>(existingApplication.getEnv());
 
-        boolean neededToBeUpdated = updateCurrentEnvironment(currentEnvironment, updatedEnvironment,
-                                                             getPropertiesToTransfer(subscription, resolver));
+        boolean neededToBeUpdated = updateCurrentEnvironment(currentEnvironment, subscriberUpdate.updatedEnvironment,
+                                                             subscriberUpdate.propertiesToTransfer);
 
         if (!neededToBeUpdated) {
             return null;
         }
 
-        getStepLogger().info(Messages.UPDATING_SUBSCRIBER, subscription.getAppName(), subscription.getMtaId(),
-                             getRequiredDependency(subscription).getName());
         client.updateApplicationEnv(existingApplication.getName(), currentEnvironment);
         return existingApplication;
     }
@@ -325,6 +387,23 @@ public class UpdateSubscribersStep extends SyncFlowableStep {
         return true;
     }
 
+    private static class SubscriberUpdate {
+
+        private final ConfigurationSubscription subscription;
+        private final CloudTarget target;
+        private CloudControllerClient client;
+        private Map<String, String> updatedEnvironment;
+        private List<String> propertiesToTransfer;
+        private CloudApplication updatedApplication;
+        private RuntimeException exception;
+
+        SubscriberUpdate(ConfigurationSubscription subscription, CloudTarget target) {
+            this.subscription = subscription;
+            this.target = target;
+        }
+
+    }
+
     private static class ReferenceDetector extends ReferencingPropertiesVisitor {
 
         public ReferenceDetector(String name) {
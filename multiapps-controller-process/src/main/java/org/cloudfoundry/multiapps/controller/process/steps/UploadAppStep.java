@@ -26,13 +26,15 @@ import org.cloudfoundry.multiapps.controller.core.helpers.ApplicationFileDigestD
 import org.cloudfoundry.multiapps.controller.core.helpers.MtaArchiveElements;
 import org.cloudfoundry.multiapps.controller.core.model.SupportedParameters;
 import org.cloudfoundry.multiapps.controller.core.util.FileUtils;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileContentProcessor;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileStorageException;
 import org.cloudfoundry.multiapps.controller.process.Messages;
 import org.cloudfoundry.multiapps.controller.process.util.ApplicationArchiveContext;
-import org.cloudfoundry.multiapps.controller.process.util.ApplicationArchiveReader;
 import org.cloudfoundry.multiapps.controller.process.util.ApplicationStager;
 import org.cloudfoundry.multiapps.controller.process.util.ApplicationZipBuilder;
+import org.cloudfoundry.multiapps.controller.process.util.ArchiveEntryWithStreamPositions;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,8 +49,6 @@ public class UploadAppStep extends TimeoutAsyncFlowableStep {
 
     static final int DEFAULT_APP_UPLOAD_TIMEOUT = (int) TimeUnit.HOURS.toSeconds(1);
 
-    @Inject
-    protected ApplicationArchiveReader applicationArchiveReader;
     @Inject
     protected ApplicationZipBuilder applicationZipBuilder;
 
@@ -68,18 +68,34 @@ public class UploadAppStep extends TimeoutAsyncFlowableStep {
             return StepPhase.DONE;
         }
 
-        String newApplicationDigest = getNewApplicationDigest(context, appArchiveId, fileName);
+        ModuleContent moduleContent = extractModuleContent(context, appArchiveId, fileName);
+        try {
+            return uploadModuleContentIfChanged(context, app, fileName, moduleContent);
+        } catch (IOException e) {
+            FileUtils.cleanUp(moduleContent.path, LOGGER);
+            throw new SLException(e, Messages.ERROR_RETRIEVING_MTA_MODULE_CONTENT, fileName);
+        } catch (Exception e) {
+            FileUtils.cleanUp(moduleContent.path, LOGGER);
+            throw e;
+        }
+    }
+
+    private StepPhase uploadModuleContentIfChanged(ProcessContext context, CloudApplicationExtended app, String fileName,
+                                                   ModuleContent moduleContent)
+        throws IOException {
+        String appName = app.getName();
         CloudControllerClient client = context.getControllerClient();
 
         CloudApplication cloudApp = client.getApplication(appName);
-        boolean contentChanged = detectApplicationFileDigestChanges(context, cloudApp, client, newApplicationDigest);
+        boolean contentChanged = detectApplicationFileDigestChanges(context, cloudApp, client, moduleContent.digest);
         if (!contentChanged && isAppStagedCorrectly(context, cloudApp)) {
             getStepLogger().info(Messages.CONTENT_OF_APPLICATION_0_IS_NOT_CHANGED, appName);
+            FileUtils.cleanUp(moduleContent.path, LOGGER);
             return StepPhase.DONE;
         }
 
         getStepLogger().debug(Messages.UPLOADING_FILE_0_FOR_APP_1, fileName, appName);
-        UploadToken uploadToken = asyncUploadFiles(context, client, app, appArchiveId, fileName);
+        UploadToken uploadToken = upload(context, client, app, moduleContent.path);
 
         getStepLogger().debug(Messages.STARTED_ASYNC_UPLOAD_OF_APP_0, appName);
         context.setVariable(Variables.UPLOAD_TOKEN, uploadToken);
@@ -97,42 +113,46 @@ public class UploadAppStep extends TimeoutAsyncFlowableStep {
                                                                            .getName());
     }
 
-    private String getNewApplicationDigest(ProcessContext context, String appArchiveId, String fileName) throws FileStorageException {
-        return fileService.processFileContent(context.getVariable(Variables.SPACE_GUID), appArchiveId,
-                                              createDigestCalculatorFileContentProcessor(fileName));
-    }
-
-    private FileContentProcessor<String> createDigestCalculatorFileContentProcessor(String fileName) {
-        return appArchiveStream -> {
+    private ModuleContent extractModuleContent(ProcessContext context, String appArchiveId, String fileName)
+        throws FileStorageException {
+        // The digest is calculated while the module content is being extracted, so the module is read only once:
+        return processModuleContent(context, appArchiveId, fileName, appArchiveStream -> {
             long maxSize = configuration.getMaxResourceFileSize();
             ApplicationArchiveContext applicationArchiveContext = createApplicationArchiveContext(appArchiveStream, fileName, maxSize);
-            return applicationArchiveReader.calculateApplicationDigest(applicationArchiveContext);
-        };
+            Path filePath = extractFromMtar(applicationArchiveContext);
+            return new ModuleContent(filePath, applicationArchiveContext.getApplicationDigestCalculator()
+                                                                        .getDigest());
+        });
     }
 
-    protected ApplicationArchiveContext createApplicationArchiveContext(InputStream appArchiveStream, String fileName, long maxSize) {
-        return new ApplicationArchiveContext(appArchiveStream, fileName, maxSize);
+    private <T> T processModuleContent(ProcessContext context, String appArchiveId, String fileName,
+                                       FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        String spaceGuid = context.getVariable(Variables.SPACE_GUID);
+        ArchiveEntryWithStreamPositions moduleContentPositions = getModuleContentPositions(context, fileName);
+        if (moduleContentPositions == null) {
+            return fileService.processFileContent(spaceGuid, appArchiveId, fileContentProcessor);
+        }
+        FileContentToProcess moduleContent = ImmutableFileContentToProcess.builder()
+                                                                          .id(appArchiveId)
+                                                                          .space(spaceGuid)
+                                                                          .startOffset(moduleContentPositions.getStartPosition())
+                                                                          .endOffset(moduleContentPositions.getEndPosition())
+                                                                          .build();
+        return fileService.processFileContentRange(moduleContent, fileContentProcessor);
     }
 
-    private UploadToken asyncUploadFiles(ProcessContext context, CloudControllerClient client, CloudApplication app, String appArchiveId,
-                                         String fileName)
-        throws FileStorageException {
+    private ArchiveEntryWithStreamPositions getModuleContentPositions(ProcessContext context, String fileName) {
+        return context.getVariable(Variables.MODULES_CONTENT_POSITIONS)
+                      .stream()
+                      .filter(positions -> positions.getName()
+                                                    .equals(fileName))
+                      .findFirst()
+                      .orElse(null);
+    }
 
-        return fileService.processFileContent(context.getVariable(Variables.SPACE_GUID), appArchiveId, appArchiveStream -> {
-            Path filePath = null;
-            long maxSize = configuration.getMaxResourceFileSize();
-            try {
-                ApplicationArchiveContext applicationArchiveContext = createApplicationArchiveContext(appArchiveStream, fileName, maxSize);
-                filePath = extractFromMtar(applicationArchiveContext);
-                return upload(context, client, app, filePath);
-            } catch (IOException e) {
-                FileUtils.cleanUp(filePath, LOGGER);
-                throw new SLException(e, Messages.ERROR_RETRIEVING_MTA_MODULE_CONTENT, fileName);
-            } catch (Exception e) {
-                FileUtils.cleanUp(filePath, LOGGER);
-                throw e;
-            }
-        });
+    protected ApplicationArchiveContext createApplicationArchiveContext(InputStream appArchiveStream, String fileName, long maxSize) {
+        return new ApplicationArchiveContext(appArchiveStream, fileName, maxSize);
     }
 
     protected Path extractFromMtar(ApplicationArchiveContext applicationArchiveContext) {
@@ -191,6 +211,18 @@ public class UploadAppStep extends TimeoutAsyncFlowableStep {
         return uploadTimeout.intValue();
     }
 
+    private static class ModuleContent {
+
+        private final Path path;
+        private final String digest;
+
+        ModuleContent(Path path, String digest) {
+            this.path = path;
+            this.digest = digest;
+        }
+
+    }
+
     class MonitorUploadStatusCallback implements UploadStatusCallbackExtended {
 
         private final CloudApplication app;
@@ -106,15 +106,12 @@ public class ValidateDeployParametersStep extends SyncFlowableStep {
             // here, if the user wants us to verify the archive's signature.
             return;
         }
-        Path archive = null;
-        try {
-            archive = mergeArchiveParts(context, archivePartIds);
-            verifyArchiveSignature(context, archive);
-            if (archivePartIds.length != 1) {
-                persistMergedArchive(context, archive);
-            }
-        } finally {
-            deleteArchive(archive);
+        List<FileEntry> archivePartEntries = getArchivePartEntries(context, archivePartIds);
+        if (archivePartIds.length != 1) {
+            persistCompositeArchive(context, archivePartEntries);
+        }
+        if (context.getVariable(Variables.VERIFY_ARCHIVE_SIGNATURE)) {
+            verifyArchiveSignature(context, archivePartEntries);
         }
     }
 
@@ -123,11 +120,27 @@ public class ValidateDeployParametersStep extends SyncFlowableStep {
         return archiveId.split(",");
     }
 
-    private Path mergeArchiveParts(ProcessContext context, String[] archivePartIds) {
-        List<FileEntry> archivePartEntries = getArchivePartEntries(context, archivePartIds);
-        context.setVariable(Variables.FILE_ENTRIES, archivePartEntries);
+    private void persistCompositeArchive(ProcessContext context, List<FileEntry> archivePartEntries) {
+        // The parts back the composite archive, so they are deleted together with it instead of right after this step:
         getStepLogger().debug(Messages.BUILDING_ARCHIVE_FROM_PARTS);
-        return resilientOperationExecutor.execute(createArchiveFromParts(context.getExecution(), archivePartEntries));
+        FileEntry compositeArchive = resilientOperationExecutor.execute(createCompositeArchiveFromParts(context.getExecution(),
+                                                                                                      archivePartEntries));
+        context.setVariable(Variables.APP_ARCHIVE_ID, compositeArchive.getId());
+    }
+
+    private Supplier<FileEntry> createCompositeArchiveFromParts(DelegateExecution execution, List<FileEntry> archivePartEntries) {
+        return () -> new ArchiveMerger(fileService, getStepLogger(), execution).createCompositeArchiveFromParts(archivePartEntries);
+    }
+
+    private void verifyArchiveSignature(ProcessContext context, List<FileEntry> archivePartEntries) {
+        // The signature can only be verified with random access to the archive, so it has to be downloaded:
+        Path archive = null;
+        try {
+            archive = resilientOperationExecutor.execute(createArchiveFromParts(context.getExecution(), archivePartEntries));
+            verifyArchiveSignature(context, archive);
+        } finally {
+            deleteArchive(archive);
+        }
     }
 
     private List<FileEntry> getArchivePartEntries(ProcessContext context, String[] appArchivePartsId) {
@@ -165,26 +178,6 @@ public class ValidateDeployParametersStep extends SyncFlowableStep {
         }
     }
 
-    private void persistMergedArchive(ProcessContext context, Path archiveFilePath) {
-        resilientOperationExecutor.execute(() -> persistMergedArchive(archiveFilePath, context));
-    }
-
-    private void persistMergedArchive(Path archivePath, ProcessContext context) {
-        FileEntry uploadedArchive = persistArchive(archivePath, context);
-        context.setVariable(Variables.APP_ARCHIVE_ID, uploadedArchive.getId());
-    }
-
-    private FileEntry persistArchive(Path archivePath, ProcessContext context) {
-        try {
-            return fileService.addFile(context.getVariable(Variables.SPACE_GUID), context.getVariable(Variables.MTA_NAMESPACE),
-                                       archivePath.getFileName()
-                                                  .toString(),
-                                       archivePath.toFile());
-        } catch (FileStorageException e) {
-            throw new SLException(e, e.getMessage());
-        }
-    }
-
     private void deleteArchive(Path archiveFilePath) {
         if (archiveFilePath == null) {
             return;
@@ -31,6 +31,11 @@ public class ApplicationZipBuilder {
         this.applicationArchiveReader = applicationArchiveReader;
     }
 
+    /**
+     * Extracts the module content in a new archive. The digest of the module content is calculated while it is being extracted and
+     * is available through {@link ApplicationArchiveContext#getApplicationDigestCalculator()} afterwards. It is the same as the
+     * one calculated by {@link ApplicationArchiveReader#calculateApplicationDigest(ApplicationArchiveContext)}.
+     */
     public Path extractApplicationInNewArchive(ApplicationArchiveContext applicationArchiveContext) {
         Path appPath = null;
         try {
@@ -59,11 +64,15 @@ public class ApplicationZipBuilder {
         try (ZipOutputStream zipOutputStream = new ZipOutputStream(fileOutputStream)) {
             String moduleFileName = applicationArchiveContext.getModuleFileName();
             do {
-                if (!isAlreadyUploaded(zipEntry.getName(), applicationArchiveContext) && !zipEntry.isDirectory()) {
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
+                if (isAlreadyUploaded(zipEntry.getName(), applicationArchiveContext)) {
+                    applicationArchiveReader.calculateDigestFromArchive(applicationArchiveContext);
+                } else {
                     zipOutputStream.putNextEntry(createNewZipEntry(zipEntry.getName(), moduleFileName));
                     copy(applicationArchiveContext.getZipInputStream(), zipOutputStream, applicationArchiveContext);
                     zipOutputStream.closeEntry();
-
                 }
             } while ((zipEntry = applicationArchiveReader.getNextEntryByName(moduleFileName, applicationArchiveContext)) != null);
         }
@@ -77,7 +86,9 @@ public class ApplicationZipBuilder {
         throws IOException {
         String moduleFileName = applicationArchiveContext.getModuleFileName();
         do {
-            if (!isAlreadyUploaded(zipEntry.getName(), applicationArchiveContext)) {
+            if (isAlreadyUploaded(zipEntry.getName(), applicationArchiveContext)) {
+                applicationArchiveReader.calculateDigestFromArchive(applicationArchiveContext);
+            } else {
                 copy(applicationArchiveContext.getZipInputStream(), fileOutputStream, applicationArchiveContext);
             }
         } while ((zipEntry = applicationArchiveReader.getNextEntryByName(moduleFileName, applicationArchiveContext)) != null);
@@ -92,6 +103,7 @@ public class ApplicationZipBuilder {
         byte[] buffer = new byte[BUFFER_SIZE];
         int numberOfReadBytes = 0;
         long maxSizeInBytes = applicationArchiveContext.getMaxSizeInBytes();
+        DigestCalculator applicationDigestCalculator = applicationArchiveContext.getApplicationDigestCalculator();
         while ((numberOfReadBytes = input.read(buffer)) != -1) {
             long currentSizeInBytes = applicationArchiveContext.getCurrentSizeInBytes();
             if (currentSizeInBytes + numberOfReadBytes > maxSizeInBytes) {
@@ -99,6 +111,7 @@ public class ApplicationZipBuilder {
             }
             output.write(buffer, 0, numberOfReadBytes);
             applicationArchiveContext.calculateCurrentSizeInBytes(numberOfReadBytes);
+            applicationDigestCalculator.updateDigest(buffer, 0, numberOfReadBytes);
         }
     }
 
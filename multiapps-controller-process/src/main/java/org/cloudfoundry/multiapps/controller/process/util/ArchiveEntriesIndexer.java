@@ -0,0 +1,219 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.io.IOUtils;
+import org.cloudfoundry.multiapps.common.ContentException;
+import org.cloudfoundry.multiapps.common.SLException;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileContentToProcess;
+import org.cloudfoundry.multiapps.controller.persistence.services.FileContentProcessor;
+import org.cloudfoundry.multiapps.controller.persistence.services.FileService;
+import org.cloudfoundry.multiapps.controller.persistence.services.FileStorageException;
+import org.cloudfoundry.multiapps.controller.process.Messages;
+
+/**
+ * Builds an index of the entries of a stored archive by reading only its central directory. The index allows the content of a
+ * single module to be read by offset, instead of scanning the whole archive for it.
+ */
+@Named
+public class ArchiveEntriesIndexer {
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_ARCHIVE_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+    private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    private static final long ZIP64_MAGIC_VALUE = 0xFFFFFFFFL;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+
+    private final FileService fileService;
+
+    @Inject
+    public ArchiveEntriesIndexer(@Named("fileService") FileService fileService) {
+        this.fileService = fileService;
+    }
+
+    public List<ArchiveEntryWithStreamPositions> indexArchiveEntries(String space, String archiveId) {
+        try {
+            FileEntry archive = fileService.getFile(space, archiveId);
+            if (archive == null || archive.getSize() == null) {
+                throw new SLException(Messages.ERROR_NO_FILE_ASSOCIATED_WITH_THE_SPECIFIED_FILE_ID_0_IN_SPACE_1, archiveId, space);
+            }
+            CentralDirectoryLocation centralDirectoryLocation = findCentralDirectory(space, archiveId, archive.getSize()
+                                                                                                             .longValue());
+            List<CentralDirectoryEntry> entries = processRange(space, archiveId, centralDirectoryLocation.offset,
+                                                               centralDirectoryLocation.offset + centralDirectoryLocation.size,
+                                                               this::readCentralDirectoryEntries);
+            return computeStreamPositions(entries, centralDirectoryLocation.offset);
+        } catch (FileStorageException e) {
+            throw new SLException(e, Messages.ERROR_INDEXING_MTA_ARCHIVE_0, archiveId);
+        }
+    }
+
+    private CentralDirectoryLocation findCentralDirectory(String space, String archiveId, long archiveSize)
+        throws FileStorageException {
+        long tailSize = Math.min(archiveSize,
+                                 END_OF_CENTRAL_DIRECTORY_SIZE + MAX_ARCHIVE_COMMENT_SIZE + ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE);
+        byte[] tail = processRange(space, archiveId, archiveSize - tailSize, archiveSize, IOUtils::toByteArray);
+        ByteBuffer tailBuffer = littleEndian(tail);
+        int endOfCentralDirectoryPosition = findEndOfCentralDirectory(tailBuffer);
+        if (endOfCentralDirectoryPosition < 0) {
+            throw new ContentException(Messages.COULD_NOT_FIND_CENTRAL_DIRECTORY_OF_ARCHIVE_0, archiveId);
+        }
+        int entriesCount = Short.toUnsignedInt(tailBuffer.getShort(endOfCentralDirectoryPosition + 10));
+        long centralDirectorySize = Integer.toUnsignedLong(tailBuffer.getInt(endOfCentralDirectoryPosition + 12));
+        long centralDirectoryOffset = Integer.toUnsignedLong(tailBuffer.getInt(endOfCentralDirectoryPosition + 16));
+        int zip64LocatorPosition = endOfCentralDirectoryPosition - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE;
+        if (isZip64(entriesCount, centralDirectorySize, centralDirectoryOffset) && zip64LocatorPosition >= 0
+            && tailBuffer.getInt(zip64LocatorPosition) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE) {
+            long zip64EndOfCentralDirectoryOffset = tailBuffer.getLong(zip64LocatorPosition + 8);
+            return findZip64CentralDirectory(space, archiveId, zip64EndOfCentralDirectoryOffset);
+        }
+        return new CentralDirectoryLocation(centralDirectoryOffset, centralDirectorySize);
+    }
+
+    private int findEndOfCentralDirectory(ByteBuffer tailBuffer) {
+        for (int position = tailBuffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= 0; position--) {
+            if (tailBuffer.getInt(position) != END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                continue;
+            }
+            int commentLength = Short.toUnsignedInt(tailBuffer.getShort(position + 20));
+            if (position + END_OF_CENTRAL_DIRECTORY_SIZE + commentLength <= tailBuffer.limit()) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isZip64(int entriesCount, long centralDirectorySize, long centralDirectoryOffset) {
+        return entriesCount == ZIP64_MAGIC_COUNT || centralDirectorySize == ZIP64_MAGIC_VALUE || centralDirectoryOffset == ZIP64_MAGIC_VALUE;
+    }
+
+    private CentralDirectoryLocation findZip64CentralDirectory(String space, String archiveId, long zip64EndOfCentralDirectoryOffset)
+        throws FileStorageException {
+        byte[] zip64EndOfCentralDirectory = processRange(space, archiveId, zip64EndOfCentralDirectoryOffset,
+                                                         zip64EndOfCentralDirectoryOffset + ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE,
+                                                         IOUtils::toByteArray);
+        if (zip64EndOfCentralDirectory.length < ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE) {
+            throw new ContentException(Messages.COULD_NOT_FIND_CENTRAL_DIRECTORY_OF_ARCHIVE_0, archiveId);
+        }
+        ByteBuffer buffer = littleEndian(zip64EndOfCentralDirectory);
+        if (buffer.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+            throw new ContentException(Messages.COULD_NOT_FIND_CENTRAL_DIRECTORY_OF_ARCHIVE_0, archiveId);
+        }
+        return new CentralDirectoryLocation(buffer.getLong(48), buffer.getLong(40));
+    }
+
+    private List<CentralDirectoryEntry> readCentralDirectoryEntries(InputStream centralDirectoryStream) throws IOException {
+        InputStream bufferedStream = new BufferedInputStream(centralDirectoryStream);
+        List<CentralDirectoryEntry> entries = new ArrayList<>();
+        byte[] header = new byte[CENTRAL_DIRECTORY_HEADER_SIZE];
+        while (IOUtils.read(bufferedStream, header) == CENTRAL_DIRECTORY_HEADER_SIZE) {
+            ByteBuffer headerBuffer = littleEndian(header);
+            if (headerBuffer.getInt(0) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                break;
+            }
+            boolean hasZip64UncompressedSize = Integer.toUnsignedLong(headerBuffer.getInt(24)) == ZIP64_MAGIC_VALUE;
+            boolean hasZip64CompressedSize = Integer.toUnsignedLong(headerBuffer.getInt(20)) == ZIP64_MAGIC_VALUE;
+            long localHeaderOffset = Integer.toUnsignedLong(headerBuffer.getInt(42));
+            byte[] name = IOUtils.readFully(bufferedStream, Short.toUnsignedInt(headerBuffer.getShort(28)));
+            byte[] extraField = IOUtils.readFully(bufferedStream, Short.toUnsignedInt(headerBuffer.getShort(30)));
+            IOUtils.skipFully(bufferedStream, Short.toUnsignedInt(headerBuffer.getShort(32)));
+            if (localHeaderOffset == ZIP64_MAGIC_VALUE) {
+                localHeaderOffset = getZip64LocalHeaderOffset(littleEndian(extraField), hasZip64UncompressedSize, hasZip64CompressedSize);
+            }
+            entries.add(new CentralDirectoryEntry(new String(name, StandardCharsets.UTF_8), localHeaderOffset));
+        }
+        return entries;
+    }
+
+    private long getZip64LocalHeaderOffset(ByteBuffer extraField, boolean hasZip64UncompressedSize, boolean hasZip64CompressedSize) {
+        int position = 0;
+        while (position + 4 <= extraField.limit()) {
+            int headerId = Short.toUnsignedInt(extraField.getShort(position));
+            int dataSize = Short.toUnsignedInt(extraField.getShort(position + 2));
+            if (headerId == ZIP64_EXTRA_FIELD_ID) {
+                int offsetPosition = position + 4 + (hasZip64UncompressedSize ? 8 : 0) + (hasZip64CompressedSize ? 8 : 0);
+                return extraField.getLong(offsetPosition);
+            }
+            position += 4 + dataSize;
+        }
+        return ZIP64_MAGIC_VALUE;
+    }
+
+    private List<ArchiveEntryWithStreamPositions> computeStreamPositions(List<CentralDirectoryEntry> entries, long centralDirectoryOffset) {
+        entries.sort(Comparator.comparingLong(entry -> entry.localHeaderOffset));
+        List<ArchiveEntryWithStreamPositions> entriesWithStreamPositions = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            CentralDirectoryEntry entry = entries.get(i);
+            // The data of an entry (including an optional data descriptor) ends where the next local file header starts:
+            long endPosition = i + 1 < entries.size() ? entries.get(i + 1).localHeaderOffset : centralDirectoryOffset;
+            entriesWithStreamPositions.add(ImmutableArchiveEntryWithStreamPositions.builder()
+                                                                                   .name(entry.name)
+                                                                                   .startPosition(entry.localHeaderOffset)
+                                                                                   .endPosition(endPosition)
+                                                                                   .build());
+        }
+        return entriesWithStreamPositions;
+    }
+
+    private <T> T processRange(String space, String archiveId, long startOffset, long endOffset,
+                               FileContentProcessor<T> fileContentProcessor)
+        throws FileStorageException {
+        FileContentToProcess fileContentToProcess = ImmutableFileContentToProcess.builder()
+                                                                                 .id(archiveId)
+                                                                                 .space(space)
+                                                                                 .startOffset(startOffset)
+                                                                                 .endOffset(endOffset)
+                                                                                 .build();
+        return fileService.processFileContentRange(fileContentToProcess, fileContentProcessor);
+    }
+
+    private static ByteBuffer littleEndian(byte[] bytes) {
+        return ByteBuffer.wrap(bytes)
+                         .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static class CentralDirectoryLocation {
+
+        private final long offset;
+        private final long size;
+
+        CentralDirectoryLocation(long offset, long size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+    }
+
+    private static class CentralDirectoryEntry {
+
+        private final String name;
+        private final long localHeaderOffset;
+
+        CentralDirectoryEntry(String name, long localHeaderOffset) {
+            this.name = name;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * An entry of an archive, together with the positions of its local file header (start, inclusive) and of the end of its data (end,
+ * exclusive) in the archive.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableArchiveEntryWithStreamPositions.class)
+@JsonDeserialize(as = ImmutableArchiveEntryWithStreamPositions.class)
+public interface ArchiveEntryWithStreamPositions {
+
+    String getName();
+
+    long getStartPosition();
+
+    long getEndPosition();
+
+}
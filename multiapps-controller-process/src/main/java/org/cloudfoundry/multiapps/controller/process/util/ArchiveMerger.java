@@ -29,6 +29,20 @@ public class ArchiveMerger {
         this.execution = execution;
     }
 
+    /**
+     * Creates a composite archive, which is backed by the archive parts, so that their content does not have to be merged.
+     */
+    public FileEntry createCompositeArchiveFromParts(List<FileEntry> archiveParts) {
+        List<FileEntry> sortedArchiveParts = sort(archiveParts);
+        String archiveName = getArchiveName(sortedArchiveParts.get(0));
+        try {
+            return fileService.addCompositeFile(VariableHandling.get(execution, Variables.SPACE_GUID),
+                                                VariableHandling.get(execution, Variables.MTA_NAMESPACE), archiveName, sortedArchiveParts);
+        } catch (FileStorageException e) {
+            throw new SLException(e, Messages.ERROR_MERGING_ARCHIVE_PARTS, e.getMessage());
+        }
+    }
+
     public Path createArchiveFromParts(List<FileEntry> archiveParts) {
         List<FileEntry> sortedArchiveParts = sort(archiveParts);
         String archiveName = getArchiveName(sortedArchiveParts.get(0));
@@ -0,0 +1,141 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.cloudfoundry.multiapps.common.SLException;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
+import org.cloudfoundry.multiapps.controller.process.Messages;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Executes independent calls to the Cloud Controller in parallel, on a pool of threads shared by all processes. The calls are blocking
+ * HTTP requests, so the size of the pool, and not the number of processes running in parallel, limits how many of them are made at the
+ * same time. All process steps, which fan out calls to the Cloud Controller, should use this executor instead of parallel streams, which
+ * would block the common {@link java.util.concurrent.ForkJoinPool} of the JVM.
+ */
+@Named
+public class CloudControllerCallsExecutor {
+
+    public static final String METRICS_PREFIX = "multiapps.cloud.controller.calls.";
+
+    private static final String THREAD_NAME_PREFIX = "cloud-controller-calls-";
+    private static final long KEEP_ALIVE_IN_SECONDS = 60;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger threadsCount = new AtomicInteger();
+    private final ThreadLocal<Boolean> isExecutorThread = ThreadLocal.withInitial(() -> false);
+    private final Timer callTimer;
+    private final Timer waitTimer;
+
+    @Inject
+    public CloudControllerCallsExecutor(ApplicationConfiguration configuration) {
+        this(configuration.getCloudControllerCallsThreads());
+    }
+
+    public CloudControllerCallsExecutor(int threads) {
+        this(threads, Metrics.globalRegistry);
+    }
+
+    CloudControllerCallsExecutor(int threads, MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_IN_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                                               this::createThread);
+        this.executor.allowCoreThreadTimeOut(true);
+        this.callTimer = meterRegistry.timer(METRICS_PREFIX + "duration");
+        this.waitTimer = meterRegistry.timer(METRICS_PREFIX + "wait.duration");
+        meterRegistry.gauge(METRICS_PREFIX + "queue.size", executor, pool -> pool.getQueue()
+                                                                                  .size());
+        meterRegistry.gauge(METRICS_PREFIX + "active.threads", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    private Thread createThread(Runnable runnable) {
+        Thread thread = new Thread(() -> {
+            isExecutorThread.set(true);
+            runnable.run();
+        }, THREAD_NAME_PREFIX + threadsCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Applies the call to each of the arguments in parallel and returns the results in the order of the arguments. If some of the calls
+     * fail, the exception of the first one of them is thrown and the calls, which have not started yet, are cancelled.
+     */
+    public <T, R> List<R> executeForEach(List<T> arguments, Function<T, R> call) {
+        // Waiting for other calls from a thread of the pool could exhaust it, so such calls are made sequentially:
+        if (arguments.size() <= 1 || isExecutorThread.get()) {
+            return executeSequentially(arguments, call);
+        }
+        List<Future<R>> futures = new ArrayList<>(arguments.size());
+        for (T argument : arguments) {
+            long submissionTime = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submissionTime, TimeUnit.NANOSECONDS);
+                return callTimer.record(() -> call.apply(argument));
+            }));
+        }
+        try {
+            return getResults(futures);
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private <T, R> List<R> executeSequentially(List<T> arguments, Function<T, R> call) {
+        List<R> results = new ArrayList<>(arguments.size());
+        for (T argument : arguments) {
+            results.add(callTimer.record(() -> call.apply(argument)));
+        }
+        return results;
+    }
+
+    private <R> List<R> getResults(List<Future<R>> futures) {
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new SLException(e, Messages.INTERRUPTED_WHILE_WAITING_FOR_CLOUD_CONTROLLER_CALLS);
+        } catch (CancellationException e) {
+            throw new SLException(e, Messages.INTERRUPTED_WHILE_WAITING_FOR_CLOUD_CONTROLLER_CALLS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SLException(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.cloudfoundry.multiapps.mta.model.Module;
+
+/**
+ * Schedules the deployment of modules in iterations, according to the "deployed-after" dependencies between them. Each iteration contains
+ * the modules, whose own dependencies were deployed in earlier iterations, and the next iteration starts only after all modules of the
+ * current one are deployed. Dependencies on modules, which are not part of the deployment, are not taken into account, since their
+ * applications are already verified to exist before the deployment starts. When more modules can be deployed than allowed in parallel,
+ * the ones with the longest chain of modules depending on them are deployed first, so that the longest chain is not delayed.
+ */
+public class ModuleDeploymentScheduler {
+
+    private final Map<String, Module> modulesToDeploy = new LinkedHashMap<>();
+    private final Map<String, List<String>> dependencies = new HashMap<>();
+    private final Map<String, List<String>> dependentModules = new HashMap<>();
+    private final Map<String, Integer> dependentChainLengths = new HashMap<>();
+    private final int maxParallelDeployments;
+
+    public ModuleDeploymentScheduler(List<Module> modulesToDeploy, int maxParallelDeployments) {
+        this.maxParallelDeployments = maxParallelDeployments;
+        for (Module module : modulesToDeploy) {
+            this.modulesToDeploy.put(module.getName(), module);
+        }
+        for (Module module : modulesToDeploy) {
+            List<String> moduleDependencies = getDependenciesToDeploy(module);
+            dependencies.put(module.getName(), moduleDependencies);
+            for (String dependency : moduleDependencies) {
+                dependentModules.computeIfAbsent(dependency, key -> new ArrayList<>())
+                                .add(module.getName());
+            }
+        }
+        for (Module module : modulesToDeploy) {
+            computeDependentChainLength(module.getName(), new HashSet<>());
+        }
+    }
+
+    private List<String> getDependenciesToDeploy(Module module) {
+        if (module.getMajorSchemaVersion() < 3 || module.getDeployedAfter() == null) {
+            return Collections.emptyList();
+        }
+        return module.getDeployedAfter()
+                     .stream()
+                     .filter(modulesToDeploy::containsKey)
+                     .collect(Collectors.toList());
+    }
+
+    private int computeDependentChainLength(String moduleName, Set<String> visitedModules) {
+        Integer dependentChainLength = dependentChainLengths.get(moduleName);
+        if (dependentChainLength != null) {
+            return dependentChainLength;
+        }
+        // Modules with cyclic dependencies are never deployed, so the cycle itself does not matter:
+        if (!visitedModules.add(moduleName)) {
+            return 0;
+        }
+        int maxDependentChainLength = dependentModules.getOrDefault(moduleName, Collections.emptyList())
+                                                      .stream()
+                                                      .mapToInt(dependentModule -> computeDependentChainLength(dependentModule, visitedModules))
+                                                      .max()
+                                                      .orElse(0);
+        visitedModules.remove(moduleName);
+        dependentChainLengths.put(moduleName, maxDependentChainLength + 1);
+        return maxDependentChainLength + 1;
+    }
+
+    /**
+     * Returns the modules of the next iteration, in the order in which they were given to the scheduler.
+     *
+     * @param deployedModules the names of the modules deployed in the previous iterations
+     */
+    public List<Module> getNextModulesToDeploy(Set<String> deployedModules) {
+        List<Module> readyModules = modulesToDeploy.values()
+                                                   .stream()
+                                                   .filter(module -> !deployedModules.contains(module.getName()))
+                                                   .filter(module -> deployedModules.containsAll(dependencies.get(module.getName())))
+                                                   .collect(Collectors.toList());
+        if (readyModules.size() <= maxParallelDeployments) {
+            return readyModules;
+        }
+        Set<String> modulesToStart = readyModules.stream()
+                                                 .map(Module::getName)
+                                                 .sorted(Comparator.<String, Integer> comparing(dependentChainLengths::get)
+                                                                   .reversed())
+                                                 .limit(maxParallelDeployments)
+                                                 .collect(Collectors.toSet());
+        return readyModules.stream()
+                           .filter(module -> modulesToStart.contains(module.getName()))
+                           .collect(Collectors.toList());
+    }
+
+}
@@ -2,6 +2,7 @@ package org.cloudfoundry.multiapps.controller.process.util;
 
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -73,7 +74,10 @@ public class OperationsHelper {
         if (operation.getState() != null) {
             return operation;
         }
-        Operation.State state = computeState(operation);
+        return addState(operation, computeState(operation));
+    }
+
+    private Operation addState(Operation operation, Operation.State state) {
         // Fixes bug XSBUG-2035: Inconsistency in 'operation', 'act_hi_procinst' and 'act_ru_execution' tables
         if (operation.hasAcquiredLock() && (state.equals(Operation.State.ABORTED) || state.equals(Operation.State.FINISHED))) {
             operation = ImmutableOperation.builder()
@@ -102,8 +106,15 @@ public class OperationsHelper {
     }
 
     private List<Operation> addState(List<Operation> operations) {
+        List<String> processIds = operations.stream()
+                                            .filter(operation -> operation.getState() == null)
+                                            .map(Operation::getProcessId)
+                                            .collect(Collectors.toList());
+        LOGGER.debug(MessageFormat.format(Messages.COMPUTING_STATES_OF_OPERATIONS, processIds));
+        Map<String, Operation.State> states = processHelper.computeProcessStates(processIds);
         return operations.stream()
-                         .map(this::addState)
+                         .map(operation -> operation.getState() == null ? addState(operation, states.get(operation.getProcessId()))
+                             : operation)
                          .collect(Collectors.toList());
     }
 
@@ -1,11 +1,16 @@
 package org.cloudfoundry.multiapps.controller.process.util;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.commons.collections4.ListUtils;
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
 import org.cloudfoundry.multiapps.controller.api.model.Operation.State;
 import org.cloudfoundry.multiapps.controller.core.model.HistoricOperationEvent;
@@ -17,6 +22,8 @@ import org.flowable.engine.runtime.ProcessInstance;
 @Named
 public class ProcessHelper {
 
+    private static final int MAX_PROCESS_IDS_PER_QUERY = 1000;
+
     private final FlowableFacade flowableFacade;
     private final HistoricOperationEventService historicOperationEventService;
 
@@ -45,6 +52,50 @@ public class ProcessHelper {
         return State.FINISHED;
     }
 
+    /**
+     * Computes the states of the given processes in the same way as {@link #computeProcessState(String)}, but with a constant number of
+     * queries per {@value #MAX_PROCESS_IDS_PER_QUERY} processes, instead of with several queries per process.
+     */
+    public Map<String, Operation.State> computeProcessStates(List<String> processIds) {
+        Map<String, Operation.State> processStates = new HashMap<>();
+        for (List<String> processIdsBatch : ListUtils.partition(processIds, MAX_PROCESS_IDS_PER_QUERY)) {
+            processStates.putAll(computeProcessStatesBatch(processIdsBatch));
+        }
+        return processStates;
+    }
+
+    private Map<String, Operation.State> computeProcessStatesBatch(List<String> processIds) {
+        Set<String> abortedProcessIds = getAbortedProcessIds(processIds);
+        Set<String> processIdsInErrorState = flowableFacade.getProcessInstanceIdsWithDeadLetterJobs(processIds);
+        Set<String> processIdsAtReceiveTask = flowableFacade.getProcessInstanceIdsAtReceiveTask(processIds);
+        Set<String> runningProcessIds = flowableFacade.getRunningProcessInstanceIds(processIds);
+        Map<String, Operation.State> processStates = new HashMap<>();
+        for (String processId : processIds) {
+            if (abortedProcessIds.contains(processId)) {
+                processStates.put(processId, State.ABORTED);
+            } else if (processIdsInErrorState.contains(processId)) {
+                processStates.put(processId, State.ERROR);
+            } else if (processIdsAtReceiveTask.contains(processId)) {
+                processStates.put(processId, State.ACTION_REQUIRED);
+            } else if (runningProcessIds.contains(processId)) {
+                processStates.put(processId, State.RUNNING);
+            } else {
+                processStates.put(processId, State.FINISHED);
+            }
+        }
+        return processStates;
+    }
+
+    private Set<String> getAbortedProcessIds(List<String> processIds) {
+        return historicOperationEventService.createQuery()
+                                            .processIdAnyOf(processIds)
+                                            .type(EventType.ABORTED)
+                                            .list()
+                                            .stream()
+                                            .map(HistoricOperationEvent::getProcessId)
+                                            .collect(Collectors.toSet());
+    }
+
     private boolean isInReceiveTask(String processId) {
         return flowableFacade.isProcessInstanceAtReceiveTask(processId);
     }
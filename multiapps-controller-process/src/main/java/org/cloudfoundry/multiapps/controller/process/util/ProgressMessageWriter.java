@@ -0,0 +1,189 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.cloudfoundry.multiapps.common.SLException;
+import org.cloudfoundry.multiapps.controller.core.persistence.service.ProgressMessageService;
+import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage;
+import org.cloudfoundry.multiapps.controller.process.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Persists progress messages asynchronously, in batches. The messages are queued per process and the messages of each process are written
+ * in the order in which they were added, either when enough of them are pending or periodically. Callers, which need the messages of a
+ * process to be persisted at a certain point (for example at the end of a step), can {@link #flush(String)} them explicitly. Messages,
+ * which could not be persisted, are queued again and are retried with the next flush.
+ */
+@Named
+public class ProgressMessageWriter {
+
+    public static final String METRICS_PREFIX = "multiapps.progress.messages.";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressMessageWriter.class);
+
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_PENDING_MESSAGES = 10000;
+    private static final long FLUSH_INTERVAL_IN_MILLIS = 1000;
+
+    private final ProgressMessageService progressMessageService;
+    private final ConcurrentMap<String, PendingProgressMessages> pendingMessagesByProcess = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingMessagesCount;
+    private final AtomicBoolean isFlushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final Timer flushTimer;
+
+    @Inject
+    public ProgressMessageWriter(ProgressMessageService progressMessageService) {
+        this.progressMessageService = progressMessageService;
+        this.pendingMessagesCount = Metrics.gauge(METRICS_PREFIX + "pending", new AtomicInteger());
+        this.flushTimer = Metrics.timer(METRICS_PREFIX + "flush");
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_IN_MILLIS, FLUSH_INTERVAL_IN_MILLIS,
+                                             TimeUnit.MILLISECONDS);
+    }
+
+    public void add(ProgressMessage progressMessage) {
+        String processId = progressMessage.getProcessId();
+        if (pendingMessagesCount.get() >= MAX_PENDING_MESSAGES) {
+            // Instead of queuing messages without bound when they are added faster than they can be persisted, the callers are slowed
+            // down by persisting the pending messages of their process themselves:
+            flushQuietly(processId);
+        }
+        // The messages are added while the entry of the process is locked in the map, so that it cannot be removed concurrently:
+        pendingMessagesByProcess.compute(processId, (id, pendingMessages) -> {
+            PendingProgressMessages result = pendingMessages != null ? pendingMessages : new PendingProgressMessages();
+            result.add(progressMessage);
+            return result;
+        });
+        if (pendingMessagesCount.incrementAndGet() >= MAX_BATCH_SIZE && isFlushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Persists the pending messages of the process. When the method returns, all messages of the process added before it was called are
+     * persisted.
+     * 
+     * @throws SLException if some of the messages could not be persisted. They remain pending and are retried with the next flush.
+     */
+    public void flush(String processId) {
+        PendingProgressMessages pendingMessages = pendingMessagesByProcess.get(processId);
+        if (pendingMessages == null) {
+            return;
+        }
+        flush(processId, pendingMessages);
+    }
+
+    /**
+     * Persists the pending messages of all processes. Failures are logged and the messages, which could not be persisted, remain pending.
+     */
+    public void flush() {
+        isFlushScheduled.set(false);
+        for (String processId : pendingMessagesByProcess.keySet()) {
+            flushQuietly(processId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    private void flushQuietly(String processId) {
+        try {
+            flush(processId);
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    private void flush(String processId, PendingProgressMessages pendingMessages) {
+        // Only one flush per process runs at a time, so that its messages are persisted in the order in which they were queued:
+        pendingMessages.flushLock.lock();
+        try {
+            for (List<ProgressMessage> batch = pollBatch(pendingMessages); !batch.isEmpty(); batch = pollBatch(pendingMessages)) {
+                persist(pendingMessages, batch);
+            }
+            // No other flush of these messages can requeue some of them in the meantime, since it would hold the lock:
+            pendingMessagesByProcess.computeIfPresent(processId,
+                                                      (id, messages) -> messages == pendingMessages && messages.isEmpty() ? null : messages);
+        } finally {
+            pendingMessages.flushLock.unlock();
+        }
+    }
+
+    private List<ProgressMessage> pollBatch(PendingProgressMessages pendingMessages) {
+        List<ProgressMessage> batch = pendingMessages.pollBatch(MAX_BATCH_SIZE);
+        pendingMessagesCount.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void persist(PendingProgressMessages pendingMessages, List<ProgressMessage> batch) {
+        try {
+            flushTimer.record(() -> progressMessageService.addAll(batch));
+        } catch (RuntimeException e) {
+            pendingMessages.requeue(batch);
+            pendingMessagesCount.addAndGet(batch.size());
+            throw new SLException(e, Messages.COULD_NOT_PERSIST_0_PROGRESS_MESSAGES, batch.size());
+        }
+    }
+
+    private static class PendingProgressMessages {
+
+        private final Deque<ProgressMessage> messages = new ArrayDeque<>();
+        private final Lock flushLock = new ReentrantLock();
+
+        synchronized void add(ProgressMessage progressMessage) {
+            messages.addLast(progressMessage);
+        }
+
+        synchronized List<ProgressMessage> pollBatch(int maxBatchSize) {
+            List<ProgressMessage> batch = new ArrayList<>();
+            while (batch.size() < maxBatchSize && !messages.isEmpty()) {
+                batch.add(messages.pollFirst());
+            }
+            return batch;
+        }
+
+        synchronized void requeue(List<ProgressMessage> batch) {
+            for (ListIterator<ProgressMessage> iterator = batch.listIterator(batch.size()); iterator.hasPrevious();) {
+                messages.addFirst(iterator.previous());
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return messages.isEmpty();
+        }
+
+    }
+
+}
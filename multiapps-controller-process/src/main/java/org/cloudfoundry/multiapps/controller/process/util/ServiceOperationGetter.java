@@ -31,32 +31,35 @@ public class ServiceOperationGetter {
     }
 
     public ServiceOperation getLastServiceOperation(ProcessContext context, CloudServiceInstanceExtended service) {
-        Map<String, Object> serviceInstanceEntity = getServiceInstanceEntity(context, service);
+        return getLastServiceOperation(context.getControllerClient(), context.getVariable(Variables.SPACE_GUID), service);
+    }
+
+    /**
+     * Unlike {@link #getLastServiceOperation(ProcessContext, CloudServiceInstanceExtended)}, does not access the process, so it can be
+     * called from any thread.
+     */
+    public ServiceOperation getLastServiceOperation(CloudControllerClient client, String spaceGuid, CloudServiceInstanceExtended service) {
+        Map<String, Object> serviceInstanceEntity = serviceGetter.getServiceInstanceEntity(client, service.getName(), spaceGuid);
 
         if (MapUtils.isEmpty(serviceInstanceEntity)) {
-            return getLastDeleteServiceOperation(context, service);
+            return getLastDeleteServiceOperation(client, service);
         }
 
         return getLastServiceOperation(serviceInstanceEntity);
     }
 
-    private Map<String, Object> getServiceInstanceEntity(ProcessContext context, CloudServiceInstanceExtended service) {
-        CloudControllerClient client = context.getControllerClient();
-        return serviceGetter.getServiceInstanceEntity(client, service.getName(), context.getVariable(Variables.SPACE_GUID));
-    }
-
-    private ServiceOperation getLastDeleteServiceOperation(ProcessContext context, CloudServiceInstanceExtended service) {
+    private ServiceOperation getLastDeleteServiceOperation(CloudControllerClient client, CloudServiceInstanceExtended service) {
         if (service.getMetadata() == null) {
             return null;
         }
-        boolean isServiceDeleted = isServiceDeleted(context, service.getMetadata()
-                                                                    .getGuid());
+        boolean isServiceDeleted = isServiceDeleted(client, service.getMetadata()
+                                                                   .getGuid());
         ServiceOperation.State operationState = isServiceDeleted ? ServiceOperation.State.SUCCEEDED : ServiceOperation.State.IN_PROGRESS;
         return new ServiceOperation(ServiceOperation.Type.DELETE, ServiceOperation.Type.DELETE.name(), operationState);
     }
 
-    private boolean isServiceDeleted(ProcessContext context, UUID uuid) {
-        List<CloudEvent> serviceEvent = eventsGetter.getEvents(uuid, context.getControllerClient());
+    private boolean isServiceDeleted(CloudControllerClient client, UUID uuid) {
+        List<CloudEvent> serviceEvent = eventsGetter.getEvents(uuid, client);
         return serviceEvent.stream()
                            .filter(Objects::nonNull)
                            .anyMatch(cloudEvent -> eventsGetter.isDeleteEvent(cloudEvent.getType()));
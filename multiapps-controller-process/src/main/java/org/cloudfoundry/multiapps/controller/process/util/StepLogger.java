@@ -2,12 +2,14 @@ package org.cloudfoundry.multiapps.controller.process.util;
 
 import java.text.MessageFormat;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.cloudfoundry.multiapps.common.SLException;
 import org.cloudfoundry.multiapps.controller.core.persistence.service.ProgressMessageService;
 import org.cloudfoundry.multiapps.controller.core.util.UserMessageLogger;
 import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableProgressMessage;
+import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage;
 import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage.ProgressMessageType;
 import org.cloudfoundry.multiapps.controller.persistence.services.ProcessLogger;
 import org.cloudfoundry.multiapps.controller.persistence.services.ProcessLoggerProvider;
@@ -27,11 +29,22 @@ public class StepLogger implements UserMessageLogger {
     protected final ProgressMessageService progressMessageService;
     protected final ProcessLoggerProvider processLoggerProvider;
     protected final Logger simpleStepLogger;
+    private final ProgressMessageWriter progressMessageWriter;
 
     public StepLogger(DelegateExecution execution, ProgressMessageService progressMessageService,
                       ProcessLoggerProvider processLoggerProvider, Logger simpleStepLogger) {
+        this(execution, progressMessageService, null, processLoggerProvider, simpleStepLogger);
+    }
+
+    /**
+     * @param progressMessageWriter writer, through which the progress messages are persisted asynchronously. If null, they are persisted
+     *        synchronously through the progress message service.
+     */
+    public StepLogger(DelegateExecution execution, ProgressMessageService progressMessageService,
+                      ProgressMessageWriter progressMessageWriter, ProcessLoggerProvider processLoggerProvider, Logger simpleStepLogger) {
         this.execution = execution;
         this.progressMessageService = progressMessageService;
+        this.progressMessageWriter = progressMessageWriter;
         this.processLoggerProvider = processLoggerProvider;
         this.simpleStepLogger = simpleStepLogger;
     }
@@ -162,18 +175,32 @@ public class StepLogger implements UserMessageLogger {
     private void sendProgressMessage(String message, ProgressMessageType type) {
         try {
             String taskId = VariableHandling.get(execution, Variables.TASK_ID);
-            progressMessageService.add(ImmutableProgressMessage.builder()
-                                                               .processId(VariableHandling.get(execution, Variables.CORRELATION_ID))
-                                                               .taskId(taskId)
-                                                               .type(type)
-                                                               .text(message)
-                                                               .build());
-
+            ProgressMessage progressMessage = ImmutableProgressMessage.builder()
+                                                                      .processId(VariableHandling.get(execution, Variables.CORRELATION_ID))
+                                                                      .taskId(taskId)
+                                                                      .type(type)
+                                                                      .text(message)
+                                                                      .build();
+            if (progressMessageWriter != null) {
+                progressMessageWriter.add(progressMessage);
+            } else {
+                progressMessageService.add(progressMessage);
+            }
         } catch (SLException e) {
             getProcessLogger().error(e);
         }
     }
 
+    /**
+     * Persists the progress messages of the process, which are still pending. Should be called before the step ends or before a progress
+     * message is persisted by other means, so that the order of the messages is preserved.
+     */
+    public void flushProgressMessages() {
+        if (progressMessageWriter != null) {
+            progressMessageWriter.flush(VariableHandling.get(execution, Variables.CORRELATION_ID));
+        }
+    }
+
     public ProcessLogger getProcessLogger() {
         return processLoggerProvider.getLogger(execution);
     }
@@ -190,9 +217,12 @@ public class StepLogger implements UserMessageLogger {
     @Named
     public static class Factory {
 
+        @Inject
+        private ProgressMessageWriter progressMessageWriter;
+
         public StepLogger create(DelegateExecution execution, ProgressMessageService progressMessageService,
                                  ProcessLoggerProvider processLoggerProvider, Logger logger) {
-            return new StepLogger(execution, progressMessageService, processLoggerProvider, logger);
+            return new StepLogger(execution, progressMessageService, progressMessageWriter, processLoggerProvider, logger);
         }
 
     }
@@ -0,0 +1,79 @@
+package org.cloudfoundry.multiapps.controller.process.variables;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.cloudfoundry.multiapps.controller.process.Messages;
+
+/**
+ * The formats, in which the values of JSON binary variables are stored. Every encoded value, except the plain JSON ones, starts with a
+ * header identifying its format, so values are always decoded in the format they were written in. That way the format of a variable can
+ * be changed at any time and values written before formats were introduced are still readable. Values are written in the plain format,
+ * unless compression is enabled in the configuration and the format is passed to {@link Variable#getSerializer(JsonBinaryFormat)}.
+ */
+public enum JsonBinaryFormat {
+
+    PLAIN {
+
+        @Override
+        public byte[] encode(byte[] json) {
+            return json;
+        }
+
+    },
+    DEFLATED {
+
+        @Override
+        public byte[] encode(byte[] json) {
+            // Compressing small values does not make them any smaller:
+            if (json.length < MIN_SIZE_TO_COMPRESS) {
+                return json;
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(json.length / 4);
+            outputStream.write(HEADER_MARKER);
+            outputStream.write(DEFLATED_FORMAT_ID);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater)) {
+                deflaterOutputStream.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                deflater.end();
+            }
+            return outputStream.toByteArray();
+        }
+
+    };
+
+    private static final int MIN_SIZE_TO_COMPRESS = 1024;
+    // UTF-8 JSON never starts with a zero byte:
+    private static final byte HEADER_MARKER = 0;
+    private static final byte DEFLATED_FORMAT_ID = 1;
+    private static final int HEADER_LENGTH = 2;
+
+    public abstract byte[] encode(byte[] json);
+
+    public static byte[] decode(byte[] encodedJson) {
+        if (encodedJson.length < HEADER_LENGTH || encodedJson[0] != HEADER_MARKER) {
+            return encodedJson;
+        }
+        if (encodedJson[1] != DEFLATED_FORMAT_ID) {
+            throw new IllegalArgumentException(MessageFormat.format(Messages.UNKNOWN_JSON_BINARY_FORMAT_0, encodedJson[1]));
+        }
+        InputStream encodedContent = new ByteArrayInputStream(encodedJson, HEADER_LENGTH, encodedJson.length - HEADER_LENGTH);
+        try (InputStream inflaterInputStream = new InflaterInputStream(encodedContent)) {
+            return IOUtils.toByteArray(inflaterInputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -1,8 +1,11 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
 import java.util.List;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.cloudfoundry.multiapps.common.util.JsonUtil;
 import org.immutables.value.Value;
 
@@ -13,14 +16,23 @@ public abstract class JsonBinaryListVariable<T> implements ListVariable<T, List<
 
     public abstract TypeReference<T> getType();
 
+    @Nullable
+    @Override
+    public abstract UnaryOperator<List<T>> getCachedValueCopier();
+
     @Override
     public Serializer<List<T>> getSerializer() {
+        return getSerializer(JsonBinaryFormat.PLAIN);
+    }
+
+    @Override
+    public Serializer<List<T>> getSerializer(JsonBinaryFormat format) {
         return new Serializer<List<T>>() {
 
             @Override
             public Object serialize(List<T> values) {
                 return values.stream()
-                             .map(JsonUtil::toJsonBinary)
+                             .map(value -> format.encode(JsonUtil.toJsonBinary(value)))
                              .collect(Collectors.toList());
             }
 
@@ -29,7 +41,7 @@ public abstract class JsonBinaryListVariable<T> implements ListVariable<T, List<
             public List<T> deserialize(Object serializedValue) {
                 List<byte[]> serializedValues = (List<byte[]>) serializedValue;
                 return serializedValues.stream()
-                                       .map(value -> JsonUtil.fromJsonBinary(value, getType()))
+                                       .map(value -> JsonUtil.fromJsonBinary(JsonBinaryFormat.decode(value), getType()))
                                        .collect(Collectors.toList());
             }
 
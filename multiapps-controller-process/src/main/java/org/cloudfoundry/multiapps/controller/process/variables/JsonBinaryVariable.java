@@ -1,5 +1,9 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nullable;
+
 import org.cloudfoundry.multiapps.common.util.JsonUtil;
 import org.immutables.value.Value;
 
@@ -10,18 +14,27 @@ public abstract class JsonBinaryVariable<T> implements Variable<T> {
 
     public abstract TypeReference<T> getType();
 
+    @Nullable
+    @Override
+    public abstract UnaryOperator<T> getCachedValueCopier();
+
     @Override
     public Serializer<T> getSerializer() {
+        return getSerializer(JsonBinaryFormat.PLAIN);
+    }
+
+    @Override
+    public Serializer<T> getSerializer(JsonBinaryFormat format) {
         return new Serializer<T>() {
 
             @Override
             public Object serialize(T object) {
-                return JsonUtil.toJsonBinary(object);
+                return format.encode(JsonUtil.toJsonBinary(object));
             }
 
             @Override
             public T deserialize(Object serializedObject) {
-                return JsonUtil.fromJsonBinary((byte[]) serializedObject, getType());
+                return JsonUtil.fromJsonBinary(JsonBinaryFormat.decode((byte[]) serializedObject), getType());
             }
 
         };
@@ -1,8 +1,11 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
 import java.util.List;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.cloudfoundry.multiapps.common.util.JsonUtil;
 import org.immutables.value.Value;
 
@@ -13,6 +16,10 @@ public abstract class JsonStringListVariable<T> implements ListVariable<T, List<
 
     public abstract TypeReference<T> getType();
 
+    @Nullable
+    @Override
+    public abstract UnaryOperator<List<T>> getCachedValueCopier();
+
     @Override
     public Serializer<List<T>> getSerializer() {
         return new Serializer<List<T>>() {
@@ -1,5 +1,9 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nullable;
+
 import org.cloudfoundry.multiapps.common.util.JsonUtil;
 import org.immutables.value.Value;
 
@@ -10,6 +14,10 @@ public abstract class JsonStringVariable<T> implements Variable<T> {
 
     public abstract TypeReference<T> getType();
 
+    @Nullable
+    @Override
+    public abstract UnaryOperator<T> getCachedValueCopier();
+
     @Override
     public Serializer<T> getSerializer() {
         return new Serializer<T>() {
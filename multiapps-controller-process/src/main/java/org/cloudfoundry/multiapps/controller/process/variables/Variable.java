@@ -1,6 +1,7 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
 import java.lang.reflect.Type;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nullable;
 
@@ -27,4 +28,23 @@ public interface Variable<T> {
 
     Serializer<T> getSerializer();
 
+    /**
+     * Returns a serializer, which writes the values in the specified format. Only variables stored as JSON binary have formats, so all other
+     * variables ignore it.
+     */
+    default Serializer<T> getSerializer(JsonBinaryFormat format) {
+        return getSerializer();
+    }
+
+    /**
+     * Copies the cached deserialized value of the variable. If present, the value is reused by subsequent reads from the same execution,
+     * as long as the serialized value does not change, and each read returns a copy of it, so that callers, which modify the value they
+     * read, do not modify the cached one. Only worth it for values, which are expensive to deserialize, but cheap to copy. Values of
+     * immutable types can be cached with {@link UnaryOperator#identity()}.
+     */
+    @Nullable
+    default UnaryOperator<T> getCachedValueCopier() {
+        return null;
+    }
+
 }
@@ -1,19 +1,43 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.flowable.common.engine.api.variable.VariableContainer;
 import org.flowable.variable.api.delegate.VariableScope;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public final class VariableHandling {
 
+    /**
+     * The deserialized values of variables with a cached value copier, per execution. Only copies of the cached values are returned, so that
+     * callers, which modify a value without setting it, do not change it for the rest of the transaction. Executions are loaded anew in each
+     * transaction and the entries of the ones, which are no longer used, are removed by the garbage collector, so a value is never reused
+     * across transactions.
+     */
+    private static final Cache<VariableContainer, Map<String, CachedValue>> CACHED_VALUES = CacheBuilder.newBuilder()
+                                                                                                        .weakKeys()
+                                                                                                        .build();
+
     private VariableHandling() {
     }
 
     public static <T> void set(VariableContainer container, Variable<T> variable, T value) {
+        set(container, variable, value, JsonBinaryFormat.PLAIN);
+    }
+
+    public static <T> void set(VariableContainer container, Variable<T> variable, T value, JsonBinaryFormat jsonBinaryFormat) {
+        invalidateCachedValue(container, variable);
         if (value == null) {
             container.setVariable(variable.getName(), null);
             return;
         }
-        Serializer<T> serializer = variable.getSerializer();
+        Serializer<T> serializer = variable.getSerializer(jsonBinaryFormat);
         container.setVariable(variable.getName(), serializer.serialize(value));
     }
 
@@ -22,12 +46,78 @@ public final class VariableHandling {
         if (serializedValue == null) {
             return variable.getDefaultValue();
         }
+        if (variable.getCachedValueCopier() != null) {
+            return getCachedValue(container, variable, serializedValue);
+        }
         Serializer<T> serializer = variable.getSerializer();
         return serializer.deserialize(serializedValue);
     }
 
     public static void remove(VariableScope scope, Variable<?> variable) {
+        invalidateCachedValue(scope, variable);
         scope.removeVariable(variable.getName());
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> T getCachedValue(VariableContainer container, Variable<T> variable, Object serializedValue) {
+        Map<String, CachedValue> cachedValues = CACHED_VALUES.asMap()
+                                                             .computeIfAbsent(container, key -> new ConcurrentHashMap<>());
+        CachedValue cachedValue = cachedValues.get(variable.getName());
+        // The variable could also have been changed directly through the execution, so the cached value is only used if it was
+        // deserialized from the same content:
+        if (cachedValue != null && isSameSerializedValue(cachedValue.serializedValue, serializedValue)) {
+            return variable.getCachedValueCopier()
+                           .apply((T) cachedValue.value);
+        }
+        T value = variable.getSerializer()
+                          .deserialize(serializedValue);
+        cachedValues.put(variable.getName(), new CachedValue(serializedValue, value));
+        return variable.getCachedValueCopier()
+                       .apply(value);
+    }
+
+    private static void invalidateCachedValue(VariableContainer container, Variable<?> variable) {
+        Map<String, CachedValue> cachedValues = CACHED_VALUES.getIfPresent(container);
+        if (cachedValues != null) {
+            cachedValues.remove(variable.getName());
+        }
+    }
+
+    private static boolean isSameSerializedValue(Object serializedValue, Object otherSerializedValue) {
+        if (serializedValue == otherSerializedValue) {
+            return true;
+        }
+        if (serializedValue instanceof byte[] && otherSerializedValue instanceof byte[]) {
+            return Arrays.equals((byte[]) serializedValue, (byte[]) otherSerializedValue);
+        }
+        if (serializedValue instanceof List && otherSerializedValue instanceof List) {
+            return isSameSerializedValue((List<?>) serializedValue, (List<?>) otherSerializedValue);
+        }
+        return Objects.equals(serializedValue, otherSerializedValue);
+    }
+
+    private static boolean isSameSerializedValue(List<?> serializedValues, List<?> otherSerializedValues) {
+        if (serializedValues.size() != otherSerializedValues.size()) {
+            return false;
+        }
+        for (int i = 0; i < serializedValues.size(); i++) {
+            if (!isSameSerializedValue(serializedValues.get(i), otherSerializedValues.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CachedValue {
+
+        private final Object serializedValue;
+        private final Object value;
+
+        CachedValue(Object serializedValue, Object value) {
+            this.serializedValue = serializedValue;
+            this.value = value;
+        }
+
+    }
+
 }
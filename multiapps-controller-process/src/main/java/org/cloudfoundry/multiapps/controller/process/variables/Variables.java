@@ -1,11 +1,14 @@
 package org.cloudfoundry.multiapps.controller.process.variables;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import org.cloudfoundry.client.lib.StartingInfo;
 import org.cloudfoundry.client.lib.domain.CloudApplication;
@@ -29,6 +32,7 @@ import org.cloudfoundry.multiapps.controller.core.model.SubprocessPhase;
 import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 import org.cloudfoundry.multiapps.controller.process.DeployStrategy;
 import org.cloudfoundry.multiapps.controller.process.steps.StepPhase;
+import org.cloudfoundry.multiapps.controller.process.util.ArchiveEntryWithStreamPositions;
 import org.cloudfoundry.multiapps.controller.process.util.ServiceAction;
 import org.cloudfoundry.multiapps.mta.model.DeploymentDescriptor;
 import org.cloudfoundry.multiapps.mta.model.ExtensionDescriptor;
@@ -40,6 +44,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 public interface Variables {
 
+    // The modules are mutable, so the cached lists of modules are copied together with their elements:
+    UnaryOperator<List<Module>> MODULES_COPIER = modules -> modules.stream()
+                                                                   .map(Module::copyOf)
+                                                                   .collect(Collectors.toList());
+
     Variable<String> CORRELATION_ID = ImmutableSimpleVariable.<String> builder()
                                                              .name("correlationId")
                                                              .build();
@@ -268,18 +277,22 @@ public interface Variables {
     Variable<DeploymentDescriptor> DEPLOYMENT_DESCRIPTOR = ImmutableJsonStringVariable.<DeploymentDescriptor> builder()
                                                                                       .name("mtaDeploymentDescriptor")
                                                                                       .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                      .cachedValueCopier(DeploymentDescriptor::copyOf)
                                                                                       .build();
     Variable<DeploymentDescriptor> DEPLOYMENT_DESCRIPTOR_WITH_SYSTEM_PARAMETERS = ImmutableJsonStringVariable.<DeploymentDescriptor> builder()
                                                                                                              .name("mtaDeploymentDescriptorWithSystemParameters")
                                                                                                              .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                                             .cachedValueCopier(DeploymentDescriptor::copyOf)
                                                                                                              .build();
     Variable<DeploymentDescriptor> COMPLETE_DEPLOYMENT_DESCRIPTOR = ImmutableJsonStringVariable.<DeploymentDescriptor> builder()
                                                                                                .name("completeMtaDeploymentDescriptor")
                                                                                                .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                               .cachedValueCopier(DeploymentDescriptor::copyOf)
                                                                                                .build();
     Variable<CloudApplicationExtended> APP_TO_PROCESS = ImmutableJsonStringVariable.<CloudApplicationExtended> builder()
                                                                                    .name("appToProcess")
                                                                                    .type(Variable.typeReference(CloudApplicationExtended.class))
+                                                                                   .cachedValueCopier(UnaryOperator.identity())
                                                                                    .build();
     Variable<MtaArchiveElements> MTA_ARCHIVE_ELEMENTS = ImmutableJsonStringVariable.<MtaArchiveElements> builder()
                                                                                    .name("mtaArchiveElements")
@@ -289,6 +302,7 @@ public interface Variables {
     Variable<CloudServiceInstanceExtended> SERVICE_TO_PROCESS = ImmutableJsonStringVariable.<CloudServiceInstanceExtended> builder()
                                                                                            .name("serviceToProcess")
                                                                                            .type(Variable.typeReference(CloudServiceInstanceExtended.class))
+                                                                                           .cachedValueCopier(UnaryOperator.identity())
                                                                                            .build();
     Variable<UploadToken> UPLOAD_TOKEN = ImmutableJsonStringVariable.<UploadToken> builder()
                                                                     .name("uploadToken")
@@ -345,6 +359,12 @@ public interface Variables {
                                                                    .name("moduleToDeploy")
                                                                    .type(Variable.typeReference(Module.class))
                                                                    .build();
+    Variable<List<ArchiveEntryWithStreamPositions>> MODULES_CONTENT_POSITIONS = ImmutableJsonBinaryVariable.<List<ArchiveEntryWithStreamPositions>> builder()
+                                                                                                          .name("modulesContentPositions")
+                                                                                                          .type(new TypeReference<List<ArchiveEntryWithStreamPositions>>() {
+                                                                                                          })
+                                                                                                          .defaultValue(Collections.emptyList())
+                                                                                                          .build();
     Variable<Set<String>> MTA_ARCHIVE_MODULES = ImmutableJsonBinaryVariable.<Set<String>> builder()
                                                                            .name("mtaArchiveModules")
                                                                            .type(new TypeReference<Set<String>>() {
@@ -375,6 +395,7 @@ public interface Variables {
                                                                                                .name("servicesToPoll")
                                                                                                .type(new TypeReference<List<CloudServiceInstanceExtended>>() {
                                                                                                })
+                                                                                               .cachedValueCopier(ArrayList::new)
                                                                                                .build();
     Variable<CloudTask> STARTED_TASK = ImmutableJsonBinaryVariable.<CloudTask> builder()
                                                                   .name("startedTask")
@@ -419,6 +440,7 @@ public interface Variables {
                                                                                             .type(new TypeReference<List<CloudServiceInstanceExtended>>() {
                                                                                             })
                                                                                             .defaultValue(Collections.emptyList())
+                                                                                            .cachedValueCopier(ArrayList::new)
                                                                                             .build();
     Variable<Map<String, String>> GIT_REPOSITORY_CONFIG_MAP = ImmutableSimpleVariable.<Map<String, String>> builder()
                                                                                      .name("gitRepositoryConfigMap")
@@ -478,16 +500,19 @@ public interface Variables {
                                                                                        .name("appsToUndeploy")
                                                                                        .type(Variable.typeReference(CloudApplication.class))
                                                                                        .defaultValue(Collections.emptyList())
+                                                                                       .cachedValueCopier(ArrayList::new)
                                                                                        .build();
     Variable<List<CloudServiceInstanceExtended>> SERVICES_TO_BIND = ImmutableJsonStringListVariable.<CloudServiceInstanceExtended> builder()
                                                                                                    .name("servicesToBind")
                                                                                                    .type(Variable.typeReference(CloudServiceInstanceExtended.class))
                                                                                                    .defaultValue(Collections.emptyList())
+                                                                                                   .cachedValueCopier(ArrayList::new)
                                                                                                    .build();
     Variable<List<CloudServiceInstanceExtended>> SERVICES_TO_CREATE = ImmutableJsonStringListVariable.<CloudServiceInstanceExtended> builder()
                                                                                                      .name("servicesToCreate")
                                                                                                      .type(Variable.typeReference(CloudServiceInstanceExtended.class))
                                                                                                      .defaultValue(Collections.emptyList())
+                                                                                                     .cachedValueCopier(ArrayList::new)
                                                                                                      .build();
     Variable<List<Hook>> HOOKS_FOR_EXECUTION = ImmutableJsonStringListVariable.<Hook> builder()
                                                                               .name("hooksForExecution")
@@ -498,26 +523,31 @@ public interface Variables {
                                                                               .name("modulesToDeploy")
                                                                               .type(Variable.typeReference(Module.class))
                                                                               .defaultValue(Collections.emptyList())
+                                                                              .cachedValueCopier(MODULES_COPIER)
                                                                               .build();
     Variable<List<Module>> ALL_MODULES_TO_DEPLOY = ImmutableJsonBinaryListVariable.<Module> builder()
                                                                                   .name("allModulesToDeploy")
                                                                                   .type(Variable.typeReference(Module.class))
                                                                                   .defaultValue(Collections.emptyList())
+                                                                                  .cachedValueCopier(MODULES_COPIER)
                                                                                   .build();
     Variable<List<Module>> ITERATED_MODULES_IN_PARALLEL = ImmutableJsonBinaryListVariable.<Module> builder()
                                                                                          .name("iteratedModulesInParallel")
                                                                                          .type(Variable.typeReference(Module.class))
                                                                                          .defaultValue(Collections.emptyList())
+                                                                                         .cachedValueCopier(MODULES_COPIER)
                                                                                          .build();
     Variable<List<Module>> MODULES_TO_ITERATE_IN_PARALLEL = ImmutableJsonBinaryListVariable.<Module> builder()
                                                                                            .name("modulesToIterateInParallel")
                                                                                            .type(Variable.typeReference(Module.class))
                                                                                            .defaultValue(Collections.emptyList())
+                                                                                           .cachedValueCopier(MODULES_COPIER)
                                                                                            .build();
     Variable<List<FileEntry>> FILE_ENTRIES = ImmutableJsonBinaryListVariable.<FileEntry> builder()
                                                                             .name("fileEntries")
                                                                             .type(Variable.typeReference(FileEntry.class))
                                                                             .defaultValue(Collections.emptyList())
+                                                                            .cachedValueCopier(ArrayList::new)
                                                                             .build();
     Variable<List<ExtensionDescriptor>> MTA_EXTENSION_DESCRIPTOR_CHAIN = ImmutableJsonBinaryListVariable.<ExtensionDescriptor> builder()
                                                                                                         .name("mtaExtensionDescriptorChain")
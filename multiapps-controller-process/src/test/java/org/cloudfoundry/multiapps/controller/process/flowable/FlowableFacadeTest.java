@@ -1,16 +1,32 @@
 package org.cloudfoundry.multiapps.controller.process.flowable;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.ManagementService;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.ProcessEngineConfiguration;
 import org.flowable.job.service.impl.asyncexecutor.DefaultAsyncJobExecutor;
+import org.flowable.variable.api.history.HistoricVariableInstance;
+import org.flowable.variable.api.history.NativeHistoricVariableInstanceQuery;
+import org.flowable.variable.service.impl.persistence.entity.HistoricVariableInstanceEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 class FlowableFacadeTest {
 
+    private static final String CORRELATION_ID = "correlation-id";
+    private static final String VARIABLE_NAME = "publishedEntries";
+
     private FlowableFacade flowableFacade;
 
     @Mock
@@ -22,6 +38,15 @@ class FlowableFacadeTest {
     @Mock
     ProcessEngineConfiguration mockedProcessEngineConfiguration;
 
+    @Mock
+    ManagementService mockedManagementService;
+
+    @Mock
+    HistoryService mockedHistoryService;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    NativeHistoricVariableInstanceQuery mockedNativeVariableQuery;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -31,6 +56,11 @@ class FlowableFacadeTest {
         Mockito.when(mockedProcessEngine.getProcessEngineConfiguration())
                .thenReturn(mockedProcessEngineConfiguration);
 
+        Mockito.when(mockedProcessEngine.getManagementService())
+               .thenReturn(mockedManagementService);
+        Mockito.when(mockedProcessEngine.getHistoryService())
+               .thenReturn(mockedHistoryService);
+
         flowableFacade = new FlowableFacade(mockedProcessEngine);
     }
 
@@ -41,4 +71,37 @@ class FlowableFacadeTest {
                .shutdown();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testVariablesOfAllSubProcessesAreFoundWithSingleQuery() {
+        List<HistoricVariableInstance> variables = Arrays.asList(Mockito.mock(HistoricVariableInstance.class),
+                                                                 Mockito.mock(HistoricVariableInstance.class),
+                                                                 Mockito.mock(HistoricVariableInstance.class));
+        Mockito.when(mockedManagementService.getTableName(HistoricVariableInstanceEntity.class))
+               .thenReturn("ACT_HI_VARINST");
+        Mockito.when(mockedManagementService.executeCommand(Mockito.any(Command.class)))
+               .thenAnswer(invocation -> ((Command<?>) invocation.getArgument(0)).execute(Mockito.mock(CommandContext.class)));
+        Mockito.when(mockedHistoryService.createNativeHistoricVariableInstanceQuery())
+               .thenReturn(mockedNativeVariableQuery);
+        Mockito.doReturn(variables)
+               .when(mockedNativeVariableQuery)
+               .list();
+
+        List<HistoricVariableInstance> result = flowableFacade.getHistoricVariableInstancesOfOperation(CORRELATION_ID, VARIABLE_NAME);
+
+        assertEquals(variables, result);
+        Mockito.verify(mockedNativeVariableQuery)
+               .parameter("variableName", VARIABLE_NAME);
+        Mockito.verify(mockedNativeVariableQuery)
+               .parameter("correlationId", CORRELATION_ID);
+        Mockito.verify(mockedNativeVariableQuery, Mockito.times(1))
+               .list();
+        Mockito.verify(mockedHistoryService, Mockito.never())
+               .createHistoricVariableInstanceQuery();
+        for (HistoricVariableInstance variable : variables) {
+            Mockito.verify(variable)
+                   .getValue();
+        }
+    }
+
 }
@@ -79,7 +79,7 @@ public class CheckForOperationsInProgressStepTest extends SyncFlowableStepTest<C
 
     private void prepareServiceInstanceGetter(CloudServiceInstanceExtended service, ServiceOperation serviceOperation) {
         if (serviceOperation != null) {
-            when(serviceOperationGetter.getLastServiceOperation(any(), eq(service))).thenReturn(serviceOperation);
+            when(serviceOperationGetter.getLastServiceOperation(any(), any(), eq(service))).thenReturn(serviceOperation);
         }
     }
 
@@ -99,7 +99,7 @@ public class CheckServicesToDeleteStepTest extends SyncFlowableStepTest<CheckSer
             ServiceOperation serviceOperation = new ServiceOperation(ServiceOperation.Type.DELETE,
                                                                      "",
                                                                      servicesOperationState.get(serviceName));
-            when(serviceOperationGetter.getLastServiceOperation(any(),
+            when(serviceOperationGetter.getLastServiceOperation(any(), any(),
                                                                 argThat(new CloudServiceExtendedMatcher(serviceName)))).thenReturn(serviceOperation);
         }
     }
@@ -88,11 +88,12 @@ public class DeleteDiscontinuedConfigurationEntriesStepTest extends SyncFlowable
         context.setVariable(Variables.SPACE_GUID, stepInput.spaceId);
         Mockito.when(execution.getProcessInstanceId())
                .thenReturn("process-instance-id");
-        Mockito.when(flowableFacadeFacade.getHistoricSubProcessIds(Mockito.any()))
-               .thenReturn(Collections.singletonList("test-subprocess-id"));
         HistoricVariableInstance varInstanceMock = Mockito.mock(HistoricVariableInstance.class);
-        Mockito.when(flowableFacadeFacade.getHistoricVariableInstance("test-subprocess-id", Variables.PUBLISHED_ENTRIES.getName()))
-               .thenReturn(varInstanceMock);
+        Mockito.when(varInstanceMock.getProcessInstanceId())
+               .thenReturn("test-subprocess-id");
+        Mockito.when(flowableFacadeFacade.getHistoricVariableInstancesOfOperation(Mockito.any(),
+                                                                                  Mockito.eq(Variables.PUBLISHED_ENTRIES.getName())))
+               .thenReturn(Collections.singletonList(varInstanceMock));
         Mockito.when(varInstanceMock.getValue())
                .thenReturn(getBytes(stepInput.publishedEntries));
         HistoricVariableInstance varInstanceMockDeletedEntries = Mockito.mock(HistoricVariableInstance.class);
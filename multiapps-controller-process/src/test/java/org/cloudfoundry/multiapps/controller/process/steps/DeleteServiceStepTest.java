@@ -240,7 +240,7 @@ public class DeleteServiceStepTest extends SyncFlowableStepTest<DeleteServiceSte
     @Override
     protected DeleteServiceStep createStep() {
         serviceOperationGetter = new ServiceOperationGetter(serviceGetter, eventsGetter);
-        return new DeleteServiceStep(serviceOperationGetter, serviceProgressReporter, serviceRemover);
+        return new DeleteServiceStep(serviceOperationGetter, serviceProgressReporter, serviceRemover, cloudControllerCallsExecutor);
     }
 
 }
@@ -17,7 +17,6 @@ import org.cloudfoundry.multiapps.controller.client.lib.domain.RestartParameters
 import org.cloudfoundry.multiapps.controller.core.cf.apps.ApplicationStartupState;
 import org.cloudfoundry.multiapps.controller.core.cf.apps.ApplicationStartupStateCalculator;
 import org.cloudfoundry.multiapps.controller.core.cf.apps.ApplicationStateAction;
-import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.junit.Before;
 import org.junit.Rule;
@@ -40,9 +39,6 @@ public abstract class DetermineDesiredStateAchievingActionsStepBaseTest
     @Mock
     protected ApplicationStartupStateCalculator appStateCalculator;
 
-    @Mock
-    protected ApplicationConfiguration configuration;
-
     @Rule
     public final ExpectedException expectedException = ExpectedException.none();
 
@@ -60,7 +56,6 @@ public abstract class DetermineDesiredStateAchievingActionsStepBaseTest
     public void setUp() {
         prepareContext();
         prepareAppStepCalculator();
-        prepareStep();
         prepareClient();
     }
 
@@ -71,10 +66,6 @@ public abstract class DetermineDesiredStateAchievingActionsStepBaseTest
 
     protected abstract RestartParameters getRestartParameters();
 
-    private void prepareStep() {
-        step.configuration = configuration;
-    }
-
     private void prepareContext() {
         context.setVariable(Variables.APP_CONTENT_CHANGED, hasAppChanged);
         context.setVariable(Variables.NO_START, false);
@@ -144,7 +144,7 @@ public class PollServiceInProgressOperationsExecutionTest extends AsyncStepOpera
             ServiceOperation.Type serviceOperationType = servicesOperationTypes.get(i);
             ServiceOperation.State serviceOperationState = servicesOperationStates.get(i);
             if (serviceOperationType != null && serviceOperationState != null) {
-                when(serviceOperationGetter.getLastServiceOperation(any(),
+                when(serviceOperationGetter.getLastServiceOperation(any(), any(),
                                                                     eq(service))).thenReturn(new ServiceOperation(serviceOperationType,
                                                                                                                   "",
                                                                                                                   serviceOperationState));
@@ -124,7 +124,7 @@ public class PollServiceOperationsStepTest extends AsyncStepOperationTest<Create
             Map<String, Object> serviceOperationAsMap = (Map<String, Object>) serviceInstanceResponse.get(ServiceOperation.LAST_SERVICE_OPERATION);
             CloudServiceInstanceExtended service = getCloudServiceExtended(response);
 
-            when(serviceOperationGetter.getLastServiceOperation(any(),
+            when(serviceOperationGetter.getLastServiceOperation(any(), any(),
                                                                 eq(service))).thenReturn(ServiceOperation.fromMap(serviceOperationAsMap));
 
         }
@@ -30,7 +30,7 @@ public class PrepareToUndeployStepTest extends SyncFlowableStepTest<PrepareToUnd
         context.setVariable(Variables.MTA_ID, MTA_ID);
 
         step.conflictPreventerSupplier = service -> mock(ProcessConflictPreventer.class);
-        Mockito.when(flowableFacadeFacade.getHistoricSubProcessIds(Mockito.any()))
+        Mockito.when(flowableFacadeFacade.getHistoricVariableInstancesOfOperation(Mockito.any(), Mockito.any()))
                .thenReturn(Collections.emptyList());
     }
 
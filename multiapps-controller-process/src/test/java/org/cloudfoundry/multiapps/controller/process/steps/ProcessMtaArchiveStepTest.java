@@ -3,10 +3,13 @@ package org.cloudfoundry.multiapps.controller.process.steps;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.jar.Manifest;
@@ -19,11 +22,15 @@ import org.cloudfoundry.multiapps.controller.core.helpers.DescriptorParserFacade
 import org.cloudfoundry.multiapps.controller.core.helpers.MtaArchiveHelper;
 import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileContentConsumer;
+import org.cloudfoundry.multiapps.controller.process.util.ArchiveEntriesIndexer;
+import org.cloudfoundry.multiapps.controller.process.util.ArchiveEntryWithStreamPositions;
+import org.cloudfoundry.multiapps.controller.process.util.ImmutableArchiveEntryWithStreamPositions;
 import org.cloudfoundry.multiapps.controller.process.util.ProcessConflictPreventer;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.cloudfoundry.multiapps.mta.handlers.DescriptorParserFacade;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -34,8 +41,18 @@ public class ProcessMtaArchiveStepTest extends SyncFlowableStepTest<ProcessMtaAr
 
     private static final String FILE_ID = "0";
 
+    // The names of the module files are the same as the names of the modules, returned by the mocked archive helper:
+    private static final List<ArchiveEntryWithStreamPositions> ARCHIVE_ENTRIES = Arrays.asList(createArchiveEntry("test-module1", 0, 100),
+                                                                                               createArchiveEntry("test-module10", 100, 150),
+                                                                                               createArchiveEntry("test-module2/", 150, 160),
+                                                                                               createArchiveEntry("test-module2/index.js", 160,
+                                                                                                                  200));
+
     private final StepInput input;
 
+    @Mock
+    private ArchiveEntriesIndexer archiveEntriesIndexer;
+
     public ProcessMtaArchiveStepTest() throws ParsingException {
         String json = TestUtil.getResourceAsString("process-mta-archive-step-1.json", getClass());
         this.input = JsonUtil.fromJson(json, StepInput.class);
@@ -53,6 +70,7 @@ public class ProcessMtaArchiveStepTest extends SyncFlowableStepTest<ProcessMtaAr
         context.setVariable(Variables.APP_ARCHIVE_ID, FILE_ID);
         context.setVariable(Variables.SPACE_GUID, SPACE_ID);
         step.conflictPreventerSupplier = service -> mock(ProcessConflictPreventer.class);
+        when(archiveEntriesIndexer.indexArchiveEntries(anyString(), anyString())).thenReturn(ARCHIVE_ENTRIES);
     }
 
     private void prepareFileService() throws Exception {
@@ -84,6 +102,22 @@ public class ProcessMtaArchiveStepTest extends SyncFlowableStepTest<ProcessMtaAr
         testModules();
         testResources();
         testDependencies();
+        testModulesContentPositions();
+    }
+
+    private void testModulesContentPositions() {
+        Set<ArchiveEntryWithStreamPositions> expectedPositions = new HashSet<>(Arrays.asList(createArchiveEntry("test-module1", 0, 100),
+                                                                                             createArchiveEntry("test-module2", 150, 200)));
+
+        assertEquals(expectedPositions, new HashSet<>(context.getVariable(Variables.MODULES_CONTENT_POSITIONS)));
+    }
+
+    private static ArchiveEntryWithStreamPositions createArchiveEntry(String name, long startPosition, long endPosition) {
+        return ImmutableArchiveEntryWithStreamPositions.builder()
+                                                       .name(name)
+                                                       .startPosition(startPosition)
+                                                       .endPosition(endPosition)
+                                                       .build();
     }
 
     private void testModules() {
@@ -4,26 +4,36 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.cloudfoundry.client.lib.domain.ImmutableUploadToken;
 import org.cloudfoundry.client.lib.domain.UploadToken;
 import org.cloudfoundry.multiapps.common.SLException;
+import org.cloudfoundry.multiapps.common.util.JsonUtil;
 import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudApplicationExtended;
 import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInstanceExtended;
 import org.cloudfoundry.multiapps.controller.client.lib.domain.ImmutableCloudApplicationExtended;
 import org.cloudfoundry.multiapps.controller.client.lib.domain.ImmutableCloudServiceInstanceExtended;
+import org.cloudfoundry.multiapps.controller.core.cf.CloudControllerClientProvider;
+import org.cloudfoundry.multiapps.controller.core.model.ConfigurationEntry;
 import org.cloudfoundry.multiapps.controller.core.model.Phase;
+import org.cloudfoundry.multiapps.controller.process.flowable.FlowableFacade;
 import org.cloudfoundry.multiapps.controller.process.mock.MockDelegateExecution;
+import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
+import org.cloudfoundry.multiapps.controller.process.variables.JsonBinaryFormat;
 import org.cloudfoundry.multiapps.controller.process.variables.VariableHandling;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.variable.api.history.HistoricVariableInstance;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 public class StepsUtilTest {
 
@@ -38,6 +48,39 @@ public class StepsUtilTest {
         assertEquals(EXAMPLE_USER, determinedUser);
     }
 
+    @Test
+    public void testGetPublishedEntriesFromSubProcesses() {
+        String correlationId = "correlation-id";
+        VariableHandling.set(execution, Variables.CORRELATION_ID, correlationId);
+        FlowableFacade flowableFacade = Mockito.mock(FlowableFacade.class);
+        List<HistoricVariableInstance> publishedEntries = Arrays.asList(createPublishedEntries(correlationId, "main-entry"),
+                                                                        createPublishedEntries("subprocess-1", "first-entry"),
+                                                                        createPublishedEntries("subprocess-2", "second-entry"));
+        Mockito.when(flowableFacade.getHistoricVariableInstancesOfOperation(correlationId, Variables.PUBLISHED_ENTRIES.getName()))
+               .thenReturn(publishedEntries);
+        ProcessContext context = new ProcessContext(execution, Mockito.mock(StepLogger.class),
+                                                    Mockito.mock(CloudControllerClientProvider.class));
+
+        List<ConfigurationEntry> result = StepsUtil.getPublishedEntriesFromSubProcesses(context, flowableFacade);
+
+        assertEquals(Arrays.asList("first-entry", "second-entry"), result.stream()
+                                                                         .map(ConfigurationEntry::getProviderId)
+                                                                         .collect(Collectors.toList()));
+        Mockito.verify(flowableFacade, Mockito.times(1))
+               .getHistoricVariableInstancesOfOperation(correlationId, Variables.PUBLISHED_ENTRIES.getName());
+        Mockito.verifyNoMoreInteractions(flowableFacade);
+    }
+
+    private HistoricVariableInstance createPublishedEntries(String processInstanceId, String providerId) {
+        ConfigurationEntry entry = new ConfigurationEntry(providerId, null);
+        HistoricVariableInstance variable = Mockito.mock(HistoricVariableInstance.class);
+        Mockito.when(variable.getProcessInstanceId())
+               .thenReturn(processInstanceId);
+        Mockito.when(variable.getValue())
+               .thenReturn(JsonUtil.toJsonBinary(new ConfigurationEntry[] { entry }));
+        return variable;
+    }
+
     @Test
     public void testDetermineCurrentUserError() {
         Assertions.assertThrows(SLException.class, () -> StepsUtil.determineCurrentUser(execution));
@@ -138,4 +181,13 @@ public class StepsUtilTest {
         assertTrue(result);
     }
 
+    @Test
+    public void testGetDeflatedValueFromJsonBinary() {
+        Map<String, Object> value = new HashMap<>();
+        value.put("content", String.join("", Collections.nCopies(1024, "text")));
+        execution.setVariable("value", JsonBinaryFormat.DEFLATED.encode(JsonUtil.toJsonBinary(value)));
+
+        assertEquals(value, StepsUtil.getFromJsonBinary(execution, "value", Map.class));
+    }
+
 }
@@ -17,6 +17,7 @@ import org.cloudfoundry.multiapps.controller.persistence.services.ProcessLogsPer
 import org.cloudfoundry.multiapps.controller.persistence.services.ProcessLogsPersister;
 import org.cloudfoundry.multiapps.controller.process.flowable.FlowableFacade;
 import org.cloudfoundry.multiapps.controller.process.mock.MockDelegateExecution;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
 import org.cloudfoundry.multiapps.controller.process.util.StepLogger;
 import org.cloudfoundry.multiapps.controller.process.variables.Variables;
 import org.cloudfoundry.multiapps.mta.model.Module;
@@ -33,6 +34,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +46,7 @@ public abstract class SyncFlowableStepTest<T extends SyncFlowableStep> {
     protected static final String ORG_NAME = "org";
     protected static final String SPACE_NAME = "space";
     protected static final String SPACE_GUID = "spaceGuid";
+    private static final CloudControllerCallsExecutor CLOUD_CONTROLLER_CALLS_EXECUTOR = new CloudControllerCallsExecutor(4);
     protected final String TEST_CORRELATION_ID = "test";
     protected final String TEST_TASK_ID = "testTask";
 
@@ -53,8 +56,7 @@ public abstract class SyncFlowableStepTest<T extends SyncFlowableStep> {
     @Mock
     protected StepLogger.Factory stepLoggerFactory;
     protected StepLogger stepLogger;
-    @Mock
-    protected ProcessLogsPersistenceService processLogsPersistenceService;
+    protected final ProcessLogsPersistenceService processLogsPersistenceService = Mockito.mock(ProcessLogsPersistenceService.class);
     @Mock
     protected ProgressMessageService progressMessageService;
     @Mock
@@ -69,7 +71,9 @@ public abstract class SyncFlowableStepTest<T extends SyncFlowableStep> {
     protected ApplicationConfiguration configuration;
     @Mock
     protected ProcessEngineConfiguration processEngineConfiguration;
-    protected final ProcessLoggerProvider processLoggerProvider = Mockito.spy(ProcessLoggerProvider.class);
+    @Spy
+    protected CloudControllerCallsExecutor cloudControllerCallsExecutor = CLOUD_CONTROLLER_CALLS_EXECUTOR;
+    protected final ProcessLoggerProvider processLoggerProvider = Mockito.spy(new ProcessLoggerProvider(processLogsPersistenceService));
     @InjectMocks
     protected ProcessLogsPersister processLogsPersister = Mockito.spy(ProcessLogsPersister.class);
 
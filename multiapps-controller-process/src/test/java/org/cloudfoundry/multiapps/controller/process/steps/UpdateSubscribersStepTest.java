@@ -13,6 +13,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -173,11 +174,12 @@ public class UpdateSubscribersStepTest extends SyncFlowableStepTest<UpdateSubscr
 
         context.setVariable(Variables.USER, USER);
         step.targetCalculator = (client, spaceId) -> new CloudTarget(spaceId, spaceId);
-        Mockito.when(flowableFacadeFacade.getHistoricSubProcessIds(Mockito.any()))
-               .thenReturn(Collections.singletonList("test-subprocess-id"));
         HistoricVariableInstance varInstanceMock = Mockito.mock(HistoricVariableInstance.class);
-        Mockito.when(flowableFacadeFacade.getHistoricVariableInstance("test-subprocess-id", Variables.PUBLISHED_ENTRIES.getName()))
-               .thenReturn(varInstanceMock);
+        Mockito.when(varInstanceMock.getProcessInstanceId())
+               .thenReturn("test-subprocess-id");
+        Mockito.when(flowableFacadeFacade.getHistoricVariableInstancesOfOperation(Mockito.any(),
+                                                                                  Mockito.eq(Variables.PUBLISHED_ENTRIES.getName())))
+               .thenReturn(Collections.singletonList(varInstanceMock));
         Mockito.when(varInstanceMock.getValue())
                .thenReturn(getBytes(getPublishedEntries()));
         Mockito.when(moduleToDeployHelper.isApplication(any()))
@@ -300,9 +302,16 @@ public class UpdateSubscribersStepTest extends SyncFlowableStepTest<UpdateSubscr
         assertStepFinishedSuccessfully();
 
         StepOutput actualOutput = captureStepOutput();
+        // The environments of different applications are updated in parallel, so the order of the calls is not defined:
+        sortByName(expectedOutput.callArgumentsOfUpdateApplicationEnvMethod);
+        sortByName(actualOutput.callArgumentsOfUpdateApplicationEnvMethod);
         assertEquals(JsonUtil.toJson(expectedOutput, true), JsonUtil.toJson(actualOutput, true));
     }
 
+    private void sortByName(List<CloudApplication> applications) {
+        applications.sort(Comparator.comparing(CloudApplication::getName));
+    }
+
     private StepOutput captureStepOutput() {
         StepOutput result = new StepOutput();
         result.callArgumentsOfUpdateApplicationEnvMethod = new ArrayList<>();
@@ -251,8 +251,7 @@ public class UploadAppStepTest {
         private class UploadAppStepMock extends UploadAppStep {
 
             public UploadAppStepMock() {
-                applicationArchiveReader = getApplicationArchiveReader();
-                applicationZipBuilder = getApplicationZipBuilder(applicationArchiveReader);
+                applicationZipBuilder = getApplicationZipBuilder(getApplicationArchiveReader());
             }
 
             @Override
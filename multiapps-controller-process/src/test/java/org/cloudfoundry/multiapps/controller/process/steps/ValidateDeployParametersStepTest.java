@@ -6,14 +6,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
-import java.io.File;
 import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.cert.X509Certificate;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.cloudfoundry.multiapps.common.SLException;
@@ -40,6 +41,7 @@ public class ValidateDeployParametersStepTest extends SyncFlowableStepTest<Valid
     private static final String EXISTING_FILE_ID = "existingFileId";
     private static final String EXISTING_BIGGER_FILE_ID = "existingBiggerFileId";
     private static final String NOT_EXISTING_FILE_ID = "notExistingFileId";
+    private static final String COMPOSITE_ARCHIVE_ID = "compositeArchiveId";
     private static final String MERGED_ARCHIVE_NAME = "test-merged";
     private static final String EXCEPTION_START_MESSAGE = "Error validating parameters: ";
 
@@ -133,8 +135,9 @@ public class ValidateDeployParametersStepTest extends SyncFlowableStepTest<Valid
                .thenReturn(createFileEntry(EXISTING_BIGGER_FILE_ID, "extDescriptorFile", 1024 * 1024L + 1));
         Mockito.when(fileService.getFile("space-id", NOT_EXISTING_FILE_ID))
                .thenReturn(null);
-        Mockito.when(fileService.addFile(Mockito.eq("space-id"), Mockito.eq("namespace"), Mockito.anyString(), Mockito.any(File.class)))
-               .thenReturn(createFileEntry(EXISTING_FILE_ID, MERGED_ARCHIVE_TEST_MTAR, 1024 * 1024 * 1024L));
+        Mockito.when(fileService.addCompositeFile(Mockito.eq("space-id"), Mockito.eq("namespace"), Mockito.eq(MERGED_ARCHIVE_NAME),
+                                                  Mockito.any()))
+               .thenReturn(createFileEntry(COMPOSITE_ARCHIVE_ID, MERGED_ARCHIVE_NAME, 3 * 1024 * 1024L));
     }
 
     private static FileEntry createFileEntry(String id, String name, long size) {
@@ -158,12 +161,13 @@ public class ValidateDeployParametersStepTest extends SyncFlowableStepTest<Valid
                .thenReturn(new Configuration(ApplicationConfiguration.DEFAULT_MAX_UPLOAD_SIZE));
     }
 
-    private void validate() {
+    private void validate() throws FileStorageException {
         assertStepFinishedSuccessfully();
         if (isArchiveChunked) {
             Path mergedArchiveAbsolutePath = Paths.get(MERGED_ARCHIVE_NAME)
                                                   .toAbsolutePath();
             assertFalse(Files.exists(mergedArchiveAbsolutePath));
+            verifyCompositeArchiveIsCreated();
         }
         if (stepInput.shouldVerifyArchive) {
             List<X509Certificate> certificates = jarSignatureOperations.readCertificates(Constants.SYMANTEC_CERTIFICATE_FILE);
@@ -174,6 +178,19 @@ public class ValidateDeployParametersStepTest extends SyncFlowableStepTest<Valid
                .setVariable(Variables.APP_ARCHIVE_ID.getName(), stepInput.appArchiveId);
     }
 
+    private void verifyCompositeArchiveIsCreated() throws FileStorageException {
+        List<String> expectedPartIds = Arrays.asList(MERGED_ARCHIVE_NAME + ".part.0", MERGED_ARCHIVE_NAME + ".part.1",
+                                                     MERGED_ARCHIVE_NAME + ".part.2");
+        Mockito.verify(fileService)
+               .addCompositeFile(eq("space-id"), eq("namespace"), eq(MERGED_ARCHIVE_NAME),
+                                 Mockito.argThat(parts -> expectedPartIds.equals(parts.stream()
+                                                                                      .map(FileEntry::getId)
+                                                                                      .collect(Collectors.toList()))));
+        Mockito.verify(fileService, Mockito.never())
+               .consumeFileContent(any(), any(), any());
+        assertEquals(COMPOSITE_ARCHIVE_ID, context.getVariable(Variables.APP_ARCHIVE_ID));
+    }
+
     @Override
     protected ValidateDeployParametersStep createStep() {
         return new ValidateDeployParametersStep();
@@ -1,5 +1,6 @@
 package org.cloudfoundry.multiapps.controller.process.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -81,6 +82,18 @@ public class ApplicationZipBuilderTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("testCreateNewZip")
+    public void testDigestIsCalculatedWhileExtracting(String mtar, String fileName) {
+        ApplicationArchiveContext applicationArchiveContext = getApplicationArchiveContext(mtar, fileName);
+        ApplicationArchiveReader reader = new ApplicationArchiveReader();
+        ApplicationZipBuilder zipBuilder = new ApplicationZipBuilder(reader);
+        appPath = zipBuilder.extractApplicationInNewArchive(applicationArchiveContext);
+        String expectedDigest = reader.calculateApplicationDigest(getApplicationArchiveContext(mtar, fileName));
+        assertEquals(expectedDigest, applicationArchiveContext.getApplicationDigestCalculator()
+                                                              .getDigest());
+    }
+
     private ApplicationArchiveContext getApplicationArchiveContext(String mtar, String fileName) {
         return new ApplicationArchiveContext(getClass().getResourceAsStream(mtar), fileName, MAX_UPLOAD_FILE_SIZE);
     }
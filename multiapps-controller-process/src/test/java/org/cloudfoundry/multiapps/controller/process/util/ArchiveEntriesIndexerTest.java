@@ -0,0 +1,171 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.cloudfoundry.multiapps.common.SLException;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileContentToProcess;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.services.FileContentProcessor;
+import org.cloudfoundry.multiapps.controller.persistence.services.FileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ArchiveEntriesIndexerTest {
+
+    private static final String SPACE = "space";
+    private static final String ARCHIVE_ID = "archive";
+    private static final String SAMPLE_MTAR = "com.sap.mta.sample-1.2.1-beta.mtar";
+    private static final String SAMPLE_FLAT_MTAR = "com.sap.mta.sample-1.2.1-beta-flat.mtar";
+    private static final long MAX_UPLOAD_FILE_SIZE = 1024 * 1024 * 1024L; // 1gb
+
+    @Mock
+    private FileService fileService;
+
+    private ArchiveEntriesIndexer archiveEntriesIndexer;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        archiveEntriesIndexer = new ArchiveEntriesIndexer(fileService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { SAMPLE_MTAR, SAMPLE_FLAT_MTAR })
+    public void testIndexedEntriesCanBeReadByPosition(String mtar) throws Exception {
+        byte[] archive = IOUtils.toByteArray(getClass().getResourceAsStream(mtar));
+        prepareFileService(archive);
+
+        List<ArchiveEntryWithStreamPositions> entries = archiveEntriesIndexer.indexArchiveEntries(SPACE, ARCHIVE_ID);
+
+        assertEquals(getEntryNames(archive), entries.stream()
+                                                    .map(ArchiveEntryWithStreamPositions::getName)
+                                                    .collect(Collectors.toList()));
+        for (ArchiveEntryWithStreamPositions entry : entries) {
+            assertEntryContent(archive, entry);
+        }
+    }
+
+    @Test
+    public void testModuleDigestIsTheSameWhenReadByPosition() throws Exception {
+        byte[] archive = IOUtils.toByteArray(getClass().getResourceAsStream(SAMPLE_MTAR));
+        prepareFileService(archive);
+        String moduleFileName = "web/";
+
+        List<ArchiveEntryWithStreamPositions> entries = archiveEntriesIndexer.indexArchiveEntries(SPACE, ARCHIVE_ID);
+        List<ArchiveEntryWithStreamPositions> moduleEntries = entries.stream()
+                                                                     .filter(entry -> entry.getName()
+                                                                                           .startsWith(moduleFileName))
+                                                                     .collect(Collectors.toList());
+        int start = (int) moduleEntries.get(0)
+                                       .getStartPosition();
+        int end = (int) moduleEntries.get(moduleEntries.size() - 1)
+                                     .getEndPosition();
+
+        ApplicationArchiveReader reader = new ApplicationArchiveReader();
+        String expectedDigest = reader.calculateApplicationDigest(new ApplicationArchiveContext(new ByteArrayInputStream(archive),
+                                                                                                moduleFileName,
+                                                                                                MAX_UPLOAD_FILE_SIZE));
+        String actualDigest = reader.calculateApplicationDigest(new ApplicationArchiveContext(new ByteArrayInputStream(archive,
+                                                                                                                       start,
+                                                                                                                       end - start),
+                                                                                              moduleFileName,
+                                                                                              MAX_UPLOAD_FILE_SIZE));
+        assertEquals(expectedDigest, actualDigest);
+    }
+
+    @Test
+    public void testIndexArchiveWithZip64EndOfCentralDirectory() throws Exception {
+        // More than 65535 entries cannot be described by a regular end of central directory record:
+        int entriesCount = 0x10000;
+        ByteArrayOutputStream archiveStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(archiveStream)) {
+            for (int i = 0; i < entriesCount; i++) {
+                zipOutputStream.putNextEntry(new ZipEntry("module/" + i));
+                zipOutputStream.write(i);
+                zipOutputStream.closeEntry();
+            }
+        }
+        byte[] archive = archiveStream.toByteArray();
+        prepareFileService(archive);
+
+        List<ArchiveEntryWithStreamPositions> entries = archiveEntriesIndexer.indexArchiveEntries(SPACE, ARCHIVE_ID);
+
+        assertEquals(entriesCount, entries.size());
+        assertEntryContent(archive, entries.get(entriesCount - 1));
+    }
+
+    @Test
+    public void testIndexInvalidArchive() throws Exception {
+        prepareFileService("not an archive".getBytes());
+
+        assertThrows(SLException.class, () -> archiveEntriesIndexer.indexArchiveEntries(SPACE, ARCHIVE_ID));
+    }
+
+    private void prepareFileService(byte[] archive) throws Exception {
+        when(fileService.getFile(SPACE, ARCHIVE_ID)).thenReturn(ImmutableFileEntry.builder()
+                                                                                  .id(ARCHIVE_ID)
+                                                                                  .space(SPACE)
+                                                                                  .size(BigInteger.valueOf(archive.length))
+                                                                                  .build());
+        when(fileService.processFileContentRange(any(), any())).thenAnswer(invocation -> {
+            FileContentToProcess fileContentToProcess = invocation.getArgument(0);
+            FileContentProcessor<?> fileContentProcessor = invocation.getArgument(1);
+            InputStream rangeStream = new ByteArrayInputStream(archive, (int) fileContentToProcess.getStartOffset(),
+                                                               (int) fileContentToProcess.getLength());
+            return fileContentProcessor.process(rangeStream);
+        });
+    }
+
+    private List<String> getEntryNames(byte[] archive) throws IOException {
+        List<String> entryNames = new ArrayList<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            for (ZipEntry zipEntry; (zipEntry = zipInputStream.getNextEntry()) != null;) {
+                entryNames.add(zipEntry.getName());
+            }
+        }
+        return entryNames;
+    }
+
+    private void assertEntryContent(byte[] archive, ArchiveEntryWithStreamPositions entry) throws IOException {
+        int length = (int) (entry.getEndPosition() - entry.getStartPosition());
+        try (ZipInputStream rangeStream = new ZipInputStream(new ByteArrayInputStream(archive, (int) entry.getStartPosition(), length))) {
+            ZipEntry zipEntry = rangeStream.getNextEntry();
+            assertEquals(entry.getName(), zipEntry.getName());
+            assertArrayEquals(readEntryContent(archive, entry.getName()), IOUtils.toByteArray(rangeStream));
+        }
+    }
+
+    private byte[] readEntryContent(byte[] archive, String entryName) throws IOException {
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            for (ZipEntry zipEntry; (zipEntry = zipInputStream.getNextEntry()) != null;) {
+                if (zipEntry.getName()
+                            .equals(entryName)) {
+                    return IOUtils.toByteArray(zipInputStream);
+                }
+            }
+        }
+        throw new IllegalStateException(entryName);
+    }
+
+}
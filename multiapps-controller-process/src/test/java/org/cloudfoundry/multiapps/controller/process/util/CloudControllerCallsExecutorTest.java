@@ -0,0 +1,204 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.cloudfoundry.client.lib.CloudControllerClient;
+import org.cloudfoundry.multiapps.controller.client.lib.domain.CloudServiceInstanceExtended;
+import org.cloudfoundry.multiapps.controller.client.lib.domain.ImmutableCloudServiceInstanceExtended;
+import org.cloudfoundry.multiapps.controller.core.cf.clients.EventsGetter;
+import org.cloudfoundry.multiapps.controller.core.cf.clients.ServiceGetter;
+import org.cloudfoundry.multiapps.controller.core.model.ServiceOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CloudControllerCallsExecutorTest {
+
+    private static final int THREADS = 4;
+    private static final int SERVICES_COUNT = 8;
+    private static final long LATENCY_IN_MILLIS = 200;
+    private static final int PROCESSES_COUNT = 6;
+    private static final String SPACE_GUID = "space-guid";
+
+    @Mock
+    private CloudControllerClient client;
+    @Mock
+    private ServiceGetter serviceGetter;
+    @Mock
+    private EventsGetter eventsGetter;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CloudControllerCallsExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        executor = new CloudControllerCallsExecutor(THREADS, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testPollingLatencyIsBoundedBySlowestBatchOfCalls() {
+        when(serviceGetter.getServiceInstanceEntity(eq(client), anyString(), eq(SPACE_GUID))).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(LATENCY_IN_MILLIS);
+            return Collections.singletonMap(ServiceOperation.LAST_SERVICE_OPERATION,
+                                            createLastOperation(invocation.getArgument(1)));
+        });
+        ServiceOperationGetter serviceOperationGetter = new ServiceOperationGetter(serviceGetter, eventsGetter);
+        List<CloudServiceInstanceExtended> services = createServices();
+
+        long startTime = System.nanoTime();
+        List<ServiceOperation> lastOperations = executor.executeForEach(services,
+                                                                        service -> serviceOperationGetter.getLastServiceOperation(client,
+                                                                                                                                  SPACE_GUID,
+                                                                                                                                  service));
+        long elapsedTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        // With 8 calls on 4 threads the polling takes 2 times the latency of a call instead of 8 times:
+        long sequentialTimeInMillis = SERVICES_COUNT * LATENCY_IN_MILLIS;
+        assertTrue(elapsedTimeInMillis < sequentialTimeInMillis / 2,
+                   "Polling took " + elapsedTimeInMillis + " ms, while the calls take " + sequentialTimeInMillis + " ms in total");
+        assertEquals(getNames(services), lastOperations.stream()
+                                                       .map(ServiceOperation::getDescription)
+                                                       .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testNoMoreCallsThanThreadsAreMadeInParallel() {
+        AtomicInteger callsInProgress = new AtomicInteger();
+        AtomicInteger maxCallsInProgress = new AtomicInteger();
+
+        executor.executeForEach(createServices(), service -> {
+            maxCallsInProgress.accumulateAndGet(callsInProgress.incrementAndGet(), Math::max);
+            sleep(LATENCY_IN_MILLIS / 4);
+            return callsInProgress.decrementAndGet();
+        });
+
+        assertTrue(maxCallsInProgress.get() <= THREADS, "There were " + maxCallsInProgress.get() + " calls in parallel");
+    }
+
+    @Test
+    public void testCallsOfConcurrentProcessesWaitInQueue() throws Exception {
+        AtomicInteger callsInProgress = new AtomicInteger();
+        AtomicInteger maxCallsInProgress = new AtomicInteger();
+        AtomicInteger maxQueueSize = new AtomicInteger();
+        Gauge queueSizeGauge = meterRegistry.get(CloudControllerCallsExecutor.METRICS_PREFIX + "queue.size")
+                                            .gauge();
+        ExecutorService processes = Executors.newFixedThreadPool(PROCESSES_COUNT);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < PROCESSES_COUNT; i++) {
+                results.add(processes.submit(() -> executor.executeForEach(createServices(), service -> {
+                    maxCallsInProgress.accumulateAndGet(callsInProgress.incrementAndGet(), Math::max);
+                    maxQueueSize.accumulateAndGet((int) queueSizeGauge.value(), Math::max);
+                    sleep(LATENCY_IN_MILLIS / 4);
+                    return callsInProgress.decrementAndGet();
+                })));
+            }
+            for (Future<List<Integer>> result : results) {
+                assertEquals(SERVICES_COUNT, result.get()
+                                                   .size());
+            }
+        } finally {
+            processes.shutdownNow();
+        }
+
+        Timer waitTimer = meterRegistry.get(CloudControllerCallsExecutor.METRICS_PREFIX + "wait.duration")
+                                       .timer();
+        assertTrue(maxCallsInProgress.get() <= THREADS, "There were " + maxCallsInProgress.get() + " calls in parallel");
+        assertTrue(maxQueueSize.get() > 0, "No calls waited in the queue");
+        assertEquals(PROCESSES_COUNT * SERVICES_COUNT, waitTimer.count());
+        assertTrue(waitTimer.max(TimeUnit.MILLISECONDS) >= LATENCY_IN_MILLIS / 4, "Calls did not wait for free threads");
+        assertEquals(0, queueSizeGauge.value());
+    }
+
+    @Test
+    public void testExceptionOfFailedCallIsThrown() {
+        IllegalStateException exception = new IllegalStateException("Service not found");
+
+        IllegalStateException thrownException = assertThrows(IllegalStateException.class,
+                                                              () -> executor.executeForEach(Arrays.asList(1, 2, 3), number -> {
+                                                                  if (number == 2) {
+                                                                      throw exception;
+                                                                  }
+                                                                  return number;
+                                                              }));
+
+        assertEquals(exception, thrownException);
+    }
+
+    @Test
+    public void testNestedCallsAreMadeSequentially() {
+        List<Integer> numbers = IntStream.range(0, THREADS * 2)
+                                         .boxed()
+                                         .collect(Collectors.toList());
+
+        List<List<Integer>> results = executor.executeForEach(numbers,
+                                                              number -> executor.executeForEach(numbers, other -> number * other));
+
+        assertEquals(numbers.size(), results.size());
+        assertEquals(Arrays.asList(0, 3, 6, 9, 12, 15, 18, 21), results.get(3));
+    }
+
+    private List<CloudServiceInstanceExtended> createServices() {
+        return IntStream.range(0, SERVICES_COUNT)
+                        .mapToObj(i -> ImmutableCloudServiceInstanceExtended.builder()
+                                                                            .name("service-" + i)
+                                                                            .build())
+                        .collect(Collectors.toList());
+    }
+
+    private List<String> getNames(List<CloudServiceInstanceExtended> services) {
+        return services.stream()
+                       .map(CloudServiceInstanceExtended::getName)
+                       .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> createLastOperation(String serviceName) {
+        Map<String, Object> lastOperation = new HashMap<>();
+        lastOperation.put(ServiceOperation.SERVICE_OPERATION_TYPE, ServiceOperation.Type.CREATE.toString());
+        lastOperation.put(ServiceOperation.SERVICE_OPERATION_STATE, ServiceOperation.State.IN_PROGRESS.toString());
+        lastOperation.put(ServiceOperation.SERVICE_OPERATION_DESCRIPTION, serviceName);
+        return lastOperation;
+    }
+
+    private void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.cloudfoundry.multiapps.mta.model.Module;
+import org.junit.jupiter.api.Test;
+
+public class ModuleDeploymentSchedulerTest {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final int GRAPHS_COUNT = 50;
+    private static final int MODULES_COUNT = 40;
+    private static final int LIMITED_PARALLEL_DEPLOYMENTS = 4;
+
+    @Test
+    public void testModulesWithoutDependenciesAreDeployedFirst() {
+        List<Module> modules = Arrays.asList(createModule("a"), createModule("b"), createModule("c", "a"));
+        ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, UNLIMITED);
+
+        assertEquals(Arrays.asList("a", "b"), getNames(scheduler.getNextModulesToDeploy(Collections.emptySet())));
+    }
+
+    @Test
+    public void testModuleIsDeployedAfterItsOwnDependencies() {
+        List<Module> modules = Arrays.asList(createModule("a"), createModule("b"), createModule("c", "a"), createModule("d", "b"),
+                                             createModule("e", "c"));
+        ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, UNLIMITED);
+
+        assertEquals(Arrays.asList("c", "d"), getNames(scheduler.getNextModulesToDeploy(asSet("a", "b"))));
+    }
+
+    @Test
+    public void testDependenciesOnModulesNotForDeploymentAreIgnored() {
+        List<Module> modules = Arrays.asList(createModule("a", "not-deployed"), createModule("b", "a", "not-deployed"));
+        ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, UNLIMITED);
+
+        assertEquals(Collections.singletonList("a"), getNames(scheduler.getNextModulesToDeploy(Collections.emptySet())));
+        assertEquals(Collections.singletonList("b"), getNames(scheduler.getNextModulesToDeploy(asSet("a"))));
+    }
+
+    @Test
+    public void testModulesWithLongestDependentChainsAreDeployedFirst() {
+        List<Module> modules = Arrays.asList(createModule("a"), createModule("b"), createModule("c"), createModule("d", "c"),
+                                             createModule("e", "d"), createModule("f", "b"));
+        ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, 2);
+
+        assertEquals(Arrays.asList("b", "c"), getNames(scheduler.getNextModulesToDeploy(Collections.emptySet())));
+        assertEquals(Arrays.asList("a", "d"), getNames(scheduler.getNextModulesToDeploy(asSet("b", "c"))));
+    }
+
+    @Test
+    public void testModulesWithCyclicDependenciesAreNeverDeployed() {
+        List<Module> modules = Arrays.asList(createModule("a", "b"), createModule("b", "a"), createModule("c"));
+        ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, UNLIMITED);
+
+        assertEquals(Collections.singletonList("c"), getNames(scheduler.getNextModulesToDeploy(Collections.emptySet())));
+        assertEquals(Collections.emptyList(), scheduler.getNextModulesToDeploy(asSet("c")));
+    }
+
+    @Test
+    public void testModulesAreDeployedInTheSameIterationsAsWithoutScheduler() {
+        Random random = new Random(42);
+        for (int i = 0; i < GRAPHS_COUNT; i++) {
+            List<Module> modules = createRandomDependencyGraph(random);
+            ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, UNLIMITED);
+            Set<String> deployedModules = new HashSet<>();
+            while (deployedModules.size() < modules.size()) {
+                List<Module> iteration = scheduler.getNextModulesToDeploy(deployedModules);
+
+                assertEquals(getNames(getModulesWithDeployedDependencies(modules, deployedModules)), getNames(iteration));
+                deployedModules.addAll(getNames(iteration));
+            }
+        }
+    }
+
+    @Test
+    public void testLimitedIterationsAreShorterWhenLongestDependentChainsAreDeployedFirst() {
+        Random random = new Random(42);
+        long totalMakespanInModulesOrder = 0;
+        long totalMakespan = 0;
+        for (int i = 0; i < GRAPHS_COUNT; i++) {
+            List<Module> modules = createRandomDependencyGraph(random);
+            Map<String, Integer> durations = createRandomDurations(modules, random);
+            ModuleDeploymentScheduler scheduler = new ModuleDeploymentScheduler(modules, LIMITED_PARALLEL_DEPLOYMENTS);
+
+            totalMakespanInModulesOrder += simulateDeployment(deployedModules -> getModulesWithDeployedDependencies(modules, deployedModules)
+                .stream()
+                .limit(LIMITED_PARALLEL_DEPLOYMENTS)
+                .collect(Collectors.toList()), modules, durations);
+            totalMakespan += simulateDeployment(scheduler::getNextModulesToDeploy, modules, durations);
+        }
+        assertTrue(totalMakespan < totalMakespanInModulesOrder, "Total makespan " + totalMakespan
+            + " is not shorter than the total makespan with modules deployed in their order " + totalMakespanInModulesOrder);
+    }
+
+    // The next iteration, as computed by the process without a scheduler:
+    private List<Module> getModulesWithDeployedDependencies(List<Module> modules, Set<String> deployedModules) {
+        return modules.stream()
+                      .filter(module -> !deployedModules.contains(module.getName()))
+                      .filter(module -> deployedModules.containsAll(module.getDeployedAfter()))
+                      .collect(Collectors.toList());
+    }
+
+    private List<Module> createRandomDependencyGraph(Random random) {
+        List<Module> modules = new ArrayList<>();
+        for (int i = 0; i < MODULES_COUNT; i++) {
+            List<String> dependencies = new ArrayList<>();
+            for (int j = Math.max(0, i - 10); j < i; j++) {
+                if (random.nextInt(10) == 0) {
+                    dependencies.add("module-" + j);
+                }
+            }
+            modules.add(createModule("module-" + i, dependencies.toArray(new String[0])));
+        }
+        return modules;
+    }
+
+    private Map<String, Integer> createRandomDurations(List<Module> modules, Random random) {
+        Map<String, Integer> durations = new HashMap<>();
+        for (Module module : modules) {
+            durations.put(module.getName(), 1 + random.nextInt(20));
+        }
+        return durations;
+    }
+
+    private long simulateDeployment(Function<Set<String>, List<Module>> nextModulesGetter, List<Module> modules,
+                                    Map<String, Integer> durations) {
+        Set<String> deployedModules = new HashSet<>();
+        long makespan = 0;
+        while (deployedModules.size() < modules.size()) {
+            List<Module> iteration = nextModulesGetter.apply(deployedModules);
+            // An iteration takes as long as its slowest module:
+            makespan += iteration.stream()
+                                 .mapToInt(module -> durations.get(module.getName()))
+                                 .max()
+                                 .getAsInt();
+            deployedModules.addAll(getNames(iteration));
+        }
+        return makespan;
+    }
+
+    private Module createModule(String name, String... deployedAfter) {
+        return Module.createV3()
+                     .setName(name)
+                     .setDeployedAfter(Arrays.asList(deployedAfter));
+    }
+
+    private Set<String> asSet(String... moduleNames) {
+        return new HashSet<>(Arrays.asList(moduleNames));
+    }
+
+    private List<String> getNames(List<Module> modules) {
+        return modules.stream()
+                      .map(Module::getName)
+                      .collect(Collectors.toList());
+    }
+
+}
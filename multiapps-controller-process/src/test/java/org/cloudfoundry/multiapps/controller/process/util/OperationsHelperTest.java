@@ -2,12 +2,15 @@ package org.cloudfoundry.multiapps.controller.process.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudfoundry.multiapps.controller.api.model.ErrorType;
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
@@ -215,6 +218,39 @@ public class OperationsHelperTest {
 
     }
 
+    @Test
+    public void testFindOperationsComputesAllStatesAtOnce() {
+        Operation abortedOperation = createMockedOperation("12af8e1e-4d96-11ea-b77f-2e728ce88178", ProcessType.DEPLOY, null);
+        Mockito.when(abortedOperation.hasAcquiredLock())
+               .thenReturn(true);
+        Operation runningOperation = createMockedOperation("13af8e1e-4d96-11ea-b77f-2e728ce88178", ProcessType.DEPLOY, null);
+        Operation finishedOperation = createMockedOperation("14af8e1e-4d96-11ea-b77f-2e728ce88178", ProcessType.DEPLOY,
+                                                            Operation.State.FINISHED);
+        Map<String, Operation.State> states = new HashMap<>();
+        states.put(abortedOperation.getProcessId(), State.ABORTED);
+        states.put(runningOperation.getProcessId(), State.RUNNING);
+        Mockito.when(processHelper.computeProcessStates(Arrays.asList(abortedOperation.getProcessId(), runningOperation.getProcessId())))
+               .thenReturn(states);
+
+        List<Operation> foundOperations = operationsHelper.findOperations(Arrays.asList(abortedOperation, runningOperation,
+                                                                                        finishedOperation),
+                                                                          Arrays.asList(Operation.State.ABORTED, Operation.State.RUNNING));
+
+        Assertions.assertEquals(2, foundOperations.size());
+        Assertions.assertEquals(Operation.State.ABORTED, foundOperations.get(0)
+                                                                        .getState());
+        Assertions.assertFalse(foundOperations.get(0)
+                                              .hasAcquiredLock());
+        Assertions.assertEquals(Operation.State.RUNNING, foundOperations.get(1)
+                                                                        .getState());
+        Mockito.verify(processHelper)
+               .computeProcessStates(anyList());
+        Mockito.verify(processHelper, never())
+               .computeProcessState(any());
+        Mockito.verify(operationService)
+               .update(any(), any());
+    }
+
     private Operation createMockedOperation(String processId, ProcessType processType, Operation.State state) {
         Operation operation = Mockito.mock(Operation.class);
         Mockito.when(operation.getProcessType())
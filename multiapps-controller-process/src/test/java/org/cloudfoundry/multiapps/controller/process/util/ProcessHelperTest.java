@@ -1,6 +1,16 @@
 package org.cloudfoundry.multiapps.controller.process.util;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 import org.cloudfoundry.multiapps.controller.api.model.Operation.State;
 import org.cloudfoundry.multiapps.controller.core.model.HistoricOperationEvent.EventType;
@@ -11,6 +21,8 @@ import org.cloudfoundry.multiapps.controller.process.flowable.FlowableFacade;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -18,6 +30,10 @@ import org.mockito.MockitoAnnotations;
 public class ProcessHelperTest {
 
     private static final String PROCESS_ID = "79af8e1e-4d96-11ea-b77f-2e728ce88125";
+    private static final String ABORTED_PROCESS_ID = "8e0c3f2a-4d96-11ea-b77f-2e728ce88125";
+    private static final String FAILED_PROCESS_ID = "9a3bd6f4-4d96-11ea-b77f-2e728ce88125";
+    private static final String WAITING_PROCESS_ID = "a1d2b8c6-4d96-11ea-b77f-2e728ce88125";
+    private static final String RUNNING_PROCESS_ID = "b4e5f1a8-4d96-11ea-b77f-2e728ce88125";
 
     @Mock
     private FlowableFacade flowableFacade;
@@ -41,6 +57,10 @@ public class ProcessHelperTest {
                .thenReturn(historicOperationEventQuery);
         Mockito.when(historicOperationEventQuery.processId(PROCESS_ID))
                .thenReturn(historicOperationEventQuery);
+        Mockito.when(historicOperationEventQuery.processIdAnyOf(anyList()))
+               .thenReturn(historicOperationEventQuery);
+        Mockito.when(historicOperationEventQuery.type(any()))
+               .thenReturn(historicOperationEventQuery);
     }
 
     @Test
@@ -73,6 +93,78 @@ public class ProcessHelperTest {
         Assertions.assertEquals(State.FINISHED, processHelper.computeProcessState(PROCESS_ID));
     }
 
+    @Test
+    public void testComputeProcessStates() {
+        Mockito.when(historicOperationEventQuery.list())
+               .thenReturn(Collections.singletonList(ImmutableHistoricOperationEvent.builder()
+                                                                                    .type(EventType.ABORTED)
+                                                                                    .processId(ABORTED_PROCESS_ID)
+                                                                                    .build()));
+        Mockito.when(flowableFacade.getProcessInstanceIdsWithDeadLetterJobs(anyList()))
+               .thenReturn(Collections.singleton(FAILED_PROCESS_ID));
+        Mockito.when(flowableFacade.getProcessInstanceIdsAtReceiveTask(anyList()))
+               .thenReturn(new HashSet<>(Arrays.asList(FAILED_PROCESS_ID, WAITING_PROCESS_ID)));
+        Mockito.when(flowableFacade.getRunningProcessInstanceIds(anyList()))
+               .thenReturn(new HashSet<>(Arrays.asList(FAILED_PROCESS_ID, WAITING_PROCESS_ID, RUNNING_PROCESS_ID)));
+
+        Map<String, State> processStates = processHelper.computeProcessStates(Arrays.asList(ABORTED_PROCESS_ID, FAILED_PROCESS_ID,
+                                                                                            WAITING_PROCESS_ID, RUNNING_PROCESS_ID,
+                                                                                            PROCESS_ID));
+
+        Map<String, State> expectedProcessStates = new HashMap<>();
+        expectedProcessStates.put(ABORTED_PROCESS_ID, State.ABORTED);
+        expectedProcessStates.put(FAILED_PROCESS_ID, State.ERROR);
+        expectedProcessStates.put(WAITING_PROCESS_ID, State.ACTION_REQUIRED);
+        expectedProcessStates.put(RUNNING_PROCESS_ID, State.RUNNING);
+        expectedProcessStates.put(PROCESS_ID, State.FINISHED);
+        Assertions.assertEquals(expectedProcessStates, processStates);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 500 })
+    public void testComputeProcessStatesQueryCountIsIndependentOfProcessCount(int processCount) {
+        Mockito.when(historicOperationEventQuery.list())
+               .thenReturn(Collections.emptyList());
+        List<String> processIds = new ArrayList<>();
+        for (int i = 0; i < processCount; i++) {
+            processIds.add("process-" + i);
+        }
+
+        Map<String, State> processStates = processHelper.computeProcessStates(processIds);
+
+        Assertions.assertEquals(processCount, processStates.size());
+        Mockito.verify(historicOperationEventService)
+               .createQuery();
+        Mockito.verify(historicOperationEventQuery)
+               .list();
+        Mockito.verify(flowableFacade)
+               .getProcessInstanceIdsWithDeadLetterJobs(processIds);
+        Mockito.verify(flowableFacade)
+               .getProcessInstanceIdsAtReceiveTask(processIds);
+        Mockito.verify(flowableFacade)
+               .getRunningProcessInstanceIds(processIds);
+        Mockito.verify(flowableFacade, Mockito.never())
+               .hasDeadLetterJobs(anyString());
+        Mockito.verify(flowableFacade, Mockito.never())
+               .isProcessInstanceAtReceiveTask(anyString());
+        Mockito.verify(flowableFacade, Mockito.never())
+               .getProcessInstance(anyString());
+    }
+
+    @Test
+    public void testComputeProcessStatesSplitsLargeProcessListsIntoBatches() {
+        Mockito.when(historicOperationEventQuery.list())
+               .thenReturn(Collections.emptyList());
+        List<String> processIds = Collections.nCopies(2500, PROCESS_ID);
+
+        processHelper.computeProcessStates(processIds);
+
+        Mockito.verify(historicOperationEventService, Mockito.times(3))
+               .createQuery();
+        Mockito.verify(flowableFacade, Mockito.times(3))
+               .getRunningProcessInstanceIds(anyList());
+    }
+
     private void mockHistoricEventsWithTypes(EventType type) {
         Mockito.when(historicOperationEventQuery.list())
                .thenReturn(Arrays.asList(ImmutableHistoricOperationEvent.builder()
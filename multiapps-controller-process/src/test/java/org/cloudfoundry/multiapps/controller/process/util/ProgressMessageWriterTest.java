@@ -0,0 +1,129 @@
+package org.cloudfoundry.multiapps.controller.process.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudfoundry.multiapps.common.SLException;
+import org.cloudfoundry.multiapps.controller.core.persistence.service.ProgressMessageService;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableProgressMessage;
+import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage;
+import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage.ProgressMessageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class ProgressMessageWriterTest {
+
+    private static final String PROCESS_ID = "process";
+    private static final String OTHER_PROCESS_ID = "other-process";
+
+    @Mock
+    private ProgressMessageService progressMessageService;
+
+    private ProgressMessageWriter progressMessageWriter;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        progressMessageWriter = new ProgressMessageWriter(progressMessageService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        progressMessageWriter.shutdown();
+    }
+
+    @Test
+    public void testMessagesArePersistedInBatchesInTheirOrder() {
+        List<ProgressMessage> progressMessages = createProgressMessages(250);
+        progressMessages.forEach(progressMessageWriter::add);
+
+        progressMessageWriter.flush(PROCESS_ID);
+
+        List<ProgressMessage> persistedMessages = getPersistedMessages();
+        assertEquals(progressMessages, persistedMessages);
+    }
+
+    @Test
+    public void testFlushWithoutPendingMessages() {
+        progressMessageWriter.flush(PROCESS_ID);
+        progressMessageWriter.flush();
+
+        verify(progressMessageService, never()).addAll(any());
+    }
+
+    @Test
+    public void testOnlyMessagesOfTheProcessAreFlushed() {
+        // Fewer messages than a batch, so that they are not flushed in the background:
+        List<ProgressMessage> progressMessages = createProgressMessages(PROCESS_ID, 40);
+        List<ProgressMessage> otherProgressMessages = createProgressMessages(OTHER_PROCESS_ID, 40);
+        progressMessages.forEach(progressMessageWriter::add);
+        otherProgressMessages.forEach(progressMessageWriter::add);
+
+        progressMessageWriter.flush(PROCESS_ID);
+
+        assertEquals(progressMessages, getPersistedMessages());
+        Mockito.reset(progressMessageService);
+        progressMessageWriter.flush();
+        assertEquals(otherProgressMessages, getPersistedMessages());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedWithTheNextFlush() {
+        List<ProgressMessage> progressMessages = createProgressMessages(80);
+        doThrow(new IllegalStateException("expected exception")).doAnswer(invocation -> invocation.getArgument(0))
+                                                                 .when(progressMessageService)
+                                                                 .addAll(any());
+        progressMessages.forEach(progressMessageWriter::add);
+
+        assertThrows(SLException.class, () -> progressMessageWriter.flush(PROCESS_ID));
+        progressMessageWriter.flush(PROCESS_ID);
+
+        // The batch, which could not be persisted, is not lost and the messages are still persisted in their order:
+        List<List<ProgressMessage>> batches = getPersistedBatches();
+        assertEquals(2, batches.size());
+        assertEquals(progressMessages, batches.get(1));
+    }
+
+    private List<ProgressMessage> createProgressMessages(int count) {
+        return createProgressMessages(PROCESS_ID, count);
+    }
+
+    private List<ProgressMessage> createProgressMessages(String processId, int count) {
+        List<ProgressMessage> progressMessages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            progressMessages.add(ImmutableProgressMessage.builder()
+                                                         .processId(processId)
+                                                         .taskId("task")
+                                                         .type(ProgressMessageType.INFO)
+                                                         .text("Message " + i)
+                                                         .build());
+        }
+        return progressMessages;
+    }
+
+    private List<ProgressMessage> getPersistedMessages() {
+        List<ProgressMessage> persistedMessages = new ArrayList<>();
+        getPersistedBatches().forEach(persistedMessages::addAll);
+        return persistedMessages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ProgressMessage>> getPersistedBatches() {
+        ArgumentCaptor<List<ProgressMessage>> batchesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(progressMessageService, Mockito.atLeastOnce()).addAll(batchesCaptor.capture());
+        return batchesCaptor.getAllValues();
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.cloudfoundry.multiapps.controller.process.variables;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudfoundry.multiapps.common.util.JsonUtil;
+import org.cloudfoundry.multiapps.mta.model.DeploymentDescriptor;
+import org.cloudfoundry.multiapps.mta.model.Module;
+import org.cloudfoundry.multiapps.mta.model.RequiredDependency;
+import org.cloudfoundry.multiapps.mta.model.Resource;
+import org.junit.jupiter.api.Test;
+
+public class JsonBinaryFormatTest {
+
+    private static final Variable<DeploymentDescriptor> DESCRIPTOR = ImmutableJsonBinaryVariable.<DeploymentDescriptor> builder()
+                                                                                                .name("descriptor")
+                                                                                                .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                                .build();
+
+    @Test
+    public void testDeflatedDescriptorIsMuchSmaller() {
+        byte[] json = JsonUtil.toJsonBinary(createDescriptor(100));
+
+        byte[] deflatedJson = JsonBinaryFormat.DEFLATED.encode(json);
+
+        assertTrue(deflatedJson.length * 5 < json.length,
+                   "Deflated descriptor has " + deflatedJson.length + " bytes, plain descriptor has " + json.length + " bytes");
+        assertArrayEquals(json, JsonBinaryFormat.decode(deflatedJson));
+    }
+
+    @Test
+    public void testSmallValuesAreNotDeflated() {
+        byte[] json = JsonUtil.toJsonBinary(createDescriptor(0));
+
+        assertSame(json, JsonBinaryFormat.DEFLATED.encode(json));
+    }
+
+    @Test
+    public void testPlainJsonIsDecodedAsIs() {
+        byte[] json = JsonUtil.toJsonBinary(createDescriptor(100));
+
+        assertSame(json, JsonBinaryFormat.decode(json));
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() {
+        byte[] encodedJson = new byte[] { 0, 42, 1, 2, 3 };
+
+        assertThrows(IllegalArgumentException.class, () -> JsonBinaryFormat.decode(encodedJson));
+    }
+
+    @Test
+    public void testVariablesWrittenInThePlainFormatAreReadable() {
+        DeploymentDescriptor descriptor = createDescriptor(10);
+        byte[] json = JsonUtil.toJsonBinary(descriptor);
+
+        DeploymentDescriptor deserializedDescriptor = DESCRIPTOR.getSerializer()
+                                                                .deserialize(json);
+
+        assertEquals(new String(json, StandardCharsets.UTF_8), JsonUtil.toJson(deserializedDescriptor));
+    }
+
+    @Test
+    public void testVariablesAreStoredPlainByDefault() {
+        DeploymentDescriptor descriptor = createDescriptor(10);
+
+        byte[] serializedDescriptor = (byte[]) DESCRIPTOR.getSerializer()
+                                                         .serialize(descriptor);
+
+        assertEquals(JsonUtil.toJson(descriptor), new String(serializedDescriptor, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testVariablesAreStoredDeflatedWhenCompressionIsEnabled() {
+        DeploymentDescriptor descriptor = createDescriptor(10);
+
+        byte[] serializedDescriptor = (byte[]) DESCRIPTOR.getSerializer(JsonBinaryFormat.DEFLATED)
+                                                         .serialize(descriptor);
+
+        assertEquals(0, serializedDescriptor[0]);
+        assertEquals(JsonUtil.toJson(descriptor), JsonUtil.toJson(DESCRIPTOR.getSerializer()
+                                                                            .deserialize(serializedDescriptor)));
+    }
+
+    private DeploymentDescriptor createDescriptor(int modulesCount) {
+        List<Module> modules = new ArrayList<>();
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < modulesCount; i++) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("memory", "512M");
+            parameters.put("instances", 2);
+            parameters.put("routes", createRoutes(i));
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("SERVICE_URL", "https://module-" + i + ".cfapps.example.com/api/v1");
+            properties.put("LOG_LEVEL", "info");
+            RequiredDependency requiredDependency = RequiredDependency.createV3()
+                                                                      .setName("resource-" + i)
+                                                                      .setParameters(new HashMap<>());
+            modules.add(Module.createV3()
+                              .setName("module-" + i)
+                              .setType("javascript.nodejs")
+                              .setPath("module-" + i + ".zip")
+                              .setParameters(parameters)
+                              .setProperties(properties)
+                              .setRequiredDependencies(new ArrayList<>(Collections.singletonList(requiredDependency))));
+            Map<String, Object> resourceParameters = new HashMap<>();
+            resourceParameters.put("service", "postgresql");
+            resourceParameters.put("service-plan", "v9.6-dev");
+            resourceParameters.put("service-name", "resource-" + i + "-instance");
+            resources.add(Resource.createV3()
+                                  .setName("resource-" + i)
+                                  .setType("org.cloudfoundry.managed-service")
+                                  .setParameters(resourceParameters));
+        }
+        return DeploymentDescriptor.createV3()
+                                   .setSchemaVersion("3.3.0")
+                                   .setId("com.example.mta")
+                                   .setVersion("1.0.0")
+                                   .setModules(modules)
+                                   .setResources(resources);
+    }
+
+    private List<Map<String, Object>> createRoutes(int moduleIndex) {
+        List<Map<String, Object>> routes = new ArrayList<>();
+        Map<String, Object> route = new HashMap<>();
+        route.put("route", "module-" + moduleIndex + ".cfapps.example.com");
+        routes.add(route);
+        return routes;
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.cloudfoundry.multiapps.controller.process.variables;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.cloudfoundry.multiapps.common.util.JsonUtil;
+import org.cloudfoundry.multiapps.controller.process.mock.MockDelegateExecution;
+import org.cloudfoundry.multiapps.mta.model.DeploymentDescriptor;
+import org.cloudfoundry.multiapps.mta.model.Module;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VariableHandlingTest {
+
+    private static final Variable<DeploymentDescriptor> DESCRIPTOR = ImmutableJsonStringVariable.<DeploymentDescriptor> builder()
+                                                                                                .name("descriptor")
+                                                                                                .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                                .cachedValueCopier(DeploymentDescriptor::copyOf)
+                                                                                                .build();
+    // Returns the cached value itself, so that the tests can check whether it is reused:
+    private static final Variable<DeploymentDescriptor> SHARED_DESCRIPTOR = ImmutableJsonStringVariable.<DeploymentDescriptor> builder()
+                                                                                                       .name(DESCRIPTOR.getName())
+                                                                                                       .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                                       .cachedValueCopier(UnaryOperator.identity())
+                                                                                                       .build();
+    private static final Variable<DeploymentDescriptor> UNCACHED_DESCRIPTOR = new Variable<DeploymentDescriptor>() {
+
+        @Override
+        public String getName() {
+            return DESCRIPTOR.getName();
+        }
+
+        @Override
+        public DeploymentDescriptor getDefaultValue() {
+            return null;
+        }
+
+        @Override
+        public Serializer<DeploymentDescriptor> getSerializer() {
+            return DESCRIPTOR.getSerializer();
+        }
+
+    };
+    private static final Variable<List<DeploymentDescriptor>> DESCRIPTORS = ImmutableJsonBinaryListVariable.<DeploymentDescriptor> builder()
+                                                                                                           .name("descriptors")
+                                                                                                           .type(Variable.typeReference(DeploymentDescriptor.class))
+                                                                                                           .cachedValueCopier(UnaryOperator.identity())
+                                                                                                           .build();
+
+    private static final int READS_COUNT = 20;
+
+    private final DelegateExecution execution = MockDelegateExecution.createSpyInstance();
+
+    @BeforeEach
+    public void setUp() {
+        VariableHandling.set(execution, DESCRIPTOR, createDescriptor(10));
+    }
+
+    @Test
+    public void testCachedValueIsReused() {
+        DeploymentDescriptor descriptor = VariableHandling.get(execution, SHARED_DESCRIPTOR);
+
+        assertSame(descriptor, VariableHandling.get(execution, SHARED_DESCRIPTOR));
+    }
+
+    @Test
+    public void testCachedValueIsNotModifiedByCallers() {
+        DeploymentDescriptor descriptor = VariableHandling.get(execution, DESCRIPTOR);
+
+        descriptor.getModules()
+                  .get(0)
+                  .setName("modified-module");
+        descriptor.setModules(Collections.emptyList());
+
+        DeploymentDescriptor cachedDescriptor = VariableHandling.get(execution, DESCRIPTOR);
+        assertEquals(10, cachedDescriptor.getModules()
+                                         .size());
+        assertEquals("module-0", cachedDescriptor.getModules()
+                                                 .get(0)
+                                                 .getName());
+    }
+
+    @Test
+    public void testCachedValueIsNotReusedForOtherExecutions() {
+        DelegateExecution otherExecution = MockDelegateExecution.createSpyInstance();
+        otherExecution.setVariable(DESCRIPTOR.getName(), execution.getVariable(DESCRIPTOR.getName()));
+
+        assertNotSame(VariableHandling.get(execution, SHARED_DESCRIPTOR), VariableHandling.get(otherExecution, SHARED_DESCRIPTOR));
+    }
+
+    @Test
+    public void testCachedValueIsInvalidatedOnSet() {
+        VariableHandling.get(execution, DESCRIPTOR);
+
+        VariableHandling.set(execution, DESCRIPTOR, createDescriptor(5));
+
+        assertEquals(5, VariableHandling.get(execution, DESCRIPTOR)
+                                        .getModules()
+                                        .size());
+    }
+
+    @Test
+    public void testCachedValueIsInvalidatedWhenSetDirectly() {
+        VariableHandling.get(execution, DESCRIPTOR);
+
+        execution.setVariable(DESCRIPTOR.getName(), JsonUtil.toJson(createDescriptor(5)));
+
+        assertEquals(5, VariableHandling.get(execution, DESCRIPTOR)
+                                        .getModules()
+                                        .size());
+    }
+
+    @Test
+    public void testCachedListValueIsReusedWhileItsElementsAreTheSame() {
+        List<DeploymentDescriptor> descriptors = new ArrayList<>();
+        descriptors.add(createDescriptor(1));
+        descriptors.add(createDescriptor(2));
+        VariableHandling.set(execution, DESCRIPTORS, descriptors);
+        List<DeploymentDescriptor> cachedDescriptors = VariableHandling.get(execution, DESCRIPTORS);
+
+        // The list is copied, but its elements are the same:
+        execution.setVariable(DESCRIPTORS.getName(), new ArrayList<>((List<?>) execution.getVariable(DESCRIPTORS.getName())));
+
+        assertSame(cachedDescriptors, VariableHandling.get(execution, DESCRIPTORS));
+    }
+
+    @Test
+    public void testValueIsNotCachedForNonCacheableVariables() {
+        assertNotSame(VariableHandling.get(execution, UNCACHED_DESCRIPTOR), VariableHandling.get(execution, UNCACHED_DESCRIPTOR));
+    }
+
+    @Test
+    public void testCachingReducesAllocationsForLargeDescriptors() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        VariableHandling.set(execution, DESCRIPTOR, createDescriptor(500));
+
+        long uncachedReadsAllocatedBytes = measureAllocatedBytes(() -> readRepeatedly(UNCACHED_DESCRIPTOR));
+        long cachedReadsAllocatedBytes = measureAllocatedBytes(() -> readRepeatedly(DESCRIPTOR));
+
+        // Only the first read deserializes the descriptor. The rest only compare its serialized value to the cached one and copy it. The
+        // descriptor is mutable, so the copies still allocate most of what the deserialization does:
+        assertTrue(cachedReadsAllocatedBytes < uncachedReadsAllocatedBytes,
+                   "Cached reads allocated " + cachedReadsAllocatedBytes + " bytes, uncached reads allocated " + uncachedReadsAllocatedBytes
+                       + " bytes");
+    }
+
+    private void readRepeatedly(Variable<DeploymentDescriptor> variable) {
+        for (int i = 0; i < READS_COUNT; i++) {
+            VariableHandling.get(execution, variable);
+        }
+    }
+
+    private long measureAllocatedBytes(Runnable runnable) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread()
+                              .getId();
+        long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        runnable.run();
+        return threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+    }
+
+    private DeploymentDescriptor createDescriptor(int modulesCount) {
+        List<Module> modules = new ArrayList<>();
+        for (int i = 0; i < modulesCount; i++) {
+            Map<String, Object> properties = new HashMap<>();
+            for (int j = 0; j < 20; j++) {
+                properties.put("property-" + j, "value-" + i + "-" + j);
+            }
+            modules.add(Module.createV3()
+                              .setName("module-" + i)
+                              .setType("javascript.nodejs")
+                              .setProperties(properties));
+        }
+        return DeploymentDescriptor.createV3()
+                                   .setId("mta")
+                                   .setVersion("1.0.0")
+                                   .setModules(modules);
+    }
+
+}
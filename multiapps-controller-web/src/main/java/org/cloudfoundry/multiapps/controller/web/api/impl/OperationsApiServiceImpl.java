@@ -1,13 +1,21 @@
 package org.cloudfoundry.multiapps.controller.web.api.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.text.MessageFormat;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -35,10 +43,12 @@ import org.cloudfoundry.multiapps.controller.core.auditlogging.AuditLoggingProvi
 import org.cloudfoundry.multiapps.controller.core.cf.CloudControllerClientProvider;
 import org.cloudfoundry.multiapps.controller.core.persistence.OrderDirection;
 import org.cloudfoundry.multiapps.controller.core.persistence.query.OperationQuery;
+import org.cloudfoundry.multiapps.controller.core.persistence.query.ProgressMessageQuery;
 import org.cloudfoundry.multiapps.controller.core.persistence.service.OperationService;
 import org.cloudfoundry.multiapps.controller.core.persistence.service.ProgressMessageService;
 import org.cloudfoundry.multiapps.controller.core.util.UserInfo;
 import org.cloudfoundry.multiapps.controller.persistence.Constants;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
 import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage;
 import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage.ProgressMessageType;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileStorageException;
@@ -59,7 +69,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Named
 public class OperationsApiServiceImpl implements OperationsApiService {
@@ -82,6 +94,7 @@ public class OperationsApiServiceImpl implements OperationsApiService {
     private ProcessActionRegistry processActionRegistry;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OperationsApiServiceImpl.class);
+    private static final long MESSAGES_WAIT_TIMEOUT_IN_MILLIS = TimeUnit.SECONDS.toMillis(20);
 
     @Override
     public ResponseEntity<List<Operation>> getOperations(String spaceGuid, String mtaId, List<String> stateStrings, Integer last) {
@@ -126,16 +139,33 @@ public class OperationsApiServiceImpl implements OperationsApiService {
     }
 
     @Override
-    public ResponseEntity<String> getOperationLogContent(String spaceGuid, String operationId, String logId) {
+    public ResponseEntity<StreamingResponseBody> getOperationLogContent(String spaceGuid, String operationId, String logId, Long offset) {
+        long startOffset = offset == null ? 0 : offset;
+        if (startOffset < 0) {
+            throw new IllegalArgumentException(MessageFormat.format(Messages.LOG_OFFSET_0_MUST_NOT_BE_NEGATIVE, offset));
+        }
         try {
-            String content = logsService.getLogContent(spaceGuid, operationId, logId);
+            List<FileEntry> logChunks = logsService.getLogChunks(spaceGuid, operationId, logId);
+            // The content is limited to the chunks listed so far, so that clients can continue from the offset plus the returned bytes.
+            // Chunks are only ever appended to a log, so the content before that offset does not change between the calls:
+            long contentLength = Math.max(logsService.getLogSize(logChunks) - startOffset, 0);
+            StreamingResponseBody content = outputStream -> writeLogContent(logChunks, startOffset, outputStream);
             return ResponseEntity.ok()
+                                 .contentLength(contentLength)
                                  .body(content);
         } catch (FileStorageException e) {
             throw new ContentException(e, e.getMessage());
         }
     }
 
+    private void writeLogContent(List<FileEntry> logChunks, long offset, OutputStream outputStream) throws IOException {
+        try {
+            logsService.writeLogContent(logChunks, offset, outputStream);
+        } catch (FileStorageException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public ResponseEntity<Operation> startOperation(HttpServletRequest request, String spaceGuid, Operation operation) {
         String user = getAuthenticatedUser(request);
@@ -156,12 +186,7 @@ public class OperationsApiServiceImpl implements OperationsApiService {
     @Override
     public ResponseEntity<Operation> getOperation(String spaceGuid, String operationId, String embed) {
         Operation operation = getOperation(operationId);
-        if (!operation.getSpaceId()
-                      .equals(spaceGuid)) {
-            LOGGER.info(MessageFormat.format(org.cloudfoundry.multiapps.controller.core.Messages.OPERATION_SPACE_MISMATCH, operationId,
-                                             operation.getSpaceId(), spaceGuid));
-            throw new NotFoundException(org.cloudfoundry.multiapps.controller.core.Messages.OPERATION_NOT_FOUND, operationId);
-        }
+        ensureOperationIsInSpace(operation, spaceGuid);
         if ("messages".equals(embed)) {
             operation = ImmutableOperation.copyOf(operation)
                                           .withMessages(getOperationMessages(operation));
@@ -173,6 +198,60 @@ public class OperationsApiServiceImpl implements OperationsApiService {
                              .body(operation);
     }
 
+    private void ensureOperationIsInSpace(Operation operation, String spaceGuid) {
+        if (!operation.getSpaceId()
+                      .equals(spaceGuid)) {
+            LOGGER.info(MessageFormat.format(org.cloudfoundry.multiapps.controller.core.Messages.OPERATION_SPACE_MISMATCH,
+                                             operation.getProcessId(), operation.getSpaceId(), spaceGuid));
+            throw new NotFoundException(org.cloudfoundry.multiapps.controller.core.Messages.OPERATION_NOT_FOUND, operation.getProcessId());
+        }
+    }
+
+    @Override
+    public DeferredResult<ResponseEntity<List<Message>>> getOperationMessages(String spaceGuid, String operationId, Long after) {
+        // The state is not computed, since only the final state, which is persisted, is needed:
+        Operation operation = getOperationWithoutState(operationId);
+        ensureOperationIsInSpace(operation, spaceGuid);
+        DeferredResult<ResponseEntity<List<Message>>> result = new DeferredResult<>(MESSAGES_WAIT_TIMEOUT_IN_MILLIS);
+        AtomicBoolean notified = new AtomicBoolean();
+        // The notified messages are not returned as they are, because messages added before the listener or by other threads could be
+        // missing from them. Instead, they only trigger a new read of all messages after the requested one:
+        Consumer<List<ProgressMessage>> listener = addedProgressMessages -> {
+            if (!result.isSetOrExpired() && notified.compareAndSet(false, true)) {
+                result.setResult(ResponseEntity.ok()
+                                               .body(getOperationMessages(operationId, after)));
+            }
+        };
+        // The listener is added before the messages are read, so that no message is missed in between:
+        progressMessageService.addListener(operationId, listener);
+        result.onCompletion(() -> progressMessageService.removeListener(operationId, listener));
+        // Messages added by the other instances of the application are not notified, so they are read once more before giving up:
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok()
+                                                              .body(getOperationMessages(operationId, after))));
+        List<Message> messages = getOperationMessages(operationId, after);
+        if (!messages.isEmpty() || isInFinalState(operation)) {
+            progressMessageService.removeListener(operationId, listener);
+            result.setResult(ResponseEntity.ok()
+                                           .body(messages));
+        }
+        return result;
+    }
+
+    private boolean isInFinalState(Operation operation) {
+        return Operation.State.getFinalStates()
+                              .contains(operation.getState());
+    }
+
+    private Operation getOperationWithoutState(String operationId) {
+        try {
+            return operationService.createQuery()
+                                   .processId(operationId)
+                                   .singleResult();
+        } catch (NoResultException e) {
+            throw new NotFoundException(e, Messages.OPERATION_0_NOT_FOUND, operationId);
+        }
+    }
+
     private List<Operation.State> getStates(List<String> statusList) {
         return ListUtils.emptyIfNull(statusList)
                         .stream()
@@ -182,25 +261,58 @@ public class OperationsApiServiceImpl implements OperationsApiService {
 
     private List<Operation> filterByQueryParameters(Integer lastRequestedOperationsCount, List<Operation.State> states,
                                                     String spaceGuid, String mtaId) {
+        if (lastRequestedOperationsCount != null) {
+            return findLastOperations(lastRequestedOperationsCount, states, spaceGuid, mtaId);
+        }
+        List<Operation> operations = createOperationQuery(states, spaceGuid, mtaId).orderByStartTime(OrderDirection.ASCENDING)
+                                                                                   .list();
+        return operationsHelper.findOperations(operations, states);
+    }
+
+    private List<Operation> findLastOperations(int count, List<Operation.State> states, String spaceGuid, String mtaId) {
+        List<Operation> result = new ArrayList<>();
+        Operation lastFetchedOperation = null;
+        // The states of the operations, which are not in a final state, are known only after they are computed, so more pages are
+        // fetched if some of them turn out to be in a state, which was not requested:
+        while (result.size() < count) {
+            OperationQuery operationQuery = createOperationQuery(states, spaceGuid, mtaId).orderByStartTime(OrderDirection.DESCENDING)
+                                                                                          .limitOnSelect(count);
+            if (lastFetchedOperation != null) {
+                operationQuery.startedBefore(toDate(lastFetchedOperation.getStartedAt()), lastFetchedOperation.getProcessId());
+            }
+            List<Operation> operations = operationQuery.list();
+            result.addAll(operationsHelper.findOperations(operations, states));
+            if (operations.size() < count) {
+                break;
+            }
+            lastFetchedOperation = operations.get(operations.size() - 1);
+        }
+        return result.size() > count ? result.subList(0, count) : result;
+    }
+
+    private OperationQuery createOperationQuery(List<Operation.State> states, String spaceGuid, String mtaId) {
         OperationQuery operationQuery = operationService.createQuery()
-                                                        .orderByStartTime(OrderDirection.ASCENDING)
                                                         .spaceId(spaceGuid);
         if (mtaId != null) {
             operationQuery.mtaId(mtaId);
         }
-        if (lastRequestedOperationsCount != null) {
-            operationQuery.limitOnSelect(lastRequestedOperationsCount)
-                          .orderByStartTime(OrderDirection.DESCENDING);
+        if (states.isEmpty()) {
+            return operationQuery;
         }
-        if (!states.isEmpty() && containsOnlyFinishedStates(states)) {
-            operationQuery.withStateAnyOf(states);
+        List<Operation.State> finalStates = ListUtils.retainAll(states, Operation.State.getFinalStates());
+        if (finalStates.size() == states.size()) {
+            return operationQuery.withStateAnyOf(finalStates);
         }
-        List<Operation> operations = operationQuery.list();
-        return operationsHelper.findOperations(operations, states);
+        // The final state of an operation is persisted only after it is computed for the first time, so the operations without one
+        // could be in any of the requested states:
+        if (finalStates.isEmpty()) {
+            return operationQuery.inNonFinalState();
+        }
+        return operationQuery.inNonFinalStateOrWithStateAnyOf(finalStates);
     }
 
-    private boolean containsOnlyFinishedStates(List<Operation.State> statusList) {
-        return Collections.disjoint(statusList, Operation.State.getNonFinalStates());
+    private Date toDate(ZonedDateTime zonedDateTime) {
+        return Date.from(zonedDateTime.toInstant());
     }
 
     @Override
@@ -314,10 +426,23 @@ public class OperationsApiServiceImpl implements OperationsApiService {
     }
 
     private List<Message> getOperationMessages(Operation operation) {
-        List<ProgressMessage> progressMessages = progressMessageService.createQuery()
-                                                                       .processId(operation.getProcessId())
-                                                                       .orderById(OrderDirection.ASCENDING)
-                                                                       .list();
+        return getOperationMessages(operation.getProcessId(), null);
+    }
+
+    /**
+     * Reads the messages of the operation with IDs bigger than the specified one. The IDs are assigned before the messages are committed, so
+     * when parallel subprocesses add messages at the same time, a message with a smaller ID can become visible after one with a bigger ID
+     * has already been returned, and a client, which continues after the bigger ID, skips it. The window is as short as the transaction
+     * adding the message, because messages are added in transactions of their own.
+     */
+    private List<Message> getOperationMessages(String operationId, Long after) {
+        ProgressMessageQuery progressMessageQuery = progressMessageService.createQuery()
+                                                                          .processId(operationId)
+                                                                          .orderById(OrderDirection.ASCENDING);
+        if (after != null) {
+            progressMessageQuery.idGreaterThan(after);
+        }
+        List<ProgressMessage> progressMessages = progressMessageQuery.list();
         return progressMessages.stream()
                                .map(this::getMessage)
                                .collect(Collectors.toList());
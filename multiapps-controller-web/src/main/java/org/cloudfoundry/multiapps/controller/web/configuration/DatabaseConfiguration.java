@@ -4,6 +4,7 @@ import javax.inject.Inject;
 import javax.sql.DataSource;
 
 import org.cloudfoundry.multiapps.controller.core.changes.IndexProcessIdsOfHistoricOperationEventChange;
+import org.cloudfoundry.multiapps.controller.core.changes.IndexSpaceIdAndStartedAtOfOperationChange;
 import org.cloudfoundry.multiapps.controller.core.changes.IndexSpaceIdOfOperationChange;
 import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
@@ -122,6 +123,11 @@ public class DatabaseConfiguration {
         return new IndexSpaceIdOfOperationChange();
     }
 
+    @Bean
+    public IndexSpaceIdAndStartedAtOfOperationChange indexSpaceIdAndStartedAtOfOperationChange() {
+        return new IndexSpaceIdAndStartedAtOfOperationChange();
+    }
+
     @Bean
     public IndexProcessIdsOfHistoricOperationEventChange indexProcessIdsOfHistoricOperationEventChange() {
         return new IndexProcessIdsOfHistoricOperationEventChange();
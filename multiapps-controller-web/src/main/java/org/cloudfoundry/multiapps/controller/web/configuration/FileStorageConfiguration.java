@@ -1,5 +1,6 @@
 package org.cloudfoundry.multiapps.controller.web.configuration;
 
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.web.configuration.bean.factory.FileSystemFileStorageFactoryBean;
 import org.cloudfoundry.multiapps.controller.web.configuration.bean.factory.ObjectStoreFileStorageFactoryBean;
 import org.springframework.context.annotation.Bean;
@@ -17,7 +18,9 @@ public class FileStorageConfiguration {
     }
 
     @Bean
-    public ObjectStoreFileStorageFactoryBean objectStoreFileStorage() {
-        return new ObjectStoreFileStorageFactoryBean(OBJECT_STORE_SERVICE_NAME);
+    public ObjectStoreFileStorageFactoryBean objectStoreFileStorage(ApplicationConfiguration configuration) {
+        return new ObjectStoreFileStorageFactoryBean(OBJECT_STORE_SERVICE_NAME,
+                                                     configuration.getObjectStoreTransferThreads(),
+                                                     configuration.getObjectStoreTransferPoolSize());
     }
 }
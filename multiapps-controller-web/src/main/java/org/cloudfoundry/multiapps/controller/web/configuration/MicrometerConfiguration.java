@@ -6,7 +6,11 @@ import java.time.Duration;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import org.cloudfoundry.multiapps.controller.core.auditlogging.impl.AuditLoggingFacadeSLImpl;
 import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
+import org.cloudfoundry.multiapps.controller.persistence.services.ObjectStoreFileStorage;
+import org.cloudfoundry.multiapps.controller.process.util.CloudControllerCallsExecutor;
+import org.cloudfoundry.multiapps.controller.process.util.ProgressMessageWriter;
 import org.cloudfoundry.multiapps.controller.web.configuration.service.DynatraceServiceInfo;
 import org.cloudfoundry.multiapps.controller.web.configuration.service.DynatraceServiceInfoCreator;
 import org.slf4j.Logger;
@@ -93,6 +97,10 @@ public class MicrometerConfiguration {
         DynatraceMeterRegistry registry = new DynatraceMeterRegistry(dynatraceConfig, Clock.SYSTEM);
         registry.config()
                 .meterFilter(MeterFilter.acceptNameStartsWith(CLIENT_CONNECTIONS_METRICS_PREFIX))
+                .meterFilter(MeterFilter.acceptNameStartsWith(ProgressMessageWriter.METRICS_PREFIX))
+                .meterFilter(MeterFilter.acceptNameStartsWith(CloudControllerCallsExecutor.METRICS_PREFIX))
+                .meterFilter(MeterFilter.acceptNameStartsWith(AuditLoggingFacadeSLImpl.METRICS_PREFIX))
+                .meterFilter(MeterFilter.acceptNameStartsWith(ObjectStoreFileStorage.METRICS_PREFIX))
                 .meterFilter(MeterFilter.deny());
         Metrics.globalRegistry.add(registry);
         return registry;
@@ -2,10 +2,13 @@ package org.cloudfoundry.multiapps.controller.web.configuration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.cloudfoundry.multiapps.common.util.JsonUtil;
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.web.interceptors.CustomHandlerInterceptor;
 import org.cloudfoundry.multiapps.controller.web.util.XmlNamespaceIgnoringHttpMessageConverter;
 import org.slf4j.Logger;
@@ -15,6 +18,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -27,8 +32,14 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WebMvcConfiguration.class);
 
+    private static final String ASYNC_REQUESTS_THREAD_NAME_PREFIX = "async-requests-";
+    private static final int ASYNC_REQUESTS_QUEUE_CAPACITY = 100;
+
     @Inject
     private List<CustomHandlerInterceptor> customHandlerInterceptors;
+    @Inject
+    private ApplicationConfiguration configuration;
+    private ThreadPoolTaskExecutor asyncRequestsExecutor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
@@ -46,6 +57,32 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
         configurer.favorPathExtension(false);
     }
 
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Streamed responses, like the content of operation logs, are written by these threads instead of the ones of the servlet
+        // container. Without an executor, Spring would create a new thread for each of them:
+        asyncRequestsExecutor = createAsyncRequestsExecutor();
+        configurer.setTaskExecutor(asyncRequestsExecutor);
+        configurer.setDefaultTimeout(TimeUnit.SECONDS.toMillis(configuration.getAsyncRequestsTimeoutInSeconds()));
+    }
+
+    private ThreadPoolTaskExecutor createAsyncRequestsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(configuration.getAsyncRequestsThreads());
+        executor.setMaxPoolSize(configuration.getAsyncRequestsThreads());
+        executor.setQueueCapacity(ASYNC_REQUESTS_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix(ASYNC_REQUESTS_THREAD_NAME_PREFIX);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdownAsyncRequestsExecutor() {
+        if (asyncRequestsExecutor != null) {
+            asyncRequestsExecutor.shutdown();
+        }
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
         converters.add(new StringHttpMessageConverter());
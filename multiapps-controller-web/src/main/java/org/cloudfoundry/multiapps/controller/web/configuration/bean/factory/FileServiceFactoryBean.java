@@ -1,36 +1,47 @@
 package org.cloudfoundry.multiapps.controller.web.configuration.bean.factory;
 
+import java.util.concurrent.ExecutorService;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.cloudfoundry.multiapps.controller.core.util.ApplicationConfiguration;
 import org.cloudfoundry.multiapps.controller.persistence.DataSourceWithDialect;
 import org.cloudfoundry.multiapps.controller.persistence.services.DatabaseFileService;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileService;
-import org.cloudfoundry.multiapps.controller.persistence.services.FileStorage;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileSystemFileStorage;
 import org.cloudfoundry.multiapps.controller.persistence.services.ObjectStoreFileStorage;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
 @Named("fileService")
-public class FileServiceFactoryBean implements FactoryBean<FileService>, InitializingBean {
+public class FileServiceFactoryBean implements FactoryBean<FileService>, InitializingBean, DisposableBean {
 
     @Inject
     private DataSourceWithDialect dataSourceWithDialect;
+    @Inject
+    private ApplicationConfiguration configuration;
     @Autowired(required = false)
     private FileSystemFileStorage fileSystemFileStorage;
     @Autowired(required = false)
     private ObjectStoreFileStorage objectStoreFileStorage;
     private FileService fileService;
+    private ExecutorService compositeFileReadingExecutor;
 
     @Override
     public void afterPropertiesSet() {
-        FileStorage fileStorage = objectStoreFileStorage != null ? objectStoreFileStorage : fileSystemFileStorage;
-        if (fileStorage != null) {
-            this.fileService = new FileService(dataSourceWithDialect, fileStorage);
+        compositeFileReadingExecutor = FileService.createCompositeFileReadingExecutor(configuration.getCompositeFileReadingThreads());
+        if (objectStoreFileStorage != null) {
+            this.fileService = new FileService(dataSourceWithDialect, objectStoreFileStorage,
+                                               configuration.shouldUseFileTableAsObjectStoreIndex(),
+                                               configuration.shouldUseContentAddressedFileStorage(), compositeFileReadingExecutor);
+        } else if (fileSystemFileStorage != null) {
+            this.fileService = new FileService(dataSourceWithDialect, fileSystemFileStorage, false,
+                                               configuration.shouldUseContentAddressedFileStorage(), compositeFileReadingExecutor);
         } else {
-            this.fileService = new DatabaseFileService(dataSourceWithDialect);
+            this.fileService = new DatabaseFileService(dataSourceWithDialect, compositeFileReadingExecutor);
         }
     }
 
@@ -49,4 +60,11 @@ public class FileServiceFactoryBean implements FactoryBean<FileService>, Initial
         return true;
     }
 
+    @Override
+    public void destroy() {
+        if (compositeFileReadingExecutor != null) {
+            compositeFileReadingExecutor.shutdownNow();
+        }
+    }
+
 }
@@ -1,6 +1,11 @@
 package org.cloudfoundry.multiapps.controller.web.configuration.bean.factory;
 
 import java.text.MessageFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.cloudfoundry.multiapps.controller.persistence.services.ObjectStoreFileStorage;
@@ -9,6 +14,7 @@ import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cloud.Cloud;
@@ -16,15 +22,29 @@ import org.springframework.cloud.CloudException;
 import org.springframework.cloud.CloudFactory;
 import org.springframework.cloud.service.ServiceInfo;
 
-public class ObjectStoreFileStorageFactoryBean implements FactoryBean<ObjectStoreFileStorage>, InitializingBean {
+public class ObjectStoreFileStorageFactoryBean implements FactoryBean<ObjectStoreFileStorage>, InitializingBean, DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ObjectStoreFileStorageFactoryBean.class);
 
+    private static final String TRANSFER_THREAD_NAME_PREFIX = "object-store-transfer-";
+    private static final long TRANSFER_THREADS_KEEP_ALIVE_IN_SECONDS = 60;
+
     private final String serviceName;
+    private final int transferThreads;
+    private final int transferPoolSize;
+    private final AtomicInteger transferThreadsCount = new AtomicInteger();
     private ObjectStoreFileStorage objectStoreFileService;
+    private ExecutorService transferExecutor;
 
-    public ObjectStoreFileStorageFactoryBean(String serviceName) {
+    /**
+     * @param transferThreads the number of parts or ranges of a single file, which are transferred concurrently
+     * @param transferPoolSize the number of threads shared by all transfers, which limits how many parts or ranges are transferred
+     *        concurrently by all operations, as well as how many parts of streamed uploads are kept in memory
+     */
+    public ObjectStoreFileStorageFactoryBean(String serviceName, int transferThreads, int transferPoolSize) {
         this.serviceName = serviceName;
+        this.transferThreads = transferThreads;
+        this.transferPoolSize = transferPoolSize;
     }
 
     @Override
@@ -34,7 +54,30 @@ public class ObjectStoreFileStorageFactoryBean implements FactoryBean<ObjectStor
 
     private ObjectStoreFileStorage createObjectStoreFileStorage() {
         BlobStoreContext context = getBlobStoreContext();
-        return context == null ? null : new ObjectStoreFileStorage(context.getBlobStore(), getServiceInfo().getContainer());
+        if (context == null) {
+            return null;
+        }
+        // No more parts are buffered by all uploads than the threads can upload at the same time:
+        if (transferThreads <= 1) {
+            return new ObjectStoreFileStorage(context.getBlobStore(), getServiceInfo().getContainer(), null, 1, transferPoolSize);
+        }
+        transferExecutor = createTransferExecutor();
+        return new ObjectStoreFileStorage(context.getBlobStore(), getServiceInfo().getContainer(), transferExecutor, transferThreads,
+                                          transferPoolSize);
+    }
+
+    private ExecutorService createTransferExecutor() {
+        // Each transfer keeps at most transferThreads parts or ranges in progress, so the queue is bounded by the number of transfers:
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(transferPoolSize, transferPoolSize, TRANSFER_THREADS_KEEP_ALIVE_IN_SECONDS,
+                                                             TimeUnit.SECONDS, new LinkedBlockingQueue<>(), this::createTransferThread);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private Thread createTransferThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, TRANSFER_THREAD_NAME_PREFIX + transferThreadsCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
     }
 
     private BlobStoreContext getBlobStoreContext() {
@@ -85,4 +128,11 @@ public class ObjectStoreFileStorageFactoryBean implements FactoryBean<ObjectStor
     public boolean isSingleton() {
         return true;
     }
+
+    @Override
+    public void destroy() {
+        if (transferExecutor != null) {
+            transferExecutor.shutdownNow();
+        }
+    }
 }
@@ -1,9 +1,14 @@
 package org.cloudfoundry.multiapps.controller.web.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.xml.bind.DatatypeConverter;
 
 import org.cloudfoundry.multiapps.controller.client.util.TokenProperties;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.AuditLoggingProvider;
@@ -21,18 +26,31 @@ import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 @Named
 public class CustomTokenServices implements ResourceServerTokenServices {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomTokenServices.class);
 
+    private static final long MAX_CACHED_AUTHENTICATIONS = 10000;
+    private static final String TOKEN_HASH_ALGORITHM = "SHA-256";
+
     private final TokenStore tokenStore;
     private final TokenParserChain tokenParserChain;
+    // Every request is authenticated with a token, so the authentications are cached in order not to read them from the token store
+    // each time. The keys are hashes of the tokens, in order not to keep the tokens themselves in memory:
+    private final Cache<String, CachedAuthentication> cachedAuthentications;
 
     @Inject
     public CustomTokenServices(TokenStore tokenStore, ApplicationConfiguration configuration, TokenParserChain tokenParserChain) {
         this.tokenStore = tokenStore;
         this.tokenParserChain = tokenParserChain;
+        this.cachedAuthentications = CacheBuilder.newBuilder()
+                                                 .maximumSize(MAX_CACHED_AUTHENTICATIONS)
+                                                 .expireAfterWrite(configuration.getAuthenticationCacheTimeInSeconds(), TimeUnit.SECONDS)
+                                                 .build();
         if (configuration.shouldSkipSslValidation()) {
             SSLUtil.disableSSLValidation();
         }
@@ -40,10 +58,20 @@ public class CustomTokenServices implements ResourceServerTokenServices {
 
     @Override
     public OAuth2Authentication loadAuthentication(String tokenString) {
-
-        // Get an access token for the specified token string
+        String tokenHash = computeTokenHash(tokenString);
+        CachedAuthentication cachedAuthentication = cachedAuthentications.getIfPresent(tokenHash);
+        // An expired token has to be removed from the token store and rejected, so it is not taken from the cache:
+        if (cachedAuthentication != null && !cachedAuthentication.token.isExpired()) {
+            return cachedAuthentication.authentication;
+        }
+        cachedAuthentications.invalidate(tokenHash);
         OAuth2AccessToken token = readAccessToken(tokenString);
+        OAuth2Authentication auth = resolveAuthentication(token);
+        cachedAuthentications.put(tokenHash, new CachedAuthentication(token, auth));
+        return auth;
+    }
 
+    private OAuth2Authentication resolveAuthentication(OAuth2AccessToken token) {
         // Check if a valid access token has been obtained
         if (token == null) {
             logToAuditLogAndThrow("Invalid access token");
@@ -88,10 +116,31 @@ public class CustomTokenServices implements ResourceServerTokenServices {
         return token;
     }
 
+    private String computeTokenHash(String tokenString) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(TOKEN_HASH_ALGORITHM);
+            return DatatypeConverter.printHexBinary(digest.digest(tokenString.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
     private void logToAuditLogAndThrow(String message) {
         AuditLoggingProvider.getFacade()
                             .logSecurityIncident(message);
         throw new InvalidTokenException(message);
     }
 
+    private static class CachedAuthentication {
+
+        private final OAuth2AccessToken token;
+        private final OAuth2Authentication authentication;
+
+        CachedAuthentication(OAuth2AccessToken token, OAuth2Authentication authentication) {
+            this.token = token;
+            this.authentication = authentication;
+        }
+
+    }
+
 }
@@ -1,17 +1,26 @@
 package org.cloudfoundry.multiapps.controller.web.api.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.persistence.NoResultException;
@@ -25,15 +34,22 @@ import org.cloudfoundry.multiapps.common.ContentException;
 import org.cloudfoundry.multiapps.common.NotFoundException;
 import org.cloudfoundry.multiapps.common.util.MapUtil;
 import org.cloudfoundry.multiapps.controller.api.model.ImmutableOperation;
+import org.cloudfoundry.multiapps.controller.api.model.Message;
 import org.cloudfoundry.multiapps.controller.api.model.Operation;
 import org.cloudfoundry.multiapps.controller.api.model.ProcessType;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.AuditLoggingFacade;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.AuditLoggingProvider;
 import org.cloudfoundry.multiapps.controller.core.cf.CloudControllerClientProvider;
 import org.cloudfoundry.multiapps.controller.core.persistence.query.OperationQuery;
+import org.cloudfoundry.multiapps.controller.core.persistence.query.ProgressMessageQuery;
 import org.cloudfoundry.multiapps.controller.core.persistence.service.OperationService;
 import org.cloudfoundry.multiapps.controller.core.persistence.service.ProgressMessageService;
 import org.cloudfoundry.multiapps.controller.core.util.MockBuilder;
+import org.cloudfoundry.multiapps.controller.persistence.model.FileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableFileEntry;
+import org.cloudfoundry.multiapps.controller.persistence.model.ImmutableProgressMessage;
+import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage;
+import org.cloudfoundry.multiapps.controller.persistence.model.ProgressMessage.ProgressMessageType;
 import org.cloudfoundry.multiapps.controller.persistence.services.FileStorageException;
 import org.cloudfoundry.multiapps.controller.persistence.services.ProcessLogsPersistenceService;
 import org.cloudfoundry.multiapps.controller.process.flowable.AbortProcessAction;
@@ -50,6 +66,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -59,7 +76,9 @@ import org.mockito.stubbing.Answer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class OperationsApiServiceImplTest {
 
@@ -79,6 +98,8 @@ public class OperationsApiServiceImplTest {
     private OperationsHelper operationsHelper;
     @Mock
     private ProgressMessageService progressMessageService;
+    @Mock(answer = Answers.RETURNS_SELF)
+    private ProgressMessageQuery progressMessageQuery;
     @Mock
     private ProcessActionRegistry processActionRegistry;
     @Mock
@@ -126,7 +147,7 @@ public class OperationsApiServiceImplTest {
         ResponseEntity<List<Operation>> response = testedClass.getOperations(SPACE_GUID, null,
                                                                              Arrays.asList(Operation.State.FINISHED.toString(),
                                                                                            Operation.State.ABORTED.toString()),
-                                                                             1);
+                                                                             2);
 
         List<Operation> operations = response.getBody();
         assertEquals(2, operations.size());
@@ -137,6 +158,47 @@ public class OperationsApiServiceImplTest {
 
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetLastOperationsFetchesMoreOperationsUntilEnoughAreInTheRequestedStates() {
+        ZonedDateTime startedAt = ZonedDateTime.parse("2020-05-04T10:00:00.000Z[UTC]");
+        Operation runningOperation = createOperation(RUNNING_PROCESS, Operation.State.RUNNING, startedAt.plusMinutes(2));
+        Operation finishedOperation = createOperation(FINISHED_PROCESS, Operation.State.FINISHED, startedAt.plusMinutes(1));
+        Operation errorOperation = createOperation(ERROR_PROCESS, Operation.State.ERROR, startedAt);
+        Mockito.when(operationQuery.list())
+               .thenReturn(Arrays.asList(runningOperation, finishedOperation), Collections.singletonList(errorOperation));
+        Mockito.when(operationsHelper.findOperations(Mockito.any(), Mockito.anyList()))
+               .thenAnswer((Answer<List<Operation>>) invocation -> {
+                   List<Operation> foundOperations = (List<Operation>) invocation.getArguments()[0];
+                   List<Operation.State> states = (List<Operation.State>) invocation.getArguments()[1];
+                   return foundOperations.stream()
+                                         .filter(operation -> states.contains(operation.getState()))
+                                         .collect(Collectors.toList());
+               });
+
+        ResponseEntity<List<Operation>> response = testedClass.getOperations(SPACE_GUID, null,
+                                                                             Arrays.asList(Operation.State.RUNNING.toString(),
+                                                                                           Operation.State.ERROR.toString()),
+                                                                             2);
+
+        assertEquals(Arrays.asList(runningOperation, errorOperation), response.getBody());
+        Mockito.verify(operationQuery, Mockito.times(2))
+               .inNonFinalState();
+        Mockito.verify(operationQuery)
+               .startedBefore(Date.from(finishedOperation.getStartedAt()
+                                                         .toInstant()),
+                              FINISHED_PROCESS);
+    }
+
+    @Test
+    public void testGetOperationsWithFinalAndNonFinalStates() {
+        testedClass.getOperations(SPACE_GUID, null, Arrays.asList(Operation.State.RUNNING.toString(), Operation.State.ABORTED.toString()),
+                                  null);
+
+        Mockito.verify(operationQuery)
+               .inNonFinalStateOrWithStateAnyOf(Collections.singletonList(Operation.State.ABORTED));
+    }
+
     @Test
     public void testGetOperationsNotFound() {
         ResponseEntity<List<Operation>> response = testedClass.getOperations(SPACE_GUID, MTA_ID,
@@ -157,6 +219,101 @@ public class OperationsApiServiceImplTest {
         assertEquals(Operation.State.FINISHED, operation.getState());
     }
 
+    @Test
+    public void testGetOperationMessagesReturnsExistingNewMessagesImmediately() {
+        Mockito.when(progressMessageQuery.list())
+               .thenReturn(Collections.singletonList(createProgressMessage(5, RUNNING_PROCESS)));
+
+        DeferredResult<ResponseEntity<List<Message>>> result = testedClass.getOperationMessages(SPACE_GUID, RUNNING_PROCESS, 4L);
+
+        assertEquals(Collections.singletonList(5L), getMessageIds(result));
+        Mockito.verify(progressMessageQuery)
+               .idGreaterThan(4L);
+        Mockito.verify(progressMessageService)
+               .removeListener(Mockito.eq(RUNNING_PROCESS), Mockito.any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetOperationMessagesWaitsForNewMessages() {
+        Mockito.when(progressMessageQuery.list())
+               .thenReturn(Collections.emptyList(),
+                           Arrays.asList(createProgressMessage(5, RUNNING_PROCESS), createProgressMessage(6, RUNNING_PROCESS)));
+
+        DeferredResult<ResponseEntity<List<Message>>> result = testedClass.getOperationMessages(SPACE_GUID, RUNNING_PROCESS, 4L);
+
+        assertFalse(result.hasResult());
+        ArgumentCaptor<Consumer<List<ProgressMessage>>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(progressMessageService)
+               .addListener(Mockito.eq(RUNNING_PROCESS), listenerCaptor.capture());
+        // Message 5 was committed before the listener was added, so it is only found by reading the messages again:
+        listenerCaptor.getValue()
+                      .accept(Collections.singletonList(createProgressMessage(6, RUNNING_PROCESS)));
+        assertEquals(Arrays.asList(5L, 6L), getMessageIds(result));
+        Mockito.verify(progressMessageQuery, Mockito.times(2))
+               .idGreaterThan(4L);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetOperationMessagesReadsMessagesOnlyOnceWhenNotifiedMoreThanOnce() {
+        Mockito.when(progressMessageQuery.list())
+               .thenReturn(Collections.emptyList(), Collections.singletonList(createProgressMessage(5, RUNNING_PROCESS)));
+
+        DeferredResult<ResponseEntity<List<Message>>> result = testedClass.getOperationMessages(SPACE_GUID, RUNNING_PROCESS, 4L);
+
+        ArgumentCaptor<Consumer<List<ProgressMessage>>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(progressMessageService)
+               .addListener(Mockito.eq(RUNNING_PROCESS), listenerCaptor.capture());
+        listenerCaptor.getValue()
+                      .accept(Collections.singletonList(createProgressMessage(5, RUNNING_PROCESS)));
+        listenerCaptor.getValue()
+                      .accept(Collections.singletonList(createProgressMessage(6, RUNNING_PROCESS)));
+        assertEquals(Collections.singletonList(5L), getMessageIds(result));
+        Mockito.verify(progressMessageQuery, Mockito.times(2))
+               .list();
+    }
+
+    @Test
+    public void testGetOperationMessagesDoesNotWaitForFinishedOperations() {
+        Mockito.when(progressMessageQuery.list())
+               .thenReturn(Collections.emptyList());
+
+        DeferredResult<ResponseEntity<List<Message>>> result = testedClass.getOperationMessages(SPACE_GUID, FINISHED_PROCESS, null);
+
+        assertEquals(Collections.emptyList(), getMessageIds(result));
+        Mockito.verify(progressMessageQuery, Mockito.never())
+               .idGreaterThan(Mockito.any());
+    }
+
+    @Test
+    public void testGetOperationMessagesFromAnotherSpace() {
+        Assertions.assertThrows(NotFoundException.class,
+                                () -> testedClass.getOperationMessages(UUID.randomUUID()
+                                                                           .toString(),
+                                                                       RUNNING_PROCESS, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> getMessageIds(DeferredResult<ResponseEntity<List<Message>>> result) {
+        assertTrue(result.hasResult());
+        return ((ResponseEntity<List<Message>>) result.getResult()).getBody()
+                                                                   .stream()
+                                                                   .map(Message::getId)
+                                                                   .collect(Collectors.toList());
+    }
+
+    private ProgressMessage createProgressMessage(long id, String processId) {
+        return ImmutableProgressMessage.builder()
+                                       .id(id)
+                                       .processId(processId)
+                                       .taskId("taskId")
+                                       .type(ProgressMessageType.INFO)
+                                       .text("message " + id)
+                                       .timestamp(new Date())
+                                       .build();
+    }
+
     @Test
     public void testGetOperationMissing() {
         Assertions.assertThrows(NotFoundException.class, () -> testedClass.getOperation(SPACE_GUID, "notPresent", null));
@@ -228,20 +385,81 @@ public class OperationsApiServiceImplTest {
         String processId = FINISHED_PROCESS;
         String logName = "OPERATION.log";
         String expectedLogContent = "somelogcontentstring\n1234";
-        Mockito.when(logsService.getLogContent(Mockito.eq(SPACE_GUID), Mockito.eq(processId), Mockito.eq(logName)))
-               .thenReturn(expectedLogContent);
-        ResponseEntity<String> response = testedClass.getOperationLogContent(SPACE_GUID, processId, logName);
-        String logContent = response.getBody();
-        assertEquals(expectedLogContent, logContent);
+        List<FileEntry> logChunks = mockLogChunks(processId, logName, expectedLogContent);
+        ResponseEntity<StreamingResponseBody> response = testedClass.getOperationLogContent(SPACE_GUID, processId, logName, null);
+        assertEquals(expectedLogContent.length(), response.getHeaders()
+                                                          .getContentLength());
+        assertEquals(expectedLogContent, writeToString(response.getBody()));
+        Mockito.verify(logsService)
+               .writeLogContent(Mockito.eq(logChunks), Mockito.eq(0L), Mockito.any());
+    }
+
+    @Test
+    public void testGetOperationLogContentFromOffset() throws Exception {
+        String processId = FINISHED_PROCESS;
+        String logName = "OPERATION.log";
+        List<FileEntry> logChunks = mockLogChunks(processId, logName, "somelogcontentstring\n1234");
+        ResponseEntity<StreamingResponseBody> response = testedClass.getOperationLogContent(SPACE_GUID, processId, logName, 21L);
+        assertEquals(4, response.getHeaders()
+                                .getContentLength());
+        assertEquals("1234", writeToString(response.getBody()));
+        Mockito.verify(logsService)
+               .writeLogContent(Mockito.eq(logChunks), Mockito.eq(21L), Mockito.any());
+    }
+
+    @Test
+    public void testGetOperationLogContentFromOffsetAfterTheEnd() throws Exception {
+        String processId = FINISHED_PROCESS;
+        String logName = "OPERATION.log";
+        mockLogChunks(processId, logName, "1234");
+        ResponseEntity<StreamingResponseBody> response = testedClass.getOperationLogContent(SPACE_GUID, processId, logName, 10L);
+        assertEquals(0, response.getHeaders()
+                                .getContentLength());
+    }
+
+    @Test
+    public void testGetOperationLogContentWithNegativeOffset() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> testedClass.getOperationLogContent(SPACE_GUID, FINISHED_PROCESS, "OPERATION.log", -1L));
     }
 
     @Test
     public void testGetOperationLogContentNotFound() throws Exception {
         String processId = FINISHED_PROCESS;
         String logName = "OPERATION.log";
-        Mockito.when(logsService.getLogContent(Mockito.eq(SPACE_GUID), Mockito.eq(processId), Mockito.eq(logName)))
+        Mockito.when(logsService.getLogChunks(Mockito.eq(SPACE_GUID), Mockito.eq(processId), Mockito.eq(logName)))
                .thenThrow(new NoResultException("log file not found"));
-        Assertions.assertThrows(NoResultException.class, () -> testedClass.getOperationLogContent(SPACE_GUID, processId, logName));
+        Assertions.assertThrows(NoResultException.class, () -> testedClass.getOperationLogContent(SPACE_GUID, processId, logName, null));
+    }
+
+    private List<FileEntry> mockLogChunks(String processId, String logName, String logContent) throws Exception {
+        List<FileEntry> logChunks = Collections.singletonList(ImmutableFileEntry.builder()
+                                                                                .id("chunk")
+                                                                                .space(SPACE_GUID)
+                                                                                .namespace(processId)
+                                                                                .name(logName)
+                                                                                .size(BigInteger.valueOf(logContent.length()))
+                                                                                .build());
+        Mockito.when(logsService.getLogChunks(Mockito.eq(SPACE_GUID), Mockito.eq(processId), Mockito.eq(logName)))
+               .thenReturn(logChunks);
+        Mockito.when(logsService.getLogSize(logChunks))
+               .thenReturn((long) logContent.length());
+        Mockito.doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write(logContent.substring((int) offset)
+                                         .getBytes(StandardCharsets.UTF_8));
+            return null;
+        })
+               .when(logsService)
+               .writeLogContent(Mockito.eq(logChunks), Mockito.anyLong(), Mockito.any());
+        return logChunks;
+    }
+
+    private String writeToString(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
     }
 
     @Test
@@ -341,6 +559,8 @@ public class OperationsApiServiceImplTest {
     }
 
     private void setupOperationServiceMock() {
+        Mockito.when(progressMessageService.createQuery())
+               .thenReturn(progressMessageQuery);
         Mockito.when(operationService.createQuery())
                .thenReturn(operationQuery);
         OperationQuery operationQueryMock = new MockBuilder<>(operationQuery).on(query -> query.processId(Mockito.any()),
@@ -375,6 +595,11 @@ public class OperationsApiServiceImplTest {
                .thenAnswer(invocation -> invocation.getArgument(0));
     }
 
+    private Operation createOperation(String processId, Operation.State state, ZonedDateTime startedAt) {
+        return ImmutableOperation.copyOf(createOperation(processId, state, Collections.emptyMap()))
+                                 .withStartedAt(startedAt);
+    }
+
     private Operation createOperation(String processId, Operation.State state, Map<String, Object> parameters) {
         return ImmutableOperation.builder()
                                  .state(state)
@@ -2,7 +2,10 @@ package org.cloudfoundry.multiapps.controller.web.security;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
@@ -10,11 +13,17 @@ import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cloudfoundry.multiapps.controller.client.util.TokenProperties;
 import org.cloudfoundry.multiapps.controller.core.auditlogging.AuditLoggingFacade;
@@ -25,6 +34,7 @@ import org.cloudfoundry.multiapps.controller.core.util.SecurityUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
@@ -39,6 +49,10 @@ public class CustomTokenServicesTest {
     private static final String TEST_CLIENT_ID = "testClientId";
     private static final String USER_NAME = "testUser";
     private static final String USER_ID = "1";
+    private static final int AUTHENTICATION_CACHE_TIME_IN_SECONDS = 60;
+    private static final int TOKENS_COUNT = 20;
+    private static final int THREADS_COUNT = 8;
+    private static final int REQUESTS_PER_THREAD = 500;
 
     @Mock
     private TokenStore tokenStore;
@@ -55,6 +69,7 @@ public class CustomTokenServicesTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         AuditLoggingProvider.setFacade(auditLoggingFacade);
+        when(configuration.getAuthenticationCacheTimeInSeconds()).thenReturn(AUTHENTICATION_CACHE_TIME_IN_SECONDS);
         customTokenServices = new CustomTokenServices(tokenStore, configuration, tokenParserChain);
     }
 
@@ -72,6 +87,78 @@ public class CustomTokenServicesTest {
         assertEquals(auth.getOAuth2Request(), loadedAuthentication.getOAuth2Request());
     }
 
+    @Test
+    public void testAuthenticationIsCached() {
+        OAuth2AccessToken token = buildValidToken();
+        OAuth2Authentication auth = buildAuthentication(token);
+        prepareTokenStore(token, auth);
+
+        customTokenServices.loadAuthentication(DUMMY_TOKEN_STRING);
+        OAuth2Authentication loadedAuthentication = customTokenServices.loadAuthentication(DUMMY_TOKEN_STRING);
+
+        assertSame(auth, loadedAuthentication);
+        verify(tokenStore).readAccessToken(DUMMY_TOKEN_STRING);
+        verify(tokenStore).readAuthentication(token);
+    }
+
+    @Test
+    public void testCachedAuthenticationOfExpiredTokenIsNotUsed() {
+        DefaultOAuth2AccessToken token = (DefaultOAuth2AccessToken) buildValidToken();
+        prepareTokenStore(token, buildAuthentication(token));
+        customTokenServices.loadAuthentication(DUMMY_TOKEN_STRING);
+
+        token.setExpiration(buildInvalidToken().getExpiration());
+
+        assertThrows(InvalidTokenException.class, () -> customTokenServices.loadAuthentication(DUMMY_TOKEN_STRING));
+        verify(tokenStore).removeAccessToken(token);
+    }
+
+    @Test
+    public void testTokenStoreCallsPerRequestWithAndWithoutCache() throws Exception {
+        double tokenStoreCallsPerRequestWithCache = measureTokenStoreCallsPerRequest(AUTHENTICATION_CACHE_TIME_IN_SECONDS);
+        // A cache time of 0 seconds disables the cache:
+        double tokenStoreCallsPerRequestWithoutCache = measureTokenStoreCallsPerRequest(0);
+
+        // Without the cache the token and the authentication are read from the token store on almost every request:
+        assertTrue(tokenStoreCallsPerRequestWithoutCache > 1.9, tokenStoreCallsPerRequestWithoutCache + " token store calls per request");
+        assertTrue(tokenStoreCallsPerRequestWithCache * 20 < tokenStoreCallsPerRequestWithoutCache,
+                   "There were " + tokenStoreCallsPerRequestWithCache + " token store calls per request with the cache and "
+                       + tokenStoreCallsPerRequestWithoutCache + " without it");
+    }
+
+    private double measureTokenStoreCallsPerRequest(int authenticationCacheTimeInSeconds) throws Exception {
+        AtomicInteger tokenStoreCalls = new AtomicInteger();
+        TokenStore countingTokenStore = Mockito.mock(TokenStore.class);
+        when(countingTokenStore.readAccessToken(anyString())).thenAnswer(invocation -> {
+            tokenStoreCalls.incrementAndGet();
+            return buildToken(invocation.getArgument(0), buildValidToken().getExpiration(), buildAdditionalTokenProperties());
+        });
+        when(countingTokenStore.readAuthentication(any(OAuth2AccessToken.class))).thenAnswer(invocation -> {
+            tokenStoreCalls.incrementAndGet();
+            return buildAuthentication(invocation.getArgument(0));
+        });
+        when(configuration.getAuthenticationCacheTimeInSeconds()).thenReturn(authenticationCacheTimeInSeconds);
+        CustomTokenServices tokenServices = new CustomTokenServices(countingTokenStore, configuration, tokenParserChain);
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(THREADS_COUNT);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < THREADS_COUNT; i++) {
+                requests.add(requestThreads.submit(() -> {
+                    for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                        tokenServices.loadAuthentication(DUMMY_TOKEN_STRING + j % TOKENS_COUNT);
+                    }
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        } finally {
+            requestThreads.shutdownNow();
+        }
+        return (double) tokenStoreCalls.get() / (THREADS_COUNT * REQUESTS_PER_THREAD);
+    }
+
     private OAuth2AccessToken buildValidToken() {
         long expirationTime = LocalDateTime.now()
                                            .plusMinutes(10)